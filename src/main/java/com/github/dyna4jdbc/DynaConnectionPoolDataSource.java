@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.PooledConnection;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+import com.github.dyna4jdbc.internal.common.jdbc.pool.DefaultPooledConnection;
+
+/**
+ * {@code ConnectionPoolDataSource} creating physical connections for the
+ * {@code jdbc:dyna4jdbc:} URL configured via {@link #setUrl(String)}.
+ *
+ * @author Peter G. Horvath
+ */
+public class DynaConnectionPoolDataSource implements ConnectionPoolDataSource {
+
+    private static final Logger PARENT_LOGGER = Logger.getLogger(DynaDriver.class.getPackage().getName());
+
+    private final DynaDriver driver = new DynaDriver();
+
+    private volatile String url;
+    private volatile Properties properties = new Properties();
+
+    private volatile PrintWriter logWriter;
+    private volatile int loginTimeout;
+
+    public final String getUrl() {
+        return url;
+    }
+
+    public final void setUrl(String url) {
+        this.url = url;
+    }
+
+    public final Properties getProperties() {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    public final void setProperties(Properties properties) {
+        Properties copy = new Properties();
+        if (properties != null) {
+            copy.putAll(properties);
+        }
+        this.properties = copy;
+    }
+
+    @Override
+    public final PooledConnection getPooledConnection() throws SQLException {
+        return newPooledConnection(getProperties());
+    }
+
+    @Override
+    public final PooledConnection getPooledConnection(String user, String password) throws SQLException {
+        Properties connectionProperties = getProperties();
+        if (user != null) {
+            connectionProperties.setProperty("user", user);
+        }
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+
+        return newPooledConnection(connectionProperties);
+    }
+
+    private PooledConnection newPooledConnection(Properties connectionProperties) throws SQLException {
+        String connectionUrl = this.url;
+        if (connectionUrl == null) {
+            throw JDBCError.INVALID_CONFIGURATION.raiseSQLException("url is not set");
+        }
+
+        Connection connection = driver.connect(connectionUrl, connectionProperties);
+        if (connection == null) {
+            throw JDBCError.INVALID_CONFIGURATION.raiseSQLException("Not a dyna4jdbc URL: " + connectionUrl);
+        }
+
+        return new DefaultPooledConnection((AbstractConnection) connection);
+    }
+
+    @Override
+    public final PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public final void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public final void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public final int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public final Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return PARENT_LOGGER;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (url: %s)", super.toString(), url);
+    }
+}
@@ -21,18 +21,27 @@ import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.github.dyna4jdbc.internal.DriverInfo;
 import com.github.dyna4jdbc.internal.config.impl.DriverPropertyInfoFactory;
+import com.github.dyna4jdbc.internal.scriptengine.jdbc.impl.ScriptEngineWarmUp;
 
 public final class DynaDriver implements java.sql.Driver {
 
     private static final Logger LOGGER = Logger.getLogger(DynaDriver.class.getName());
     private static final Logger PARENT_LOGGER = Logger.getLogger(DynaDriver.class.getPackage().getName());
 
+    /*
+     * System property listing the names of ScriptEngines (separated by comma) to be
+     * loaded in the background when the driver is loaded, e.g. -Ddyna4jdbc.preloadScriptEngines=groovy,R
+     */
+    private static final String PRELOAD_SCRIPT_ENGINES_PROPERTY = "dyna4jdbc.preloadScriptEngines";
+
     static {
         try {
             DriverManager.registerDriver(new DynaDriver());
@@ -42,6 +51,27 @@ public final class DynaDriver implements java.sql.Driver {
             LOGGER.log(Level.SEVERE, errorMessage, ex);
             throw new RuntimeException(errorMessage, ex);
         }
+
+        preloadScriptEngines();
+    }
+
+    private static void preloadScriptEngines() {
+        String engineNamesProperty = System.getProperty(PRELOAD_SCRIPT_ENGINES_PROPERTY);
+        if (engineNamesProperty == null) {
+            return;
+        }
+
+        List<String> engineNames = new LinkedList<>();
+        for (String engineName : engineNamesProperty.split(",")) {
+            if (!engineName.trim().isEmpty()) {
+                engineNames.add(engineName.trim());
+            }
+        }
+
+        LOGGER.log(Level.FINE, "Pre-loading ScriptEngines in the background: {0}", engineNames);
+
+        // never blocks the loading of the driver: the engines are loaded on a background thread
+        ScriptEngineWarmUp.preloadInBackground(engineNames);
     }
 
     private static final String JDBC_URL_PREFIX = "jdbc:dyna4jdbc:";
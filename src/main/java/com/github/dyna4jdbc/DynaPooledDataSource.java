@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.pool.ConnectionPool;
+
+/**
+ * <p>
+ * {@code DataSource} handing out connections from a pool of pre-initialized
+ * physical connections: creating a connection (loading the script engine, executing
+ * the init script etc.) can take seconds, which this {@code DataSource} performs in the
+ * background, before a connection is requested.</p>
+ *
+ * <p>
+ * {@link #setPoolSize(int)} configures the number of idle connections kept ready.
+ * The state of the scripting environment (e.g. variables defined by scripts, a running
+ * external process) cannot be reset: by default, a connection closed by the client is
+ * therefore closed, and replaced by a new one in the background. If
+ * {@link #setRetainScriptState(boolean)} is set to {@code true}, only the session state
+ * (open statements, warnings, client info) is reset and the connection is returned to the
+ * pool: the next client sees the script state left behind by the previous one. The pool is
+ * created on the first {@link #getConnection()} call; {@link #close()} closes it.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public class DynaPooledDataSource implements DataSource, AutoCloseable {
+
+    private static final int DEFAULT_POOL_SIZE = 1;
+
+    private final DynaConnectionPoolDataSource connectionPoolDataSource = new DynaConnectionPoolDataSource();
+
+    private final Object lockObject = new Object();
+
+    // guarded by lockObject
+    private int poolSize = DEFAULT_POOL_SIZE;
+
+    // guarded by lockObject
+    private boolean retainScriptState;
+
+    // guarded by lockObject
+    private ConnectionPool connectionPool;
+
+    // guarded by lockObject
+    private boolean closed;
+
+    public final String getUrl() {
+        return connectionPoolDataSource.getUrl();
+    }
+
+    public final void setUrl(String url) {
+        synchronized (lockObject) {
+            checkPoolNotCreated();
+            connectionPoolDataSource.setUrl(url);
+        }
+    }
+
+    public final Properties getProperties() {
+        return connectionPoolDataSource.getProperties();
+    }
+
+    public final void setProperties(Properties properties) {
+        synchronized (lockObject) {
+            checkPoolNotCreated();
+            connectionPoolDataSource.setProperties(properties);
+        }
+    }
+
+    public final int getPoolSize() {
+        synchronized (lockObject) {
+            return poolSize;
+        }
+    }
+
+    public final void setPoolSize(int poolSize) {
+        if (poolSize <= 0) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseUncheckedException(
+                    "poolSize must be positive: " + poolSize);
+        }
+
+        synchronized (lockObject) {
+            checkPoolNotCreated();
+            this.poolSize = poolSize;
+        }
+    }
+
+    public final boolean isRetainScriptState() {
+        synchronized (lockObject) {
+            return retainScriptState;
+        }
+    }
+
+    public final void setRetainScriptState(boolean retainScriptState) {
+        synchronized (lockObject) {
+            checkPoolNotCreated();
+            this.retainScriptState = retainScriptState;
+        }
+    }
+
+    private void checkPoolNotCreated() {
+        if (connectionPool != null || closed) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseUncheckedException(
+                    "The configuration cannot be changed once the pool has been started");
+        }
+    }
+
+    @Override
+    public final Connection getConnection() throws SQLException {
+        return getConnectionPool().getConnection();
+    }
+
+    @Override
+    public final Connection getConnection(String username, String password) throws SQLException {
+        throw JDBCError.JDBC_FEATURE_NOT_SUPPORTED.raiseSQLException(
+                "Pooled connections cannot be requested with credentials; use getConnection()");
+    }
+
+    private ConnectionPool getConnectionPool() throws SQLException {
+        synchronized (lockObject) {
+            if (closed) {
+                throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+            }
+
+            if (connectionPool == null) {
+                if (connectionPoolDataSource.getUrl() == null) {
+                    throw JDBCError.INVALID_CONFIGURATION.raiseSQLException("url is not set");
+                }
+
+                connectionPool = ConnectionPool.newInstance(connectionPoolDataSource, poolSize, retainScriptState);
+            }
+
+            return connectionPool;
+        }
+    }
+
+    /**
+     * Closes the idle connections of the pool; connections in use are
+     * closed when they are returned by the client.
+     */
+    @Override
+    public final void close() {
+        ConnectionPool poolToClose;
+        synchronized (lockObject) {
+            closed = true;
+            poolToClose = connectionPool;
+        }
+
+        if (poolToClose != null) {
+            poolToClose.close();
+        }
+    }
+
+    @Override
+    public final <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw JDBCError.CANNOT_UNWARP_OBJECT.raiseSQLException(iface, this.getClass());
+    }
+
+    @Override
+    public final boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public final PrintWriter getLogWriter() throws SQLException {
+        return connectionPoolDataSource.getLogWriter();
+    }
+
+    @Override
+    public final void setLogWriter(PrintWriter out) throws SQLException {
+        connectionPoolDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public final void setLoginTimeout(int seconds) throws SQLException {
+        connectionPoolDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public final int getLoginTimeout() throws SQLException {
+        return connectionPoolDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public final Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return connectionPoolDataSource.getParentLogger();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (url: %s)", super.toString(), getUrl());
+    }
+}
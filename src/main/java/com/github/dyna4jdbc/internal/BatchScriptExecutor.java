@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link ScriptExecutor}, which can dispatch several scripts as one unit:
+ * all scripts are handed over to the underlying interpreter at once, and
+ * the output is collected once, after the last script has completed.</p>
+ *
+ * <p>
+ * The output of the scripts is not separated: the scripts are treated as
+ * one, which either succeeds or fails as a whole.</p>
+ *
+ * <p>
+ * Whether scripts can be dispatched as one unit might depend on the state of
+ * the interpreter (e.g. an interactive process having been started already):
+ * callers are expected to check {@link #isBatchExecutionAvailable()} and fall
+ * back to executing the scripts one by one otherwise.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public interface BatchScriptExecutor extends ScriptExecutor {
+
+    /**
+     * Returns whether {@link #executeBatch(List, OutputStream, OutputStream)}
+     * can be invoked in the current state of this {@code BatchScriptExecutor}.
+     *
+     * @return {@code true} if the scripts can be dispatched as one unit, {@code false} otherwise
+     */
+    boolean isBatchExecutionAvailable();
+
+    void executeBatch(
+            List<String> scripts,
+            OutputStream stdOutOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException;
+}
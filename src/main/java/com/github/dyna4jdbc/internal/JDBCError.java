@@ -110,6 +110,8 @@ public enum JDBCError {
             SQLStateClass.SYSTEM_ERROR, "004"),
     OUT_OF_MEMORY("%s: Out of memory",
             SQLStateClass.SYSTEM_ERROR, "005"),
+    TEMPORARY_FILE_IO_ERROR("I/O error accessing temporary file '%s': %s",
+            SQLStateClass.SYSTEM_ERROR, "006"),
     
     
     UNEXPECTED_THROWABLE("Processing failed; caught unexpected exception: %s",
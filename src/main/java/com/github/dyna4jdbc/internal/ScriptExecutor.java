@@ -29,4 +29,13 @@ public interface ScriptExecutor {
             OutputStream errorOutputStream) throws ScriptExecutionException;
 
     void cancel() throws CancelException;
+
+    /**
+     * Returns whether this {@code ScriptExecutor} can still execute scripts with the
+     * state built up so far (e.g. the interpreter process it talks to is still alive).
+     * Expected to be cheap, as it is called to validate connections.
+     *
+     * @return {@code true} if the executor is usable, {@code false} otherwise
+     */
+    boolean isValid();
 }
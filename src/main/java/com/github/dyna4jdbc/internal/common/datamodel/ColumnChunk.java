@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The cells of one single column within a {@link TableChunk}: the encoded
+ * bytes of the cells are stored one after the other in one single array,
+ * while the (exclusive) end offset of each cell is kept in an {@code int}
+ * array, indexed by the row number within the chunk. Both arrays start small
+ * and grow geometrically, so that small results do not allocate the capacity
+ * of a whole chunk for each of their columns.
+ * A {@code null} cell is marked by the bitwise complement ({@code ~}) of
+ * its end offset, the same way as in {@link EncodedRow}.</p>
+ *
+ * <p>
+ * Scanning a column is therefore a sequential walk over two arrays.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class ColumnChunk {
+
+    private static final int INITIAL_CAPACITY_ROWS = 8;
+    private static final int INITIAL_DATA_CAPACITY_BYTES = 64;
+
+    private byte[] data;
+    private int dataLength = 0;
+    private int[] cellEndOffsets;
+    private final int capacityRows;
+    private final Charset charset;
+
+    ColumnChunk(int capacityRows, Charset charset) {
+        this.data = new byte[INITIAL_DATA_CAPACITY_BYTES];
+        this.cellEndOffsets = new int[Math.min(INITIAL_CAPACITY_ROWS, capacityRows)];
+        this.capacityRows = capacityRows;
+        this.charset = charset;
+    }
+
+    void setCell(int row, byte[] source, int offset, int length) {
+        ensureRowCapacity(row);
+        ensureDataCapacity(length);
+
+        System.arraycopy(source, offset, data, dataLength, length);
+        dataLength += length;
+        cellEndOffsets[row] = dataLength;
+    }
+
+    void setNull(int row) {
+        ensureRowCapacity(row);
+
+        cellEndOffsets[row] = ~dataLength;
+    }
+
+    private void ensureRowCapacity(int row) {
+        if (row >= cellEndOffsets.length) {
+            final int newLength = Math.min(capacityRows, Math.max(row + 1, cellEndOffsets.length * 2));
+            cellEndOffsets = Arrays.copyOf(cellEndOffsets, newLength);
+        }
+    }
+
+    private void ensureDataCapacity(int additionalBytes) {
+        final int required = dataLength + additionalBytes;
+        if (required > data.length) {
+            data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+        }
+    }
+
+    String get(int row) {
+        final int encodedEnd = cellEndOffsets[row];
+        if (encodedEnd < 0) {
+            return null;
+        }
+
+        final int start = row == 0 ? 0 : cellEnd(row - 1);
+
+        return new String(data, start, encodedEnd - start, charset);
+    }
+
+    private int cellEnd(int row) {
+        final int encodedEnd = cellEndOffsets[row];
+        return encodedEnd < 0 ? ~encodedEnd : encodedEnd;
+    }
+
+    /**
+     * Releases the unused tail of the arrays: called once no further
+     * cells are going to be added to this chunk.
+     *
+     * @param rowCount the number of rows stored in this chunk
+     */
+    void trimToSize(int rowCount) {
+        if (data.length > dataLength) {
+            data = Arrays.copyOf(data, dataLength);
+        }
+        if (cellEndOffsets.length > rowCount) {
+            cellEndOffsets = Arrays.copyOf(cellEndOffsets, rowCount);
+        }
+    }
+}
@@ -17,11 +17,30 @@
  
 package com.github.dyna4jdbc.internal.common.datamodel;
 
-import com.github.dyna4jdbc.internal.common.util.collection.ListIndexIterable;
+import java.util.Iterator;
 
-public class DataColumn extends ListIndexIterable<String>  {
+/**
+ * The values of one column of a {@link DataTable}: rows not having a value
+ * for the column are represented as {@code null} values.
+ *
+ * @author Peter G. Horvath
+ */
+public class DataColumn implements Iterable<String> {
+
+    private final DataTable dataTable;
+    private final int columnNumber;
 
     DataColumn(DataTable dataTable, int columnNumber) {
-        super(dataTable.getRows(), columnNumber);
+        if (columnNumber < 0) {
+            throw new IllegalArgumentException("columnNumber cannot be negative");
+        }
+
+        this.dataTable = dataTable;
+        this.columnNumber = columnNumber;
+    }
+
+    @Override
+    public final Iterator<String> iterator() {
+        return dataTable.columnIterator(columnNumber);
     }
 }
@@ -17,26 +17,131 @@
  
 package com.github.dyna4jdbc.internal.common.datamodel;
 
+import com.github.dyna4jdbc.internal.common.util.collection.ConcatenatingIterator;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+/**
+ * <p>
+ * A table of rows captured from the output of a script.</p>
+ *
+ * <p>
+ * Rows are stored column-wise, in chunks of {@value #CHUNK_SIZE_ROWS} rows:
+ * within a chunk, the encoded cells of each column are kept in a separate,
+ * contiguous array. Iterating a {@link DataColumn} is therefore a sequential
+ * scan, while rows are exposed as read-only views, which decode their cells
+ * on access.</p>
+ *
+ * <p>
+ * If a spill threshold is specified, rows are kept on the heap only until their
+ * estimated size exceeds the threshold: any further rows are appended to a temporary
+ * file, which is read back (forward-only) during iteration and deleted on {@link #close()}.</p>
+ */
 public final class DataTable implements Iterable<List<String>>, AutoCloseable {
 
-    private final LinkedList<List<String>> rows = new LinkedList<>();
+    public static final long NO_SPILL_THRESHOLD = 0;
+
+    static final int CHUNK_SIZE_ROWS = 1024;
+
+    // object header and cell references of a row, as it is passed to appendRow
+    private static final long ESTIMATED_ROW_OVERHEAD_BYTES = 64;
+    // String object header, array header and hash field
+    private static final long ESTIMATED_STRING_OVERHEAD_BYTES = 40;
+
+    private final LinkedList<TableChunk> chunks = new LinkedList<>();
     private int columnCount = 0;
 
+    private final Charset charset;
+    private final long spillThresholdBytes;
+
+    private long estimatedHeapSizeBytes = 0;
+    private RowSpillFile spillFile = null;
+    private List<String> lastRow = null;
+
+    public DataTable() {
+        this(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a {@code DataTable}, which keeps all rows on the heap.
+     *
+     * @param charset the charset used to encode the cells stored
+     */
+    public DataTable(Charset charset) {
+        this(NO_SPILL_THRESHOLD, charset);
+    }
+
+    /**
+     * Creates a {@code DataTable}, which moves rows to a temporary file once
+     * the estimated heap size of the rows exceeds {@code spillThresholdBytes}.
+     *
+     * @param spillThresholdBytes the threshold in bytes, or {@link #NO_SPILL_THRESHOLD}
+     *                            if all rows are to be kept on the heap
+     * @param charset the charset used to encode the cells stored
+     */
+    public DataTable(long spillThresholdBytes, Charset charset) {
+        if (spillThresholdBytes < 0) {
+            throw new IllegalArgumentException("spillThresholdBytes cannot be negative");
+        }
+        if (charset == null) {
+            throw new NullPointerException("argument charset cannot be null");
+        }
+
+        this.spillThresholdBytes = spillThresholdBytes;
+        this.charset = charset;
+    }
+
     public List<String> appendRow(List<String> row) {
         if (row == null) {
             throw new NullPointerException("argument row cannot be null");
         }
 
-        rows.addLast(row);
+        if (spillFile == null && spillThresholdBytes != NO_SPILL_THRESHOLD) {
+            estimatedHeapSizeBytes += estimateHeapSize(row);
+
+            if (estimatedHeapSizeBytes > spillThresholdBytes) {
+                spillFile = new RowSpillFile(charset);
+            }
+        }
+
+        if (spillFile != null) {
+            spillFile.append(row);
+        } else {
+            TableChunk chunk = chunks.peekLast();
+            if (chunk == null || chunk.isFull()) {
+                chunk = new TableChunk(CHUNK_SIZE_ROWS, charset);
+                chunks.addLast(chunk);
+            }
+            chunk.append(row);
+        }
+
+        lastRow = row;
         columnCount = Math.max(columnCount, row.size());
 
         return row;
     }
 
+    private static long estimateHeapSize(List<String> row) {
+        if (row instanceof EncodedRow) {
+            return ((EncodedRow) row).getEstimatedHeapSize();
+        }
+
+        long size = ESTIMATED_ROW_OVERHEAD_BYTES;
+        for (String cell : row) {
+            if (cell != null) {
+                size += ESTIMATED_STRING_OVERHEAD_BYTES + 2L * cell.length();
+            }
+        }
+        return size;
+    }
+
     public List<String> getLastRow() {
-        return rows.getLast();
+        if (lastRow == null) {
+            throw new NoSuchElementException("DataTable is empty");
+        }
+        return lastRow;
     }
 
     public Iterable<DataColumn> columnIterable() {
@@ -64,39 +169,214 @@ public final class DataTable implements Iterable<List<String>>, AutoCloseable {
         return columnCount;
     }
 
-    public LinkedList<List<String>> getRows() {
-        return rows;
+    /**
+     * Returns a read-only view of the rows kept on the heap: if the table has
+     * been spilled to a temporary file, this list does not contain all rows;
+     * use {@link #iterator()} to access all of them.
+     *
+     * @return the rows kept on the heap
+     */
+    public List<List<String>> getRows() {
+        return new AbstractList<List<String>>() {
+
+            @Override
+            public List<String> get(int index) {
+                if (index < 0) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+
+                int remaining = index;
+                for (TableChunk chunk : chunks) {
+                    final int chunkRows = chunk.getRemainingRowCount();
+                    if (remaining < chunkRows) {
+                        return chunk.getRow(chunk.getFirstRow() + remaining);
+                    }
+                    remaining -= chunkRows;
+                }
+
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (TableChunk chunk : chunks) {
+                    size += chunk.getRemainingRowCount();
+                }
+                return size;
+            }
+
+            @Override
+            public Iterator<List<String>> iterator() {
+                final Iterator<List<String>> rowIterator = new InMemoryRowIterator();
+
+                return new Iterator<List<String>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return rowIterator.hasNext();
+                    }
+
+                    @Override
+                    public List<String> next() {
+                        return rowIterator.next();
+                    }
+                };
+            }
+        };
+    }
+
+    public boolean isSpilledToDisk() {
+        return spillFile != null;
     }
 
     public void clear() {
         /*
-        Technically, clearing the content of the nested lists is "unnecessary",
+        Technically, clearing the content of the chunks is "unnecessary",
         but we still perform it as a simple optimisation since we assume that
         a DataTable might hold _significant_ amount of data.
 
         This approach
             - helps JVM implementations, which use generational garbage
-              collection in case the nested Lists inhabit more than one
-              GC generation. E.g. a list reference that made its way to
+              collection in case the chunks inhabit more than one
+              GC generation. E.g. a chunk reference that made its way to
               Tenured Generation will not prevent collection of nested
               elements present in Eden or Survivor Generations only.
 
             - allows freeing memory right after a Result Set is closed,
               and not only after the containing Result Set is collected.
          */
-        rows.forEach(List::clear);
-        rows.clear();
+        chunks.forEach(TableChunk::clear);
+        chunks.clear();
+        lastRow = null;
+
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
     }
 
     public boolean isEmpty() {
-        return rows.isEmpty();
+        return lastRow == null;
     }
 
+    /**
+     * Returns an {@code Iterator} over all rows, including those spilled to a temporary file.
+     * {@link Iterator#remove()} is supported for the first remaining row only, which is the
+     * case when rows are consumed in order: the storage of rows kept on the heap is released
+     * chunk-by-chunk. For rows read back from the temporary file it has no effect, as these
+     * are not retained in memory.
+     *
+     * @return an {@code Iterator} over all rows
+     */
     @Override
     public Iterator<List<String>> iterator() {
-        return rows.iterator();
+        if (spillFile == null) {
+            return new InMemoryRowIterator();
+        }
+
+        return new ConcatenatingIterator<>(new InMemoryRowIterator(), spillFile.iterator());
     }
 
+    Iterator<String> columnIterator(int columnIndex) {
+
+        final Iterator<String> inMemoryCells = new Iterator<String>() {
+
+            private final Iterator<TableChunk> chunkIterator = chunks.iterator();
+            private TableChunk currentChunk = null;
+            private int rowIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (currentChunk == null || rowIndex >= currentChunk.getRowCount()) {
+                    if (!chunkIterator.hasNext()) {
+                        return false;
+                    }
+                    currentChunk = chunkIterator.next();
+                    rowIndex = currentChunk.getFirstRow();
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return currentChunk.getCell(rowIndex++, columnIndex);
+            }
+        };
+
+        if (spillFile == null) {
+            return inMemoryCells;
+        }
+
+        final Iterator<List<String>> spilledRows = spillFile.iterator();
+        final Iterator<String> spilledCells = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return spilledRows.hasNext();
+            }
+
+            @Override
+            public String next() {
+                List<String> row = spilledRows.next();
+                return columnIndex < row.size() ? row.get(columnIndex) : null;
+            }
+        };
+
+        return new ConcatenatingIterator<>(inMemoryCells, spilledCells);
+    }
+
+    private final class InMemoryRowIterator implements Iterator<List<String>> {
+
+        private final Iterator<TableChunk> chunkIterator = chunks.iterator();
+        private TableChunk currentChunk = null;
+        private int nextRowIndex = 0;
+        private int lastReturnedRowIndex = -1;
+
+        @Override
+        public boolean hasNext() {
+            while (currentChunk == null || nextRowIndex >= currentChunk.getRowCount()) {
+                if (!chunkIterator.hasNext()) {
+                    return false;
+                }
+                currentChunk = chunkIterator.next();
+                nextRowIndex = currentChunk.getFirstRow();
+                lastReturnedRowIndex = -1;
+            }
+            return true;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturnedRowIndex = nextRowIndex++;
+            return currentChunk.getRow(lastReturnedRowIndex);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturnedRowIndex < 0) {
+                throw new IllegalStateException("next() has not been called");
+            }
+            if (lastReturnedRowIndex != currentChunk.getFirstRow()) {
+                throw new UnsupportedOperationException("Only the first remaining row can be removed");
+            }
+
+            currentChunk.removeFirstRow();
+            lastReturnedRowIndex = -1;
+
+            if (currentChunk.getRemainingRowCount() == 0) {
+                /* The chunk must not be cleared here: the row just
+                 * returned might still be referenced by the caller. */
+                chunkIterator.remove();
+            }
+        }
+    }
 
     @Override
     public void close() throws Exception {
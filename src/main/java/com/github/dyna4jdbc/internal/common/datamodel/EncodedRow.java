@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * A read-only row, which keeps the raw (encoded) bytes of all cells
+ * in one single array and stores the cell boundaries in an {@code int}
+ * offset array. Cell values are only decoded to {@code String} when they
+ * are actually requested via {@link #get(int)}; decoded values are
+ * <em>not</em> retained, so that the row does not hold its content twice.
+ * </p>
+ *
+ * <p>
+ * Compared to a {@code List} of {@code String}s, this representation
+ * allocates only a fixed number of objects per row, regardless of the
+ * number of cells in it.
+ * </p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class EncodedRow extends AbstractList<String> implements RandomAccess {
+
+    // object headers and references of this object and the two arrays
+    private static final int ESTIMATED_OBJECT_OVERHEAD_BYTES = 64;
+
+    private byte[] bytes;
+    private int[] cellEndOffsets;
+    private int cellCount;
+    private final Charset charset;
+
+    /**
+     * Creates a new row: the arrays passed are <b>not</b> copied, hence the caller
+     * must not modify them after having passed them to this constructor.
+     *
+     * @param bytes the encoded content of all cells, one after the other
+     * @param cellEndOffsets the (exclusive) end offset of each cell within {@code bytes};
+     *                       a cell starts where the previous one ends. A {@code null} cell
+     *                       is marked by the bitwise complement ({@code ~}) of its end offset
+     * @param cellCount the number of cells in the row
+     * @param charset the charset to use for decoding
+     */
+    public EncodedRow(byte[] bytes, int[] cellEndOffsets, int cellCount, Charset charset) {
+        if (bytes == null) {
+            throw new NullPointerException("argument bytes cannot be null");
+        }
+        if (cellEndOffsets == null) {
+            throw new NullPointerException("argument cellEndOffsets cannot be null");
+        }
+        if (charset == null) {
+            throw new NullPointerException("argument charset cannot be null");
+        }
+        if (cellCount < 0 || cellCount > cellEndOffsets.length) {
+            throw new IllegalArgumentException("Invalid cellCount: " + cellCount);
+        }
+
+        this.bytes = bytes;
+        this.cellEndOffsets = cellEndOffsets;
+        this.cellCount = cellCount;
+        this.charset = charset;
+    }
+
+    /**
+     * Creates a new row from the supplied cell values, encoding them using the charset specified.
+     *
+     * @param row the cell values (might contain {@code null} values)
+     * @param charset the charset to use for encoding
+     * @return a new {@code EncodedRow} with the same content as {@code row}
+     */
+    public static EncodedRow encode(List<String> row, Charset charset) {
+        if (row == null) {
+            throw new NullPointerException("argument row cannot be null");
+        }
+
+        final int cellCount = row.size();
+        final byte[][] encodedCells = new byte[cellCount][];
+        final int[] cellEndOffsets = new int[cellCount];
+
+        int length = 0;
+        for (int i = 0; i < cellCount; i++) {
+            String value = row.get(i);
+            if (value != null) {
+                encodedCells[i] = value.getBytes(charset);
+                length += encodedCells[i].length;
+                cellEndOffsets[i] = length;
+            } else {
+                cellEndOffsets[i] = ~length;
+            }
+        }
+
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < cellCount; i++) {
+            if (encodedCells[i] != null) {
+                int end = cellEndOffsets[i];
+                System.arraycopy(encodedCells[i], 0, bytes, end - encodedCells[i].length, encodedCells[i].length);
+            }
+        }
+
+        return new EncodedRow(bytes, cellEndOffsets, cellCount, charset);
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= cellCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + cellCount);
+        }
+
+        final int encodedEnd = cellEndOffsets[index];
+        if (encodedEnd < 0) {
+            return null;
+        }
+
+        final int start = index == 0 ? 0 : cellEnd(index - 1);
+
+        return new String(bytes, start, encodedEnd - start, charset);
+    }
+
+    private int cellEnd(int index) {
+        final int encodedEnd = cellEndOffsets[index];
+        // null cells are marked by a bitwise complemented end offset
+        return encodedEnd < 0 ? ~encodedEnd : encodedEnd;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    int[] getCellEndOffsets() {
+        return cellEndOffsets;
+    }
+
+    Charset getCharset() {
+        return charset;
+    }
+
+    long getEstimatedHeapSize() {
+        return ESTIMATED_OBJECT_OVERHEAD_BYTES + bytes.length + (long) Integer.BYTES * cellEndOffsets.length;
+    }
+
+    @Override
+    public int size() {
+        return cellCount;
+    }
+
+    @Override
+    public void clear() {
+        /*
+        The row is read-only otherwise: clear() is supported
+        only to allow DataTable to release the content early.
+         */
+        bytes = new byte[0];
+        cellEndOffsets = new int[0];
+        cellCount = 0;
+    }
+}
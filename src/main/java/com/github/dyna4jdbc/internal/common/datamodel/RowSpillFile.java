@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * An append-only temporary file, which stores rows in a compact binary format.
+ * Each row is written as</p>
+ * <pre>
+ *     int cellCount, int byteLength, int[cellCount] cellEndOffsets, byte[byteLength] bytes
+ * </pre>
+ * <p>
+ * that is, the raw content of an {@link EncodedRow}. Rows are read back through
+ * a forward-only cursor, which maps the file into memory window-by-window.</p>
+ *
+ * <p>
+ * The file is deleted on {@link #close()}. Should an instance become unreachable
+ * without being closed, its file is deleted once the next {@code RowSpillFile} is
+ * created. If the file cannot be deleted (e.g. because it is still mapped on a
+ * platform, which does not allow deleting mapped files), it is deleted on exit.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class RowSpillFile implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RowSpillFile.class.getName());
+
+    private static final int ROW_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final long MAPPED_WINDOW_SIZE_BYTES = 64L * 1024 * 1024;
+
+    private static final int OUTPUT_BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private static final ReferenceQueue<RowSpillFile> UNREACHABLE_FILES = new ReferenceQueue<>();
+
+    // keeps the cleanups of the files not deleted yet reachable
+    private static final Set<Cleanup> PENDING_CLEANUPS = ConcurrentHashMap.newKeySet();
+
+    private final Path path;
+    private final Charset charset;
+
+    private final DataOutputStream outputStream;
+    private final Cleanup cleanup;
+    private long rowCount = 0;
+
+    RowSpillFile(Charset charset) {
+        this.charset = charset;
+
+        deleteFilesOfUnreachableInstances();
+
+        try {
+            this.path = Files.createTempFile("dyna4jdbc-", ".rows");
+
+        } catch (IOException e) {
+            throw JDBCError.TEMPORARY_FILE_IO_ERROR.raiseUncheckedException(e, "(creation)", e.getMessage());
+        }
+
+        try {
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(path, StandardOpenOption.APPEND), OUTPUT_BUFFER_SIZE_BYTES));
+
+        } catch (IOException e) {
+            deleteOrDeleteOnExit(path);
+            throw JDBCError.TEMPORARY_FILE_IO_ERROR.raiseUncheckedException(e, path, e.getMessage());
+        }
+
+        this.cleanup = new Cleanup(this, path, outputStream);
+        PENDING_CLEANUPS.add(cleanup);
+    }
+
+    private static void deleteFilesOfUnreachableInstances() {
+        Reference<? extends RowSpillFile> reference;
+        while ((reference = UNREACHABLE_FILES.poll()) != null) {
+            ((Cleanup) reference).run();
+        }
+    }
+
+    void append(List<String> row) {
+
+        EncodedRow encodedRow;
+        if (row instanceof EncodedRow && charset.equals(((EncodedRow) row).getCharset())) {
+            encodedRow = (EncodedRow) row;
+        } else {
+            encodedRow = EncodedRow.encode(row, charset);
+        }
+
+        final byte[] bytes = encodedRow.getBytes();
+        final int[] cellEndOffsets = encodedRow.getCellEndOffsets();
+        final int cellCount = encodedRow.size();
+
+        try {
+            outputStream.writeInt(cellCount);
+            outputStream.writeInt(bytes.length);
+            for (int i = 0; i < cellCount; i++) {
+                outputStream.writeInt(cellEndOffsets[i]);
+            }
+            outputStream.write(bytes);
+
+            ++rowCount;
+
+        } catch (IOException e) {
+            throw JDBCError.TEMPORARY_FILE_IO_ERROR.raiseUncheckedException(e, path, e.getMessage());
+        }
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns a forward-only cursor over the rows appended so far. The {@code remove()}
+     * operation of the cursor is supported, but has no effect: rows are not retained
+     * in memory once returned. Cursors might be used by multiple threads in parallel,
+     * as long as no rows are appended meanwhile.
+     *
+     * @return a forward-only cursor over the rows appended so far
+     */
+    synchronized Iterator<List<String>> iterator() {
+        try {
+            outputStream.flush();
+
+        } catch (IOException e) {
+            throw JDBCError.TEMPORARY_FILE_IO_ERROR.raiseUncheckedException(e, path, e.getMessage());
+        }
+
+        return new MappedRowCursor(rowCount);
+    }
+
+    @Override
+    public void close() {
+        cleanup.run();
+    }
+
+    private static void deleteOrDeleteOnExit(Path path) {
+        try {
+            Files.deleteIfExists(path);
+
+        } catch (IOException e) {
+            // still mapped (on some platforms): not fatal, but should be visible
+            LOGGER.log(Level.WARNING, e, () -> "Could not delete temporary file, deleting it on exit: " + path);
+
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Closes and deletes the file of a {@code RowSpillFile}: either once it is
+     * closed, or once it has become unreachable. It does not refer to the
+     * {@code RowSpillFile} itself, which could otherwise never become unreachable.
+     */
+    private static final class Cleanup extends PhantomReference<RowSpillFile> implements Runnable {
+
+        private final Path path;
+        private final DataOutputStream outputStream;
+
+        private Cleanup(RowSpillFile rowSpillFile, Path path, DataOutputStream outputStream) {
+            super(rowSpillFile, UNREACHABLE_FILES);
+            this.path = path;
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void run() {
+            if (!PENDING_CLEANUPS.remove(this)) {
+                return; // performed already
+            }
+            clear();
+
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Could not close temporary file: " + path);
+            }
+
+            deleteOrDeleteOnExit(path);
+        }
+    }
+
+    private final class MappedRowCursor implements Iterator<List<String>> {
+
+        private final long numberOfRows;
+        private long rowsRead = 0;
+
+        private MappedByteBuffer window = null;
+        private long windowStart = 0;
+        private long position = 0;
+
+        private boolean canRemove = false;
+
+        private MappedRowCursor(long numberOfRows) {
+            this.numberOfRows = numberOfRows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rowsRead < numberOfRows;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            ensureMapped(ROW_HEADER_BYTES);
+            final int cellCount = window.getInt();
+            final int byteLength = window.getInt();
+
+            ensureMapped(ROW_HEADER_BYTES + (long) Integer.BYTES * cellCount + byteLength);
+            window.position((int) (position - windowStart + ROW_HEADER_BYTES));
+
+            final int[] cellEndOffsets = new int[cellCount];
+            window.asIntBuffer().get(cellEndOffsets);
+            window.position(window.position() + Integer.BYTES * cellCount);
+
+            final byte[] bytes = new byte[byteLength];
+            window.get(bytes);
+
+            position = windowStart + window.position();
+            ++rowsRead;
+            canRemove = true;
+
+            if (!hasNext()) {
+                // release the mapping: on some platforms, a mapped file cannot be deleted
+                window = null;
+            }
+
+            return new EncodedRow(bytes, cellEndOffsets, cellCount, charset);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            // no-op: the row returned is not referenced from here
+            canRemove = false;
+        }
+
+        private void ensureMapped(long requiredBytes) {
+            final boolean mappedAlready = window != null
+                    && position - windowStart + requiredBytes <= window.limit();
+
+            if (!mappedAlready) {
+                /* The mapping remains valid after the channel is closed: hence,
+                 * we do not have to keep any file handle open between the calls. */
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+                    final long size = Math.min(channel.size() - position,
+                            Math.max(requiredBytes, MAPPED_WINDOW_SIZE_BYTES));
+
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                    windowStart = position;
+
+                } catch (IOException e) {
+                    throw JDBCError.TEMPORARY_FILE_IO_ERROR.raiseUncheckedException(e, path, e.getMessage());
+                }
+            }
+
+            window.position((int) (position - windowStart));
+        }
+    }
+}
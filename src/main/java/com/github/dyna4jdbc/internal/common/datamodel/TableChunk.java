@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * A fixed number of consecutive rows of a {@link DataTable}, stored column-wise:
+ * each column is kept in a separate {@link ColumnChunk}. Rows are exposed as
+ * read-only views, which decode the requested cell from the column on access.</p>
+ *
+ * <p>
+ * Rows might have different number of cells: cells missing from a (shorter) row
+ * are stored as {@code null} values, while the actual size of each row is
+ * retained separately.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class TableChunk {
+
+    private static final ColumnChunk[] NO_COLUMNS = new ColumnChunk[0];
+
+    private static final int INITIAL_CAPACITY_ROWS = 8;
+
+    private final int capacityRows;
+    private final Charset charset;
+
+    private int[] rowSizes;
+    private ColumnChunk[] columns = NO_COLUMNS;
+
+    private int rowCount = 0;
+    private int firstRow = 0;
+
+    TableChunk(int capacityRows, Charset charset) {
+        this.capacityRows = capacityRows;
+        this.charset = charset;
+        this.rowSizes = new int[Math.min(INITIAL_CAPACITY_ROWS, capacityRows)];
+    }
+
+    boolean isFull() {
+        return rowCount == capacityRows;
+    }
+
+    void append(List<String> row) {
+        if (isFull()) {
+            throw new IllegalStateException("Chunk is full");
+        }
+
+        final int rowIndex = rowCount;
+        final int size = row.size();
+
+        ensureColumnCount(size);
+
+        if (row instanceof EncodedRow && charset.equals(((EncodedRow) row).getCharset())) {
+            appendEncodedRow(rowIndex, (EncodedRow) row);
+        } else {
+            appendRow(rowIndex, row);
+        }
+
+        for (int i = size; i < columns.length; i++) {
+            columns[i].setNull(rowIndex);
+        }
+
+        if (rowIndex >= rowSizes.length) {
+            rowSizes = Arrays.copyOf(rowSizes, Math.min(capacityRows, rowSizes.length * 2));
+        }
+        rowSizes[rowIndex] = size;
+        rowCount++;
+
+        if (isFull()) {
+            for (ColumnChunk column : columns) {
+                column.trimToSize(rowCount);
+            }
+        }
+    }
+
+    private void appendEncodedRow(int rowIndex, EncodedRow row) {
+        final byte[] bytes = row.getBytes();
+        final int[] cellEndOffsets = row.getCellEndOffsets();
+        final int size = row.size();
+
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            final int encodedEnd = cellEndOffsets[i];
+            if (encodedEnd < 0) {
+                columns[i].setNull(rowIndex);
+                start = ~encodedEnd;
+            } else {
+                columns[i].setCell(rowIndex, bytes, start, encodedEnd - start);
+                start = encodedEnd;
+            }
+        }
+    }
+
+    private void appendRow(int rowIndex, List<String> row) {
+        final int size = row.size();
+        for (int i = 0; i < size; i++) {
+            final String value = row.get(i);
+            if (value == null) {
+                columns[i].setNull(rowIndex);
+            } else {
+                final byte[] bytes = value.getBytes(charset);
+                columns[i].setCell(rowIndex, bytes, 0, bytes.length);
+            }
+        }
+    }
+
+    private void ensureColumnCount(int columnCount) {
+        final int currentColumnCount = columns.length;
+        if (columnCount > currentColumnCount) {
+            columns = Arrays.copyOf(columns, columnCount);
+
+            for (int i = currentColumnCount; i < columnCount; i++) {
+                ColumnChunk column = new ColumnChunk(capacityRows, charset);
+                // the new column is absent from all previous rows
+                for (int row = 0; row < rowCount; row++) {
+                    column.setNull(row);
+                }
+                columns[i] = column;
+            }
+        }
+    }
+
+    int getFirstRow() {
+        return firstRow;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    int getRemainingRowCount() {
+        return rowCount - firstRow;
+    }
+
+    /**
+     * Logically removes the first remaining row from this chunk.
+     * The storage is only released once the whole chunk is discarded.
+     */
+    void removeFirstRow() {
+        if (firstRow >= rowCount) {
+            throw new IllegalStateException("No rows to remove");
+        }
+
+        firstRow++;
+    }
+
+    List<String> getRow(int row) {
+        return new ChunkRow(row);
+    }
+
+    String getCell(int row, int column) {
+        if (column >= columns.length) {
+            return null;
+        }
+
+        return columns[column].get(row);
+    }
+
+    void clear() {
+        columns = NO_COLUMNS;
+        rowCount = 0;
+        firstRow = 0;
+    }
+
+    private final class ChunkRow extends AbstractList<String> implements RandomAccess {
+
+        private final int row;
+
+        private ChunkRow(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(int index) {
+            final int size = size();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+
+            return columns[index].get(row);
+        }
+
+        @Override
+        public int size() {
+            return row < rowCount ? rowSizes[row] : 0;
+        }
+    }
+}
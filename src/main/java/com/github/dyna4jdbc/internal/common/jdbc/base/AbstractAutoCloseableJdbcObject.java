@@ -167,20 +167,35 @@ public class AbstractAutoCloseableJdbcObject extends AbstractWrapper implements
                 }
             }
 
-            switch (caughtThrowables.size()) {
-                case 0:
-                    return; // no Throwable caught: normal completion
-
-                case 1:
-                    // one Throwable caught during close: propagate it as the root cause
-                    throw JDBCError.CLOSE_FAILED.raiseSQLException(caughtThrowables.getFirst(),
-                            this, "Closing of dependent object caused exception");
-
-                default:
-                    // closure caused multiple Throwables to be thrown: propagate them as suppressed
-                    throw JDBCError.CLOSE_FAILED.raiseSQLExceptionWithSuppressed(caughtThrowables,
-                            this, "Closing of dependent objects caused exceptions; see suppressed");
-            }
+            throwIfAnyCaught(caughtThrowables);
+        }
+    }
+
+    /**
+     * Closes all child objects of {@code this} object, which itself remains open.
+     *
+     * @throws SQLException in case closing any of the the child objects fails
+     */
+    protected final void closeChildren() throws SQLException {
+        checkNotClosed();
+
+        throwIfAnyCaught(closeChildObjects());
+    }
+
+    private void throwIfAnyCaught(LinkedList<Throwable> caughtThrowables) throws SQLException {
+        switch (caughtThrowables.size()) {
+            case 0:
+                return; // no Throwable caught: normal completion
+
+            case 1:
+                // one Throwable caught during close: propagate it as the root cause
+                throw JDBCError.CLOSE_FAILED.raiseSQLException(caughtThrowables.getFirst(),
+                        this, "Closing of dependent object caused exception");
+
+            default:
+                // closure caused multiple Throwables to be thrown: propagate them as suppressed
+                throw JDBCError.CLOSE_FAILED.raiseSQLExceptionWithSuppressed(caughtThrowables,
+                        this, "Closing of dependent objects caused exceptions; see suppressed");
         }
     }
 
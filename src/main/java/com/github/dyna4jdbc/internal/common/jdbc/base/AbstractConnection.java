@@ -496,7 +496,44 @@ public abstract class AbstractConnection extends AbstractAutoCloseableJdbcObject
                     "Negative timeout: " + timeout);
         }
 
-        return !isClosed();
+        return !isClosed() && isValidInternal(timeout);
+    }
+
+    /**
+     * Template method to check if an open connection is still usable. Called
+     * by {@link #isValid(int)} on connection pool validation, hence it should be cheap.
+     * The default implementation returns {@code true}.
+     *
+     * @param timeout the timeout in seconds, as passed to {@link #isValid(int)}
+     * @return {@code true} if the connection is valid, {@code false} otherwise
+     * @throws SQLException in case the check fails
+     */
+    //CHECKSTYLE.OFF: DesignForExtension : template method
+    protected boolean isValidInternal(int timeout) throws SQLException {
+        return true;
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    /**
+     * Resets the state of the client session, so that the connection can be handed
+     * out to a new client by a connection pool: open statements (and their result sets)
+     * are closed, warnings are cleared and the type map and client info are reset.
+     * The state of the underlying script executor (e.g. variables defined by scripts
+     * executed so far, or by the init script) is <b>not</b> reset: pools re-using
+     * connections must do so only if this has been requested explicitly.
+     *
+     * @throws SQLException in case the connection is closed or closing a statement fails
+     */
+    public final void resetSessionState() throws SQLException {
+        checkNotClosed();
+
+        try {
+            closeChildren();
+        } finally {
+            this.warningContainer.clearWarnings();
+            this.typeMap = new LinkedHashMap<>();
+            this.clientInfo = new Properties();
+        }
     }
 
     @Override
@@ -695,7 +695,7 @@ public abstract class AbstractDatabaseMetaData<T extends Connection>
     }
 
     public final boolean supportsBatchUpdates() throws SQLException {
-        return false;
+        return true;
     }
 
     public final ResultSet getUDTs(
@@ -351,21 +351,6 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
     }
 
     // -- unsupported JDBC operations
-    public final void addBatch(String sql) throws SQLException {
-        throw JDBCError.JDBC_FEATURE_NOT_SUPPORTED.raiseSQLException(
-                "java.sql.Statement.addBatch(String)");
-    }
-
-    public final void clearBatch() throws SQLException {
-        throw JDBCError.JDBC_FEATURE_NOT_SUPPORTED.raiseSQLException(
-                "java.sql.Statement.clearBatch()");
-    }
-
-    public final int[] executeBatch() throws SQLException {
-        throw JDBCError.JDBC_FEATURE_NOT_SUPPORTED.raiseSQLException(
-                "java.sql.Statement.executeBatch()");
-    }
-
     public final int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
         throw JDBCError.JDBC_FEATURE_NOT_SUPPORTED.raiseSQLException(
                 "java.sql.Statement.executeUpdate(String, int)");
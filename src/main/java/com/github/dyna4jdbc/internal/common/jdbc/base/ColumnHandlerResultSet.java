@@ -75,6 +75,30 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
 
     protected abstract String getRawCellValueBySqlColumnIndex(int sqlIndex) throws SQLException;
 
+    /**
+     * Returns the {@link TypedColumnVector} holding the already converted value of a
+     * column in the current row, or {@code null}, if the value has to be converted from
+     * the raw cell value. The default implementation always returns {@code null}.
+     *
+     * @param sqlIndex the SQL index of the column
+     * @return the vector, or {@code null}
+     * @throws SQLException if the current row cannot be accessed
+     */
+    protected TypedColumnVector getTypedColumnVector(int sqlIndex) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Returns the index of the current row within the vectors returned by
+     * {@link #getTypedColumnVector(int)}.
+     *
+     * @return the index of the current row within the vectors
+     */
+    protected int getTypedColumnVectorRow() {
+        throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                "No typed column vectors are available");
+    }
+
     private ColumnHandler getColumnHandlerBySqlIndex(int sqlIndex) throws SQLException {
         try {
             final int javaIndex = sqlIndex - 1;
@@ -135,10 +159,10 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Boolean convertedValue = columnHandler.covertToBoolean(rawCellValue);
-            Boolean returnValue = setWasNullBasedOnLastValue(convertedValue);
+            boolean convertedValue = columnHandler.covertToBooleanValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            return returnValue != null ? returnValue : false;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -150,15 +174,26 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
     public final byte getByte(int columnIndex) throws SQLException {
         checkNotClosed();
 
+        TypedColumnVector columnVector = getTypedColumnVector(columnIndex);
+        if (columnVector != null) {
+            final int row = getTypedColumnVectorRow();
+            if (columnVector.hasLongValue(row)) {
+                final long value = columnVector.getLong(row);
+                if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                    setWasNull(columnVector.isNull(row));
+                    return (byte) value;
+                }
+            }
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Byte convertedValue = columnHandler.covertToByte(rawCellValue);
+            byte convertedValue = columnHandler.covertToByteValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            Byte returnValue = setWasNullBasedOnLastValue(convertedValue);
-
-            return returnValue != null ? returnValue : 0x0;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -170,14 +205,26 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
     public final short getShort(int columnIndex) throws SQLException {
         checkNotClosed();
 
+        TypedColumnVector columnVector = getTypedColumnVector(columnIndex);
+        if (columnVector != null) {
+            final int row = getTypedColumnVectorRow();
+            if (columnVector.hasLongValue(row)) {
+                final long value = columnVector.getLong(row);
+                if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                    setWasNull(columnVector.isNull(row));
+                    return (short) value;
+                }
+            }
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Short convertedValue = columnHandler.covertToShort(rawCellValue);
-            Short returnValue = setWasNullBasedOnLastValue(convertedValue);
+            short convertedValue = columnHandler.covertToShortValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            return returnValue != null ? returnValue : 0;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -189,15 +236,26 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
     public final int getInt(int columnIndex) throws SQLException {
         checkNotClosed();
 
+        TypedColumnVector columnVector = getTypedColumnVector(columnIndex);
+        if (columnVector != null) {
+            final int row = getTypedColumnVectorRow();
+            if (columnVector.hasLongValue(row)) {
+                final long value = columnVector.getLong(row);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    setWasNull(columnVector.isNull(row));
+                    return (int) value;
+                }
+            }
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Integer convertedValue = columnHandler.covertToInteger(rawCellValue);
+            int convertedValue = columnHandler.covertToIntValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            Integer returnValue = setWasNullBasedOnLastValue(convertedValue);
-
-            return returnValue != null ? returnValue : 0;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -209,15 +267,23 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
     public final long getLong(int columnIndex) throws SQLException {
         checkNotClosed();
 
+        TypedColumnVector columnVector = getTypedColumnVector(columnIndex);
+        if (columnVector != null) {
+            final int row = getTypedColumnVectorRow();
+            if (columnVector.hasLongValue(row)) {
+                setWasNull(columnVector.isNull(row));
+                return columnVector.getLong(row);
+            }
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Long convertedValue = columnHandler.covertToLong(rawCellValue);
+            long convertedValue = columnHandler.covertToLongValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            Long returnValue = setWasNullBasedOnLastValue(convertedValue);
-
-            return returnValue != null ? returnValue : 0L;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -233,11 +299,10 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Float convertedValue = columnHandler.covertToFloat(rawCellValue);
-
-            Float returnValue = setWasNullBasedOnLastValue(convertedValue);
+            float convertedValue = columnHandler.covertToFloatValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            return returnValue != null ? returnValue : 0.0f;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -249,15 +314,23 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
     public final double getDouble(int columnIndex) throws SQLException {
         checkNotClosed();
 
+        TypedColumnVector columnVector = getTypedColumnVector(columnIndex);
+        if (columnVector != null) {
+            final int row = getTypedColumnVectorRow();
+            if (columnVector.hasDoubleValue(row)) {
+                setWasNull(columnVector.isNull(row));
+                return columnVector.getDouble(row);
+            }
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             ColumnHandler columnHandler = getColumnHandlerBySqlIndex(columnIndex);
-            Double convertedValue = columnHandler.covertToDouble(rawCellValue);
-
-            Double returnValue = setWasNullBasedOnLastValue(convertedValue);
+            double convertedValue = columnHandler.covertToDoubleValue(rawCellValue);
+            setWasNull(columnHandler.isNullValue(rawCellValue));
 
-            return returnValue != null ? returnValue : 0.0d;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -341,6 +414,14 @@ abstract class ColumnHandlerResultSet<T> extends AbstractReadOnlyResultSet<T> {
     public final Timestamp getTimestamp(int columnIndex) throws SQLException {
         checkNotClosed();
 
+        TypedColumnVector columnVector = getTypedColumnVector(columnIndex);
+        if (columnVector != null) {
+            final int row = getTypedColumnVectorRow();
+            if (columnVector.hasTimestampValue(row)) {
+                return setWasNullBasedOnLastValue(columnVector.getTimestamp(row));
+            }
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
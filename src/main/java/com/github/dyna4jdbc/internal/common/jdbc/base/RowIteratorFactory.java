@@ -41,6 +41,11 @@ final class RowIteratorFactory {
 
 
     <T> Iterator<T> getRowIterator(List<T> dataRows, Statement statement) {
+
+        return getRowIterator(new RemoveRetrievedElementIterator<T>(dataRows.iterator()), statement);
+    }
+
+    <T> Iterator<T> getRowIterator(Iterator<T> actualRowIterator, Statement statement) {
         try {
             int maxRows;
 
@@ -50,9 +55,6 @@ final class RowIteratorFactory {
                 maxRows = ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS;
             }
 
-            Iterator<T> actualRowIterator =
-                    new RemoveRetrievedElementIterator<T>(dataRows.iterator());
-
             if (maxRows != ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS) {
                 return new BoundedIterator<>(actualRowIterator, maxRows);
             } else {
@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
 import com.github.dyna4jdbc.internal.common.util.collection.BoundedIterator;
 
@@ -50,6 +51,22 @@ public abstract class RowListResultSet<T> extends ColumnHandlerResultSet<T> {
         this.rowIterator = RowIteratorFactory.getInstance().getRowIterator(dataRows, statement);
     }
 
+    /**
+     * Creates a {@code ResultSet}, which returns the rows from the supplied {@code Iterator}.
+     * The {@code Iterator} <b>MAY</b> throw {@link RuntimeDyna4JdbcException} to indicate that
+     * the rows cannot be retrieved: it is reported as an {@code SQLException} to the caller.
+     *
+     * @param dataRowIterator the {@code Iterator} returning the rows (never {@code null})
+     * @param statement the {@code Statement} this {@code ResultSet} belongs to (might be {@code null})
+     * @param columnHandlers the {@code ColumnHandler}s of the columns
+     */
+    public RowListResultSet(
+            Iterator<T> dataRowIterator, Statement statement, List<ColumnHandler> columnHandlers)  {
+        super(statement, columnHandlers);
+
+        this.rowIterator = RowIteratorFactory.getInstance().getRowIterator(dataRowIterator, statement);
+    }
+
     @Override
     public final int getRow() throws SQLException {
         checkNotClosed();
@@ -60,23 +77,27 @@ public abstract class RowListResultSet<T> extends ColumnHandlerResultSet<T> {
     public final boolean next() throws SQLException {
         checkNotClosed();
 
-        GuardedResultSetState.State currentState = resultSetState.getCurrentState();
-        switch (currentState) {
-            case BEFORE_FIRST:
-                return handleNextOnBeforeFirst();
+        try {
+            GuardedResultSetState.State currentState = resultSetState.getCurrentState();
+            switch (currentState) {
+                case BEFORE_FIRST:
+                    return handleNextOnBeforeFirst();
 
 
-            case ITERATING_OVER_RESULTS:
-                return handleNextOnIteratingOverResults();
+                case ITERATING_OVER_RESULTS:
+                    return handleNextOnIteratingOverResults();
 
 
-            case AFTER_LAST:
-                throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
-                        "Calling next() in state " + currentState);
+                case AFTER_LAST:
+                    throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                            "Calling next() in state " + currentState);
 
-            default:
-                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException(
-                        "Unexpected currentState: " + currentState);
+                default:
+                    throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException(
+                            "Unexpected currentState: " + currentState);
+            }
+        } catch (RuntimeDyna4JdbcException ex) {
+            throw new SQLException(ex.getMessage(), ex.getSqlState(), ex);
         }
     }
 
@@ -162,7 +183,12 @@ public abstract class RowListResultSet<T> extends ColumnHandlerResultSet<T> {
     public final boolean isLast() throws SQLException {
         checkNotClosed();
 
-        return resultSetState.isInState(GuardedResultSetState.State.ITERATING_OVER_RESULTS) && !rowIterator.hasNext();
+        try {
+            return resultSetState.isInState(GuardedResultSetState.State.ITERATING_OVER_RESULTS)
+                    && !rowIterator.hasNext();
+        } catch (RuntimeDyna4JdbcException ex) {
+            throw new SQLException(ex.getMessage(), ex.getSqlState(), ex);
+        }
     }
 
     @Override
@@ -26,12 +26,14 @@ import com.github.dyna4jdbc.internal.common.jdbc.generic.ScriptStatement;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.impl.DefaultScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.common.util.io.DisallowAllWritesOutputStream;
 import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.MisconfigurationException;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -49,12 +51,7 @@ public abstract class ScriptConnection extends AbstractConnection {
             byte[] bytesRead = Files.readAllBytes(initScript.toPath());
             String initScriptText = new String(bytesRead, this.getConfiguration().getConversionCharset());
 
-            getScriptExecutor().executeScript(
-                    initScriptText,
-                    null,
-                    new DisallowAllWritesOutputStream("An init script cannot generate output"),
-                    new DisallowAllWritesOutputStream("An init script cannot generate output"));
-
+            executeInitScriptText(initScriptText);
 
         } catch (IOException e) {
             throw JDBCError.INITSCRIPT_READ_IO_ERROR.raiseSQLException(initScriptPath);
@@ -63,11 +60,33 @@ public abstract class ScriptConnection extends AbstractConnection {
         }
     }
 
+    /**
+     * Executes the text of the init script using {@link #getScriptExecutor()}. Connections
+     * executing scripts on multiple independent engines must execute it on each of them.
+     *
+     * @param initScriptText the text of the init script
+     * @throws ScriptExecutionException if the execution of the init script fails
+     */
+    //CHECKSTYLE.OFF: DesignForExtension : incorrect detection of "is not designed for extension"
+    protected void executeInitScriptText(String initScriptText) throws ScriptExecutionException {
+        getScriptExecutor().executeScript(
+                initScriptText,
+                null,
+                newInitScriptOutputStream(),
+                newInitScriptOutputStream());
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    protected static OutputStream newInitScriptOutputStream() {
+        return new DisallowAllWritesOutputStream("An init script cannot generate output");
+    }
+
     @Override
     protected final Statement createStatementInternal() throws SQLException {
 
         ScriptOutputHandlerFactory outputHandlerFactory =
-                new DefaultScriptOutputHandlerFactory(getColumnHandlerFactory(), getConfiguration());
+                new DefaultScriptOutputHandlerFactory(
+                        getColumnHandlerFactory(), getSchemaCache(), getConfiguration());
 
         return new ScriptStatement<>(
                 this, outputHandlerFactory, getScriptExecutor());
@@ -77,15 +96,42 @@ public abstract class ScriptConnection extends AbstractConnection {
     protected final PreparedStatement prepareStatementInternal(String script) throws SQLException {
 
         ScriptOutputHandlerFactory outputHandlerFactory =
-                new DefaultScriptOutputHandlerFactory(getColumnHandlerFactory(), getConfiguration());
+                new DefaultScriptOutputHandlerFactory(
+                        getColumnHandlerFactory(), getSchemaCache(), getConfiguration());
 
         return new ScriptPreparedStatement<>(
                 script, this, outputHandlerFactory, getScriptExecutor());
     }
 
 
+    /**
+     * Supports unwrapping the {@link SchemaCache} of this connection, which
+     * can be used to query the hit and miss counts of the cache.
+     */
+    //CHECKSTYLE.OFF: DesignForExtension : incorrect detection of "is not designed for extension"
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface == SchemaCache.class) {
+            return iface.cast(getSchemaCache());
+        }
+        return super.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface == SchemaCache.class || super.isWrapperFor(iface);
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    @Override
+    protected final boolean isValidInternal(int timeout) {
+        return getScriptExecutor().isValid();
+    }
+
     protected abstract ColumnHandlerFactory getColumnHandlerFactory();
 
+    protected abstract SchemaCache getSchemaCache();
+
     protected abstract Configuration getConfiguration();
 
     protected abstract ScriptExecutor getScriptExecutor();
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.base;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.SQLDataType;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * <p>
+ * The values of a numeric or timestamp column in a block of consecutive rows, converted
+ * once to a primitive representation: integral columns are stored as {@code long}s,
+ * floating point columns as {@code double}s and timestamps as epoch milliseconds
+ * and nanoseconds. {@code null} values are tracked in a bitmap.</p>
+ *
+ * <p>
+ * Values are converted by the {@link ColumnHandler} of the column, so reading them from
+ * the vector yields the same result as converting the raw cell value again. Cells the
+ * {@code ColumnHandler} fails to convert are marked as unavailable: for these, callers
+ * have to fall back to converting the raw value, which reports the failure.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class TypedColumnVector {
+
+    private enum Kind { LONG, DOUBLE, TIMESTAMP }
+
+    private final Kind kind;
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final int[] nanos;
+    private final long[] nullBits;
+    private final long[] unavailableBits;
+
+    private TypedColumnVector(Kind kind, int rowCount) {
+        this.kind = kind;
+
+        if (kind == Kind.DOUBLE) {
+            this.longValues = null;
+            this.doubleValues = new double[rowCount];
+        } else {
+            this.longValues = new long[rowCount];
+            this.doubleValues = null;
+        }
+
+        if (kind == Kind.TIMESTAMP) {
+            this.nanos = new int[rowCount];
+        } else {
+            this.nanos = null;
+        }
+
+        this.nullBits = new long[(rowCount + Long.SIZE - 1) / Long.SIZE];
+        this.unavailableBits = new long[nullBits.length];
+    }
+
+    /**
+     * Converts the values of a column in the supplied rows, if the type of the column has
+     * a primitive representation.
+     *
+     * @param columnHandler the {@code ColumnHandler} of the column
+     * @param rows the rows to convert the column of
+     * @param columnIndex the (zero based) index of the column
+     * @return the vector holding the converted values, or {@code null}, if the column
+     *          is neither numeric, nor of type {@code TIMESTAMP}
+     */
+    public static TypedColumnVector newInstance(
+            ColumnHandler columnHandler, List<? extends List<String>> rows, int columnIndex) {
+
+        final Kind kind = getKind(columnHandler.getColumnMetadata().getColumnType());
+        if (kind == null) {
+            return null;
+        }
+
+        final int rowCount = rows.size();
+        final TypedColumnVector vector = new TypedColumnVector(kind, rowCount);
+
+        for (int row = 0; row < rowCount; row++) {
+            final List<String> rowValues = rows.get(row);
+
+            String rawCellValue = null;
+            if (columnIndex < rowValues.size()) {
+                rawCellValue = rowValues.get(columnIndex);
+            }
+
+            try {
+                vector.convert(columnHandler, row, rawCellValue);
+            } catch (TypeConversionException | RuntimeException e) {
+                setBit(vector.unavailableBits, row);
+            }
+        }
+
+        return vector;
+    }
+
+    private static Kind getKind(SQLDataType columnType) {
+        if (columnType == null) {
+            return null;
+        }
+
+        switch (columnType) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                return Kind.LONG;
+
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+                return Kind.DOUBLE;
+
+            case TIMESTAMP:
+                return Kind.TIMESTAMP;
+
+            default:
+                return null;
+        }
+    }
+
+    private void convert(ColumnHandler columnHandler, int row, String rawCellValue)
+            throws TypeConversionException {
+
+        switch (kind) {
+            case LONG:
+                longValues[row] = columnHandler.covertToLongValue(rawCellValue);
+                if (columnHandler.isNullValue(rawCellValue)) {
+                    setBit(nullBits, row);
+                }
+                break;
+
+            case DOUBLE:
+                doubleValues[row] = columnHandler.covertToDoubleValue(rawCellValue);
+                if (columnHandler.isNullValue(rawCellValue)) {
+                    setBit(nullBits, row);
+                }
+                break;
+
+            case TIMESTAMP:
+                Timestamp timestamp = columnHandler.covertToTimestamp(rawCellValue);
+                if (timestamp == null) {
+                    setBit(nullBits, row);
+                } else {
+                    longValues[row] = timestamp.getTime();
+                    nanos[row] = timestamp.getNanos();
+                }
+                break;
+
+            default:
+                throw new IllegalStateException("Unexpected kind: " + kind);
+        }
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index / Long.SIZE] |= 1L << index;
+    }
+
+    private static boolean isBitSet(long[] bits, int index) {
+        return (bits[index / Long.SIZE] & (1L << index)) != 0;
+    }
+
+    public boolean isNull(int row) {
+        return isBitSet(nullBits, row);
+    }
+
+    public boolean hasLongValue(int row) {
+        return kind == Kind.LONG && !isBitSet(unavailableBits, row);
+    }
+
+    public boolean hasDoubleValue(int row) {
+        return kind == Kind.DOUBLE && !isBitSet(unavailableBits, row);
+    }
+
+    public boolean hasTimestampValue(int row) {
+        return kind == Kind.TIMESTAMP && !isBitSet(unavailableBits, row);
+    }
+
+    /**
+     * Returns the value of an integral column.
+     *
+     * @param row the index of the row within the vector
+     * @return the value, or {@code 0} for {@code null}
+     */
+    public long getLong(int row) {
+        return longValues[row];
+    }
+
+    /**
+     * Returns the value of a floating point column.
+     *
+     * @param row the index of the row within the vector
+     * @return the value, or {@code 0.0} for {@code null}
+     */
+    public double getDouble(int row) {
+        return doubleValues[row];
+    }
+
+    /**
+     * Returns the value of a timestamp column as a new {@code Timestamp} instance,
+     * since {@code Timestamp} is mutable.
+     *
+     * @param row the index of the row within the vector
+     * @return the value, or {@code null}
+     */
+    public Timestamp getTimestamp(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+
+        Timestamp timestamp = new Timestamp(longValues[row]);
+        timestamp.setNanos(nanos[row]);
+        return timestamp;
+    }
+}
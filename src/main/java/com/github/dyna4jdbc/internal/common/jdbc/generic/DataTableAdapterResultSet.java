@@ -21,8 +21,12 @@ import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.datamodel.DataColumn;
 import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
 import com.github.dyna4jdbc.internal.common.jdbc.base.RowListResultSet;
+import com.github.dyna4jdbc.internal.common.jdbc.base.TypedColumnVector;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.util.collection.CloseableIterator;
+import com.github.dyna4jdbc.internal.common.util.collection.ConcatenatingIterator;
+import com.github.dyna4jdbc.internal.common.util.collection.RemoveRetrievedElementIterator;
 
 import java.sql.*;
 import java.util.*;
@@ -30,12 +34,35 @@ import java.util.*;
 public final class DataTableAdapterResultSet extends RowListResultSet<List<String>> {
 
     private final int columnCount;
+    private final RowBlockIterator rowBlockIterator;
 
     public DataTableAdapterResultSet(
             Statement statement, DataTable dataTable, ColumnHandlerFactory columnHandlerFactory) {
 
-        super(dataTable.getRows(), statement, initColumnHandlers(dataTable, columnHandlerFactory));
+        this(statement, dataTable, initColumnHandlers(dataTable, columnHandlerFactory));
+    }
+
+    /**
+     * Creates a {@code ResultSet}, which returns the rows of {@code dataTable} using
+     * {@code ColumnHandler}s already created for the columns of the table.
+     *
+     * @param statement the {@code Statement} this {@code ResultSet} belongs to
+     * @param dataTable the rows of the result
+     * @param columnHandlers the {@code ColumnHandler}s, one for each column of {@code dataTable}
+     */
+    public DataTableAdapterResultSet(
+            Statement statement, DataTable dataTable, List<ColumnHandler> columnHandlers) {
+
+        this(statement, dataTable, new RowBlockIterator(
+                new RemoveRetrievedElementIterator<>(dataTable.iterator()), columnHandlers));
+    }
+
+    private DataTableAdapterResultSet(
+            Statement statement, DataTable dataTable, RowBlockIterator rowBlockIterator) {
+
+        super(rowBlockIterator, statement, rowBlockIterator.getColumnHandlers());
         columnCount = dataTable.getColumnCount();
+        this.rowBlockIterator = rowBlockIterator;
 
         if (checkFirstRowIsSkipped(getColumnHandlers())) {
             super.skipNextRowIfPresent();
@@ -44,25 +71,55 @@ public final class DataTableAdapterResultSet extends RowListResultSet<List<Strin
         registerAsChild(dataTable);
     }
 
+    /**
+     * Creates a {@code ResultSet}, which returns the rows of {@code firstRows} followed by the
+     * rows returned by {@code remainingRows}. Column count and column types are determined
+     * from {@code firstRows} only: cells in {@code remainingRows} beyond this column count
+     * are not accessible. Since {@code remainingRows} might block, rows are not read ahead and
+     * numeric values are converted on each access.
+     *
+     * @param statement the {@code Statement} this {@code ResultSet} belongs to
+     * @param firstRows the rows used to determine the structure of the result
+     * @param remainingRows the rows following {@code firstRows}; closed together with this {@code ResultSet}
+     * @param columnHandlers the {@code ColumnHandler}s, one for each column of {@code firstRows}
+     */
+    public DataTableAdapterResultSet(
+            Statement statement, DataTable firstRows,
+            CloseableIterator<List<String>> remainingRows,
+            List<ColumnHandler> columnHandlers) {
+
+        super(new ConcatenatingIterator<>(
+                        new RemoveRetrievedElementIterator<>(firstRows.iterator()), remainingRows),
+                statement, columnHandlers);
+        columnCount = firstRows.getColumnCount();
+        rowBlockIterator = null;
+
+        if (checkFirstRowIsSkipped(getColumnHandlers())) {
+            super.skipNextRowIfPresent();
+        }
+
+        registerAsChild(firstRows);
+        registerAsChild(remainingRows);
+    }
+
     private static List<ColumnHandler> initColumnHandlers(DataTable dataTable,
                                                         ColumnHandlerFactory columnHandlerFactory) {
 
-        final int columnCount = dataTable.getColumnCount();
-        final List<ColumnHandler> columnHandlerList = new ArrayList<>(columnCount);
+        final List<DataColumn> columns = new ArrayList<>(dataTable.getColumnCount());
+        for (DataColumn column : dataTable.columnIterable()) {
+            columns.add(column);
+        }
 
-        int columnIndex = 0;
+        final List<ColumnHandler> columnHandlerList = columnHandlerFactory.newColumnHandlers(columns);
 
-        for (DataColumn column : dataTable.columnIterable()) {
-            ColumnHandler columnHandler = columnHandlerFactory.newColumnHandler(columnIndex++, column);
+        for (ColumnHandler columnHandler : columnHandlerList) {
             if (columnHandler == null) {
                 throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
                         "columnHandler is null");
             }
-
-            columnHandlerList.add(columnHandler);
         }
 
-        return Collections.unmodifiableList(columnHandlerList);
+        return columnHandlerList;
     }
 
     private static boolean checkFirstRowIsSkipped(List<ColumnHandler> columnHandlers) {
@@ -123,6 +180,30 @@ public final class DataTableAdapterResultSet extends RowListResultSet<List<Strin
         return cellValue;
     }
 
+    @Override
+    protected TypedColumnVector getTypedColumnVector(int sqlColumnIndex) throws SQLException {
+        if (rowBlockIterator == null) {
+            return null;
+        }
+
+        final int javaIndex = sqlColumnIndex - 1;
+
+        // fails just like getRawCellValueBySqlColumnIndex, if there is no current row
+        getCurrentRow();
+
+        if (!(javaIndex >= 0 && javaIndex < columnCount && javaIndex < getColumnHandlers().size())) {
+            // let the conversion of the raw cell value report the invalid index
+            return null;
+        }
+
+        return rowBlockIterator.getColumnVector(javaIndex);
+    }
+
+    @Override
+    protected int getTypedColumnVectorRow() {
+        return rowBlockIterator.getPosition();
+    }
+
     @Override
     public String getCursorName() throws SQLException {
         checkNotClosed();
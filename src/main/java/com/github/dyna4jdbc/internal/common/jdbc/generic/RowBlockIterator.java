@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.generic;
+
+import com.github.dyna4jdbc.internal.common.jdbc.base.TypedColumnVector;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * An {@code Iterator}, which reads the rows of an underlying {@code Iterator} ahead in
+ * blocks of (at most) {@value #BLOCK_SIZE_ROWS} rows. For the block containing the row
+ * returned last, {@link TypedColumnVector}s are created lazily, when a column is first
+ * requested, so that numeric and timestamp cells are converted only once.</p>
+ *
+ * <p>
+ * Reading ahead is only safe for iterators, which do not block: e.g. the rows of a
+ * {@code DataTable} that is already complete.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class RowBlockIterator implements Iterator<List<String>> {
+
+    static final int BLOCK_SIZE_ROWS = 1024;
+
+    private final Iterator<List<String>> rowIterator;
+    private final List<ColumnHandler> columnHandlers;
+
+    private final ArrayList<List<String>> block = new ArrayList<>();
+    private final TypedColumnVector[] columnVectors;
+    private final boolean[] columnVectorCreated;
+
+    private int position = -1;
+    private RuntimeException pendingFailure;
+
+    RowBlockIterator(Iterator<List<String>> rowIterator, List<ColumnHandler> columnHandlers) {
+        this.rowIterator = rowIterator;
+        this.columnHandlers = columnHandlers;
+        this.columnVectors = new TypedColumnVector[columnHandlers.size()];
+        this.columnVectorCreated = new boolean[columnHandlers.size()];
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position + 1 < block.size()) {
+            return true;
+        }
+
+        throwPendingFailure();
+
+        return rowIterator.hasNext();
+    }
+
+    @Override
+    public List<String> next() {
+        if (position + 1 >= block.size()) {
+            readNextBlock();
+        }
+
+        ++position;
+        return block.get(position);
+    }
+
+    private void readNextBlock() {
+        throwPendingFailure();
+
+        block.clear();
+        position = -1;
+
+        for (int i = 0; i < columnVectors.length; i++) {
+            columnVectors[i] = null;
+            columnVectorCreated[i] = false;
+        }
+
+        try {
+            while (block.size() < BLOCK_SIZE_ROWS && rowIterator.hasNext()) {
+                block.add(rowIterator.next());
+            }
+        } catch (RuntimeException e) {
+            if (block.isEmpty()) {
+                throw e;
+            }
+
+            // report the failure when the caller actually reaches the row
+            pendingFailure = e;
+        }
+
+        if (block.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private void throwPendingFailure() {
+        if (pendingFailure != null) {
+            RuntimeException failure = pendingFailure;
+            pendingFailure = null;
+
+            throw failure;
+        }
+    }
+
+    List<ColumnHandler> getColumnHandlers() {
+        return columnHandlers;
+    }
+
+    /**
+     * Returns the index of the row returned last within its block.
+     *
+     * @return the index of the row returned last within the current block
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the {@code TypedColumnVector} of a column for the current block.
+     *
+     * @param columnIndex the (zero based) index of the column
+     * @return the vector, or {@code null}, if the column has no primitive representation
+     */
+    TypedColumnVector getColumnVector(int columnIndex) {
+        if (!columnVectorCreated[columnIndex]) {
+            columnVectors[columnIndex] = TypedColumnVector.newInstance(
+                    columnHandlers.get(columnIndex), block, columnIndex);
+            columnVectorCreated[columnIndex] = true;
+        }
+
+        return columnVectors[columnIndex];
+    }
+}
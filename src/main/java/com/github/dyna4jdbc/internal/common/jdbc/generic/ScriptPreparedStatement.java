@@ -17,9 +17,7 @@
  
 package com.github.dyna4jdbc.internal.common.jdbc.generic;
 
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
@@ -44,8 +42,6 @@ import java.util.Map;
 
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.ScriptExecutor;
-import com.github.dyna4jdbc.internal.ScriptExecutionException;
-import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 
 public final class ScriptPreparedStatement<T extends java.sql.Connection>
@@ -81,19 +77,11 @@ public final class ScriptPreparedStatement<T extends java.sql.Connection>
     }
 
     @Override
-    protected void executeScriptUsingOutputHandler(
-            String scriptToExecute,
-            ScriptOutputHandler scriptOutputHandler) throws ScriptExecutionException, IOException {
-
-        OutputStream outOutputStream = scriptOutputHandler.getOutOutputStream();
-        OutputStream errorOutputStream = scriptOutputHandler.getErrorOutputStream();
-
-        ScriptExecutor scriptExecutor = getScriptExecutor();
-
-
-        scriptExecutor.executeScript(scriptToExecute,
-                Collections.unmodifiableMap(executionContext),
-                outOutputStream, errorOutputStream);
+    protected Map<String, Object> getScriptVariables() {
+        /* A snapshot is taken, since the script might be executed in the background
+         * (streaming mode), while the parameters are already being set for the next execution.
+         */
+        return Collections.unmodifiableMap(new HashMap<>(executionContext));
     }
 
     @Override
@@ -273,7 +261,16 @@ public final class ScriptPreparedStatement<T extends java.sql.Connection>
 
     @Override
     public void addBatch() throws SQLException {
-        throw JDBCError.JDBC_FEATURE_NOT_SUPPORTED.raiseSQLException("java.sql.PreparedStatement.addBatch()");
+        checkNotClosed();
+
+        addToBatch(script, getScriptVariables());
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        // as per the JDBC specification, a PreparedStatement only batches its own script
+        throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                "java.sql.PreparedStatement.addBatch(String) cannot be called on a PreparedStatement");
     }
 
     @Override
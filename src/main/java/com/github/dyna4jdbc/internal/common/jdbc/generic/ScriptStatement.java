@@ -19,12 +19,19 @@ package com.github.dyna4jdbc.internal.common.jdbc.generic;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.sql.BatchUpdateException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.github.dyna4jdbc.internal.AbortedError;
+import com.github.dyna4jdbc.internal.BatchScriptExecutor;
 import com.github.dyna4jdbc.internal.CancelException;
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.ScriptExecutor;
@@ -37,13 +44,22 @@ import com.github.dyna4jdbc.internal.common.outputhandler.SQLWarningSink;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.SingleResultSetScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.outputhandler.StreamingResultSetScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.UpdateScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.util.concurrent.SharedIOExecutor;
 import com.github.dyna4jdbc.internal.common.util.exception.ExceptionUtils;
 
 public class ScriptStatement<T extends java.sql.Connection> extends AbstractStatement<T> {
 
     private final ScriptOutputHandlerFactory scriptOutputHandlerFactory;
     private final ScriptExecutor scriptExecutor;
+
+    private final List<BatchItem> batch = new ArrayList<>();
+
+    /* Scripts producing a streamed ResultSet run on the bounded, shared threads: the executor
+     * of this statement allows them to be interrupted once the statement is closed. */
+    private final ExecutorService streamingExecutorService =
+            SharedIOExecutor.getInstance().newConnectionExecutor("Streaming script execution of " + this);
     
     private final SQLWarningSink warningSink = new SQLWarningSink() {
         @Override
@@ -107,7 +123,12 @@ public class ScriptStatement<T extends java.sql.Connection> extends AbstractStat
                 scriptOutputHandlerFactory.newSingleResultSetQueryScriptOutputHandler(
                         this, script, warningSink, getMaxRows());
 
-        executeScriptUsingOutputHandler(script, outputHandler);
+        if (outputHandler instanceof StreamingResultSetScriptOutputHandler) {
+            executeScriptInBackgroundUsingOutputHandler(
+                    script, (StreamingResultSetScriptOutputHandler) outputHandler);
+        } else {
+            executeScriptUsingOutputHandler(script, outputHandler);
+        }
 
         ResultSet resultSet = outputHandler.getResultSet();
 
@@ -119,8 +140,12 @@ public class ScriptStatement<T extends java.sql.Connection> extends AbstractStat
     public final int executeUpdate(final String script) throws SQLException {
         checkNotClosed();
 
+        return executeUpdate(() -> executeUpdateInternal(script, getScriptVariables()));
+    }
+
+    private int executeUpdate(UpdateAction updateAction) throws SQLException {
         try {
-            return executeUpdateInternal(script);
+            return updateAction.execute();
 
         } catch (ScriptExecutionException se) {
 
@@ -153,17 +178,160 @@ public class ScriptStatement<T extends java.sql.Connection> extends AbstractStat
         }
     }
 
-    private int executeUpdateInternal(String script) throws ScriptExecutionException, IOException {
+    private int executeUpdateInternal(String script, Map<String, Object> variables)
+            throws ScriptExecutionException, IOException {
 
         UpdateScriptOutputHandler outputHandler =
                 scriptOutputHandlerFactory.newUpdateScriptOutputHandler(this, script, warningSink);
 
-        executeScriptUsingOutputHandler(script, outputHandler);
+        executeScriptUsingOutputHandler(script, variables, outputHandler);
+
+        return ZERO_UPDATE_COUNT;
+    }
+
+    /**
+     * Represents an update operation, the failures of which are translated to {@code SQLException}.
+     */
+    @FunctionalInterface
+    private interface UpdateAction {
+        int execute() throws ScriptExecutionException, IOException;
+    }
+
+    //CHECKSTYLE.OFF: DesignForExtension: incorrectly detected: method is overridden is subclass
+    public void addBatch(String script) throws SQLException {
+        checkNotClosed();
+
+        addToBatch(script, getScriptVariables());
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    /**
+     * Queues a script for {@link #executeBatch()}.
+     *
+     * @param script the script to queue
+     * @param variables the variables to execute the script with, or {@code null} if there are none
+     */
+    protected final void addToBatch(String script, Map<String, Object> variables) {
+        batch.add(new BatchItem(script, variables));
+    }
+
+    public final void clearBatch() throws SQLException {
+        checkNotClosed();
+
+        batch.clear();
+    }
+
+    public final int[] executeBatch() throws SQLException {
+        checkNotClosed();
+
+        // the batch is reset, regardless of the outcome
+        List<BatchItem> batchItems = new ArrayList<>(batch);
+        batch.clear();
+
+        int[] updateCounts;
+        if (batchItems.size() > 1
+                && isBatchExecutionAvailable()
+                && isWithoutVariables(batchItems)) {
+
+            updateCounts = executeBatchAsSingleUnit(batchItems);
+        } else {
+            updateCounts = executeBatchItemByItem(batchItems);
+        }
+
+        return updateCounts;
+    }
+
+    private int[] executeBatchAsSingleUnit(List<BatchItem> batchItems) throws BatchUpdateException {
+
+        List<String> scripts = new ArrayList<>(batchItems.size());
+        for (BatchItem batchItem : batchItems) {
+            scripts.add(batchItem.script);
+        }
+
+        try {
+            executeUpdate(() -> executeBatchInternal(scripts));
+
+        } catch (SQLException sqle) {
+            /* The scripts were dispatched together: it cannot be told
+             * which one has failed, hence all of them are reported as failed. */
+            int[] updateCounts = new int[batchItems.size()];
+            Arrays.fill(updateCounts, EXECUTE_FAILED);
+
+            throw newBatchUpdateException(sqle, updateCounts);
+        }
+
+        int[] updateCounts = new int[batchItems.size()];
+        Arrays.fill(updateCounts, ZERO_UPDATE_COUNT);
+
+        return updateCounts;
+    }
+
+    private int executeBatchInternal(List<String> scripts) throws ScriptExecutionException, IOException {
+
+        String script = String.join("\n", scripts);
+
+        UpdateScriptOutputHandler outputHandler =
+                scriptOutputHandlerFactory.newUpdateScriptOutputHandler(this, script, warningSink);
+
+        OutputStream outOutputStream = outputHandler.getOutOutputStream();
+        OutputStream errorOutputStream = outputHandler.getErrorOutputStream();
+
+        ((BatchScriptExecutor) scriptExecutor).executeBatch(scripts, outOutputStream, errorOutputStream);
 
         return ZERO_UPDATE_COUNT;
     }
 
+    private int[] executeBatchItemByItem(List<BatchItem> batchItems) throws BatchUpdateException {
+
+        int[] updateCounts = new int[batchItems.size()];
+
+        for (int i = 0; i < batchItems.size(); i++) {
+            BatchItem batchItem = batchItems.get(i);
+            try {
+                updateCounts[i] = executeUpdate(
+                        () -> executeUpdateInternal(batchItem.script, batchItem.variables));
+
+            } catch (SQLException sqle) {
+                // processing stops at the first failure: the counts of the items completed are reported
+                throw newBatchUpdateException(sqle, Arrays.copyOf(updateCounts, i));
+            }
+        }
+
+        return updateCounts;
+    }
+
+    private boolean isBatchExecutionAvailable() {
+        return scriptExecutor instanceof BatchScriptExecutor
+                && ((BatchScriptExecutor) scriptExecutor).isBatchExecutionAvailable();
+    }
+
+    private static boolean isWithoutVariables(List<BatchItem> batchItems) {
+        for (BatchItem batchItem : batchItems) {
+            if (batchItem.variables != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BatchUpdateException newBatchUpdateException(SQLException cause, int[] updateCounts) {
+        return new BatchUpdateException(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(),
+                updateCounts, cause);
+    }
+
+    /**
+     * A script queued for batch execution, along with the variables it is to be executed with.
+     */
+    private static final class BatchItem {
 
+        private final String script;
+        private final Map<String, Object> variables;
+
+        private BatchItem(String script, Map<String, Object> variables) {
+            this.script = script;
+            this.variables = variables;
+        }
+    }
 
     public final boolean execute(final String script) throws SQLException {
         checkNotClosed();
@@ -214,18 +382,70 @@ public class ScriptStatement<T extends java.sql.Connection> extends AbstractStat
         return true;
     }
 
-    //CHECKSTYLE.OFF: DesignForExtension: incorrectly detected: method is overridden is subclass
-    protected void executeScriptUsingOutputHandler(
+    private void executeScriptInBackgroundUsingOutputHandler(
+            String script,
+            StreamingResultSetScriptOutputHandler scriptOutputHandler) {
+
+        // retrieved on the calling thread: parameters might be changed once executeQuery returns
+        final Map<String, Object> variables = getScriptVariables();
+
+        /* The script keeps running after executeQuery has returned: the ResultSet
+         * consumes its output while it is being produced. Any failure is passed
+         * to the output handler, which reports it to the consumer of the ResultSet.
+         */
+        try {
+            streamingExecutorService.execute(() -> {
+                Throwable failure = null;
+                try {
+                    executeScriptUsingOutputHandler(script, variables, scriptOutputHandler);
+
+                } catch (Throwable t) {
+                    failure = t;
+                } finally {
+                    scriptOutputHandler.onScriptExecutionFinished(failure);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            // reported to the caller once it attempts to retrieve the ResultSet
+            scriptOutputHandler.onScriptExecutionFinished(ree);
+        }
+    }
+
+    private void executeScriptUsingOutputHandler(
             String script,
             ScriptOutputHandler scriptOutputHandler) throws ScriptExecutionException, IOException {
 
+        executeScriptUsingOutputHandler(script, getScriptVariables(), scriptOutputHandler);
+    }
+
+    private void executeScriptUsingOutputHandler(
+            String script,
+            Map<String, Object> variables,
+            ScriptOutputHandler scriptOutputHandler) throws ScriptExecutionException, IOException {
+
         OutputStream outOutputStream = scriptOutputHandler.getOutOutputStream();
         OutputStream errorOutputStream = scriptOutputHandler.getErrorOutputStream();
 
-        scriptExecutor.executeScript(script, null, outOutputStream, errorOutputStream);
+        scriptExecutor.executeScript(script, variables, outOutputStream, errorOutputStream);
+    }
+
+    /**
+     * Returns the variables to be passed to the script executed.
+     *
+     * @return the variables to be passed to the script, or {@code null} if there are none
+     */
+    //CHECKSTYLE.OFF: DesignForExtension: incorrectly detected: method is overridden is subclass
+    protected Map<String, Object> getScriptVariables() {
+        return null;
     }
     //CHECKSTYLE.ON: DesignForExtension
 
+    @Override
+    protected final void onClose() throws SQLException {
+        // interrupts any script still producing a streamed ResultSet of this statement
+        streamingExecutorService.shutdownNow();
+    }
+
     @Override
     public final void cancel() throws SQLException {
         try {
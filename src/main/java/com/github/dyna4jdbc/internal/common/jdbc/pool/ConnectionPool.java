@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.PooledConnection;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+
+/**
+ * <p>
+ * Keeps a configured number of idle (pre-initialized) physical connections ready, so that
+ * the cost of creating a connection (loading the script engine, executing the init script
+ * etc.) is not paid when a client requests a connection.</p>
+ *
+ * <p>
+ * When a connection is handed out, a background thread creates a replacement; connections
+ * are validated (see {@link Connection#isValid(int)}) when handed out and when returned.
+ * If no idle connection is available, the connection is created synchronously.</p>
+ *
+ * <p>
+ * Only the session state of a returned connection (open statements, warnings, client info)
+ * can be reset: the state of the scripting environment (e.g. variables defined by scripts,
+ * a running external process) cannot. Returned connections are therefore closed and
+ * replaced by new ones in the background, unless re-use retaining the script state has
+ * been requested explicitly; even then, they are closed if the pool has enough idle
+ * connections already.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    // Connection.isValid(int): "A value of 0 indicates a timeout is not applied"
+    private static final int VALIDATION_TIMEOUT_SECONDS = 0;
+
+    private final ConnectionPoolDataSource connectionPoolDataSource;
+    private final int poolSize;
+    private final boolean retainScriptState;
+
+    private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    private final ExecutorService refillExecutorService = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dyna4jdbc-connection-pool-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final ConnectionEventListener connectionEventListener = new ConnectionEventListener() {
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            onConnectionReturned((PooledConnection) event.getSource());
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            LOGGER.log(Level.FINE, "Discarding connection after error", event.getSQLException());
+
+            discard((PooledConnection) event.getSource());
+            scheduleRefill();
+        }
+    };
+
+    private ConnectionPool(ConnectionPoolDataSource connectionPoolDataSource, int poolSize,
+                           boolean retainScriptState) {
+        this.connectionPoolDataSource = connectionPoolDataSource;
+        this.poolSize = poolSize;
+        this.retainScriptState = retainScriptState;
+    }
+
+    /**
+     * Creates a new pool and starts filling it in the background.
+     *
+     * @param connectionPoolDataSource the source of the physical connections
+     * @param poolSize the number of idle connections to keep ready
+     * @param retainScriptState whether returned connections are re-used, retaining the state
+     *                          of their scripting environment, instead of being replaced
+     * @return the new pool, never {@code null}
+     */
+    public static ConnectionPool newInstance(ConnectionPoolDataSource connectionPoolDataSource, int poolSize,
+                                             boolean retainScriptState) {
+        if (connectionPoolDataSource == null) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseUncheckedException(
+                    "connectionPoolDataSource cannot be null");
+        }
+        if (poolSize <= 0) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseUncheckedException(
+                    "poolSize must be positive: " + poolSize);
+        }
+
+        ConnectionPool connectionPool = new ConnectionPool(connectionPoolDataSource, poolSize, retainScriptState);
+        connectionPool.scheduleRefill();
+
+        return connectionPool;
+    }
+
+    /**
+     * Returns a logical connection backed by a pooled physical connection:
+     * closing the logical connection returns the physical one to the pool.
+     *
+     * @return a connection, never {@code null}
+     * @throws SQLException if the pool is closed or creating a connection fails
+     */
+    public Connection getConnection() throws SQLException {
+        checkNotClosed();
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+
+            Connection connection = tryGetValidConnection(pooledConnection);
+            if (connection != null) {
+                scheduleRefill();
+                return connection;
+            }
+        }
+
+        LOGGER.fine("No idle connection available: creating one");
+        scheduleRefill();
+
+        return newPooledConnection().getConnection();
+    }
+
+    int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            refillExecutorService.shutdownNow();
+
+            PooledConnection pooledConnection;
+            while ((pooledConnection = idleConnections.pollFirst()) != null) {
+                discard(pooledConnection);
+            }
+        }
+    }
+
+    private void checkNotClosed() throws SQLException {
+        if (closed.get()) {
+            throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+        }
+    }
+
+    private Connection tryGetValidConnection(PooledConnection pooledConnection) {
+        try {
+            Connection connection = pooledConnection.getConnection();
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return connection;
+            }
+            LOGGER.log(Level.FINE, "Discarding invalid connection: {0}", pooledConnection);
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Discarding connection failing validation: " + pooledConnection, e);
+        }
+
+        discard(pooledConnection);
+        return null;
+    }
+
+    private PooledConnection newPooledConnection() throws SQLException {
+        PooledConnection pooledConnection = connectionPoolDataSource.getPooledConnection();
+        pooledConnection.addConnectionEventListener(connectionEventListener);
+        return pooledConnection;
+    }
+
+    private void onConnectionReturned(PooledConnection pooledConnection) {
+        if (!retainScriptState) {
+            // script state left behind by the previous client must not leak to the next one
+            discard(pooledConnection);
+            scheduleRefill();
+            return;
+        }
+
+        if (closed.get() || idleConnections.size() >= poolSize || !isValid(pooledConnection)) {
+            discard(pooledConnection);
+            return;
+        }
+
+        // LIFO: the most recently used connections are handed out first
+        idleConnections.offerFirst(pooledConnection);
+
+        if (closed.get() && idleConnections.remove(pooledConnection)) {
+            // the pool has been closed concurrently
+            discard(pooledConnection);
+        }
+    }
+
+    private static boolean isValid(PooledConnection pooledConnection) {
+        /* Validation opens a logical connection: it is invalidated without
+         * notification by the next PooledConnection.getConnection() call.
+         */
+        try {
+            return pooledConnection.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Connection validation failed: " + pooledConnection, e);
+            return false;
+        }
+    }
+
+    private void scheduleRefill() {
+        if (closed.get() || !refillScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refillExecutorService.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            // the pool has been closed concurrently
+            refillScheduled.set(false);
+        }
+    }
+
+    private void refill() {
+        /* Cleared before checking the idle connection count: any connection
+         * checked out after the check is guaranteed to schedule a new refill.
+         */
+        refillScheduled.set(false);
+
+        while (!closed.get() && idleConnections.size() < poolSize) {
+            try {
+                PooledConnection pooledConnection = newPooledConnection();
+
+                idleConnections.offerLast(pooledConnection);
+
+                if (closed.get() && idleConnections.remove(pooledConnection)) {
+                    discard(pooledConnection);
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                // retried with the next connection handed out
+                LOGGER.log(Level.WARNING, "Creating a pooled connection failed", e);
+                return;
+            }
+        }
+    }
+
+    private static void discard(PooledConnection pooledConnection) {
+        try {
+            pooledConnection.close();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Closing pooled connection failed: " + pooledConnection, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (poolSize: %s, retainScriptState: %s, idle: %s)",
+                super.toString(), poolSize, retainScriptState, idleConnections.size());
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Wrapper;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import javax.sql.StatementEventListener;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+
+/**
+ * <p>
+ * {@code PooledConnection} implementation wrapping a physical {@link AbstractConnection}.
+ * The logical connections handed out by {@link #getConnection()} delegate to the physical
+ * connection; closing a logical connection resets the session state of the physical
+ * connection (see {@link AbstractConnection#resetSessionState()}) and notifies the
+ * {@code ConnectionEventListener}s, while the physical connection remains open.</p>
+ *
+ * <p>
+ * The physical connection is never exposed to the client: the {@code Statement}s,
+ * {@code DatabaseMetaData} and {@code ResultSet}s obtained through a logical connection
+ * are wrapped, so that their {@code getConnection()} methods return the logical connection,
+ * and {@code unwrap(Class)} does not unwrap the physical objects or any JDBC object: other
+ * interfaces of the driver (e.g. the {@code SchemaCache} of the connection) are unwrapped
+ * from the physical object.</p>
+ *
+ * <p>
+ * Statements are not pooled: {@code StatementEventListener}s are accepted, but never notified.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class DefaultPooledConnection implements PooledConnection {
+
+    private static final Logger LOGGER = Logger.getLogger(DefaultPooledConnection.class.getName());
+
+    private static final List<Class<?>> WRAPPED_TYPES = Arrays.asList(
+            Statement.class, PreparedStatement.class, CallableStatement.class,
+            DatabaseMetaData.class, ResultSet.class);
+
+    private final AbstractConnection physicalConnection;
+
+    private final List<ConnectionEventListener> connectionEventListeners = new CopyOnWriteArrayList<>();
+    private final List<StatementEventListener> statementEventListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicReference<LogicalConnectionInvocationHandler> currentLogicalConnection =
+            new AtomicReference<>();
+
+    public DefaultPooledConnection(AbstractConnection physicalConnection) {
+        this.physicalConnection = Objects.requireNonNull(physicalConnection,
+                "argument physicalConnection cannot be null");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (physicalConnection.isClosed()) {
+            throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+        }
+
+        LogicalConnectionInvocationHandler invocationHandler = new LogicalConnectionInvocationHandler();
+
+        /* "If the application calls getConnection again while a logical connection
+         * is open, the previous logical connection is closed": this is not a regular
+         * close of the logical connection, hence the listeners are not notified.
+         */
+        LogicalConnectionInvocationHandler previous = currentLogicalConnection.getAndSet(invocationHandler);
+        if (previous != null && previous.invalidate()) {
+            physicalConnection.resetSessionState();
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                DefaultPooledConnection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                invocationHandler);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        LogicalConnectionInvocationHandler current = currentLogicalConnection.getAndSet(null);
+        if (current != null) {
+            current.invalidate();
+        }
+
+        physicalConnection.close();
+    }
+
+    @Override
+    public void addConnectionEventListener(ConnectionEventListener listener) {
+        connectionEventListeners.add(listener);
+    }
+
+    @Override
+    public void removeConnectionEventListener(ConnectionEventListener listener) {
+        connectionEventListeners.remove(listener);
+    }
+
+    @Override
+    public void addStatementEventListener(StatementEventListener listener) {
+        statementEventListeners.add(listener);
+    }
+
+    @Override
+    public void removeStatementEventListener(StatementEventListener listener) {
+        statementEventListeners.remove(listener);
+    }
+
+    private void onLogicalConnectionClosed(LogicalConnectionInvocationHandler invocationHandler) {
+        currentLogicalConnection.compareAndSet(invocationHandler, null);
+
+        try {
+            physicalConnection.resetSessionState();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Resetting session state failed: " + physicalConnection, e);
+
+            SQLException sqlException;
+            if (e instanceof SQLException) {
+                sqlException = (SQLException) e;
+            } else {
+                sqlException = new SQLException(e);
+            }
+
+            ConnectionEvent errorEvent = new ConnectionEvent(this, sqlException);
+            for (ConnectionEventListener listener : connectionEventListeners) {
+                listener.connectionErrorOccurred(errorEvent);
+            }
+            return;
+        }
+
+        ConnectionEvent closedEvent = new ConnectionEvent(this);
+        for (ConnectionEventListener listener : connectionEventListeners) {
+            listener.connectionClosed(closedEvent);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (physical connection: %s)", super.toString(), physicalConnection);
+    }
+
+    /**
+     * Implements a logical connection: all calls except those changing the
+     * open/closed state are delegated to the physical connection.
+     */
+    private final class LogicalConnectionInvocationHandler implements InvocationHandler {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /*
+         * Marks the logical connection closed without notifying the listeners:
+         * returns true, if it was open until this call.
+         */
+        private boolean invalidate() {
+            return closed.compareAndSet(false, true);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+
+            switch (methodName) {
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return String.format("Logical connection of %s", DefaultPooledConnection.this);
+
+                case "close":
+                    if (invalidate()) {
+                        onLogicalConnectionClosed(this);
+                    }
+                    return null;
+
+                case "isClosed":
+                    return closed.get() || physicalConnection.isClosed();
+
+                default:
+                    if (closed.get()) {
+                        if ("isValid".equals(methodName)) {
+                            return false;
+                        }
+                        throw JDBCError.OBJECT_CLOSED.raiseSQLException(proxy);
+                    }
+
+                    return invokeOnPhysicalObject(proxy, proxy, physicalConnection, method, args);
+            }
+        }
+    }
+
+    /**
+     * Implements an object obtained through a logical connection: calls are delegated
+     * to the physical object, except those which would expose the physical connection.
+     */
+    private static final class LogicalObjectInvocationHandler implements InvocationHandler {
+
+        private final Object logicalConnection;
+        private final Object parent;
+        private final Object physicalObject;
+
+        private LogicalObjectInvocationHandler(Object logicalConnection, Object parent, Object physicalObject) {
+            this.logicalConnection = logicalConnection;
+            this.parent = parent;
+            this.physicalObject = physicalObject;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "getConnection":
+                    return logicalConnection;
+
+                case "getStatement":
+                    if (parent instanceof Statement) {
+                        return parent;
+                    }
+                    return invokeOnPhysicalObject(logicalConnection, proxy, physicalObject, method, args);
+
+                default:
+                    return invokeOnPhysicalObject(logicalConnection, proxy, physicalObject, method, args);
+            }
+        }
+    }
+
+    /*
+     * Invokes the method on the physical object: the Statements, DatabaseMetaData
+     * and ResultSets returned are wrapped, so that they do not expose the physical connection.
+     */
+    private static Object invokeOnPhysicalObject(
+            Object logicalConnection, Object proxy, Object physicalObject, Method method, Object[] args)
+            throws Throwable {
+
+        switch (method.getName()) {
+            case "unwrap":
+                Class<?> iface = (Class<?>) args[0];
+                if (iface.isInstance(proxy)) {
+                    return proxy;
+                }
+                if (isUnwrappedFromPhysicalObject(iface, physicalObject)) {
+                    Object unwrapped = invoke(physicalObject, method, args);
+                    // JDBC objects of the physical connection are never returned
+                    if (!(unwrapped instanceof Wrapper)) {
+                        return unwrapped;
+                    }
+                }
+                throw JDBCError.CANNOT_UNWARP_OBJECT.raiseSQLException(iface, proxy);
+
+            case "isWrapperFor":
+                Class<?> wrappedIface = (Class<?>) args[0];
+                return wrappedIface.isInstance(proxy)
+                        || isUnwrappedFromPhysicalObject(wrappedIface, physicalObject)
+                            && (Boolean) invoke(physicalObject, method, args);
+
+            default:
+                Object result = invoke(physicalObject, method, args);
+
+                Class<?> returnType = method.getReturnType();
+                if (result == null || !WRAPPED_TYPES.contains(returnType)) {
+                    return result;
+                }
+
+                return Proxy.newProxyInstance(
+                        DefaultPooledConnection.class.getClassLoader(),
+                        new Class<?>[] {returnType},
+                        new LogicalObjectInvocationHandler(logicalConnection, proxy, result));
+        }
+    }
+
+    /*
+     * Only the other interfaces of the driver are unwrapped from the physical object: neither
+     * JDBC types (a Connection in particular), nor any type the physical object is an instance of.
+     */
+    private static boolean isUnwrappedFromPhysicalObject(Class<?> iface, Object physicalObject) {
+        return !Wrapper.class.isAssignableFrom(iface)
+                && !iface.isInstance(physicalObject);
+    }
+
+    private static Object invoke(Object physicalObject, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(physicalObject, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
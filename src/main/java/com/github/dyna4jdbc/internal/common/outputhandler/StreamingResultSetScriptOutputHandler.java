@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler;
+
+/**
+ * <p>
+ * A {@link SingleResultSetScriptOutputHandler}, which allows the {@code ResultSet}
+ * to be retrieved while the script is still running: the script is expected to be
+ * executed in the background, with its output written to the streams of this handler.
+ * {@link #getResultSet()} blocks only until the rows used to determine the structure
+ * of the result are available.</p>
+ *
+ * <p>
+ * The party executing the script <b>MUST</b> call {@link #onScriptExecutionFinished(Throwable)}
+ * once the execution is finished, regardless of its outcome.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public interface StreamingResultSetScriptOutputHandler extends SingleResultSetScriptOutputHandler {
+
+    /**
+     * Signals that the execution of the script is finished.
+     *
+     * @param failure the {@code Throwable} the execution failed with, or {@code null},
+     *                if the execution completed normally
+     */
+    void onScriptExecutionFinished(Throwable failure);
+}
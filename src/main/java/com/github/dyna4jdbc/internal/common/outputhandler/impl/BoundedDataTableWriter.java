@@ -17,10 +17,10 @@
  
 package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
-import java.io.IOException;
-
 /**
  * @author Peter G. Horvath
  */
@@ -29,8 +29,13 @@ public final class BoundedDataTableWriter extends DataTableWriter {
     private final int maxRows;
     private int currentRow = 0;
 
-    BoundedDataTableWriter(Configuration configuration, int maxRows) {
-        super(configuration);
+    BoundedDataTableWriter(Configuration configuration, ColumnHandlerFactory columnHandlerFactory, int maxRows) {
+        this(configuration, columnHandlerFactory, null, maxRows);
+    }
+
+    BoundedDataTableWriter(Configuration configuration, ColumnHandlerFactory columnHandlerFactory,
+                           SchemaCache.ScriptSchemas scriptSchemas, int maxRows) {
+        super(configuration, columnHandlerFactory, scriptSchemas);
         this.maxRows = maxRows;
     }
 
@@ -41,14 +46,11 @@ public final class BoundedDataTableWriter extends DataTableWriter {
     }
 
     @Override
-    public void write(int b) throws IOException {
-
-        if (currentRow < maxRows) {
-            super.write(b);
-        }
+    protected boolean isOutputAccepted() {
         /*
-        Otherwise, simply swallow the write request: once
-        currentRow reaches maxRows, we no longer even convert
-        the byte values to strings. */
+        Once currentRow reaches maxRows, we simply swallow the
+        write requests: we no longer even convert the byte values
+        to strings. */
+        return currentRow < maxRows;
     }
 }
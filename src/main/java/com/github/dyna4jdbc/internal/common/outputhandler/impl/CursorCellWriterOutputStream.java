@@ -18,11 +18,13 @@
 package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.datamodel.EncodedRow;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
 
 
 abstract class CursorCellWriterOutputStream extends OutputStream {
@@ -30,18 +32,45 @@ abstract class CursorCellWriterOutputStream extends OutputStream {
     private static final int LF = 0xD;
     private static final int CR = 0xA;
 
+    private static final int INITIAL_ROW_BUFFER_SIZE = 256;
+    private static final int INITIAL_CELL_OFFSETS_SIZE = 16;
+
     private int lastByte = -1;
 
+    /*
+    The raw bytes of all cells of the current row are kept in one single
+    buffer; cell boundaries are recorded in cellEndOffsets. Decoding to
+    String is deferred until a cell value is actually requested: see EncodedRow.
+     */
+    private byte[] rowBuffer = new byte[INITIAL_ROW_BUFFER_SIZE];
+    private int rowLength = 0;
+
+    private int[] cellEndOffsets = new int[INITIAL_CELL_OFFSETS_SIZE];
+    private int cellCount = 0;
 
-    private ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    private boolean closed = false;
 
     private final char cellSeparator;
-    private final String charsetName;
+    private final Charset charset;
 
 
     CursorCellWriterOutputStream(char cellSeparator, String charsetName) {
         this.cellSeparator = cellSeparator;
-        this.charsetName = charsetName;
+        this.charset = lookupCharset(charsetName);
+    }
+
+    private static Charset lookupCharset(String charsetName) {
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            // should not happen: we test the configuration before applying it
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(e,
+                    "The requested charsetName is not supported: " + charsetName);
+        }
+    }
+
+    protected final Charset getCharset() {
+        return charset;
     }
 
     @Override
@@ -49,6 +78,10 @@ abstract class CursorCellWriterOutputStream extends OutputStream {
 
         checkNotClosed();
 
+        if (!isOutputAccepted()) {
+            return;
+        }
+
         if (!((lastByte == LF || lastByte == CR)
                 && (thisByte == LF || thisByte == CR))) {
 
@@ -64,7 +97,8 @@ abstract class CursorCellWriterOutputStream extends OutputStream {
                 nextCell();
 
             } else {
-                byteArrayOutputStream.write(thisByte);
+                ensureRowBufferCapacity(1);
+                rowBuffer[rowLength++] = (byte) thisByte;
             }
         }
 
@@ -73,26 +107,138 @@ abstract class CursorCellWriterOutputStream extends OutputStream {
 
     }
 
+    /**
+     * Bulk variant of {@link #write(int)}: the buffer is scanned for line
+     * endings and the cell separator, and the bytes in between are copied
+     * to the current cell in one go, instead of byte-by-byte.
+     * The observable behaviour is identical to that of writing the bytes
+     * one-by-one via {@link #write(int)}.
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+
+        checkNotClosed();
+
+        if (bytes == null) {
+            throw new NullPointerException("argument bytes cannot be null");
+        }
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %s, length: %s, buffer length: %s", offset, length, bytes.length));
+        }
+
+        if (!isOutputAccepted()) {
+            return;
+        }
+
+        final int end = offset + length;
+        int cellContentStart = offset;
+
+        for (int i = offset; i < end; i++) {
+
+            // NOTE: signed value, just like the one passed by OutputStream#write(byte[])
+            final int thisByte = bytes[i];
+
+            final boolean isLineEnd = thisByte == LF || thisByte == CR;
+
+            if (isLineEnd || thisByte == cellSeparator) {
+
+                appendToRowBuffer(bytes, cellContentStart, i - cellContentStart);
+                cellContentStart = i + 1;
+
+                if (!isLineEnd) {
+                    flushBufferToCell();
+
+                    nextCell();
+
+                } else if (!(lastByte == LF || lastByte == CR)) {
+                    flushBufferToCell();
+
+                    nextRow();
+
+                    if (!isOutputAccepted()) {
+                        lastByte = thisByte;
+                        return;
+                    }
+                }
+            }
+
+            lastByte = thisByte;
+        }
+
+        appendToRowBuffer(bytes, cellContentStart, end - cellContentStart);
+    }
+
+    /**
+     * Allows sub-classes to stop the processing of any further output
+     * (e.g. once a row limit is reached): if this method returns
+     * {@code false}, all subsequent writes are silently discarded.
+     *
+     * @return {@code true} if output is to be processed, {@code false} otherwise
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    protected boolean isOutputAccepted() {
+        return true;
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
     protected abstract void nextCell();
 
     protected abstract void nextRow();
 
-    protected abstract void writeCellValue(String value);
+    /**
+     * Returns the cells completed so far in the current row and starts a new,
+     * empty row. Cell values of the returned row are decoded lazily.
+     *
+     * @return the current row, never {@code null}
+     */
+    protected final List<String> detachCurrentRow() {
 
-    private void flushBufferToCell() {
+        EncodedRow row = new EncodedRow(
+                Arrays.copyOf(rowBuffer, rowLength),
+                Arrays.copyOf(cellEndOffsets, cellCount),
+                cellCount,
+                charset);
 
-        try {
-            String cellContent = byteArrayOutputStream.toString(charsetName);
+        rowLength = 0;
+        cellCount = 0;
+
+        return row;
+    }
 
-            writeCellValue(cellContent);
+    private void appendToRowBuffer(byte[] bytes, int offset, int length) {
+        if (length > 0) {
+            ensureRowBufferCapacity(length);
+            System.arraycopy(bytes, offset, rowBuffer, rowLength, length);
+            rowLength += length;
+        }
+    }
 
-            byteArrayOutputStream = new ByteArrayOutputStream();
+    private void ensureRowBufferCapacity(int additionalBytes) {
+        final int requiredCapacity = rowLength + additionalBytes;
+        if (requiredCapacity < 0) {
+            throw new OutOfMemoryError("Row is too large to be buffered");
+        }
+        if (requiredCapacity > rowBuffer.length) {
+            int newCapacity = Math.max(requiredCapacity, rowBuffer.length << 1);
+            if (newCapacity < 0) {
+                newCapacity = requiredCapacity;
+            }
+            rowBuffer = Arrays.copyOf(rowBuffer, newCapacity);
+        }
+    }
 
-        } catch (UnsupportedEncodingException e) {
-            // should not happen: we test the configuration before applying it
-            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(e,
-                    "The requested charsetName is not supported: " + charsetName);
+    private boolean isCurrentCellEmpty() {
+        final int currentCellStart = cellCount == 0 ? 0 : cellEndOffsets[cellCount - 1];
+        return rowLength == currentCellStart;
+    }
+
+    private void flushBufferToCell() {
+        if (cellCount == cellEndOffsets.length) {
+            cellEndOffsets = Arrays.copyOf(cellEndOffsets, cellEndOffsets.length << 1);
         }
+
+        cellEndOffsets[cellCount++] = rowLength;
     }
 
 
@@ -102,19 +248,18 @@ abstract class CursorCellWriterOutputStream extends OutputStream {
         checkNotClosed();
 
         try {
-            if (byteArrayOutputStream.size() > 0) {
+            if (!isCurrentCellEmpty()) {
                 flushBufferToCell();
             }
         } finally {
-            byteArrayOutputStream = null;
+            closed = true;
         }
     }
     //CHECKSTYLE.ON: DesignForExtension
 
     private void checkNotClosed() {
-        if (byteArrayOutputStream == null) {
+        if (closed) {
             throw new IllegalStateException(this + " is closed already!");
         }
     }
 }
-
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnScanner;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
+import com.github.dyna4jdbc.internal.common.util.concurrent.ParallelUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Keeps one {@link ColumnScanner} per column index of a {@code DataTable}, and passes
+ * each row appended to the table to them, so that the {@link ColumnHandler}s are ready
+ * as soon as the capture of the output finishes.</p>
+ *
+ * <p>
+ * If the number of columns reaches the parallel detection threshold, rows are collected
+ * into batches, and each batch is scanned column-by-column on multiple threads: every
+ * scanner still receives the values of its column in row order, hence the result is
+ * the same as that of the sequential scan.</p>
+ *
+ * <p>
+ * If a {@link SchemaCache} is used and an earlier result of the same script had the same
+ * number of columns (and the same headers, if any), the values are only checked to conform
+ * to the columns detected for that result. Should any value not conform, the rows are
+ * scanned again from the beginning.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class DataTableColumnScanners {
+
+    private static final int MAX_PENDING_ROWS = 1024;
+
+    // the number of columns scanned sequentially by one fork-join task
+    private static final int COLUMNS_PER_PARALLEL_TASK = 4;
+
+    private final ColumnHandlerFactory columnHandlerFactory;
+    private final int parallelColumnDetectionThreshold;
+    private final Iterable<List<String>> scannedRows;
+    private final SchemaCache.ScriptSchemas scriptSchemas;
+
+    private final ArrayList<ColumnScanner> columnScanners = new ArrayList<>();
+    private final ArrayList<List<String>> pendingRows = new ArrayList<>();
+    private int scannedRowCount = 0;
+
+    private List<String> firstRow = null;
+    private List<ColumnScanner.Snapshot> cachedSnapshots = null;
+    private boolean conformanceViolated = false;
+
+    /**
+     * Creates a new {@code DataTableColumnScanners}.
+     *
+     * @param columnHandlerFactory the {@code ColumnHandlerFactory} to use
+     * @param parallelColumnDetectionThreshold see {@code Configuration#getParallelColumnDetectionThreshold()}
+     * @param scannedRows all rows passed to {@link #scanRow(List)}, in the same order: used
+     *                    to scan the rows again, if they do not conform to a cached result
+     * @param scriptSchemas the {@code SchemaCache} entries of the script, or {@code null} if not cached
+     */
+    DataTableColumnScanners(ColumnHandlerFactory columnHandlerFactory, int parallelColumnDetectionThreshold,
+                            Iterable<List<String>> scannedRows, SchemaCache.ScriptSchemas scriptSchemas) {
+        this.columnHandlerFactory = columnHandlerFactory;
+        this.parallelColumnDetectionThreshold = parallelColumnDetectionThreshold;
+        this.scannedRows = scannedRows;
+        this.scriptSchemas = scriptSchemas;
+    }
+
+    void scanRow(List<String> row) {
+        if (firstRow == null) {
+            firstRow = row;
+
+            if (scriptSchemas != null) {
+                cachedSnapshots = scriptSchemas.get(row);
+            }
+        }
+
+        if (conformanceViolated) {
+            // the columns are going to be scanned again from the beginning
+            return;
+        }
+
+        final int rowSize = row.size();
+
+        for (int columnIndex = columnScanners.size(); columnIndex < rowSize; columnIndex++) {
+            ColumnScanner columnScanner;
+            if (cachedSnapshots == null) {
+                columnScanner = columnHandlerFactory.newColumnScanner(columnIndex);
+            } else if (columnIndex < cachedSnapshots.size()) {
+                columnScanner = columnHandlerFactory.newColumnScanner(
+                        columnIndex, cachedSnapshots.get(columnIndex));
+            } else {
+                // more columns than in the cached result
+                conformanceViolated = true;
+                return;
+            }
+
+            // the new column is absent (null) in all rows scanned so far:
+            // pending rows (if any) are passed to the new scanner on the next flush
+            for (int i = 0; i < scannedRowCount; i++) {
+                columnScanner.scanValue(null);
+            }
+
+            columnScanners.add(columnScanner);
+        }
+
+        if (isParallelScanApplicable()) {
+            pendingRows.add(row);
+
+            if (pendingRows.size() >= MAX_PENDING_ROWS) {
+                scanPendingRowsInParallel();
+            }
+        } else {
+            final int columnCount = columnScanners.size();
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                columnScanners.get(columnIndex).scanValue(getCellValue(row, columnIndex));
+            }
+
+            scannedRowCount++;
+        }
+    }
+
+    private boolean isParallelScanApplicable() {
+        return parallelColumnDetectionThreshold != 0
+                && columnScanners.size() >= parallelColumnDetectionThreshold
+                && ParallelUtils.isParallelismAvailable();
+    }
+
+    private void scanPendingRowsInParallel() {
+        if (pendingRows.isEmpty()) {
+            return;
+        }
+
+        ParallelUtils.forEachIndex(columnScanners.size(), COLUMNS_PER_PARALLEL_TASK, columnIndex -> {
+            ColumnScanner columnScanner = columnScanners.get(columnIndex);
+            for (List<String> row : pendingRows) {
+                columnScanner.scanValue(getCellValue(row, columnIndex));
+            }
+        });
+
+        scannedRowCount += pendingRows.size();
+        pendingRows.clear();
+    }
+
+    private static String getCellValue(List<String> row, int columnIndex) {
+        return columnIndex < row.size() ? row.get(columnIndex) : null;
+    }
+
+    List<ColumnHandler> newColumnHandlers() {
+
+        scanPendingRowsInParallel();
+
+        if (cachedSnapshots != null) {
+            if (isConformingToCachedSnapshots()) {
+                scriptSchemas.recordHit();
+
+                return newColumnHandlersFromScanners();
+            }
+
+            rescanAllRows();
+        }
+
+        List<ColumnHandler> columnHandlers = newColumnHandlersFromScanners();
+
+        if (scriptSchemas != null && firstRow != null) {
+            List<ColumnScanner.Snapshot> snapshots = new ArrayList<>(columnScanners.size());
+            for (ColumnScanner columnScanner : columnScanners) {
+                snapshots.add(columnScanner.getSnapshot());
+            }
+
+            scriptSchemas.recordMiss(firstRow, snapshots);
+        }
+
+        return columnHandlers;
+    }
+
+    private boolean isConformingToCachedSnapshots() {
+        if (conformanceViolated || columnScanners.size() != cachedSnapshots.size()) {
+            return false;
+        }
+
+        for (ColumnScanner columnScanner : columnScanners) {
+            if (!columnScanner.isConforming()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void rescanAllRows() {
+        cachedSnapshots = null;
+        conformanceViolated = false;
+        columnScanners.clear();
+        scannedRowCount = 0;
+
+        for (List<String> row : scannedRows) {
+            scanRow(row);
+        }
+
+        scanPendingRowsInParallel();
+    }
+
+    private List<ColumnHandler> newColumnHandlersFromScanners() {
+
+        final List<ColumnHandler> columnHandlerList = new ArrayList<>(columnScanners.size());
+
+        for (ColumnScanner columnScanner : columnScanners) {
+            ColumnHandler columnHandler = columnScanner.newColumnHandler();
+            if (columnHandler == null) {
+                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                        "columnHandler is null");
+            }
+
+            columnHandlerList.add(columnHandler);
+        }
+
+        return Collections.unmodifiableList(columnHandlerList);
+    }
+}
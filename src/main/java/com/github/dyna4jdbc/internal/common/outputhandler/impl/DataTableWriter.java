@@ -18,29 +18,46 @@
 package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
 class DataTableWriter extends CursorCellWriterOutputStream {
 
     private LinkedList<DataTable> dataTableList = new LinkedList<>();
-    private List<String> currentRow = new ArrayList<String>();
+    private final Map<DataTable, DataTableColumnScanners> columnScanners = new IdentityHashMap<>();
+    private final ColumnHandlerFactory columnHandlerFactory;
+    private final SchemaCache.ScriptSchemas scriptSchemas;
 
     private boolean currentRowIsTheFirstLine = true;
     private final boolean skipFirstLine;
     private boolean preferMultipleResultSets;
+    private final long spillToDiskThresholdBytes;
+    private final int parallelColumnDetectionThreshold;
 
-    DataTableWriter(Configuration configuration) {
+    DataTableWriter(Configuration configuration, ColumnHandlerFactory columnHandlerFactory) {
+        this(configuration, columnHandlerFactory, null);
+    }
+
+    DataTableWriter(Configuration configuration, ColumnHandlerFactory columnHandlerFactory,
+                    SchemaCache.ScriptSchemas scriptSchemas) {
         super(configuration.getCellSeparator(), configuration.getConversionCharset());
 
-        dataTableList.addLast(new DataTable());
+        this.columnHandlerFactory = columnHandlerFactory;
+        this.scriptSchemas = scriptSchemas;
         this.skipFirstLine = configuration.getSkipFirstLine();
         this.preferMultipleResultSets = configuration.getPreferMultipleResultSets();
+        this.spillToDiskThresholdBytes = configuration.getSpillToDiskThresholdBytes();
+        this.parallelColumnDetectionThreshold = configuration.getParallelColumnDetectionThreshold();
+        addNewDataTable();
     }
 
 
@@ -48,6 +65,22 @@ class DataTableWriter extends CursorCellWriterOutputStream {
         return Collections.unmodifiableList(dataTableList);
     }
 
+    /**
+     * Returns the {@code ColumnHandler}s for the columns of a {@code DataTable}
+     * produced by this writer: the column types are detected while the rows are
+     * captured, hence no further pass over the data is required.
+     *
+     * @param dataTable a {@code DataTable} from {@link #getDataTableList()}
+     * @return the {@code ColumnHandler}s, one for each column of {@code dataTable}
+     */
+    List<ColumnHandler> newColumnHandlers(DataTable dataTable) {
+        DataTableColumnScanners dataTableColumnScanners = columnScanners.get(dataTable);
+        if (dataTableColumnScanners == null) {
+            throw new IllegalArgumentException("DataTable was not produced by this writer");
+        }
+        return dataTableColumnScanners.newColumnHandlers();
+    }
+
     @Override
     protected void nextCell() {
         // no-op
@@ -63,39 +96,44 @@ class DataTableWriter extends CursorCellWriterOutputStream {
             }
         }
 
+        List<String> completedRow = detachCurrentRow();
         if (addCurrentRowToOutput) {
-            appendRow();
+            appendRow(completedRow);
         }
-        currentRow = new ArrayList<String>();
-    }
-
-
-    @Override
-    protected void writeCellValue(String value) {
-        currentRow.add(value);
     }
 
     @Override
     public void close() throws IOException {
         super.close(); // ensure all pending content is written to currentRow
 
-        if (!currentRow.isEmpty()) {
-            appendRow();
+        List<String> lastRow = detachCurrentRow();
+        if (!lastRow.isEmpty()) {
+            appendRow(lastRow);
         }
     }
 
-    private void appendRow() {
+    private DataTable addNewDataTable() {
+        DataTable dataTable = new DataTable(spillToDiskThresholdBytes, getCharset());
+
+        dataTableList.addLast(dataTable);
+        columnScanners.put(dataTable, new DataTableColumnScanners(
+                columnHandlerFactory, parallelColumnDetectionThreshold, dataTable, scriptSchemas));
+
+        return dataTable;
+    }
+
+    private void appendRow(List<String> row) {
         DataTable currentTable = dataTableList.getLast();
 
         if (preferMultipleResultSets && !currentTable.isEmpty()) {
 
             List<String> lastRow = currentTable.getLastRow();
-            if (lastRow.size() != currentRow.size()) {
-                currentTable = new DataTable();
-                dataTableList.addLast(currentTable);
+            if (lastRow.size() != row.size()) {
+                currentTable = addNewDataTable();
             }
         }
 
-        currentTable.appendRow(currentRow);
+        currentTable.appendRow(row);
+        columnScanners.get(currentTable).scanRow(row);
     }
 }
@@ -21,6 +21,7 @@ import com.github.dyna4jdbc.internal.common.jdbc.generic.DataTableAdapterResultS
 import com.github.dyna4jdbc.internal.common.outputhandler.SQLWarningSink;
 import com.github.dyna4jdbc.internal.common.outputhandler.MultipleResultSetScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.common.util.io.SQLWarningSinkOutputStream;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
@@ -38,23 +39,23 @@ final class DefaultMultipleResultSetScriptOutputHandler implements MultipleResul
     private final Statement statement;
     private final DataTableWriter stdOut;
     private final OutputStream stdErr;
-    private final ColumnHandlerFactory columnHandlerFactory;
 
     DefaultMultipleResultSetScriptOutputHandler(
             Statement statement,
             ColumnHandlerFactory columnHandlerFactory,
+            SchemaCache.ScriptSchemas scriptSchemas,
             Configuration configuration, SQLWarningSink warningSink, int maxRows) {
 
         this.statement = statement;
-        this.columnHandlerFactory = columnHandlerFactory;
 
         if (maxRows != ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS) {
 
             final int maxRowsIncludingHeaders = maxRows + 1;
 
-            this.stdOut = new BoundedDataTableWriter(configuration, maxRowsIncludingHeaders);
+            this.stdOut = new BoundedDataTableWriter(
+                    configuration, columnHandlerFactory, scriptSchemas, maxRowsIncludingHeaders);
         } else {
-            this.stdOut = new DataTableWriter(configuration);
+            this.stdOut = new DataTableWriter(configuration, columnHandlerFactory, scriptSchemas);
         }
 
         this.stdErr = new SQLWarningSinkOutputStream(configuration, warningSink);
@@ -64,7 +65,8 @@ final class DefaultMultipleResultSetScriptOutputHandler implements MultipleResul
     public List<ResultSet> getResultSets() {
 
         return stdOut.getDataTableList().stream()
-                .map(dataTable -> new DataTableAdapterResultSet(statement, dataTable, columnHandlerFactory))
+                .map(dataTable -> new DataTableAdapterResultSet(
+                        statement, dataTable, stdOut.newColumnHandlers(dataTable)))
                 .collect(Collectors.toList());
     }
 
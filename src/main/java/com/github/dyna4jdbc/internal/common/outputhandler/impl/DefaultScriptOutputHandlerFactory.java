@@ -19,6 +19,7 @@ package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
 import com.github.dyna4jdbc.internal.common.outputhandler.*;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
 import java.sql.Statement;
@@ -26,10 +27,13 @@ import java.sql.Statement;
 public class DefaultScriptOutputHandlerFactory implements ScriptOutputHandlerFactory {
 
     private final ColumnHandlerFactory columnHandlerFactory;
+    private final SchemaCache schemaCache;
     private final Configuration configuration;
 
-    public DefaultScriptOutputHandlerFactory(ColumnHandlerFactory columnHandlerFactory, Configuration configuration) {
+    public DefaultScriptOutputHandlerFactory(ColumnHandlerFactory columnHandlerFactory,
+                                             SchemaCache schemaCache, Configuration configuration) {
         this.columnHandlerFactory = columnHandlerFactory;
+        this.schemaCache = schemaCache;
         this.configuration = configuration;
 
     }
@@ -41,8 +45,13 @@ public class DefaultScriptOutputHandlerFactory implements ScriptOutputHandlerFac
             String script,
             SQLWarningSink warningSink, int maxRows) {
 
-        return new DefaultSingleResultSetScriptOutputHandler(
-                statement, columnHandlerFactory, configuration, warningSink, maxRows);
+        if (configuration.getStreamingResultSet()) {
+            return new DefaultStreamingResultSetScriptOutputHandler(statement, columnHandlerFactory,
+                    schemaCache.forScript(script), configuration, warningSink, maxRows);
+        }
+
+        return new DefaultSingleResultSetScriptOutputHandler(statement, columnHandlerFactory,
+                schemaCache.forScript(script), configuration, warningSink, maxRows);
     }
 
     @Override
@@ -52,8 +61,8 @@ public class DefaultScriptOutputHandlerFactory implements ScriptOutputHandlerFac
             SQLWarningSink warningSink,
             int maxRows) {
 
-        return new DefaultMultipleResultSetScriptOutputHandler(
-                statement, columnHandlerFactory, configuration, warningSink, maxRows);
+        return new DefaultMultipleResultSetScriptOutputHandler(statement, columnHandlerFactory,
+                schemaCache.forScript(script), configuration, warningSink, maxRows);
     }
 
     @Override
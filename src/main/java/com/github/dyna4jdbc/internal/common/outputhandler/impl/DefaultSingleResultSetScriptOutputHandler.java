@@ -23,6 +23,7 @@ import com.github.dyna4jdbc.internal.common.jdbc.generic.DataTableAdapterResultS
 import com.github.dyna4jdbc.internal.common.outputhandler.SQLWarningSink;
 import com.github.dyna4jdbc.internal.common.outputhandler.SingleResultSetScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.common.util.io.SQLWarningSinkOutputStream;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
@@ -40,22 +41,22 @@ final class DefaultSingleResultSetScriptOutputHandler implements SingleResultSet
     private final Statement statement;
     private final DataTableWriter stdOut;
     private final OutputStream stdErr;
-    private final ColumnHandlerFactory columnHandlerFactory;
 
     DefaultSingleResultSetScriptOutputHandler(
             Statement statement,
             ColumnHandlerFactory columnHandlerFactory,
+            SchemaCache.ScriptSchemas scriptSchemas,
             Configuration configuration, SQLWarningSink warningSink, int maxRows) {
 
         this.statement = statement;
-        this.columnHandlerFactory = columnHandlerFactory;
 
         if (maxRows != ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS) {
             final int maxRowsIncludingHeaders = maxRows + 1;
 
-            this.stdOut = new BoundedDataTableWriter(configuration, maxRowsIncludingHeaders);
+            this.stdOut = new BoundedDataTableWriter(
+                    configuration, columnHandlerFactory, scriptSchemas, maxRowsIncludingHeaders);
         } else {
-            this.stdOut = new DataTableWriter(configuration);
+            this.stdOut = new DataTableWriter(configuration, columnHandlerFactory, scriptSchemas);
         }
         this.stdErr = new SQLWarningSinkOutputStream(configuration, warningSink);
     }
@@ -80,7 +81,8 @@ final class DefaultSingleResultSetScriptOutputHandler implements SingleResultSet
                         "Expected one ResultSet, script generated multiple: " + dataTableList.size());
         }
 
-        return new DataTableAdapterResultSet(statement, singleDataTable, columnHandlerFactory);
+        return new DataTableAdapterResultSet(
+                statement, singleDataTable, stdOut.newColumnHandlers(singleDataTable));
     }
 
     @Override
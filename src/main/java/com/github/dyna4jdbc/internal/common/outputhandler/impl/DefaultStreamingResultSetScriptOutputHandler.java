@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.AbortedError;
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.jdbc.generic.DataTableAdapterResultSet;
+import com.github.dyna4jdbc.internal.common.outputhandler.SQLWarningSink;
+import com.github.dyna4jdbc.internal.common.outputhandler.StreamingResultSetScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
+import com.github.dyna4jdbc.internal.common.util.io.SQLWarningSinkOutputStream;
+import com.github.dyna4jdbc.internal.config.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @author Peter G. Horvath
+ */
+final class DefaultStreamingResultSetScriptOutputHandler implements StreamingResultSetScriptOutputHandler {
+
+    private static final Logger LOGGER =
+            Logger.getLogger(DefaultStreamingResultSetScriptOutputHandler.class.getName());
+
+    private final Statement statement;
+    private final ColumnHandlerFactory columnHandlerFactory;
+    private final SchemaCache.ScriptSchemas scriptSchemas;
+    private final int typeDetectionRows;
+    private final int parallelColumnDetectionThreshold;
+
+    private final StreamingRowPipe rowPipe;
+    private final StreamingDataTableWriter stdOut;
+    private final OutputStream stdErr;
+
+    DefaultStreamingResultSetScriptOutputHandler(
+            Statement statement,
+            ColumnHandlerFactory columnHandlerFactory,
+            SchemaCache.ScriptSchemas scriptSchemas,
+            Configuration configuration, SQLWarningSink warningSink, int maxRows) {
+
+        this.statement = statement;
+        this.columnHandlerFactory = columnHandlerFactory;
+        this.scriptSchemas = scriptSchemas;
+        this.typeDetectionRows = configuration.getStreamingTypeDetectionRows();
+        this.parallelColumnDetectionThreshold = configuration.getParallelColumnDetectionThreshold();
+
+        this.rowPipe = new StreamingRowPipe(
+                configuration.getStreamingBufferRows(), configuration.getStreamingStallTimeoutMs());
+
+        final int maxRowsIncludingHeaders;
+        if (maxRows != ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS) {
+            maxRowsIncludingHeaders = maxRows + 1;
+        } else {
+            maxRowsIncludingHeaders = ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS;
+        }
+
+        this.stdOut = new StreamingDataTableWriter(configuration, rowPipe, maxRowsIncludingHeaders);
+        this.stdErr = new SQLWarningSinkOutputStream(configuration, warningSink);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+
+        try {
+            DataTable firstRows = new DataTable(stdOut.getCharset());
+            DataTableColumnScanners columnScanners = new DataTableColumnScanners(
+                    columnHandlerFactory, parallelColumnDetectionThreshold, firstRows, scriptSchemas);
+
+            for (int i = 0; i < typeDetectionRows && rowPipe.hasNext(); i++) {
+                List<String> row = rowPipe.next();
+
+                firstRows.appendRow(row);
+                columnScanners.scanRow(row);
+            }
+
+            return new DataTableAdapterResultSet(
+                    statement, firstRows, rowPipe, columnScanners.newColumnHandlers());
+
+        } catch (RuntimeException ex) {
+            // the ResultSet is not going to be returned: discard any further output
+            rowPipe.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void onScriptExecutionFinished(Throwable failure) {
+
+        Throwable executionFailure = failure;
+
+        /* Script executors normally close the streams they are given:
+         * we only have to make sure the last row is flushed in case
+         * this did not happen for any reason.
+         */
+        if (!stdOut.isClosed()) {
+            try {
+                stdOut.close();
+            } catch (IOException | RuntimeException ex) {
+                if (executionFailure == null) {
+                    executionFailure = ex;
+                } else {
+                    executionFailure.addSuppressed(ex);
+                }
+            }
+        }
+
+        try {
+            rowPipe.finish(executionFailure);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            LOGGER.log(Level.WARNING, "Interrupted while signalling end of data; closing the ResultSet", e);
+
+            rowPipe.close();
+
+        } catch (AbortedError e) {
+            LOGGER.log(Level.FINE, "ResultSet abandoned before the end of data was retrieved", e);
+        }
+    }
+
+    @Override
+    public OutputStream getOutOutputStream() {
+        return this.stdOut;
+    }
+
+    @Override
+    public OutputStream getErrorOutputStream() {
+        return this.stdErr;
+    }
+}
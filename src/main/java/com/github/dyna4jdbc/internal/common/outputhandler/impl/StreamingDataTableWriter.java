@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.AbortedError;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.config.Configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link CursorCellWriterOutputStream}, which passes each completed row
+ * to a {@link StreamingRowPipe} right away, instead of collecting them.
+ *
+ * @author Peter G. Horvath
+ */
+final class StreamingDataTableWriter extends CursorCellWriterOutputStream {
+
+    private final StreamingRowPipe rowPipe;
+    private final int maxRows;
+
+    private boolean currentRowIsTheFirstLine = true;
+    private final boolean skipFirstLine;
+
+    private int currentRow = 0;
+    private boolean closed = false;
+
+    StreamingDataTableWriter(Configuration configuration, StreamingRowPipe rowPipe, int maxRows) {
+        super(configuration.getCellSeparator(), configuration.getConversionCharset());
+
+        this.rowPipe = rowPipe;
+        this.maxRows = maxRows;
+        this.skipFirstLine = configuration.getSkipFirstLine();
+    }
+
+    @Override
+    protected boolean isOutputAccepted() {
+        if (rowPipe.isClosed()) {
+            /*
+            Nobody is going to retrieve the output once the ResultSet is closed:
+            the script is aborted instead of being run to completion, so that
+            it does not hold the script engine or the process any longer. */
+            throw new AbortedError("The ResultSet has been closed: the script is aborted");
+        }
+
+        /*
+        Once maxRows is reached, we simply swallow the write requests:
+        the script runs to completion, but its output is no longer processed. */
+        return maxRows == ResultSetScriptOutputHandlerConstants.MAX_ROWS_NO_BOUNDS || currentRow < maxRows;
+    }
+
+    @Override
+    protected void nextCell() {
+        // no-op
+    }
+
+    @Override
+    protected void nextRow() {
+        boolean addCurrentRowToOutput = true;
+        if (currentRowIsTheFirstLine) {
+            currentRowIsTheFirstLine = false;
+            if (skipFirstLine) {
+                addCurrentRowToOutput = false;
+            }
+        }
+
+        List<String> completedRow = detachCurrentRow();
+        if (addCurrentRowToOutput) {
+            putRow(completedRow);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close(); // ensure all pending content is written to the current row
+
+        closed = true;
+
+        List<String> lastRow = detachCurrentRow();
+        if (!lastRow.isEmpty() && !rowPipe.isClosed() && isOutputAccepted()) {
+            putRow(lastRow);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void putRow(List<String> row) {
+        try {
+            rowPipe.putRow(row);
+            ++currentRow;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw JDBCError.EXECUTION_ABORTED_AT_CLIENT_REQUEST.raiseUncheckedException(
+                    e, "Interrupted while waiting for the ResultSet to consume rows");
+        }
+    }
+}
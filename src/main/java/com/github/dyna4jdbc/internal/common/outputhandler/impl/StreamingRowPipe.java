@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.AbortedError;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import com.github.dyna4jdbc.internal.common.util.collection.CloseableIterator;
+import com.github.dyna4jdbc.internal.common.util.exception.ExceptionUtils;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A bounded buffer, which passes rows from a script running in the background
+ * (producer) to a {@code ResultSet} (consumer). If the buffer is full, the producer
+ * is blocked until the consumer retrieves a row (backpressure); if the buffer is
+ * empty, the consumer is blocked until the producer supplies a row or signals
+ * the end of the data.</p>
+ *
+ * <p>
+ * Once the consumer is closed, the producer is aborted with an {@link AbortedError}
+ * as soon as it supplies a further row, so that it does not keep running for
+ * output nobody is going to retrieve. If a stall timeout is specified and the producer is blocked on the full buffer
+ * for longer than that, the consumer is considered abandoned: the pipe is closed
+ * and the producer is aborted with an {@link AbortedError}.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class StreamingRowPipe implements CloseableIterator<List<String>> {
+
+    private static final Object END_OF_DATA = new Object();
+
+    private static final long PRODUCER_POLL_INTERVAL_MS = 100;
+
+    static final long NO_STALL_TIMEOUT = 0;
+
+    private final BlockingQueue<Object> queue;
+    private final long stallTimeoutMs;
+
+    private volatile boolean closed = false;
+    private volatile Throwable failure = null;
+
+    // accessed from the consumer thread only
+    private Object nextElement = null;
+
+    StreamingRowPipe(int capacity) {
+        this(capacity, NO_STALL_TIMEOUT);
+    }
+
+    StreamingRowPipe(int capacity, long stallTimeoutMs) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.stallTimeoutMs = stallTimeoutMs;
+    }
+
+    // --- producer side ---
+
+    void putRow(List<String> row) throws InterruptedException {
+        if (row == null) {
+            throw new NullPointerException("argument row cannot be null");
+        }
+
+        if (!putUnlessClosed(row)) {
+            throw new AbortedError("The ResultSet has been closed: the script is aborted");
+        }
+    }
+
+    /**
+     * Signals the end of the data to the consumer; this is a no-op if the
+     * consumer has been closed already.
+     *
+     * @param executionFailure the failure to report to the consumer, or {@code null}
+     * @throws InterruptedException if interrupted while waiting for the consumer
+     * @throws AbortedError if the consumer is considered abandoned
+     */
+    void finish(Throwable executionFailure) throws InterruptedException {
+        // written before END_OF_DATA is enqueued: visible to the consumer when END_OF_DATA is taken
+        this.failure = executionFailure;
+
+        putUnlessClosed(END_OF_DATA);
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private boolean putUnlessClosed(Object element) throws InterruptedException {
+        /* We poll instead of waiting indefinitely, so that a producer blocked on
+         * a full queue notices if the consumer is closed in the meantime.
+         */
+        final long waitStartedNanos = System.nanoTime();
+
+        while (!closed) {
+            if (queue.offer(element, PRODUCER_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+
+            if (stallTimeoutMs != NO_STALL_TIMEOUT
+                    && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStartedNanos) >= stallTimeoutMs) {
+
+                // nobody has retrieved a row for a long time: the ResultSet has been abandoned
+                close();
+
+                throw new AbortedError(String.format(
+                        "The ResultSet has not retrieved any rows for %s ms: "
+                                + "it is considered abandoned and the script is aborted", stallTimeoutMs));
+            }
+        }
+
+        return false;
+    }
+
+    // --- consumer side ---
+
+    @Override
+    public boolean hasNext() {
+        if (nextElement == null) {
+            if (closed) {
+                throw JDBCError.OBJECT_CLOSED.raiseUncheckedException(this);
+            }
+
+            try {
+                nextElement = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw JDBCError.EXECUTION_ABORTED_AT_CLIENT_REQUEST.raiseUncheckedException(
+                        e, "Interrupted while waiting for the script to produce output");
+            }
+        }
+
+        if (nextElement == END_OF_DATA) {
+            Throwable executionFailure = this.failure;
+            if (executionFailure != null) {
+                throw raiseFailure(executionFailure);
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<String> row = (List<String>) nextElement;
+        nextElement = null;
+
+        return row;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        // release the buffered rows right away and let a blocked producer continue
+        queue.clear();
+    }
+
+    /*
+     * Raises the failure in the same way as executeQuery would have done,
+     * had the script been executed in the foreground.
+     */
+    private static RuntimeDyna4JdbcException raiseFailure(Throwable throwable) {
+
+        Throwable rootCause = ExceptionUtils.getRootCause(throwable);
+
+        if (throwable instanceof RuntimeDyna4JdbcException) {
+            throw (RuntimeDyna4JdbcException) throwable;
+
+        } else if (rootCause instanceof AbortedError) {
+            throw JDBCError.EXECUTION_ABORTED_AT_CLIENT_REQUEST.raiseUncheckedException(
+                    rootCause, rootCause.getMessage());
+
+        } else if (throwable instanceof ScriptExecutionException) {
+            throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseUncheckedException(throwable,
+                    rootCause.getMessage(), ((ScriptExecutionException) throwable).getFailedScript());
+
+        } else if (throwable instanceof NoClassDefFoundError || throwable instanceof UnsatisfiedLinkError) {
+            throw JDBCError.REQUIRED_RESOURCE_UNAVAILABLE.raiseUncheckedException(
+                    throwable, throwable.getMessage());
+
+        } else if (throwable instanceof OutOfMemoryError) {
+            throw JDBCError.OUT_OF_MEMORY.raiseUncheckedException(throwable, "executeQuery failed");
+
+        } else {
+            throw JDBCError.UNEXPECTED_THROWABLE.raiseUncheckedException(
+                    throwable, ExceptionUtils.getRootCauseMessage(throwable));
+        }
+    }
+}
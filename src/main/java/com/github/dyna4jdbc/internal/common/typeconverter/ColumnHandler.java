@@ -68,4 +68,34 @@ public interface ColumnHandler {
     java.sql.Date covertToDate(String rawCellValue, java.util.Calendar cal) throws TypeConversionException;
 
     java.io.Reader covertToCharacterStream(String rawCellValue) throws TypeConversionException;
+
+    /**
+     * Returns whether a raw cell value represents SQL {@code NULL}: that is, whether
+     * the object conversions (e.g. {@link #covertToInteger(String)}) return {@code null}
+     * for it. Used together with the primitive conversions, which cannot return {@code null}.
+     *
+     * @param rawCellValue the raw cell value
+     * @return {@code true}, if the value represents SQL {@code NULL}
+     */
+    boolean isNullValue(String rawCellValue);
+
+    /*
+     * The primitive conversions below yield the same result as their object counterparts,
+     * except that they return false / 0 for SQL NULL. Implementations should not
+     * allocate objects, so that the JDBC getters of primitive types do not either.
+     */
+
+    boolean covertToBooleanValue(String rawCellValue) throws TypeConversionException;
+
+    byte covertToByteValue(String rawCellValue) throws TypeConversionException;
+
+    short covertToShortValue(String rawCellValue) throws TypeConversionException;
+
+    int covertToIntValue(String rawCellValue) throws TypeConversionException;
+
+    long covertToLongValue(String rawCellValue) throws TypeConversionException;
+
+    float covertToFloatValue(String rawCellValue) throws TypeConversionException;
+
+    double covertToDoubleValue(String rawCellValue) throws TypeConversionException;
 }
@@ -17,8 +17,36 @@
  
 package com.github.dyna4jdbc.internal.common.typeconverter;
 
+import java.util.List;
+
 
 public interface ColumnHandlerFactory {
 
     ColumnHandler newColumnHandler(int columnIndex, Iterable<String> columnValues);
+
+    /**
+     * Creates the {@code ColumnHandler}s for all columns of a result: equivalent to calling
+     * {@link #newColumnHandler(int, Iterable)} for each column, in column order, but
+     * implementations might process the columns in parallel.
+     *
+     * @param columns the values of each column
+     * @return the {@code ColumnHandler}s, one for each element of {@code columns}, in the same order
+     */
+    List<ColumnHandler> newColumnHandlers(List<? extends Iterable<String>> columns);
+
+    ColumnScanner newColumnScanner(int columnIndex);
+
+    /**
+     * Creates a {@code ColumnScanner}, which checks whether the values of a column conform
+     * to the {@code Snapshot} of an earlier scan of the same column (see
+     * {@link ColumnScanner#isConforming()}): this is cheaper than a full detection. If the
+     * values conform, {@link ColumnScanner#newColumnHandler()} returns a {@code ColumnHandler}
+     * for the metadata detected by the earlier scan; otherwise the values have to be scanned
+     * again using a scanner returned by {@link #newColumnScanner(int)}.
+     *
+     * @param columnIndex the index of the column
+     * @param snapshot the {@code Snapshot} of an earlier scan of the same column
+     * @return a new {@code ColumnScanner}
+     */
+    ColumnScanner newColumnScanner(int columnIndex, ColumnScanner.Snapshot snapshot);
 }
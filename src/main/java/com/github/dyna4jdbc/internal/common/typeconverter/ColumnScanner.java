@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.typeconverter;
+
+/**
+ * <p>
+ * Inspects the values of one column, one-by-one in row order, while the
+ * output is being captured: once all values have been passed, a
+ * {@link ColumnHandler} can be created without another pass over the data.</p>
+ *
+ * <p>
+ * Implementations are <b>not</b> thread-safe.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public interface ColumnScanner {
+
+    /**
+     * Immutable outcome of scanning the values of a column: it can be used
+     * to check whether the values of a later result conform to it, see
+     * {@link ColumnHandlerFactory#newColumnScanner(int, Snapshot)}.
+     */
+    interface Snapshot {
+
+        /**
+         * Returns whether the first value of the column was taken as its header.
+         *
+         * @return {@code true}, if the first value is the header of the column, {@code false} otherwise
+         */
+        boolean isFirstValueHeader();
+    }
+
+    /**
+     * Passes the value of the next row to this scanner.
+     *
+     * @param cellValue the value of the column in the next row; {@code null}
+     *                  if the cell is {@code null} or the row has no such column
+     */
+    void scanValue(String cellValue);
+
+    /**
+     * Creates a {@code ColumnHandler} based on the values scanned so far:
+     * no further values should be scanned once this method has been called.
+     *
+     * @return a new {@code ColumnHandler} (never {@code null})
+     */
+    ColumnHandler newColumnHandler();
+
+    /**
+     * Returns whether all values scanned so far conform to the {@code Snapshot}
+     * this scanner was created from. Scanners created without a {@code Snapshot}
+     * always return {@code true}.
+     *
+     * @return {@code true}, if the values conform to the {@code Snapshot}, {@code false} otherwise
+     */
+    boolean isConforming();
+
+    /**
+     * Returns the {@code Snapshot} of the values scanned so far: no further
+     * values should be scanned once this method has been called.
+     *
+     * @return the {@code Snapshot} (never {@code null})
+     */
+    Snapshot getSnapshot();
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Caches the column detection results of the results produced by a connection,
+ * keyed by the script text and the number of columns in the first row of the result,
+ * so that running the same script again only requires checking that the new values
+ * conform to the earlier detection (see
+ * {@link ColumnHandlerFactory#newColumnScanner(int, ColumnScanner.Snapshot)}).
+ * If the first row of a result is taken as the header of its columns, the row is
+ * part of the key as well: results of the same script with different headers are
+ * cached separately.</p>
+ *
+ * <p>
+ * The least recently used entries are evicted once the maximal number of entries
+ * is reached. Instances are thread-safe.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class SchemaCache {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, List<ColumnScanner.Snapshot>> entries;
+
+    private long hitCount;
+    private long missCount;
+
+    private SchemaCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, List<ColumnScanner.Snapshot>>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<ColumnScanner.Snapshot>> eldest) {
+                return size() > SchemaCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates a new {@code SchemaCache}.
+     *
+     * @param maxEntries the maximal number of results cached: {@code 0} disables caching
+     * @return a new {@code SchemaCache}
+     */
+    public static SchemaCache newInstance(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries cannot be negative: " + maxEntries);
+        }
+        return new SchemaCache(maxEntries);
+    }
+
+    /**
+     * Returns a view of this cache for the results of a script.
+     *
+     * @param script the script text
+     * @return the view of the cache, or {@code null} if caching is disabled
+     */
+    public ScriptSchemas forScript(String script) {
+        if (maxEntries == 0 || script == null) {
+            return null;
+        }
+        return new ScriptSchemas(script);
+    }
+
+    /**
+     * Returns the number of results, for which the detection results of an earlier
+     * result could be reused.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of results, for which the column types had to be detected:
+     * either because no earlier result was cached or because the values did not conform to it.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of results currently cached.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries; the hit and miss counts are retained.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized List<ColumnScanner.Snapshot> get(Key key) {
+        return entries.get(key);
+    }
+
+    private synchronized void recordHit() {
+        hitCount++;
+    }
+
+    private synchronized void recordMiss(Key key, List<ColumnScanner.Snapshot> snapshots) {
+        missCount++;
+        entries.put(key, snapshots);
+    }
+
+    /**
+     * The entries of a {@code SchemaCache} for the results of one script.
+     */
+    public final class ScriptSchemas {
+
+        private final String script;
+
+        private ScriptSchemas(String script) {
+            this.script = script;
+        }
+
+        /**
+         * Returns the {@code Snapshot}s of the columns of an earlier result of the script.
+         *
+         * @param firstRow the first row of the result
+         * @return the {@code Snapshot}s, one for each column, or {@code null} if no
+         *          result with the same number of columns (and the same headers,
+         *          if any) is cached
+         */
+        public List<ColumnScanner.Snapshot> get(List<String> firstRow) {
+            // the first row is only part of the key if it was taken as headers
+            List<ColumnScanner.Snapshot> snapshots = SchemaCache.this.get(new Key(script, firstRow.size(), firstRow));
+            if (snapshots == null) {
+                snapshots = SchemaCache.this.get(new Key(script, firstRow.size(), null));
+            }
+            return snapshots;
+        }
+
+        /**
+         * Records that the values of a result conformed to the {@code Snapshot}s
+         * returned by {@link #get(List)}.
+         */
+        public void recordHit() {
+            SchemaCache.this.recordHit();
+        }
+
+        /**
+         * Records that the column types of a result had to be detected, and caches the outcome.
+         *
+         * @param firstRow the first row of the result
+         * @param snapshots the {@code Snapshot}s, one for each column
+         */
+        public void recordMiss(List<String> firstRow, List<ColumnScanner.Snapshot> snapshots) {
+            List<String> headerRow = null;
+            for (ColumnScanner.Snapshot snapshot : snapshots) {
+                if (snapshot.isFirstValueHeader()) {
+                    headerRow = firstRow;
+                    break;
+                }
+            }
+
+            SchemaCache.this.recordMiss(new Key(script, firstRow.size(), headerRow),
+                    Collections.unmodifiableList(new ArrayList<>(snapshots)));
+        }
+    }
+
+    private static final class Key {
+
+        private final String script;
+        private final int columnCount;
+        private final List<String> headerRow;
+        private final int hashCode;
+
+        private Key(String script, int columnCount, List<String> headerRow) {
+            this.script = script;
+            this.columnCount = columnCount;
+            // the row might be backed by a buffer that is reused: take a copy
+            this.headerRow = headerRow == null ? null : new ArrayList<>(headerRow);
+            this.hashCode = Objects.hash(script, columnCount, this.headerRow);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hashCode == other.hashCode
+                    && columnCount == other.columnCount
+                    && script.equals(other.script)
+                    && Objects.equals(headerRow, other.headerRow);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
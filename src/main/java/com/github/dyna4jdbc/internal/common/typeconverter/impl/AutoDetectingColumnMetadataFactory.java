@@ -37,13 +37,25 @@ class AutoDetectingColumnMetadataFactory implements ColumnMetadataFactory {
         return columnMetaData;
     }
 
+    ColumnMetadata getColumnMetadata(int columnIndex, TypeDetector.DetectionResult detected) {
+        DefaultColumnMetadata columnMetaData = new DefaultColumnMetadata();
+        configureFromDetectionResult(columnMetaData, columnIndex, detected);
+        return columnMetaData;
+    }
+
     protected void configureFromColumnValues(DefaultColumnMetadata metaData,
                                       int columnIndex, Iterable<String> cellValues) {
 
-        final int sqlColumnIndex = columnIndex + 1;
-
         TypeDetector.DetectionResult detected = TypeDetector.detectColumnType(cellValues);
 
+        configureFromDetectionResult(metaData, columnIndex, detected);
+    }
+
+    protected final void configureFromDetectionResult(DefaultColumnMetadata metaData,
+                                      int columnIndex, TypeDetector.DetectionResult detected) {
+
+        final int sqlColumnIndex = columnIndex + 1;
+
         metaData.setConsumesFirstRow(false);
         metaData.setCurrency(detected.isCurrency());
         metaData.setNullability(detected.getNullability());
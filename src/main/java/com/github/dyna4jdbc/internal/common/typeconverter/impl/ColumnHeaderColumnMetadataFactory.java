@@ -26,6 +26,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
 import com.github.dyna4jdbc.internal.common.util.collection.AlwaysSkipFirstElementIterable;
 import com.github.dyna4jdbc.internal.common.util.collection.ArrayUtils;
 import com.github.dyna4jdbc.internal.config.Configuration;
@@ -66,14 +67,29 @@ final class ColumnHeaderColumnMetadataFactory extends AutoDetectingColumnMetadat
         }
 
         String firstValue = iterator.next();
-        String[] configStringArray = firstValue.split(":", HEADER_GROUP_COUNT);
+
+        TypeDetector.DetectionResult detected = TypeDetector.detectColumnType(
+                new AlwaysSkipFirstElementIterable<>(columnValuesIterable));
+
+        configureFromHeaderAndDetectionResult(metaData, columnIndex, firstValue, detected);
+    }
+
+    ColumnMetadata getColumnMetadata(int columnIndex, String headerValue, TypeDetector.DetectionResult detected) {
+        DefaultColumnMetadata columnMetaData = new DefaultColumnMetadata();
+        configureFromHeaderAndDetectionResult(columnMetaData, columnIndex, headerValue, detected);
+        return columnMetaData;
+    }
+
+    private void configureFromHeaderAndDetectionResult(DefaultColumnMetadata metaData,
+                                      int columnIndex, String headerValue, TypeDetector.DetectionResult detected) {
+
+        String[] configStringArray = headerValue.split(":", HEADER_GROUP_COUNT);
 
         String header = ArrayUtils.tryGetByIndex(configStringArray, 0);
         String sqlTypeConfig = ArrayUtils.tryGetByIndex(configStringArray, 1);
         String metaDataConfig = ArrayUtils.tryGetByIndex(configStringArray, 2);
 
-        super.configureFromColumnValues(metaData, columnIndex, 
-                new AlwaysSkipFirstElementIterable<>(columnValuesIterable));
+        configureFromDetectionResult(metaData, columnIndex, detected);
 
 
         if (header != null && !"".equals(header.trim())) {
@@ -237,4 +237,111 @@ class DefaultColumnHandler implements ColumnHandler {
 
         return new StringReader(rawCellValue);
     }
+
+    @Override
+    public boolean isNullValue(String rawCellValue) {
+        return rawCellValue == null;
+    }
+
+    /*
+     * The primitive conversions below handle the common, plain decimal notation
+     * without allocating any objects. For anything else, they delegate to the object
+     * conversion, which either handles the value or reports the conversion failure.
+     */
+
+    @Override
+    public boolean covertToBooleanValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return false;
+        }
+
+        return covertToBoolean(rawCellValue);
+    }
+
+    @Override
+    public byte covertToByteValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return 0;
+        }
+
+        final long value = PrimitiveNumberParser.parseLong(rawCellValue);
+        if (value != PrimitiveNumberParser.LONG_NOT_RECOGNISED
+                && value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            return (byte) value;
+        }
+
+        return covertToByte(rawCellValue);
+    }
+
+    @Override
+    public short covertToShortValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return 0;
+        }
+
+        final long value = PrimitiveNumberParser.parseLong(rawCellValue);
+        if (value != PrimitiveNumberParser.LONG_NOT_RECOGNISED
+                && value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            return (short) value;
+        }
+
+        return covertToShort(rawCellValue);
+    }
+
+    @Override
+    public int covertToIntValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return 0;
+        }
+
+        final long value = PrimitiveNumberParser.parseLong(rawCellValue);
+        if (value != PrimitiveNumberParser.LONG_NOT_RECOGNISED
+                && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+
+        return covertToInteger(rawCellValue);
+    }
+
+    @Override
+    public long covertToLongValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return 0L;
+        }
+
+        final long value = PrimitiveNumberParser.parseLong(rawCellValue);
+        if (value != PrimitiveNumberParser.LONG_NOT_RECOGNISED) {
+            return value;
+        }
+
+        return covertToLong(rawCellValue);
+    }
+
+    @Override
+    public float covertToFloatValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return 0.0f;
+        }
+
+        final float value = PrimitiveNumberParser.parseFloat(rawCellValue);
+        if (!Float.isNaN(value)) {
+            return value;
+        }
+
+        return covertToFloat(rawCellValue);
+    }
+
+    @Override
+    public double covertToDoubleValue(String rawCellValue) throws TypeConversionException {
+        if (rawCellValue == null) {
+            return 0.0d;
+        }
+
+        final double value = PrimitiveNumberParser.parseDouble(rawCellValue);
+        if (!Double.isNaN(value)) {
+            return value;
+        }
+
+        return covertToDouble(rawCellValue);
+    }
 }
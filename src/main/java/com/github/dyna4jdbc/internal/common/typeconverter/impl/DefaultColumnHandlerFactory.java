@@ -20,16 +20,26 @@ package com.github.dyna4jdbc.internal.common.typeconverter.impl;
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
-import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadataFactory;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnScanner;
+import com.github.dyna4jdbc.internal.common.util.concurrent.ParallelUtils;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public final class DefaultColumnHandlerFactory implements ColumnHandlerFactory {
 
-    private final ColumnMetadataFactory columnMetadataFactory;
+    // the number of columns processed sequentially by one fork-join task
+    private static final int COLUMNS_PER_PARALLEL_TASK = 4;
+
+    private final DefaultColumnMetadataFactory columnMetadataFactory;
+    private final int parallelColumnDetectionThreshold;
 
     private DefaultColumnHandlerFactory(Configuration configuration) {
         this.columnMetadataFactory = new DefaultColumnMetadataFactory(configuration);
+        this.parallelColumnDetectionThreshold = configuration.getParallelColumnDetectionThreshold();
     }
 
     public static DefaultColumnHandlerFactory getInstance(Configuration configuration) {
@@ -42,6 +52,103 @@ public final class DefaultColumnHandlerFactory implements ColumnHandlerFactory {
 
         ColumnMetadata columnMetadata = columnMetadataFactory.getColumnMetadata(columnNumber, columnValues);
 
+        return newColumnHandler(columnMetadata);
+    }
+
+    @Override
+    public List<ColumnHandler> newColumnHandlers(List<? extends Iterable<String>> columns) {
+
+        final int columnCount = columns.size();
+        final ColumnHandler[] columnHandlers = new ColumnHandler[columnCount];
+
+        if (isParallelDetectionApplicable(columnCount)) {
+
+            ParallelUtils.forEachIndex(columnCount, COLUMNS_PER_PARALLEL_TASK,
+                    columnIndex -> columnHandlers[columnIndex] =
+                            newColumnHandler(columnIndex, columns.get(columnIndex)));
+
+        } else {
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                columnHandlers[columnIndex] = newColumnHandler(columnIndex, columns.get(columnIndex));
+            }
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(columnHandlers));
+    }
+
+    private boolean isParallelDetectionApplicable(int columnCount) {
+        return parallelColumnDetectionThreshold != 0
+                && columnCount >= parallelColumnDetectionThreshold
+                && ParallelUtils.isParallelismAvailable();
+    }
+
+    @Override
+    public ColumnScanner newColumnScanner(int columnIndex) {
+
+        DefaultColumnMetadataFactory.ColumnMetadataScanner columnMetadataScanner =
+                columnMetadataFactory.newColumnMetadataScanner(columnIndex);
+
+        return new ColumnScanner() {
+            @Override
+            public void scanValue(String cellValue) {
+                columnMetadataScanner.scanValue(cellValue);
+            }
+
+            @Override
+            public ColumnHandler newColumnHandler() {
+                return DefaultColumnHandlerFactory.this.newColumnHandler(
+                        columnMetadataScanner.getColumnMetadata());
+            }
+
+            @Override
+            public boolean isConforming() {
+                return true;
+            }
+
+            @Override
+            public Snapshot getSnapshot() {
+                return columnMetadataScanner.getDetectedColumn();
+            }
+        };
+    }
+
+    @Override
+    public ColumnScanner newColumnScanner(int columnIndex, ColumnScanner.Snapshot snapshot) {
+
+        DefaultColumnMetadataFactory.ConformanceScanner conformanceScanner =
+                columnMetadataFactory.newConformanceScanner(snapshot);
+
+        return new ColumnScanner() {
+            @Override
+            public void scanValue(String cellValue) {
+                conformanceScanner.scanValue(cellValue);
+            }
+
+            @Override
+            public ColumnHandler newColumnHandler() {
+                if (!conformanceScanner.isConforming()) {
+                    throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                            "values do not conform to the snapshot of column " + columnIndex);
+                }
+
+                return DefaultColumnHandlerFactory.this.newColumnHandler(
+                        conformanceScanner.getDetectedColumn().getColumnMetadata());
+            }
+
+            @Override
+            public boolean isConforming() {
+                return conformanceScanner.isConforming();
+            }
+
+            @Override
+            public Snapshot getSnapshot() {
+                return conformanceScanner.getDetectedColumn();
+            }
+        };
+    }
+
+    private ColumnHandler newColumnHandler(ColumnMetadata columnMetadata) {
+
         String formatString = columnMetadata.getFormatString();
         if (formatString != null) {
             return createFormatStringBasedTypeHandler(columnMetadata, formatString);
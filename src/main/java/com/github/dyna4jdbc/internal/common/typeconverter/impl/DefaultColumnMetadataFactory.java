@@ -18,12 +18,13 @@
 package com.github.dyna4jdbc.internal.common.typeconverter.impl;
 
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadataFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnScanner;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
 final class DefaultColumnMetadataFactory implements ColumnMetadataFactory {
@@ -47,23 +48,161 @@ final class DefaultColumnMetadataFactory implements ColumnMetadataFactory {
     @Override
     public ColumnMetadata getColumnMetadata(int columnIndex, Iterable<String> columnValues) {
 
-        Iterator<String> iterator = columnValues.iterator();
+        ColumnMetadataScanner columnMetadataScanner = newColumnMetadataScanner(columnIndex);
 
-        if (!iterator.hasNext()) {
-            return emptyColumnMetadataFactory.getColumnMetadata(columnIndex, columnValues);
+        for (String cellValue : columnValues) {
+            columnMetadataScanner.scanValue(cellValue);
         }
 
-        final String firstValueFromColumn = iterator.next();
+        return columnMetadataScanner.getColumnMetadata();
+    }
+
+    ColumnMetadataScanner newColumnMetadataScanner(int columnIndex) {
+        return new ColumnMetadataScanner(columnIndex);
+    }
+
+    ConformanceScanner newConformanceScanner(ColumnScanner.Snapshot snapshot) {
+        if (!(snapshot instanceof DetectedColumn)) {
+            throw new IllegalArgumentException("Snapshot was not produced by this factory: " + snapshot);
+        }
+
+        return new ConformanceScanner((DetectedColumn) snapshot);
+    }
+
+    /**
+     * Determines the {@code ColumnMetadata} of a column from its values passed one-by-one:
+     * the first value decides whether the column has a header containing parse instructions,
+     * all other values are passed to the type detection right away.
+     */
+    final class ColumnMetadataScanner {
+
+        private final int columnIndex;
+        private final TypeDetector.DetectionContext detectionContext = new TypeDetector.DetectionContext();
+
+        private boolean empty = true;
+        private String headerValue = null;
+
+        private DetectedColumn detectedColumn = null;
+
+        private ColumnMetadataScanner(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        void scanValue(String cellValue) {
+            if (empty) {
+                empty = false;
+
+                final boolean headerSeemsToContainParseInstructions =
+                        cellValue != null && HEADER_PATTERN.matcher(cellValue).matches();
+
+                if (headerSeemsToContainParseInstructions) {
+                    headerValue = cellValue;
+                    return;
+                }
+            }
+
+            TypeDetector.inspectCellValue(detectionContext, cellValue);
+        }
+
+        ColumnMetadata getColumnMetadata() {
+            return getDetectedColumn().columnMetadata;
+        }
+
+        DetectedColumn getDetectedColumn() {
+            if (detectedColumn == null) {
+                // the snapshot has to be taken before the detection is completed
+                TypeDetector.DetectionContext snapshot = new TypeDetector.DetectionContext(detectionContext);
+
+                detectedColumn = new DetectedColumn(empty, headerValue, snapshot, completeColumnMetadata());
+            }
+
+            return detectedColumn;
+        }
+
+        private ColumnMetadata completeColumnMetadata() {
+            if (empty) {
+                return emptyColumnMetadataFactory.getColumnMetadata(columnIndex, Collections.emptyList());
+            }
+
+            TypeDetector.DetectionResult detected = TypeDetector.completeDetection(detectionContext);
+
+            if (headerValue != null) {
+                return columnHeaderColumnMetadataFactory.getColumnMetadata(columnIndex, headerValue, detected);
+            } else {
+                return autoDetectingColumnMetadataFactory.getColumnMetadata(columnIndex, detected);
+            }
+        }
+    }
 
-        final boolean headerSeemsToContainParseInstructions =
-                firstValueFromColumn != null && HEADER_PATTERN.matcher(firstValueFromColumn).matches();
+    /**
+     * Checks whether the values of a column, passed one-by-one, would leave the
+     * state of the detection of an earlier column unchanged: if so, the
+     * {@code ColumnMetadata} detected for the earlier column applies.
+     */
+    static final class ConformanceScanner {
 
-        if (headerSeemsToContainParseInstructions) {
-            return columnHeaderColumnMetadataFactory.getColumnMetadata(columnIndex, columnValues);
-        } else {
-            return autoDetectingColumnMetadataFactory.getColumnMetadata(columnIndex, columnValues);
+        private final DetectedColumn expected;
+
+        private boolean first = true;
+        private boolean conforming = true;
+
+        private ConformanceScanner(DetectedColumn expected) {
+            this.expected = expected;
         }
 
+        void scanValue(String cellValue) {
+            if (!conforming) {
+                return;
+            }
+
+            if (first) {
+                first = false;
+
+                if (expected.headerValue != null) {
+                    conforming = expected.headerValue.equals(cellValue);
+                    return;
+                }
+            }
+
+            conforming = !expected.empty
+                    && TypeDetector.conformsTo(expected.detectionContext, cellValue);
+        }
+
+        boolean isConforming() {
+            return conforming;
+        }
+
+        DetectedColumn getDetectedColumn() {
+            return expected;
+        }
+    }
+
+    /**
+     * Immutable outcome of scanning the values of a column.
+     */
+    static final class DetectedColumn implements ColumnScanner.Snapshot {
+
+        private final boolean empty;
+        private final String headerValue;
+        private final TypeDetector.DetectionContext detectionContext;
+        private final ColumnMetadata columnMetadata;
+
+        private DetectedColumn(boolean empty, String headerValue,
+                               TypeDetector.DetectionContext detectionContext, ColumnMetadata columnMetadata) {
+            this.empty = empty;
+            this.headerValue = headerValue;
+            this.detectionContext = detectionContext;
+            this.columnMetadata = columnMetadata;
+        }
+
+        ColumnMetadata getColumnMetadata() {
+            return columnMetadata;
+        }
+
+        @Override
+        public boolean isFirstValueHeader() {
+            return headerValue != null;
+        }
     }
 
     private static String buildMatchPattern() {
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+/**
+ * <p>
+ * Allocation-free parsing of plain decimal numbers into primitive values.</p>
+ *
+ * <p>
+ * Only the most common notation is recognised: an optional sign followed by ASCII digits
+ * and (for floating point values) an optional fraction, surrounded by optional whitespace.
+ * Any other input (hexadecimal or octal notation, exponents, values which could overflow
+ * or could not be converted exactly, etc.) is reported as not recognised: the caller then
+ * has to fall back to the conversion in {@link TypeConverterRegistry}. For any input that
+ * is recognised, the result is the same as that of {@link TypeConverterRegistry}.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class PrimitiveNumberParser {
+
+    /**
+     * Returned by {@link #parseLong(String)}, if the input is not recognised.
+     * Since at most {@value #MAX_LONG_DIGITS} digits are accepted, this value
+     * can never be the result of parsing.
+     */
+    static final long LONG_NOT_RECOGNISED = Long.MIN_VALUE;
+
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /*
+     * The largest integers and powers of ten, which are represented exactly
+     * as double/float: converting a decimal number composed from these with
+     * a single division is correctly rounded, just like Double.parseDouble().
+     */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+    private static final long MAX_EXACT_FLOAT_INTEGER = 1L << 24;
+
+    private static final double[] EXACT_DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    private static final float[] EXACT_FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f,
+    };
+
+    private PrimitiveNumberParser() {
+        throw new AssertionError("static utility class");
+    }
+
+    /**
+     * Parses a decimal integer, yielding the same result as {@code Long.decode(value.trim())}.
+     *
+     * @param value the value to parse (cannot be {@code null})
+     * @return the parsed value, or {@link #LONG_NOT_RECOGNISED}
+     */
+    static long parseLong(String value) {
+        int start = trimStart(value);
+        final int end = trimEnd(value, start);
+
+        if (start == end) {
+            return LONG_NOT_RECOGNISED;
+        }
+
+        final char first = value.charAt(start);
+        final boolean negative = first == '-';
+        if (negative || first == '+') {
+            start++;
+        }
+
+        final int digits = end - start;
+        if (digits == 0 || digits > MAX_LONG_DIGITS) {
+            return LONG_NOT_RECOGNISED;
+        }
+
+        if (digits > 1 && value.charAt(start) == '0') {
+            // Long.decode() interprets a leading zero as octal notation
+            return LONG_NOT_RECOGNISED;
+        }
+
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            final char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return LONG_NOT_RECOGNISED;
+            }
+
+            result = result * 10 + (ch - '0');
+        }
+
+        if (negative) {
+            return -result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses a decimal number, yielding the same result as {@code Double.valueOf(value)}.
+     *
+     * @param value the value to parse (cannot be {@code null})
+     * @return the parsed value, or {@code NaN}, if the input is not recognised
+     */
+    static double parseDouble(String value) {
+        final long significand = scanSignificand(value, MAX_EXACT_DOUBLE_INTEGER);
+        if (significand == LONG_NOT_RECOGNISED) {
+            return Double.NaN;
+        }
+
+        final int fractionDigits = scannedFractionDigits(value);
+        if (fractionDigits >= EXACT_DOUBLE_POWERS_OF_TEN.length) {
+            return Double.NaN;
+        }
+
+        final double result = significand / EXACT_DOUBLE_POWERS_OF_TEN[fractionDigits];
+
+        if (isNegative(value)) {
+            return -result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses a decimal number, yielding the same result as {@code Float.valueOf(value)}.
+     *
+     * @param value the value to parse (cannot be {@code null})
+     * @return the parsed value, or {@code NaN}, if the input is not recognised
+     */
+    static float parseFloat(String value) {
+        final long significand = scanSignificand(value, MAX_EXACT_FLOAT_INTEGER);
+        if (significand == LONG_NOT_RECOGNISED) {
+            return Float.NaN;
+        }
+
+        final int fractionDigits = scannedFractionDigits(value);
+        if (fractionDigits >= EXACT_FLOAT_POWERS_OF_TEN.length) {
+            return Float.NaN;
+        }
+
+        final float result = significand / EXACT_FLOAT_POWERS_OF_TEN[fractionDigits];
+
+        if (isNegative(value)) {
+            return -result;
+        }
+
+        return result;
+    }
+
+    /*
+     * Returns the digits of a decimal number (ignoring the decimal point) as a long,
+     * or LONG_NOT_RECOGNISED, if the value is not a plain decimal number or its digits
+     * are not smaller than maxSignificand.
+     */
+    private static long scanSignificand(String value, long maxSignificand) {
+        int start = trimStart(value);
+        final int end = trimEnd(value, start);
+
+        if (start == end) {
+            return LONG_NOT_RECOGNISED;
+        }
+
+        final char first = value.charAt(start);
+        if (first == '-' || first == '+') {
+            start++;
+        }
+
+        boolean seenDigit = false;
+        boolean seenDecimalPoint = false;
+        long significand = 0;
+
+        for (int i = start; i < end; i++) {
+            final char ch = value.charAt(i);
+            if (ch == '.' && !seenDecimalPoint) {
+                seenDecimalPoint = true;
+            } else if (ch >= '0' && ch <= '9') {
+                seenDigit = true;
+                significand = significand * 10 + (ch - '0');
+                if (significand >= maxSignificand) {
+                    return LONG_NOT_RECOGNISED;
+                }
+            } else {
+                return LONG_NOT_RECOGNISED;
+            }
+        }
+
+        if (!seenDigit) {
+            return LONG_NOT_RECOGNISED;
+        }
+
+        return significand;
+    }
+
+    /*
+     * Returns the number of digits after the decimal point of a value
+     * already accepted by scanSignificand().
+     */
+    private static int scannedFractionDigits(String value) {
+        final int end = trimEnd(value, trimStart(value));
+        final int decimalPoint = value.lastIndexOf('.', end - 1);
+        if (decimalPoint < 0) {
+            return 0;
+        }
+
+        return end - decimalPoint - 1;
+    }
+
+    private static boolean isNegative(String value) {
+        final int start = trimStart(value);
+        return start < value.length() && value.charAt(start) == '-';
+    }
+
+    // whitespace is recognised just like String.trim() does
+    private static int trimStart(String value) {
+        final int length = value.length();
+        int start = 0;
+        while (start < length && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * A compiled, immutable and thread-safe parser for the {@code SimpleDateFormat} format
+ * strings of {@code TIMESTAMP} columns. Instances are cached per format string, so they
+ * are shared by all connections.</p>
+ *
+ * <p>
+ * Parsing yields exactly the same result as a non-lenient {@code SimpleDateFormat}
+ * (which remains the reference implementation), but the common cases are handled faster:</p>
+ * <ol>
+ *     <li>ISO-like layouts (e.g. {@code yyyy-MM-dd HH:mm:ss.SSS}) are parsed by hand, if
+ *     the value has the exact layout,</li>
+ *     <li>format strings using only fixed-width numeric fields ({@code yyyy}, {@code MM},
+ *     {@code dd}, {@code HH}, {@code mm}, {@code ss}, {@code SSS}) and literals are compiled
+ *     to a {@code DateTimeFormatter}.</li>
+ * </ol>
+ * <p>
+ * Whenever these could yield a result different from {@code SimpleDateFormat} (the value
+ * does not match the layout exactly, dates before 1900 or after 2037, local times in a
+ * daylight saving time transition, etc.) parsing falls back to a
+ * {@code SimpleDateFormat}, held in a {@code ThreadLocal}.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class TimestampFormat {
+
+    private static final int MAX_CACHED_FORMATS = 256;
+
+    private static final ConcurrentHashMap<String, TimestampFormat> CACHE = new ConcurrentHashMap<>();
+
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+
+    /*
+     * java.time uses the proleptic Gregorian calendar, while GregorianCalendar
+     * (used by SimpleDateFormat) switches to the Julian calendar before 1582-10-15.
+     * Also, java.util.TimeZone ignores time zone history before 1900 (e.g. local mean
+     * time) and applies the last known rules after 2037, while java.time uses the
+     * complete history: dates outside these years are left to SimpleDateFormat.
+     */
+    private static final int FIRST_YEAR_WITH_SAME_RESULT = 1900;
+    private static final int LAST_YEAR_WITH_SAME_RESULT = 2037;
+
+    private static final int TWO_DIGIT_YEAR_WINDOW_YEARS = 80;
+
+    private static final int DEFAULT_YEAR = 1970;
+
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int NANOS_PER_MILLI = 1000000;
+
+    private enum IsoLayout {
+
+        DATE("yyyy-MM-dd", false, false, (char) 0),
+        DATE_TIME("yyyy-MM-dd HH:mm:ss", true, false, ' '),
+        DATE_TIME_MILLIS("yyyy-MM-dd HH:mm:ss.SSS", true, true, ' '),
+        ISO_DATE_TIME("yyyy-MM-dd'T'HH:mm:ss", true, false, 'T'),
+        ISO_DATE_TIME_MILLIS("yyyy-MM-dd'T'HH:mm:ss.SSS", true, true, 'T');
+
+        private static final int DATE_LENGTH = 10;
+        private static final int DATE_TIME_LENGTH = 19;
+        private static final int DATE_TIME_MILLIS_LENGTH = 23;
+
+        private final String formatString;
+        private final boolean hasTime;
+        private final boolean hasMillis;
+        private final char timeSeparator;
+
+        IsoLayout(String formatString, boolean hasTime, boolean hasMillis, char timeSeparator) {
+            this.formatString = formatString;
+            this.hasTime = hasTime;
+            this.hasMillis = hasMillis;
+            this.timeSeparator = timeSeparator;
+        }
+
+        int getLength() {
+            if (hasMillis) {
+                return DATE_TIME_MILLIS_LENGTH;
+            } else if (hasTime) {
+                return DATE_TIME_LENGTH;
+            } else {
+                return DATE_LENGTH;
+            }
+        }
+
+        static IsoLayout forFormatString(String formatString) {
+            for (IsoLayout layout : values()) {
+                if (layout.formatString.equals(formatString)) {
+                    return layout;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String formatString;
+    private final Locale locale;
+    private final IsoLayout isoLayout;
+    private final DateTimeFormatter formatter;
+    private final ThreadLocal<SimpleDateFormat> simpleDateFormat;
+
+    private TimestampFormat(String formatString, Locale locale) {
+        this.formatString = formatString;
+        this.locale = locale;
+
+        // validates the format string: throws IllegalArgumentException if it is invalid
+        final SimpleDateFormat prototype = new SimpleDateFormat(formatString, locale);
+        prototype.setLenient(false);
+
+        this.simpleDateFormat = ThreadLocal.withInitial(() -> (SimpleDateFormat) prototype.clone());
+
+        // the locale might imply a non-Gregorian calendar (e.g. the Thai Buddhist calendar)
+        if (prototype.getCalendar().getClass() == GregorianCalendar.class) {
+            this.isoLayout = IsoLayout.forFormatString(formatString);
+            this.formatter = compile(formatString);
+        } else {
+            this.isoLayout = null;
+            this.formatter = null;
+        }
+    }
+
+    /**
+     * Returns the {@code TimestampFormat} for a format string and locale.
+     *
+     * @param formatString the {@code SimpleDateFormat} format string
+     * @param locale the locale to use
+     * @return the {@code TimestampFormat} (never {@code null})
+     * @throws IllegalArgumentException if the format string is invalid
+     */
+    static TimestampFormat forFormatString(String formatString, Locale locale) {
+        final String cacheKey = locale + ":" + formatString;
+
+        TimestampFormat timestampFormat = CACHE.get(cacheKey);
+        if (timestampFormat == null) {
+            timestampFormat = new TimestampFormat(formatString, locale);
+
+            // format strings come from result headers: do not let the cache grow unbounded
+            if (CACHE.size() < MAX_CACHED_FORMATS) {
+                CACHE.putIfAbsent(cacheKey, timestampFormat);
+            }
+        }
+
+        return timestampFormat;
+    }
+
+    /**
+     * Returns the start of the 100-year period two-digit years are interpreted in, if
+     * a value is parsed now: this is what a {@code SimpleDateFormat} created now would use.
+     *
+     * @return the start of the 100-year period for two-digit years
+     */
+    Date newTwoDigitYearStart() {
+        Calendar calendar = Calendar.getInstance(locale);
+        calendar.add(Calendar.YEAR, -TWO_DIGIT_YEAR_WINDOW_YEARS);
+        return calendar.getTime();
+    }
+
+    String getFormatString() {
+        return formatString;
+    }
+
+    /**
+     * Parses a value, interpreting it in the supplied time zone.
+     *
+     * @param value the value to parse (cannot be {@code null})
+     * @param timeZone the time zone of the value
+     * @param zoneRules the rules of {@code timeZone}
+     * @param twoDigitYearStart see {@link #newTwoDigitYearStart()}
+     * @return the epoch milliseconds
+     * @throws ParseException if the value cannot be parsed
+     */
+    long parseToEpochMillis(String value, TimeZone timeZone, ZoneRules zoneRules, Date twoDigitYearStart)
+            throws ParseException {
+
+        long epochMillis = NOT_PARSED;
+
+        if (isoLayout != null) {
+            epochMillis = parseIsoLayout(value, zoneRules);
+        }
+
+        if (epochMillis == NOT_PARSED && formatter != null) {
+            epochMillis = parseWithFormatter(value, zoneRules);
+        }
+
+        if (epochMillis == NOT_PARSED) {
+            SimpleDateFormat dateFormat = simpleDateFormat.get();
+            dateFormat.setTimeZone(timeZone);
+            dateFormat.set2DigitYearStart(twoDigitYearStart);
+            epochMillis = dateFormat.parse(value).getTime();
+        }
+
+        return epochMillis;
+    }
+
+    private long parseIsoLayout(String value, ZoneRules zoneRules) {
+        if (value.length() != isoLayout.getLength()) {
+            return NOT_PARSED;
+        }
+
+        if (value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return NOT_PARSED;
+        }
+
+        final int year = parseDigits(value, 0, 4);
+        final int month = parseDigits(value, 5, 2);
+        final int day = parseDigits(value, 8, 2);
+
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+
+        if (isoLayout.hasTime) {
+            if (value.charAt(10) != isoLayout.timeSeparator
+                    || value.charAt(13) != ':' || value.charAt(16) != ':') {
+                return NOT_PARSED;
+            }
+
+            hour = parseDigits(value, 11, 2);
+            minute = parseDigits(value, 14, 2);
+            second = parseDigits(value, 17, 2);
+        }
+
+        if (isoLayout.hasMillis) {
+            if (value.charAt(19) != '.') {
+                return NOT_PARSED;
+            }
+
+            millis = parseDigits(value, 20, 3);
+        }
+
+        return toEpochMillis(year, month, day, hour, minute, second, millis, zoneRules);
+    }
+
+    // returns -1, if the range contains a non-digit character
+    private static int parseDigits(String value, int start, int length) {
+        int result = 0;
+        for (int i = start; i < start + length; i++) {
+            final char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            result = result * 10 + (ch - '0');
+        }
+        return result;
+    }
+
+    private long parseWithFormatter(String value, ZoneRules zoneRules) {
+        final ParsePosition position = new ParsePosition(0);
+        final TemporalAccessor parsed = formatter.parseUnresolved(value, position);
+
+        // SimpleDateFormat would read any trailing digits as part of the last field
+        if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != value.length()) {
+            return NOT_PARSED;
+        }
+
+        return toEpochMillis(
+                getField(parsed, ChronoField.YEAR, DEFAULT_YEAR),
+                getField(parsed, ChronoField.MONTH_OF_YEAR, 1),
+                getField(parsed, ChronoField.DAY_OF_MONTH, 1),
+                getField(parsed, ChronoField.HOUR_OF_DAY, 0),
+                getField(parsed, ChronoField.MINUTE_OF_HOUR, 0),
+                getField(parsed, ChronoField.SECOND_OF_MINUTE, 0),
+                getField(parsed, ChronoField.MILLI_OF_SECOND, 0),
+                zoneRules);
+    }
+
+    private static int getField(TemporalAccessor parsed, ChronoField field, int defaultValue) {
+        if (parsed.isSupported(field)) {
+            return (int) parsed.getLong(field);
+        }
+        return defaultValue;
+    }
+
+    //CHECKSTYLE.OFF: ParameterNumber
+    private static long toEpochMillis(int year, int month, int day,
+                                      int hour, int minute, int second, int millis,
+                                      ZoneRules zoneRules) {
+        //CHECKSTYLE.ON: ParameterNumber
+
+        if (year < FIRST_YEAR_WITH_SAME_RESULT || year > LAST_YEAR_WITH_SAME_RESULT
+                || month < 1 || month > 12
+                || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                || hour < 0 || hour > 23
+                || minute < 0 || minute > 59
+                || second < 0 || second > 59
+                || millis < 0 || millis > 999) {
+            // let SimpleDateFormat decide, how to handle (or report) the value
+            return NOT_PARSED;
+        }
+
+        final LocalDateTime localDateTime = LocalDateTime.of(
+                year, month, day, hour, minute, second, millis * NANOS_PER_MILLI);
+
+        if (!zoneRules.isFixedOffset() && zoneRules.getTransition(localDateTime) != null) {
+            // gap or overlap: GregorianCalendar resolves these differently from java.time
+            return NOT_PARSED;
+        }
+
+        final ZoneOffset offset = zoneRules.getOffset(localDateTime);
+
+        return localDateTime.toEpochSecond(offset) * MILLIS_PER_SECOND + millis;
+    }
+
+    /*
+     * Compiles format strings consisting of fixed-width numeric fields and literals only:
+     * returns null for anything else.
+     */
+    private static DateTimeFormatter compile(String formatString) {
+        final List<String> tokens = tokenize(formatString);
+        if (tokens == null) {
+            return null;
+        }
+
+        final DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+
+        for (String token : tokens) {
+            if (token.charAt(0) == '\'') {
+                final char firstLiteralChar = token.charAt(1);
+                if (Character.isDigit(firstLiteralChar) || firstLiteralChar == '-' || firstLiteralChar == '+') {
+                    // SimpleDateFormat would read these as part of the preceding number
+                    return null;
+                }
+
+                builder.appendLiteral(token.substring(1));
+                continue;
+            }
+
+            switch (token) {
+                case "yyyy":
+                    builder.appendValue(ChronoField.YEAR, 4);
+                    break;
+                case "MM":
+                    builder.appendValue(ChronoField.MONTH_OF_YEAR, 2);
+                    break;
+                case "dd":
+                    builder.appendValue(ChronoField.DAY_OF_MONTH, 2);
+                    break;
+                case "HH":
+                    builder.appendValue(ChronoField.HOUR_OF_DAY, 2);
+                    break;
+                case "mm":
+                    builder.appendValue(ChronoField.MINUTE_OF_HOUR, 2);
+                    break;
+                case "ss":
+                    builder.appendValue(ChronoField.SECOND_OF_MINUTE, 2);
+                    break;
+                case "SSS":
+                    builder.appendValue(ChronoField.MILLI_OF_SECOND, 3);
+                    break;
+                default:
+                    return null;
+            }
+        }
+
+        return builder.toFormatter();
+    }
+
+    /*
+     * Splits a SimpleDateFormat format string to runs of the same pattern letter and
+     * literals (the latter marked with a leading quote). Returns null, if the format
+     * string contains a field twice, since its value would be overwritten.
+     */
+    private static List<String> tokenize(String formatString) {
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+
+        final int length = formatString.length();
+        int index = 0;
+        while (index < length) {
+            final char ch = formatString.charAt(index);
+
+            if (ch == '\'') {
+                int end = formatString.indexOf('\'', index + 1);
+                if (end < 0 || (end + 1 < length && formatString.charAt(end + 1) == '\'')) {
+                    // keep it simple: quotes within quoted text are not supported
+                    return null;
+                }
+
+                if (end == index + 1) {
+                    literal.append('\'');
+                } else {
+                    literal.append(formatString, index + 1, end);
+                }
+                index = end + 1;
+
+            } else if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')) {
+                if (literal.length() > 0) {
+                    tokens.add("'" + literal);
+                    literal.setLength(0);
+                }
+
+                int end = index + 1;
+                while (end < length && formatString.charAt(end) == ch) {
+                    end++;
+                }
+
+                final String field = formatString.substring(index, end);
+                if (tokens.contains(field)) {
+                    return null;
+                }
+
+                tokens.add(field);
+                index = end;
+
+            } else {
+                literal.append(ch);
+                index++;
+            }
+        }
+
+        if (literal.length() > 0) {
+            tokens.add("'" + literal);
+        }
+
+        return tokens;
+    }
+}
@@ -18,10 +18,11 @@
 package com.github.dyna4jdbc.internal.common.typeconverter.impl;
 
 import java.sql.Timestamp;
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.zone.ZoneRules;
 import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
 
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
@@ -29,8 +30,15 @@ import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionExceptio
 
 class TimestampFormatStringColumnHandler extends DefaultColumnHandler {
 
-    private final String formatString;
-    private final DateFormat formatter;
+    private final TimestampFormat timestampFormat;
+
+    /*
+     * Values are interpreted according to the default locale and time zone at the
+     * time the handler is created, just like a SimpleDateFormat created here would do.
+     */
+    private final TimeZone timeZone;
+    private final ZoneRules zoneRules;
+    private final Date twoDigitYearStart;
 
     TimestampFormatStringColumnHandler(ColumnMetadata columnMetadata, String formatString) {
         super(columnMetadata);
@@ -40,9 +48,11 @@ class TimestampFormatStringColumnHandler extends DefaultColumnHandler {
                 throw new IllegalArgumentException("formatString is REQUIRED. It cannot be empty / whitespace only");
             }
 
-            this.formatString = formatString;
-            this.formatter = new SimpleDateFormat(formatString);
-            this.formatter.setLenient(false);
+            this.timestampFormat = TimestampFormat.forFormatString(
+                    formatString, Locale.getDefault(Locale.Category.FORMAT));
+            this.timeZone = TimeZone.getDefault();
+            this.zoneRules = timeZone.toZoneId().getRules();
+            this.twoDigitYearStart = timestampFormat.newTwoDigitYearStart();
         } catch (IllegalArgumentException e) {
             /*
              NOTE: IllegalArgumentException can be both thrown from our
@@ -66,29 +76,21 @@ class TimestampFormatStringColumnHandler extends DefaultColumnHandler {
 
     @Override
     public Timestamp covertToTimestamp(String rawCellValue) throws TypeConversionException {
-
-        try {
-            Date parsedDate = formatter.parse(rawCellValue);
-            return new Timestamp(parsedDate.getTime());
-
-        } catch (ParseException e) {
-            throw new TypeConversionException("Could not parse '" + rawCellValue
-                            + "' according to format string '" + formatString + "'", e);
-
-        }
+        return new Timestamp(parseToEpochMillis(rawCellValue));
     }
 
     @Override
     public java.sql.Date covertToDate(String rawCellValue) throws TypeConversionException {
+        return new java.sql.Date(parseToEpochMillis(rawCellValue));
+    }
 
+    private long parseToEpochMillis(String rawCellValue) throws TypeConversionException {
         try {
-            Date parsedDate = formatter.parse(rawCellValue);
-            return new java.sql.Date(parsedDate.getTime());
+            return timestampFormat.parseToEpochMillis(rawCellValue, timeZone, zoneRules, twoDigitYearStart);
 
         } catch (ParseException e) {
             throw new TypeConversionException("Could not parse '" + rawCellValue
-                    + "' according to format string '" + formatString + "'", e);
-
+                    + "' according to format string '" + timestampFormat.getFormatString() + "'", e);
         }
     }
 
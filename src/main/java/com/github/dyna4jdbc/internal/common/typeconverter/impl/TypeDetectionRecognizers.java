@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+/**
+ * <p>
+ * Hand-written, allocation-free recognizers for the grammars used by type detection.
+ * They accept exactly the same inputs as the corresponding patterns in
+ * {@link TypeDetectionRegularExpressionPatterns}, but scan the input only once
+ * and do not create a {@code Matcher} for each cell value.</p>
+ *
+ * <p>
+ * {@link #scanNumber(String)} returns its result packed into a single {@code long},
+ * which can be decoded using the static accessor methods of this class.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class TypeDetectionRecognizers {
+
+    static final long NOT_A_NUMBER = -1L;
+
+    private static final int INTEGER_DIGITS_SHIFT = 32;
+    private static final long LOWER_32_BITS_MASK = 0xFFFFFFFFL;
+    private static final long SIGN_FLAG = 1L;
+
+    private static final int TIMESTAMP_YEAR_DIGITS = 4;
+    private static final int TIMESTAMP_MILLISECOND_DIGITS = 3;
+
+    private TypeDetectionRecognizers() {
+        throw new AssertionError(TypeDetectionRecognizers.class + " is a static utility class!");
+    }
+
+    /**
+     * Scans a value against the grammar of
+     * {@link TypeDetectionRegularExpressionPatterns#NUMBER_DECIMAL}, that is
+     * {@code [+-]?\d+(\.\d+)?}.
+     *
+     * @param value the value to scan (cannot be {@code null})
+     * @return {@link #NOT_A_NUMBER} if the value is not a decimal number, or a non-negative
+     *          value, which encodes the presence of the sign, the number of integer digits
+     *          and the number of fraction digits
+     */
+    static long scanNumber(String value) {
+        final int length = value.length();
+        int index = 0;
+
+        boolean signed = false;
+        if (length > 0) {
+            final char firstChar = value.charAt(0);
+            if (firstChar == '+' || firstChar == '-') {
+                signed = true;
+                index++;
+            }
+        }
+
+        final int integerStart = index;
+        index = skipDigits(value, index, length);
+
+        final int integerDigits = index - integerStart;
+        if (integerDigits == 0) {
+            return NOT_A_NUMBER;
+        }
+
+        int fractionDigits = 0;
+        if (index < length) {
+            if (value.charAt(index) != '.') {
+                return NOT_A_NUMBER;
+            }
+
+            final int fractionStart = index + 1;
+            index = skipDigits(value, fractionStart, length);
+
+            fractionDigits = index - fractionStart;
+            if (fractionDigits == 0 || index < length) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        return ((long) integerDigits << INTEGER_DIGITS_SHIFT)
+                | ((long) fractionDigits << 1)
+                | (signed ? SIGN_FLAG : 0L);
+    }
+
+    /**
+     * @param scannedNumber a value returned by {@link #scanNumber(String)}
+     * @return {@code true} if the value matches {@link TypeDetectionRegularExpressionPatterns#NUMBER_DECIMAL}
+     */
+    static boolean isNumber(long scannedNumber) {
+        return scannedNumber >= 0;
+    }
+
+    /**
+     * @param scannedNumber a value returned by {@link #scanNumber(String)}
+     * @return {@code true} if the value matches {@link TypeDetectionRegularExpressionPatterns#NUMBER_INTEGER}
+     */
+    static boolean isInteger(long scannedNumber) {
+        return scannedNumber >= 0 && getFractionDigits(scannedNumber) == 0;
+    }
+
+    static boolean hasSign(long scannedNumber) {
+        return (scannedNumber & SIGN_FLAG) != 0;
+    }
+
+    static int getIntegerDigits(long scannedNumber) {
+        return (int) (scannedNumber >>> INTEGER_DIGITS_SHIFT);
+    }
+
+    static int getFractionDigits(long scannedNumber) {
+        return (int) ((scannedNumber & LOWER_32_BITS_MASK) >>> 1);
+    }
+
+    /**
+     * Checks if the value matches the grammar of {@link TypeDetectionRegularExpressionPatterns#TIMESTAMP},
+     * that is {@code \d{4}-\d{1,2}-\d{1,2} \d{2}:\d{2}:\d{2}(\.\d{3})?}.
+     *
+     * @param value the value to check (cannot be {@code null})
+     * @return {@code true} if the value is a timestamp, {@code false} otherwise
+     */
+    static boolean isTimestamp(String value) {
+        final int length = value.length();
+
+        int index = expectDigits(value, 0, length, TIMESTAMP_YEAR_DIGITS, TIMESTAMP_YEAR_DIGITS);
+        index = expectChar(value, index, length, '-');
+        index = expectDigits(value, index, length, 1, 2);
+        index = expectChar(value, index, length, '-');
+        index = expectDigits(value, index, length, 1, 2);
+        index = expectChar(value, index, length, ' ');
+        index = expectDigits(value, index, length, 2, 2);
+        index = expectChar(value, index, length, ':');
+        index = expectDigits(value, index, length, 2, 2);
+        index = expectChar(value, index, length, ':');
+        index = expectDigits(value, index, length, 2, 2);
+
+        if (index == length) {
+            return true;
+        }
+
+        index = expectChar(value, index, length, '.');
+        index = expectDigits(value, index, length,
+                TIMESTAMP_MILLISECOND_DIGITS, TIMESTAMP_MILLISECOND_DIGITS);
+
+        return index == length;
+    }
+
+    private static int skipDigits(String value, int from, int length) {
+        int index = from;
+        while (index < length && isDigit(value.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /*
+     * The methods below return -1 on mismatch, which is propagated through
+     * subsequent calls: this keeps isTimestamp() a simple sequence of steps.
+     * Since the next expected character is never a digit, greedy matching
+     * of the variable length digit groups never needs backtracking.
+     */
+
+    private static int expectDigits(String value, int from, int length, int minDigits, int maxDigits) {
+        if (from < 0) {
+            return -1;
+        }
+
+        int index = from;
+        final int maxIndex = Math.min(length, from + maxDigits);
+        while (index < maxIndex && isDigit(value.charAt(index))) {
+            index++;
+        }
+
+        return index - from >= minDigits ? index : -1;
+    }
+
+    private static int expectChar(String value, int from, int length, char expected) {
+        if (from < 0 || from >= length || value.charAt(from) != expected) {
+            return -1;
+        }
+
+        return from + 1;
+    }
+
+    private static boolean isDigit(char c) {
+        // Same as \d in a regular expression without UNICODE_CHARACTER_CLASS
+        return c >= '0' && c <= '9';
+    }
+}
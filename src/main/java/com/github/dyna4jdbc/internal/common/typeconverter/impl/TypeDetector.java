@@ -21,8 +21,6 @@ package com.github.dyna4jdbc.internal.common.typeconverter.impl;
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
 
-import java.util.regex.Matcher;
-
 final class TypeDetector {
 
     interface DetectionResult {
@@ -57,6 +55,22 @@ final class TypeDetector {
         private boolean currency = false;
         private int maxColumnDisplaySize = 0;
 
+        DetectionContext() {
+            // initial state
+        }
+
+        DetectionContext(DetectionContext other) {
+            this.columnType = other.columnType;
+            this.maxSize = other.maxSize;
+            this.maxPrecision = other.maxPrecision;
+            this.maxScale = other.maxScale;
+            this.maxBeforeDecimalPoint = other.maxBeforeDecimalPoint;
+            this.nullability = other.nullability;
+            this.signed = other.signed;
+            this.currency = other.currency;
+            this.maxColumnDisplaySize = other.maxColumnDisplaySize;
+        }
+
         @Override
         public SQLDataType getColumnType() {
             return columnType;
@@ -112,9 +126,21 @@ final class TypeDetector {
 
         for (String cellValue : cellValues) {
 
-            detectMetadataByInspectingCellValue(detected, cellValue);
+            inspectCellValue(detected, cellValue);
         }
 
+        return completeDetection(detected);
+    }
+
+    /**
+     * Finalizes the detection on the {@code DetectionContext} passed, once all
+     * cell values of the column have been passed to
+     * {@link #inspectCellValue(DetectionContext, String)}.
+     *
+     * @param detected the {@code DetectionContext} to complete
+     * @return the {@code DetectionContext} passed, as a {@code DetectionResult}
+     */
+    static DetectionResult completeDetection(DetectionContext detected) {
         if (detected.columnType == SQLDataType.OTHER) {
             detected.columnType = SQLDataType.VARCHAR;
         }
@@ -133,8 +159,14 @@ final class TypeDetector {
         return detected;
     }
 
-
-    private static void detectMetadataByInspectingCellValue(DetectionContext detectionContext, String cellValue) {
+    /**
+     * Advances the type detection state machine with the next cell value of a column.
+     * Cell values must be passed in row order.
+     *
+     * @param detectionContext the {@code DetectionContext} of the column
+     * @param cellValue the next cell value (might be {@code null})
+     */
+    static void inspectCellValue(DetectionContext detectionContext, String cellValue) {
 
         if (cellValue == null) {
             detectionContext.nullability = ColumnMetadata.Nullability.NULLABLE;
@@ -142,15 +174,15 @@ final class TypeDetector {
 
         switch (detectionContext.columnType) {
             case OTHER:
-                leaveOther(detectionContext, cellValue);
+                leaveOther(detectionContext, cellValue, scanNumber(cellValue));
                 break;
 
             case INTEGER:
-                leaveInteger(detectionContext, cellValue);
+                leaveInteger(detectionContext, cellValue, scanNumber(cellValue));
                 break;
 
             case DOUBLE:
-                leaveDouble(detectionContext, cellValue);
+                leaveDouble(detectionContext, cellValue, scanNumber(cellValue));
                 break;
 
             case TIMESTAMP:
@@ -167,6 +199,75 @@ final class TypeDetector {
         }
     }
 
+    /**
+     * Checks if passing a cell value to {@link #inspectCellValue(DetectionContext, String)}
+     * would leave the {@code DetectionContext} unchanged, without actually changing it:
+     * this is cheaper than inspecting the value, as no state transition has to be
+     * evaluated. The {@code DetectionContext} must not have been completed yet.
+     *
+     * @param detectionContext the {@code DetectionContext} of the column
+     * @param cellValue the cell value (might be {@code null})
+     * @return {@code true} if the {@code DetectionContext} would not change, {@code false} otherwise
+     */
+    static boolean conformsTo(DetectionContext detectionContext, String cellValue) {
+
+        if (cellValue == null) {
+            return detectionContext.nullability == ColumnMetadata.Nullability.NULLABLE;
+        }
+
+        switch (detectionContext.columnType) {
+            case OTHER:
+                // any non-null value leaves Other
+                return false;
+
+            case INTEGER:
+                return conformsToInteger(detectionContext, scanNumber(cellValue));
+
+            case DOUBLE:
+                return conformsToDouble(detectionContext, cellValue, scanNumber(cellValue));
+
+            case TIMESTAMP:
+                return cellValue.length() <= detectionContext.maxSize
+                        && TypeDetectionRecognizers.isTimestamp(cellValue);
+
+            case VARCHAR:
+                // VarChar is entered with a non-null value: the scale and the digits before
+                // the decimal point are at least the maximal size, which is all that can change
+                return cellValue.length() <= detectionContext.maxSize;
+
+            default:
+                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                        "Unexpected column type: " + detectionContext.columnType);
+        }
+    }
+
+    private static boolean conformsToInteger(DetectionContext detected, long scannedNumber) {
+        if (!TypeDetectionRecognizers.isInteger(scannedNumber)) {
+            return false;
+        }
+
+        final int scale = TypeDetectionRecognizers.getIntegerDigits(scannedNumber);
+
+        return scale <= detected.maxBeforeDecimalPoint
+                && scale <= detected.maxSize
+                && scale <= detected.maxScale;
+    }
+
+    private static boolean conformsToDouble(DetectionContext detected, String cellValue, long scannedNumber) {
+        if (!TypeDetectionRecognizers.isNumber(scannedNumber)) {
+            return false;
+        }
+
+        final int signLength = TypeDetectionRecognizers.hasSign(scannedNumber) ? 1 : 0;
+        final int precision = TypeDetectionRecognizers.getFractionDigits(scannedNumber);
+        final int scale = signLength + TypeDetectionRecognizers.getIntegerDigits(scannedNumber) + precision;
+
+        return scale - precision <= detected.maxBeforeDecimalPoint
+                && precision <= detected.maxPrecision
+                && cellValue.length() <= detected.maxSize
+                && scale <= detected.maxScale;
+    }
+
     private static void leaveVarChar(DetectionContext detectionContext, String cellValue) {
 
         // transition VarChar --> VarChar
@@ -174,7 +275,7 @@ final class TypeDetector {
     }
 
     private static void leaveTimestamp(DetectionContext detectionContext, String cellValue) {
-        if (isPlausibleConversion(SQLDataType.TIMESTAMP, cellValue)) {
+        if (isPlausibleTimestamp(cellValue)) {
 
             // transition Timestamp --> Timestamp
             enterTimestamp(detectionContext, cellValue);
@@ -187,12 +288,11 @@ final class TypeDetector {
         }
     }
 
-    private static void leaveDouble(DetectionContext detectionContext, String cellValue) {
-        if (isPlausibleConversion(SQLDataType.DOUBLE, cellValue)
-                || isPlausibleConversion(SQLDataType.INTEGER, cellValue)) {
+    private static void leaveDouble(DetectionContext detectionContext, String cellValue, long scannedNumber) {
+        if (isPlausibleNumber(cellValue, scannedNumber)) {
 
             // transition Double --> Double
-            enterDouble(detectionContext, cellValue);
+            enterDouble(detectionContext, cellValue, scannedNumber);
         } else {
 
             // transition Double --> VarChar
@@ -200,24 +300,24 @@ final class TypeDetector {
         }
     }
 
-    private static void leaveOther(DetectionContext detectionContext, String cellValue) {
+    private static void leaveOther(DetectionContext detectionContext, String cellValue, long scannedNumber) {
 
         if (cellValue == null) {
 
             // NO-OP: transition Other --> Other
             return;
 
-        } else if (isPlausibleConversion(SQLDataType.INTEGER, cellValue)) {
+        } else if (isPlausibleInteger(cellValue, scannedNumber)) {
 
             // transition Other --> Integer
-            enterInteger(detectionContext, cellValue);
+            enterInteger(detectionContext, cellValue, scannedNumber);
 
-        } else if (isPlausibleConversion(SQLDataType.DOUBLE, cellValue)) {
+        } else if (isPlausibleNumber(cellValue, scannedNumber)) {
 
             // transition Other --> Double
-            enterDouble(detectionContext, cellValue);
+            enterDouble(detectionContext, cellValue, scannedNumber);
 
-        } else if (isPlausibleConversion(SQLDataType.TIMESTAMP, cellValue)) {
+        } else if (isPlausibleTimestamp(cellValue)) {
 
             // transition Other --> Timestamp
             enterTimestamp(detectionContext, cellValue);
@@ -229,16 +329,16 @@ final class TypeDetector {
         }
     }
 
-    private static void leaveInteger(DetectionContext detectionContext, String cellValue) {
-        if (isPlausibleConversion(SQLDataType.INTEGER, cellValue)) {
+    private static void leaveInteger(DetectionContext detectionContext, String cellValue, long scannedNumber) {
+        if (isPlausibleInteger(cellValue, scannedNumber)) {
 
             // transition Integer --> Integer
-            enterInteger(detectionContext, cellValue);
+            enterInteger(detectionContext, cellValue, scannedNumber);
 
-        } else if (isPlausibleConversion(SQLDataType.DOUBLE, cellValue)) {
+        } else if (isPlausibleNumber(cellValue, scannedNumber)) {
 
             // transition Integer --> Double
-            enterDouble(detectionContext, cellValue);
+            enterDouble(detectionContext, cellValue, scannedNumber);
         } else {
 
             // transition Integer --> VarChar
@@ -246,12 +346,13 @@ final class TypeDetector {
         }
     }
 
-    private static void enterInteger(DetectionContext detected, String cellValue) {
+    private static void enterInteger(DetectionContext detected, String cellValue, long scannedNumber) {
         detected.columnType = SQLDataType.INTEGER;
         detected.signed = true;
 
         if (cellValue != null) {
-            final int scale = getScale(SQLDataType.INTEGER, cellValue);
+            // the sign is not part of the scale of an integer
+            final int scale = TypeDetectionRecognizers.getIntegerDigits(scannedNumber);
 
             detected.maxBeforeDecimalPoint = Math.max(detected.maxBeforeDecimalPoint, scale);
             detected.maxSize = Math.max(detected.maxSize, scale);
@@ -260,15 +361,17 @@ final class TypeDetector {
         }
     }
 
-    private static void enterDouble(DetectionContext detected, String cellValue) {
+    private static void enterDouble(DetectionContext detected, String cellValue, long scannedNumber) {
 
         detected.columnType = SQLDataType.DOUBLE;
         detected.signed = true;
 
         if (cellValue != null) {
 
-            final int scale = getScale(SQLDataType.DOUBLE, cellValue);
-            final int precision = getPrecision(SQLDataType.DOUBLE, cellValue);
+            // the sign is counted in the scale of a decimal value
+            final int signLength = TypeDetectionRecognizers.hasSign(scannedNumber) ? 1 : 0;
+            final int precision = TypeDetectionRecognizers.getFractionDigits(scannedNumber);
+            final int scale = signLength + TypeDetectionRecognizers.getIntegerDigits(scannedNumber) + precision;
 
             detected.maxBeforeDecimalPoint = Math.max(detected.maxBeforeDecimalPoint, scale - precision);
             detected.maxPrecision = Math.max(detected.maxPrecision, precision);
@@ -325,74 +428,23 @@ final class TypeDetector {
         detected.maxColumnDisplaySize = Math.max(detected.maxColumnDisplaySize, detected.maxSize);
     }
 
-    private static boolean isPlausibleConversion(SQLDataType dataType, String value) {
-        if (dataType == SQLDataType.VARCHAR) {
-            return true;
-        }
-
-        if (dataType.acceptedPattern == null) {
-            return false;
-        }
-
-        if (value == null) {
-            return true;
+    private static long scanNumber(String cellValue) {
+        if (cellValue == null) {
+            return TypeDetectionRecognizers.NOT_A_NUMBER;
         }
 
-        return dataType.acceptedPattern.matcher(value).matches();
+        return TypeDetectionRecognizers.scanNumber(cellValue);
     }
 
-    private static int getScale(SQLDataType dataType, String value) {
-        if (value == null) {
-            return 0;
-        }
-
-        if (dataType.acceptedPattern == null) {
-            return value.length();
-        }
-
-        Matcher matcher = dataType.acceptedPattern.matcher(value);
-        if (matcher.matches()) {
-            final int groupCount = matcher.groupCount();
-            if (groupCount == 0) {
-                String fullMatchedString = matcher.group(0);
-                if (fullMatchedString != null) {
-                    return fullMatchedString.length();
-                } else {
-                    return 0;
-                }
-            } else {
-                int aggregatedLength = 0;
-                for (int i = 1; i <= groupCount; i++) {
-                    String group = matcher.group(i);
-                    if (group != null) {
-                        aggregatedLength += group.length();
-                    }
-                }
-                return aggregatedLength;
-            }
-        }
-
-        return 0;
+    private static boolean isPlausibleInteger(String cellValue, long scannedNumber) {
+        return cellValue == null || TypeDetectionRecognizers.isInteger(scannedNumber);
     }
 
-    private static int getPrecision(SQLDataType dataType, String value) {
-        if (value == null) {
-            return 0;
-        }
-
-        if (dataType.acceptedPattern == null) {
-            return 0;
-        }
-
-        Matcher matcher = dataType.acceptedPattern.matcher(value);
-        if (matcher.matches()) {
-            String precisionPart = matcher.group("precision");
-            if (precisionPart != null) {
-                return precisionPart.length();
-            }
-        }
-        return 0;
+    private static boolean isPlausibleNumber(String cellValue, long scannedNumber) {
+        return cellValue == null || TypeDetectionRecognizers.isNumber(scannedNumber);
     }
 
-
+    private static boolean isPlausibleTimestamp(String cellValue) {
+        return cellValue == null || TypeDetectionRecognizers.isTimestamp(cellValue);
+    }
 }
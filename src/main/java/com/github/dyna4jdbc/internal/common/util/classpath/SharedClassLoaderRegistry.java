@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.util.classpath;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+
+/**
+ * <p>
+ * Registry of the {@code ClassLoader}s created for the {@code classpath} configuration,
+ * which allows connections with identical classpaths to share the classes loaded
+ * (and the code JIT-compiled) instead of loading everything again for every connection.</p>
+ *
+ * <p>
+ * {@code ClassLoader}s are keyed by the normalized (absolute) classpath and reference-counted:
+ * each {@link #acquire(List)} has to be paired with a {@link Reference#release()}. When the last
+ * reference is released, the {@code ClassLoader} is removed from the registry and closed:
+ * the {@link CloseListener}s registered are notified, so that anything cached for the
+ * {@code ClassLoader} can be dropped.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class SharedClassLoaderRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(SharedClassLoaderRegistry.class.getName());
+
+    private static final SharedClassLoaderRegistry INSTANCE =
+            new SharedClassLoaderRegistry(DefaultClassLoaderFactory.getInstance());
+
+    private final ClassLoaderFactory classLoaderFactory;
+
+    // guarded by itself
+    private final Map<List<String>, Reference> referencesByClasspath = new HashMap<>();
+
+    private final List<CloseListener> closeListeners = new CopyOnWriteArrayList<>();
+
+    SharedClassLoaderRegistry(ClassLoaderFactory classLoaderFactory) {
+        this.classLoaderFactory = classLoaderFactory;
+    }
+
+    public static SharedClassLoaderRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Listener notified when a shared {@code ClassLoader} is removed from the registry.
+     */
+    @FunctionalInterface
+    public interface CloseListener {
+
+        /**
+         * Called when the last reference to the {@code ClassLoader} of a classpath has been released.
+         * Invoked while the registry is locked: a {@code ClassLoader} for the same classpath cannot be
+         * acquired until the listener returns.
+         *
+         * @param normalizedClasspath the normalized classpath of the {@code ClassLoader} (see
+         *                            {@link #normalize(List)})
+         */
+        void onClassLoaderClosed(List<String> normalizedClasspath);
+    }
+
+    public void addCloseListener(CloseListener listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * A counted reference to a shared {@code ClassLoader}.
+     */
+    public final class Reference {
+
+        private final List<String> classpath;
+        private final ClassLoader classLoader;
+
+        // guarded by SharedClassLoaderRegistry.this.referencesByClasspath
+        private int referenceCount;
+
+        private Reference(List<String> classpath, ClassLoader classLoader) {
+            this.classpath = classpath;
+            this.classLoader = classLoader;
+        }
+
+        public ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        /**
+         * Releases one reference to the {@code ClassLoader}: the last release
+         * closes the {@code ClassLoader}.
+         */
+        public void release() {
+            SharedClassLoaderRegistry.this.release(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (classpath: %s, references: %s)",
+                    super.toString(), classpath, getReferenceCount(this));
+        }
+    }
+
+    /**
+     * Returns a reference to the {@code ClassLoader} of the classpath given,
+     * creating it if no connection uses the same classpath yet.
+     *
+     * @param classpath the classpath entries
+     * @return a new reference to the shared {@code ClassLoader}, never {@code null}
+     * @throws MisconfigurationException if the classpath is not valid
+     */
+    public Reference acquire(List<String> classpath) throws MisconfigurationException {
+
+        List<String> normalizedClasspath = normalize(classpath);
+
+        synchronized (referencesByClasspath) {
+            Reference reference = referencesByClasspath.get(normalizedClasspath);
+            if (reference == null) {
+                ClassLoader classLoader = classLoaderFactory.newClassLoaderFromClasspath(normalizedClasspath);
+
+                reference = new Reference(normalizedClasspath, classLoader);
+                referencesByClasspath.put(normalizedClasspath, reference);
+
+                LOGGER.log(Level.FINE, "Registered shared ClassLoader for classpath {0}", normalizedClasspath);
+            }
+
+            reference.referenceCount++;
+
+            return reference;
+        }
+    }
+
+    int getReferenceCount(List<String> classpath) throws MisconfigurationException {
+        synchronized (referencesByClasspath) {
+            Reference reference = referencesByClasspath.get(normalize(classpath));
+            if (reference == null) {
+                return 0;
+            }
+            return reference.referenceCount;
+        }
+    }
+
+    private int getReferenceCount(Reference reference) {
+        synchronized (referencesByClasspath) {
+            return reference.referenceCount;
+        }
+    }
+
+    private void release(Reference reference) {
+        synchronized (referencesByClasspath) {
+            if (reference.referenceCount == 0) {
+                throw new IllegalStateException("Reference released already: " + reference);
+            }
+
+            reference.referenceCount--;
+            if (reference.referenceCount > 0) {
+                return;
+            }
+
+            referencesByClasspath.remove(reference.classpath);
+
+            for (CloseListener closeListener : closeListeners) {
+                closeListener.onClassLoaderClosed(reference.classpath);
+            }
+        }
+
+        LOGGER.log(Level.FINE, "Closing shared ClassLoader for classpath {0}", reference.classpath);
+
+        if (reference.classLoader instanceof Closeable) {
+            try {
+                ((Closeable) reference.classLoader).close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Closing ClassLoader failed: " + reference.classLoader, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the normalized form of the classpath, which the {@code ClassLoader}s are keyed by:
+     * each entry is converted to a normalized, absolute path.
+     *
+     * @param classpath the classpath entries
+     * @return the normalized classpath entries, never {@code null}
+     * @throws MisconfigurationException if the classpath is not valid
+     */
+    public static List<String> normalize(List<String> classpath) throws MisconfigurationException {
+        List<String> normalizedClasspath = new ArrayList<>(classpath.size());
+        for (String classpathEntry : classpath) {
+            try {
+                normalizedClasspath.add(
+                        new File(classpathEntry).getAbsoluteFile().toPath().normalize().toString());
+            } catch (InvalidPathException e) {
+                throw MisconfigurationException.forMessage("Invalid classpath entry: '%s'", classpathEntry);
+            }
+        }
+        return Collections.unmodifiableList(normalizedClasspath);
+    }
+}
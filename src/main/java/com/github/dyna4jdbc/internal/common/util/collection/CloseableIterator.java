@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.util.collection;
+
+import java.util.Iterator;
+
+/**
+ * An {@code Iterator}, which holds resources that should be released
+ * once the iteration is no longer required, regardless of whether
+ * all elements have been retrieved or not.
+ *
+ * @param <T> the type of elements returned by this iterator
+ *
+ * @author Peter G. Horvath
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Releases the resources held by this iterator.
+     * Unlike {@link AutoCloseable#close()}, no checked exception is thrown.
+     */
+    @Override
+    void close();
+}
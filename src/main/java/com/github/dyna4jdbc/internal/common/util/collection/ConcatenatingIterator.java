@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.util.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code Iterator}, which returns all elements of the first
+ * {@code Iterator} and then all elements of the second one.
+ *
+ * @author Peter G. Horvath
+ */
+public final class ConcatenatingIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> first;
+    private final Iterator<T> second;
+
+    private Iterator<T> lastReturnedFrom = null;
+
+    public ConcatenatingIterator(Iterator<T> first, Iterator<T> second) {
+        if (first == null) {
+            throw new NullPointerException("argument first cannot be null");
+        }
+        if (second == null) {
+            throw new NullPointerException("argument second cannot be null");
+        }
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return first.hasNext() || second.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (first.hasNext()) {
+            lastReturnedFrom = first;
+            return first.next();
+        }
+        if (second.hasNext()) {
+            lastReturnedFrom = second;
+            return second.next();
+        }
+
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+        if (lastReturnedFrom == null) {
+            throw new IllegalStateException("next() has not been called");
+        }
+
+        lastReturnedFrom.remove();
+    }
+}
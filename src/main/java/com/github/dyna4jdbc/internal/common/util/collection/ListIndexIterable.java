@@ -22,11 +22,11 @@ import java.util.List;
 public class ListIndexIterable<E> implements Iterable<E> {
 
 
-    private final List<List<E>> delegate;
+    private final Iterable<? extends List<E>> delegate;
     private final int index;
 
 
-    public ListIndexIterable(List<List<E>> delegate, int index) {
+    public ListIndexIterable(Iterable<? extends List<E>> delegate, int index) {
         if (delegate == null) {
             throw new NullPointerException("argument delegate cannot be null");
         }
@@ -42,7 +42,7 @@ public class ListIndexIterable<E> implements Iterable<E> {
     @Override
     public final Iterator<E> iterator() {
 
-        Iterator<List<E>> iterator = delegate.iterator();
+        Iterator<? extends List<E>> iterator = delegate.iterator();
 
 
         return new Iterator<E>() {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.util.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * @author Peter G. Horvath
+ */
+public final class ParallelUtils {
+
+    private ParallelUtils() {
+        throw new AssertionError("static utility class");
+    }
+
+    /**
+     * Returns whether parallel processing can be expected to speed things up: this is
+     * not the case if the common {@code ForkJoinPool} has a single worker only.
+     *
+     * @return {@code true} if the common {@code ForkJoinPool} has multiple workers
+     */
+    public static boolean isParallelismAvailable() {
+        return ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * <p>
+     * Invokes {@code action} for each index in {@code [0, count)} on the common
+     * {@code ForkJoinPool}, splitting the index range recursively until at most
+     * {@code maxIndicesPerTask} indices remain for a task. Returns once all
+     * invocations have completed.</p>
+     *
+     * <p>
+     * The invocations for the different indices must be independent of each other.
+     * If any of them fails with a {@code RuntimeException}, the remaining indices are
+     * still processed, and the exception thrown for the <em>lowest</em> index is
+     * re-thrown, so that the outcome is the same as that of a sequential loop
+     * (apart from the additional invocations).</p>
+     *
+     * @param count the number of indices
+     * @param maxIndicesPerTask the maximal number of indices processed by one task
+     * @param action the action to invoke for each index
+     */
+    public static void forEachIndex(int count, int maxIndicesPerTask, IntConsumer action) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        if (maxIndicesPerTask <= 0) {
+            throw new IllegalArgumentException("maxIndicesPerTask must be positive");
+        }
+
+        final RuntimeException[] failures = new RuntimeException[count];
+
+        ForkJoinPool.commonPool().invoke(
+                new IndexRangeAction(0, count, maxIndicesPerTask, action, failures));
+
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static final class IndexRangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int maxIndicesPerTask;
+        private final IntConsumer action;
+        private final RuntimeException[] failures;
+
+        IndexRangeAction(int from, int to, int maxIndicesPerTask,
+                         IntConsumer action, RuntimeException[] failures) {
+            this.from = from;
+            this.to = to;
+            this.maxIndicesPerTask = maxIndicesPerTask;
+            this.action = action;
+            this.failures = failures;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= maxIndicesPerTask) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        action.accept(i);
+                    } catch (RuntimeException e) {
+                        failures[i] = e;
+                    }
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+
+                invokeAll(
+                        new IndexRangeAction(from, middle, maxIndicesPerTask, action, failures),
+                        new IndexRangeAction(middle, to, maxIndicesPerTask, action, failures));
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.dyna4jdbc.internal.common.util.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Driver-wide executor for the blocking I/O tasks of the driver: the threads reading the
+ * output of external processes and transferring it to statements, as well as the scripts
+ * producing a streamed {@code ResultSet}, which block until the {@code ResultSet} consumes
+ * their output. Connections and statements do not start threads of their own: each of them gets a
+ * {@link ConnectionExecutor}, which runs its tasks on the shared threads, and keeps
+ * track of the tasks of the connection, so that they can be interrupted once the
+ * connection is closed.</p>
+ *
+ * <p>
+ * By default, the shared threads are platform threads: idle threads are reused by
+ * any connection and terminate after a minute of inactivity. The number of threads
+ * is bounded (see {@link #POOL_SIZE_PROPERTY}): once all of them are busy, further
+ * tasks are rejected with a {@code RejectedExecutionException} instead of being
+ * queued, as a queued reader task might wait forever for the process readers
+ * occupying the threads. If {@link #VIRTUAL_THREADS_PROPERTY} is set to {@code true}
+ * and the Java runtime supports virtual threads (Java 21 or later), each task runs on
+ * a new virtual thread instead, and the number of threads is not bounded.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class SharedIOExecutor {
+
+    /**
+     * System property specifying the maximal number of shared platform threads,
+     * e.g. -Ddyna4jdbc.ioThreadPoolSize=256
+     */
+    public static final String POOL_SIZE_PROPERTY = "dyna4jdbc.ioThreadPoolSize";
+
+    /**
+     * System property requesting the use of virtual threads, if available,
+     * e.g. -Ddyna4jdbc.ioVirtualThreads=true
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "dyna4jdbc.ioVirtualThreads";
+
+    private static final Logger LOGGER = Logger.getLogger(SharedIOExecutor.class.getName());
+
+    private static final int DEFAULT_POOL_SIZE = 1024;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static final SharedIOExecutor INSTANCE = new SharedIOExecutor(newDefaultExecutorService());
+
+    private final ExecutorService executorService;
+    private final AtomicInteger activeTaskCount = new AtomicInteger();
+
+    SharedIOExecutor(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public static SharedIOExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new {@code ConnectionExecutor}, which runs its tasks on the shared threads.
+     *
+     * @param name the name of the connection executor, used for logging
+     * @return a new {@code ConnectionExecutor} (never {@code null})
+     */
+    public ConnectionExecutor newConnectionExecutor(String name) {
+        return new ConnectionExecutor(name);
+    }
+
+    /**
+     * Returns the number of tasks currently running on the shared threads.
+     *
+     * @return the number of tasks running
+     */
+    public int getActiveTaskCount() {
+        return activeTaskCount.get();
+    }
+
+    private static ExecutorService newDefaultExecutorService() {
+
+        if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+            ExecutorService virtualThreadExecutorService = newVirtualThreadPerTaskExecutor();
+            if (virtualThreadExecutorService != null) {
+                LOGGER.log(Level.FINE, "Using virtual threads for process I/O");
+                return virtualThreadExecutorService;
+            }
+
+            LOGGER.log(Level.WARNING, "Virtual threads are not supported by the Java runtime: "
+                    + "using platform threads for process I/O");
+        }
+
+        final int poolSize = getPoolSize();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+
+        return new ThreadPoolExecutor(0, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dyna4jdbc-io-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static int getPoolSize() {
+        Integer poolSize = Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE);
+        if (poolSize <= 0) {
+            LOGGER.log(Level.WARNING, "Ignoring non-positive value of {0}: {1}",
+                    new Object[]{POOL_SIZE_PROPERTY, poolSize});
+
+            return DEFAULT_POOL_SIZE;
+        }
+
+        return poolSize;
+    }
+
+    /*
+     * The driver is compiled for Java 8: Executors.newVirtualThreadPerTaskExecutor()
+     * is looked up reflectively, and is used only if the Java runtime provides it.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factoryMethod = java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor");
+
+            return (ExecutorService) factoryMethod.invoke(null);
+
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(Level.WARNING, "Failed to create virtual thread executor", e);
+            return null;
+        }
+    }
+
+    /**
+     * {@code ExecutorService} of a single connection, running its tasks on the shared threads.
+     * Shutting it down affects the tasks of the connection only.
+     */
+    public final class ConnectionExecutor extends AbstractExecutorService {
+
+        private final String name;
+
+        private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger connectionActiveTaskCount = new AtomicInteger();
+
+        private final Object terminationLock = new Object();
+        private volatile boolean shutdown;
+
+        private ConnectionExecutor(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the number of tasks of this connection currently running.
+         *
+         * @return the number of tasks running
+         */
+        public int getActiveTaskCount() {
+            return connectionActiveTaskCount.get();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (command == null) {
+                throw new NullPointerException("argument command cannot be null");
+            }
+            if (shutdown) {
+                throw new RejectedExecutionException(name + " is shut down");
+            }
+
+            Task task = new Task(command);
+            tasks.add(task);
+
+            try {
+                executorService.execute(task);
+            } catch (RejectedExecutionException ree) {
+                onTaskCompleted(task);
+
+                throw new RejectedExecutionException(String.format(
+                        "No shared I/O thread available for %s: consider increasing %s",
+                        name, POOL_SIZE_PROPERTY), ree);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+            signalIfTerminated();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+
+            List<Runnable> tasksNeverStarted = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task.cancelOrInterrupt()) {
+                    tasksNeverStarted.add(task.command);
+                }
+            }
+
+            signalIfTerminated();
+
+            return tasksNeverStarted;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            synchronized (terminationLock) {
+                while (!isTerminated()) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(terminationLock, remainingNanos);
+                }
+            }
+
+            return true;
+        }
+
+        private void onTaskCompleted(Task task) {
+            tasks.remove(task);
+            signalIfTerminated();
+        }
+
+        private void signalIfTerminated() {
+            if (isTerminated()) {
+                synchronized (terminationLock) {
+                    terminationLock.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ConnectionExecutor{name='" + name + "', activeTaskCount=" + getActiveTaskCount() + '}';
+        }
+
+        private final class Task implements Runnable {
+
+            private final Runnable command;
+
+            // guarded by this
+            private Thread runner;
+            private boolean cancelled;
+            private boolean completed;
+
+            private Task(Runnable command) {
+                this.command = command;
+            }
+
+            @Override
+            public void run() {
+                synchronized (this) {
+                    if (cancelled) {
+                        onTaskCompleted(this);
+                        return;
+                    }
+                    runner = Thread.currentThread();
+                }
+
+                activeTaskCount.incrementAndGet();
+                connectionActiveTaskCount.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    connectionActiveTaskCount.decrementAndGet();
+                    activeTaskCount.decrementAndGet();
+
+                    synchronized (this) {
+                        runner = null;
+                        completed = true;
+                    }
+
+                    // the thread is shared: an interrupt must not leak to the next task it runs
+                    Thread.interrupted();
+
+                    onTaskCompleted(this);
+                }
+            }
+
+            /*
+             * Returns true if the task has been cancelled before it started.
+             */
+            private synchronized boolean cancelOrInterrupt() {
+                if (runner != null) {
+                    runner.interrupt();
+                    return false;
+                }
+                if (completed || cancelled) {
+                    return false;
+                }
+
+                cancelled = true;
+                return true;
+            }
+        }
+    }
+}
@@ -64,6 +64,48 @@ public class SQLWarningSinkOutputStream extends OutputStream {
         lastByte = thisByte;
     }
 
+    /**
+     * Bulk variant of {@link #write(int)}: the buffer is scanned for line
+     * endings and the bytes in between are copied to the message buffer
+     * in one go. The observable behaviour is identical to that of writing
+     * the bytes one-by-one via {@link #write(int)}.
+     */
+    @Override
+    public final void write(byte[] bytes, int offset, int length) throws IOException {
+
+        checkNotClosed();
+
+        if (bytes == null) {
+            throw new NullPointerException("argument bytes cannot be null");
+        }
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %s, length: %s, buffer length: %s", offset, length, bytes.length));
+        }
+
+        final int end = offset + length;
+        int messageContentStart = offset;
+
+        for (int i = offset; i < end; i++) {
+
+            final int thisByte = bytes[i];
+
+            if (thisByte == LF || thisByte == CR) {
+
+                byteArrayOutputStream.write(bytes, messageContentStart, i - messageContentStart);
+                messageContentStart = i + 1;
+
+                if (!(lastByte == LF || lastByte == CR)) {
+                    flushBufferToSQLWarning();
+                }
+            }
+
+            lastByte = thisByte;
+        }
+
+        byteArrayOutputStream.write(bytes, messageContentStart, end - messageContentStart);
+    }
+
     private void flushBufferToSQLWarning() {
 
         try {
@@ -71,7 +113,7 @@ public class SQLWarningSinkOutputStream extends OutputStream {
 
             appendAsSQLWarning(message);
 
-            byteArrayOutputStream = new ByteArrayOutputStream();
+            byteArrayOutputStream.reset();
 
         } catch (UnsupportedEncodingException e) {
             // should not happen: we test the configuration before applying it
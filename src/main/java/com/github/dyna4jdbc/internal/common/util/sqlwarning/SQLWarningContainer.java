@@ -22,13 +22,16 @@ import java.sql.SQLWarning;
 import com.github.dyna4jdbc.internal.JDBCError;
 
 /**
+ * A container of {@code SQLWarning}s: thread-safe, since warnings
+ * might be added by a script running in the background.
+ *
  * @author Peter G. Horvath
  */
 public final class SQLWarningContainer {
 
     private SQLWarning currentSQLWarning;
     
-    public void addSQLWarning(SQLWarning newSQLWarning) {
+    public synchronized void addSQLWarning(SQLWarning newSQLWarning) {
 
         if (newSQLWarning == null) {
             throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException("newSQLWarning is null");
@@ -56,11 +59,11 @@ public final class SQLWarningContainer {
 
 
 
-    public void clearWarnings() {
+    public synchronized void clearWarnings() {
         this.currentSQLWarning = null;
     }
 
-    public SQLWarning getWarnings() {
+    public synchronized SQLWarning getWarnings() {
         return this.currentSQLWarning;
     }
 
@@ -94,6 +94,16 @@ public interface Configuration {
      */
     long getExternalCallQuietPeriodThresholdMs();
 
+    /**
+     * Returns the command template written to the standard input of an external process after each
+     * command, in order to detect the end of the output of the command: the template contains the
+     * placeholder {@code {marker}}, which is replaced by a unique marker the command is expected to print.
+     * (<b>MIGHT</b> be {@code null})
+     *
+     * @return the end of data marker command template, or {@code null} if no such command is configured
+     */
+    String getEndOfDataMarkerCommand();
+
 
     /**
      * Returns a list of additional entries to be added to the classpath before executing any user script.
@@ -111,4 +121,134 @@ public interface Configuration {
      * @return the path of an initialization script, or {@code null} if no such initialization script is configured
      */
     String getInitScriptPath();
+
+    /**
+     * Returns an indication whether query results are to be streamed or not. If {@code true}, the user script
+     * is executed in the background and the {@code ResultSet} is returned as soon as the first
+     * {@link #getStreamingTypeDetectionRows()} rows are available; if {@code false}, the entire output of the
+     * user script is captured before the {@code ResultSet} is returned.
+     *
+     * @return {@code true}, if query results are to be streamed, {@code false} otherwise
+     */
+    boolean getStreamingResultSet();
+
+    /**
+     * Returns the number of output lines (including any header line), which are used to determine the
+     * column count and the column types of a streamed {@code ResultSet}.
+     *
+     * @return a positive number: the number of output lines used to determine the structure of the result
+     */
+    int getStreamingTypeDetectionRows();
+
+    /**
+     * Returns the maximal number of rows buffered between a running user script and a streamed
+     * {@code ResultSet}: if the buffer is full, the user script is blocked until the {@code ResultSet}
+     * consumes a row.
+     *
+     * @return a positive number: the maximal number of rows buffered
+     */
+    int getStreamingBufferRows();
+
+    /**
+     * Returns the time a user script producing a streamed {@code ResultSet} may be blocked on the full
+     * buffer: once it elapses, the {@code ResultSet} is considered abandoned and the user script is aborted.
+     * If {@code 0}, the user script waits for the {@code ResultSet} indefinitely.
+     *
+     * @return a non-negative number: the timeout in milliseconds, or {@code 0} if there is no timeout
+     */
+    long getStreamingStallTimeoutMs();
+
+    /**
+     * Returns the estimated heap size in bytes of the captured output of a user script, above which
+     * any further rows are moved to a temporary file. If {@code 0}, all rows are kept on the heap.
+     *
+     * @return a non-negative number: the threshold in bytes, or {@code 0} if spilling is disabled
+     */
+    long getSpillToDiskThresholdBytes();
+
+    /**
+     * Returns the minimal number of columns of a result, above which the column types are
+     * detected on multiple threads in parallel. If {@code 0}, detection is always sequential.
+     *
+     * @return a non-negative number: the column count threshold, or {@code 0} if
+     *          parallel detection is disabled
+     */
+    int getParallelColumnDetectionThreshold();
+
+    /**
+     * Returns the maximal number of results, for which the detected column types are cached by
+     * a connection, keyed by the script and the number of columns of the result (and the header row,
+     * if the first row specifies the column headers). If the values of a later result of the same
+     * script conform to the cached column types, these are reused: the
+     * reported metadata then describes the cached result. If {@code 0}, nothing is cached.
+     *
+     * @return a non-negative number: the maximal number of results cached, or {@code 0}
+     *          if caching is disabled
+     */
+    int getSchemaCacheSize();
+
+    /**
+     * Returns the maximal number of scripts kept compiled by a {@code ScriptEngine} connection,
+     * if the {@code ScriptEngine} supports compilation: the least recently used compiled script
+     * is discarded once this number is exceeded. If {@code 0}, scripts are never compiled.
+     *
+     * @return a non-negative number: the maximal number of compiled scripts cached, or {@code 0}
+     *          if caching is disabled
+     */
+    int getCompiledScriptCacheSize();
+
+    /**
+     * Returns whether statements of a {@code ScriptEngine} connection are evaluated concurrently,
+     * if the {@code ScriptEngine} declares itself thread-safe (the {@code THREADING} parameter of
+     * its factory is {@code MULTITHREADED}, {@code THREAD-ISOLATED} or {@code STATELESS}). Each
+     * statement is then evaluated in a {@code ScriptContext} of its own: names assigned by scripts
+     * (including the init script) are kept in a map shared by the statements of the connection,
+     * instead of the {@code ENGINE_SCOPE} of the engine. If {@code false}, statements are
+     * evaluated one at a time, directly in the context of the engine.
+     *
+     * @return {@code true}, if statements are evaluated concurrently, {@code false} otherwise
+     */
+    boolean getConcurrentScriptEvaluation();
+
+    /**
+     * Returns the number of {@code ScriptEngine} instances a {@code ScriptEngine} connection
+     * executes scripts on: if greater than {@code 1}, concurrent statements of the connection
+     * are executed in parallel on separate engine instances, each of which is initialized with
+     * the init script. Engine instances do not share state created by scripts.
+     *
+     * @return a positive number: the number of {@code ScriptEngine} instances per connection
+     */
+    int getScriptEnginePoolSize();
+
+    /**
+     * Returns the path of a warm-up script, which is executed in the background on a separate
+     * {@code ScriptEngine} instance, so that the code paths used by the first statements of
+     * the connections get compiled before they are executed. (<b>MIGHT</b> be {@code null})
+     *
+     * @return the path of the warm-up script, or {@code null} if no warm-up is configured
+     */
+    String getWarmUpScriptPath();
+
+    /**
+     * Returns the number of times the warm-up script is executed.
+     *
+     * @return a positive number: the number of warm-up script executions
+     */
+    int getWarmUpIterations();
+
+    /**
+     * Returns the number of processes kept started in advance by an external process
+     * connection, for each command line executed without variables.
+     *
+     * @return a non-negative number: the number of processes kept started; zero if disabled
+     */
+    int getProcessPoolSize();
+
+    /**
+     * Returns the number of statements a process taken from the process pool
+     * executes before it is terminated.
+     *
+     * @return a non-negative number: the maximal number of statements; zero if not limited
+     */
+    int getProcessPoolMaxUses();
 }
@@ -207,8 +207,277 @@ public enum ConfigurationEntry {
 
             }
         }
+    },
+    END_OF_DATA_MARKER_COMMAND("endOfDataMarkerCommand", "",
+            "A command written to the standard input of an interactive console application after each "
+                    + "command, which prints a marker: for example 'echo {marker}'. The placeholder {marker} "
+                    + "is replaced by a unique value for each command; the output of the command is considered "
+                    + "to be finished as soon as a line ending with the marker is read, instead of waiting for "
+                    + "the timeout endOfDataTimeoutMs. Default is empty (no marker command).") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            if (value != null && value.trim().length() != 0) {
+
+                if (!value.contains("{marker}")) {
+                    throw InvalidConfigurationValueException.forMessage(
+                            "The value for %s must contain the placeholder {marker}: '%s'",
+                            this.key, value);
+                }
+
+                config.setEndOfDataMarkerCommand(value);
+            }
+        }
+    },
+    STREAMING_RESULT_SET("streamingResultSet", "false",
+            "If set to true, executeQuery returns the ResultSet as soon as the first rows are available, "
+                    + "while the script is still running: rows are passed to the ResultSet through a bounded "
+                    + "buffer and the script is blocked while the buffer is full. Column types are determined "
+                    + "from the first rows only. The ResultSet should be consumed or closed before "
+                    + "executing another script on the same connection. Default is false.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+
+            if (value == null || "".equals(value) || "".equals(value.trim())) {
+                throw InvalidConfigurationValueException
+                        .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                                this.key, value);
+            }
+
+            switch (value) {
+                case "true":
+                    config.setStreamingResultSet(true);
+                    break;
+
+                case "false":
+                    config.setStreamingResultSet(false);
+                    break;
+
+                default:
+                    throw InvalidConfigurationValueException
+                            .forMessage("Value for %s must either be 'true' or 'false', but was '%s'",
+                                    this.key, value);
+            }
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = new String[]{"true", "false"};
+            return propertyInfo;
+        }
+    },
+    STREAMING_TYPE_DETECTION_ROWS("streamingTypeDetectionRows", "100",
+            "In streaming mode, the number of output lines (including any header line) used to determine "
+                    + "the column count and column types of the ResultSet. Default is 100.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStreamingTypeDetectionRows(parsePositiveInt(this.key, value));
+        }
+    },
+    STREAMING_BUFFER_ROWS("streamingBufferRows", "1000",
+            "In streaming mode, the maximal number of rows buffered between the script "
+                    + "and the ResultSet. Default is 1000.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStreamingBufferRows(parsePositiveInt(this.key, value));
+        }
+    },
+    STREAMING_STALL_TIMEOUT_MS("streamingStallTimeoutMs", "600000",
+            "In streaming mode, the time in milliseconds the script may wait for the ResultSet to retrieve "
+                    + "a row from the full buffer: once it elapses, the ResultSet is considered abandoned, "
+                    + "it is closed and the script is aborted. Zero disables the timeout. "
+                    + "Default is 600000 (10 minutes).") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStreamingStallTimeoutMs(parseNonNegativeLong(this.key, value));
+        }
+    },
+    SPILL_TO_DISK_THRESHOLD_BYTES("spillToDiskThresholdBytes", "0",
+            "The estimated heap size in bytes of the captured output of a script, above which further "
+                    + "rows are written to a temporary file, which is deleted when the ResultSet is closed. "
+                    + "Zero disables spilling to disk. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setSpillToDiskThresholdBytes(parseNonNegativeLong(this.key, value));
+        }
+    },
+    PARALLEL_COLUMN_DETECTION_THRESHOLD("parallelColumnDetectionThreshold", "128",
+            "The minimal number of columns of a result, above which the column types are detected "
+                    + "on multiple threads in parallel. Zero disables parallel detection. Default is 128.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setParallelColumnDetectionThreshold(parseNonNegativeInt(this.key, value));
+        }
+    },
+    SCHEMA_CACHE_SIZE("schemaCacheSize", "0",
+            "The maximal number of results, for which a connection caches the detected column types, "
+                    + "keyed by the script and the number of columns of the result, as well as its header row, "
+                    + "if the first row specifies the column headers. If the values of a later result of the "
+                    + "same script conform to the cached types, the type detection is skipped and the cached "
+                    + "metadata is reported. Zero disables caching. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setSchemaCacheSize(parseNonNegativeInt(this.key, value));
+        }
+    },
+    COMPILED_SCRIPT_CACHE_SIZE("compiledScriptCacheSize", "64",
+            "The maximal number of scripts kept compiled by a ScriptEngine connection, if the ScriptEngine "
+                    + "implements javax.script.Compilable. The least recently used compiled script is "
+                    + "discarded first. Zero disables compilation. Default is 64.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setCompiledScriptCacheSize(parseNonNegativeInt(this.key, value));
+        }
+    },
+    CONCURRENT_SCRIPT_EVALUATION("concurrentScriptEvaluation", "false",
+            "If set to true, statements of a ScriptEngine connection are evaluated concurrently, provided "
+                    + "that the ScriptEngine declares itself thread-safe. Names assigned by scripts (including "
+                    + "the init script) are then kept in a map shared by the statements of the connection, "
+                    + "instead of the ScriptEngine itself. Default is false.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+
+            if (value == null || "".equals(value) || "".equals(value.trim())) {
+                throw InvalidConfigurationValueException
+                        .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                                this.key, value);
+            }
+
+            switch (value) {
+                case "true":
+                    config.setConcurrentScriptEvaluation(true);
+                    break;
+
+                case "false":
+                    config.setConcurrentScriptEvaluation(false);
+                    break;
+
+                default:
+                    throw InvalidConfigurationValueException
+                            .forMessage("Value for %s must either be 'true' or 'false', but was '%s'",
+                                    this.key, value);
+            }
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = new String[]{"true", "false"};
+            return propertyInfo;
+        }
+    },
+    SCRIPT_ENGINE_POOL_SIZE("scriptEnginePoolSize", "1",
+            "The number of ScriptEngine instances of a ScriptEngine connection. If greater than 1, "
+                    + "concurrent statements of the connection are executed in parallel on separate engines, "
+                    + "each initialized with the init script: state created by a script (e.g. a global "
+                    + "variable) is only visible to scripts executed later by the same engine. Default is 1.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setScriptEnginePoolSize(parsePositiveInt(this.key, value));
+        }
+    },
+    WARM_UP_SCRIPT("warmUpScript", "",
+            "Path of a warm-up script of a ScriptEngine connection. The script is executed in the "
+                    + "background on a separate ScriptEngine instance (once per engine, classpath and script), "
+                    + "so that the code paths used by the first statements get compiled before they are "
+                    + "executed. Connecting does not wait for the warm-up. Default is empty.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            if (value != null && value.trim().length() != 0) {
+
+                config.setWarmUpScriptPath(value);
+            }
+        }
+    },
+    WARM_UP_ITERATIONS("warmUpIterations", "3",
+            "The number of times the warm-up script is executed. Default is 3.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setWarmUpIterations(parsePositiveInt(this.key, value));
+        }
+    },
+    PROCESS_POOL_SIZE("processPoolSize", "0",
+            "The number of processes an external process connection keeps started in advance for each "
+                    + "command line executed, so that executing the same command line again takes a process "
+                    + "already started. Note that a command started in advance runs before the statement "
+                    + "executing it: its output is buffered until the statement reads it. Command lines "
+                    + "executed with PreparedStatement parameters are never started in advance. Zero disables "
+                    + "the process pool. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setProcessPoolSize(parseNonNegativeInt(this.key, value));
+        }
+    },
+    PROCESS_POOL_MAX_USES("processPoolMaxUses", "0",
+            "The number of statements a process taken from the process pool executes, before it is "
+                    + "terminated: the next statement is then executed as a command line again. A pooled "
+                    + "process is also terminated if a statement fails. Zero means no limit. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setProcessPoolMaxUses(parseNonNegativeInt(this.key, value));
+        }
     };
 
+    private static int parseNonNegativeInt(String key, String value) throws MisconfigurationException {
+        try {
+
+            int number = Integer.parseInt(value);
+
+            if (number < 0) {
+                throw InvalidConfigurationValueException.forMessage(
+                        "The value for %s cannot be negative", key);
+            }
+
+            return number;
+
+        } catch (NumberFormatException nfe) {
+
+            throw InvalidConfigurationValueException.forMessage(
+                    "The value for %s cannot be interpreted as a number: '%s'",
+                    key, value);
+        }
+    }
+
+    private static long parseNonNegativeLong(String key, String value) throws MisconfigurationException {
+        try {
+
+            long number = Long.parseLong(value);
+
+            if (number < 0) {
+                throw InvalidConfigurationValueException.forMessage(
+                        "The value for %s cannot be negative", key);
+            }
+
+            return number;
+
+        } catch (NumberFormatException nfe) {
+
+            throw InvalidConfigurationValueException.forMessage(
+                    "The value for %s cannot be interpreted as a number: '%s'",
+                    key, value);
+        }
+    }
+
+    private static int parsePositiveInt(String key, String value) throws MisconfigurationException {
+        try {
+
+            int number = Integer.parseInt(value);
+
+            if (number <= 0) {
+                throw InvalidConfigurationValueException.forMessage(
+                        "The value for %s must be a positive value", key);
+            }
+
+            return number;
+
+        } catch (NumberFormatException nfe) {
+
+            throw InvalidConfigurationValueException.forMessage(
+                    "The value for %s cannot be interpreted as a number: '%s'",
+                    key, value);
+        }
+    }
+
     public String getDefaultValue() {
         return defaultValue;
     }
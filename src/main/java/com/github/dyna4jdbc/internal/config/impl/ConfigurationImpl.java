@@ -58,9 +58,24 @@ class ConfigurationImpl implements Configuration {
     private boolean preferMultipleResultSets;
     private String conversionCharset;
     private Pattern endOfDataPattern;
+    private String endOfDataMarkerCommand;
     private long externalCallQuietPeriodThresholdMs;
     private List<String> classpath;
     private String initScriptPath;
+    private boolean streamingResultSet;
+    private int streamingTypeDetectionRows;
+    private int streamingBufferRows;
+    private long streamingStallTimeoutMs;
+    private long spillToDiskThresholdBytes;
+    private int parallelColumnDetectionThreshold;
+    private int schemaCacheSize;
+    private int compiledScriptCacheSize;
+    private boolean concurrentScriptEvaluation;
+    private int scriptEnginePoolSize;
+    private String warmUpScriptPath;
+    private int warmUpIterations;
+    private int processPoolSize;
+    private int processPoolMaxUses;
 
     // public getters
     @Override
@@ -91,6 +106,11 @@ class ConfigurationImpl implements Configuration {
         return endOfDataPattern;
     }
 
+    @Override
+    public String getEndOfDataMarkerCommand() {
+        return endOfDataMarkerCommand;
+    }
+
     @Override
     public long getExternalCallQuietPeriodThresholdMs() {
         return externalCallQuietPeriodThresholdMs;
@@ -114,6 +134,76 @@ class ConfigurationImpl implements Configuration {
         return initScriptPath;
     }
 
+    @Override
+    public boolean getStreamingResultSet() {
+        return streamingResultSet;
+    }
+
+    @Override
+    public int getStreamingTypeDetectionRows() {
+        return streamingTypeDetectionRows;
+    }
+
+    @Override
+    public int getStreamingBufferRows() {
+        return streamingBufferRows;
+    }
+
+    @Override
+    public long getStreamingStallTimeoutMs() {
+        return streamingStallTimeoutMs;
+    }
+
+    @Override
+    public long getSpillToDiskThresholdBytes() {
+        return spillToDiskThresholdBytes;
+    }
+
+    @Override
+    public int getParallelColumnDetectionThreshold() {
+        return parallelColumnDetectionThreshold;
+    }
+
+    @Override
+    public int getSchemaCacheSize() {
+        return schemaCacheSize;
+    }
+
+    @Override
+    public int getCompiledScriptCacheSize() {
+        return compiledScriptCacheSize;
+    }
+
+    @Override
+    public boolean getConcurrentScriptEvaluation() {
+        return concurrentScriptEvaluation;
+    }
+
+    @Override
+    public int getScriptEnginePoolSize() {
+        return scriptEnginePoolSize;
+    }
+
+    @Override
+    public String getWarmUpScriptPath() {
+        return warmUpScriptPath;
+    }
+
+    @Override
+    public int getWarmUpIterations() {
+        return warmUpIterations;
+    }
+
+    @Override
+    public int getProcessPoolSize() {
+        return processPoolSize;
+    }
+
+    @Override
+    public int getProcessPoolMaxUses() {
+        return processPoolMaxUses;
+    }
+
     // package-local setters
     void setConversionCharset(String conversionCharset) {
         this.conversionCharset = conversionCharset;
@@ -127,6 +217,10 @@ class ConfigurationImpl implements Configuration {
         this.endOfDataPattern = endOfDataPattern;
     }
 
+    void setEndOfDataMarkerCommand(String endOfDataMarkerCommand) {
+        this.endOfDataMarkerCommand = endOfDataMarkerCommand;
+    }
+
     void setExternalCallQuietPeriodThresholdMs(long externalCallQuietPeriodThresholdMs) {
         this.externalCallQuietPeriodThresholdMs = externalCallQuietPeriodThresholdMs;
     }
@@ -141,4 +235,60 @@ class ConfigurationImpl implements Configuration {
         this.initScriptPath = initScript;
     }
 
+    void setStreamingResultSet(boolean streamingResultSet) {
+        this.streamingResultSet = streamingResultSet;
+    }
+
+    void setStreamingTypeDetectionRows(int streamingTypeDetectionRows) {
+        this.streamingTypeDetectionRows = streamingTypeDetectionRows;
+    }
+
+    void setStreamingBufferRows(int streamingBufferRows) {
+        this.streamingBufferRows = streamingBufferRows;
+    }
+
+    void setStreamingStallTimeoutMs(long streamingStallTimeoutMs) {
+        this.streamingStallTimeoutMs = streamingStallTimeoutMs;
+    }
+
+    void setSpillToDiskThresholdBytes(long spillToDiskThresholdBytes) {
+        this.spillToDiskThresholdBytes = spillToDiskThresholdBytes;
+    }
+
+    void setParallelColumnDetectionThreshold(int parallelColumnDetectionThreshold) {
+        this.parallelColumnDetectionThreshold = parallelColumnDetectionThreshold;
+    }
+
+    void setSchemaCacheSize(int schemaCacheSize) {
+        this.schemaCacheSize = schemaCacheSize;
+    }
+
+    void setCompiledScriptCacheSize(int compiledScriptCacheSize) {
+        this.compiledScriptCacheSize = compiledScriptCacheSize;
+    }
+
+    void setConcurrentScriptEvaluation(boolean concurrentScriptEvaluation) {
+        this.concurrentScriptEvaluation = concurrentScriptEvaluation;
+    }
+
+    void setScriptEnginePoolSize(int scriptEnginePoolSize) {
+        this.scriptEnginePoolSize = scriptEnginePoolSize;
+    }
+
+    void setWarmUpScriptPath(String warmUpScriptPath) {
+        this.warmUpScriptPath = warmUpScriptPath;
+    }
+
+    void setWarmUpIterations(int warmUpIterations) {
+        this.warmUpIterations = warmUpIterations;
+    }
+
+    void setProcessPoolSize(int processPoolSize) {
+        this.processPoolSize = processPoolSize;
+    }
+
+    void setProcessPoolMaxUses(int processPoolMaxUses) {
+        this.processPoolMaxUses = processPoolMaxUses;
+    }
+
 }
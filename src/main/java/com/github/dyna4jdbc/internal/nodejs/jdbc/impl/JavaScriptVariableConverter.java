@@ -17,6 +17,7 @@
  
 package com.github.dyna4jdbc.internal.nodejs.jdbc.impl;
 
+import java.lang.reflect.Array;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,7 +31,11 @@ final class JavaScriptVariableConverter {
         if (value == null) {
             return "null";
         } else if (value instanceof String || value instanceof CharSequence) {
-            return String.format("'%s'", value.toString().replaceAll("(?<!\\\\)[']", "\\\\'"));
+            String escapedValue = value.toString()
+                    .replaceAll("(?<!\\\\)[']", "\\\\'")
+                    .replace("\n", "\\n")
+                    .replace("\r", "\\r");
+            return String.format("'%s'", escapedValue);
         } else if (value instanceof Character) {
             return String.format("'%s'", ((Character) value));
         } else if (value instanceof Boolean
@@ -44,9 +49,14 @@ final class JavaScriptVariableConverter {
         } else if (value instanceof Collection) {
             Collection<?> collection = (Collection<?>) value;
             return convertToString(collection);
-        } else if (value.getClass().isArray()) {
+        } else if (value instanceof byte[]) {
+            // binary data is passed as Base64, which is far more compact than a list of numbers
+            return String.format("Buffer.from('%s', 'base64')", Base64.getEncoder().encodeToString((byte[]) value));
+        } else if (value instanceof Object[]) {
             List<?> list = Arrays.asList((Object[]) value);
             return convertToString(list);
+        } else if (value.getClass().isArray()) {
+            return convertToString(toList(value));
         } else if (value instanceof Map) {
             return convertToString((Map<?, ?>) value);
         } else {
@@ -54,6 +64,23 @@ final class JavaScriptVariableConverter {
         }
     }
 
+    private static List<Object> toList(Object primitiveArray) {
+        int length = Array.getLength(primitiveArray);
+        List<Object> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(Array.get(primitiveArray, i));
+        }
+        return list;
+    }
+
+    static String convertToVariableAssignments(Map<String, Object> variables) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> entry : variables.entrySet()) {
+            sb.append(String.format("%s = %s; ", entry.getKey(), convertToString(entry.getValue())));
+        }
+        return sb.toString();
+    }
+
     private static String convertToString(Collection<?> objectStream) {
         return String.format("[ %s ]", objectStream.stream()
                 .map(JavaScriptVariableConverter::convertToString)
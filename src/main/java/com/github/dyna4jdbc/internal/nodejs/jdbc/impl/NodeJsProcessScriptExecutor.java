@@ -30,6 +30,7 @@ import java.sql.SQLWarning;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +42,8 @@ class NodeJsProcessScriptExecutor extends DefaultExternalProcessScriptExecutor {
 
     private static final String NODE_EXIT_COMMAND = "process.exit();";
 
+    private static final String BATCH_SCRIPT_SEPARATOR = "; ";
+
     private static final Logger LOGGER = Logger.getLogger(NodeJsProcessScriptExecutor.class.getName());
 
 
@@ -54,62 +57,53 @@ class NodeJsProcessScriptExecutor extends DefaultExternalProcessScriptExecutor {
         this.configuration = configuration;
     }
 
+    /**
+     * The variables are assigned in the same line as the script, so that the REPL
+     * evaluates them together: this avoids a separate round-trip for each variable.
+     */
     @Override
     public void executeScript(String script, Map<String, Object> variables,
                               OutputStream stdOutOutputStream, OutputStream errorOutputStream)
             throws ScriptExecutionException {
-        
-        VariableSetScriptInvoker variableSetter = new VariableSetScriptInvoker(configuration, this);
-        
-        if (variables != null) {
-            for (Map.Entry<String, Object> entry : variables.entrySet()) {
-                String key = entry.getKey();
-                Object value = entry.getValue();
-
-                variableSetter.setVariable(key, value);
-            }
-        }
 
-        super.executeScript(script.replace("\n",  " ").replace("\r",  " "),
-                variables, stdOutOutputStream, errorOutputStream);
-    }
+        String singleLineScript = toSingleLine(script);
 
-    private static final class VariableSetScriptInvoker extends AutoGeneratedScriptHandler {
-
-        VariableSetScriptInvoker(Configuration configuration, ScriptExecutor scriptExecutor) {
-            super(configuration, scriptExecutor);
+        if (variables != null && !variables.isEmpty()) {
+            String variableAssignments = JavaScriptVariableConverter.convertToVariableAssignments(variables);
+            singleLineScript = toSingleLine(variableAssignments) + singleLineScript;
         }
 
-        private void setVariable(String variableName, Object variableValue) {
-
-            String stringRepresentation = JavaScriptVariableConverter.convertToString(variableValue);
-
-            String variableSetScript = String.format("%s = %s;", variableName, stringRepresentation);
+        super.executeScript(singleLineScript, variables, stdOutOutputStream, errorOutputStream);
+    }
 
-            try {
-                this.invokeScript(variableSetScript);
+    /**
+     * The REPL terminates the output of each line evaluated with the end of stream token:
+     * the scripts are therefore joined to a single line, which is evaluated at once.
+     */
+    @Override
+    public void executeBatch(List<String> scripts,
+                             OutputStream stdOutOutputStream, OutputStream errorOutputStream)
+            throws ScriptExecutionException {
 
-            } catch (ScriptExecutionException ex) {
-                throw JDBCError.NODE_JS_INTEGRATION_ERROR.raiseUncheckedException(
-                        String.format("Failed to set variable '%s' to '%s'",
-                                variableName, stringRepresentation));
-            }
+        StringJoiner batchScript = new StringJoiner(BATCH_SCRIPT_SEPARATOR);
+        for (String script : scripts) {
+            batchScript.add(toSingleLine(script));
         }
 
-        @Override
-        protected void onSingleWarning(String script, SQLWarning warning) {
-            throw JDBCError.NODE_JS_INTEGRATION_ERROR.raiseUncheckedException(
-                    warning,
-                    "stdERR write while invoking dyna4JDBC auto-generated JavaScript intended to set a variable. "
-                    + "Script is: " + script);
-        }
+        super.executeScript(batchScript.toString(), null, stdOutOutputStream, errorOutputStream);
+    }
 
-        @Override
-        protected void onMultipleWarnings(String script, List<SQLWarning> warningList) {
-            throw JDBCError.NODE_JS_INTEGRATION_ERROR.raiseUncheckedExceptionWithSuppressed(warningList,
-                    "stdERR write while invoking dyna4JDBC auto-generated JavaScript intended to set a variable. "
-                    + "Script is: " + script);
-        }
+    /**
+     * The batch is evaluated as a single line by the REPL started along with
+     * this executor: it is available as long as the Node.js process is.
+     */
+    @Override
+    public boolean isBatchExecutionAvailable() {
+        return !hasProcessExited();
+    }
+
+    private static String toSingleLine(String script) {
+        return script.replace("\n",  " ").replace("\r",  " ");
     }
 
     private final class ExitNodeJsScriptInvoker extends AutoGeneratedScriptHandler {
@@ -154,6 +148,12 @@ class NodeJsProcessScriptExecutor extends DefaultExternalProcessScriptExecutor {
     }
 
 
+    @Override
+    public boolean isValid() {
+        // the Node.js REPL process holds the state of the connection: it cannot be re-started
+        return super.isValid() && !hasProcessExited();
+    }
+
     @Override
     protected void onProcessNotRunningBeforeDispatch(String script) throws ScriptExecutionException {
         throw new ScriptExecutionException(
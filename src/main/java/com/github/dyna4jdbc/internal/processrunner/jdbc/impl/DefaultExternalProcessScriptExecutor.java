@@ -19,40 +19,61 @@ package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
 import java.sql.SQLWarning;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.github.dyna4jdbc.internal.AbortedError;
+import com.github.dyna4jdbc.internal.BatchScriptExecutor;
 import com.github.dyna4jdbc.internal.CancelException;
 import com.github.dyna4jdbc.internal.ScriptExecutionException;
 import com.github.dyna4jdbc.internal.common.outputhandler.SQLWarningSink;
-import com.github.dyna4jdbc.internal.common.outputhandler.impl.DefaultIOHandlerFactory;
+import com.github.dyna4jdbc.internal.common.util.concurrent.SharedIOExecutor;
+import com.github.dyna4jdbc.internal.common.util.exception.ExceptionUtils;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
-public class DefaultExternalProcessScriptExecutor implements ExternalProcessScriptExecutor {
+public class DefaultExternalProcessScriptExecutor implements ExternalProcessScriptExecutor, BatchScriptExecutor {
 
     private static final Logger LOGGER = Logger.getLogger(DefaultExternalProcessScriptExecutor.class.getName());
 
+    private static final String SCRIPT_SEPARATOR = "\n";
+
+    private final Object lockObject = new Object();
+
     private volatile ProcessManager processManager;
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
-    private final DefaultIOHandlerFactory ioHandlerFactory;
+    private final ExecutorService executorService =
+            SharedIOExecutor.getInstance().newConnectionExecutor("Process I/O of " + this);
     private final ProcessManagerFactory processManagerFactory;
     private final SQLWarningSink warningSink;
 
+    private final ProcessPool processPool;
+    private final int processPoolMaxUses;
+    private int processUseCount;
+
+    private final boolean endOfDataMarkerConfigured;
+
 
     public DefaultExternalProcessScriptExecutor(Configuration configuration, SQLWarningSink warningSink) {
-        this.ioHandlerFactory = DefaultIOHandlerFactory.getInstance(configuration);
         this.processManagerFactory = ProcessManagerFactory.getInstance(configuration, executorService);
         this.warningSink = warningSink;
+
+        if (configuration.getProcessPoolSize() > 0) {
+            this.processPool = ProcessPool.newInstance(this::createProcess, processManagerFactory,
+                    warningSink, executorService, configuration.getProcessPoolSize());
+        } else {
+            this.processPool = null;
+        }
+        this.processPoolMaxUses = configuration.getProcessPoolMaxUses();
+        this.endOfDataMarkerConfigured = configuration.getEndOfDataMarkerCommand() != null;
     }
 
     //CHECKSTYLE.OFF: DesignForExtension : incorrect detection of "is not designed for extension"
@@ -63,30 +84,103 @@ public class DefaultExternalProcessScriptExecutor implements ExternalProcessScri
             OutputStream stdOutputStream,
             OutputStream errorOutputStream) throws ScriptExecutionException {
 
-        try (PrintWriter outputPrintWriter = ioHandlerFactory.newPrintWriter(stdOutputStream, true);
-             PrintWriter errorPrintWriter = ioHandlerFactory.newPrintWriter(errorOutputStream, true)) {
+        executeScripts(Collections.singletonList(script), variables, stdOutputStream, errorOutputStream);
+    }
+
+    /**
+     * Writes all scripts to the running process in one go and waits for the output
+     * only once. Only available if an interactive process, the output of which is
+     * terminated by an end of data marker, has been started already: otherwise each
+     * script would start a process of its own.
+     */
+    @Override
+    public void executeBatch(
+            List<String> scripts,
+            OutputStream stdOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        if (!isBatchExecutionAvailable()) {
+            throw new ScriptExecutionException(
+                    "No interactive process is running: the batch cannot be dispatched as one unit",
+                    String.join(SCRIPT_SEPARATOR, scripts));
+        }
+
+        executeScripts(scripts, null, stdOutputStream, errorOutputStream);
+    }
+
+    @Override
+    public boolean isBatchExecutionAvailable() {
+        ProcessManager currentProcessManager = processManager;
+        return endOfDataMarkerConfigured
+                && currentProcessManager != null
+                && currentProcessManager.isProcessRunning();
+    }
+    //CHECKSTYLE.ON
+
+    /**
+     * Dispatches the scripts to the process: a process is only started if none is
+     * running, in which case {@code scripts} must contain a single script, which is
+     * used to start the process. Otherwise, all scripts are written to the standard
+     * input of the running process.
+     */
+    private void executeScripts(
+            List<String> scripts,
+            Map<String, Object> variables,
+            OutputStream stdOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        /* A script producing a streamed ResultSet runs in the background: we synchronize so that
+         * a statement executed in the meantime waits for it instead of interfering with its process.
+         */
+        synchronized (lockObject) {
+            executeScriptsExclusively(scripts, variables, stdOutputStream, errorOutputStream);
+        }
+    }
+
+    private void executeScriptsExclusively(
+            List<String> scripts,
+            Map<String, Object> variables,
+            OutputStream stdOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        String script = String.join(SCRIPT_SEPARATOR, scripts);
+
+        boolean successful = false;
+        try (OutputStream outputStream = stdOutputStream;
+             OutputStream errorStream = errorOutputStream) {
 
             if (this.processManager != null && !this.processManager.isProcessRunning()) {
                 onProcessNotRunningBeforeDispatch(script);
             }
 
             if (this.processManager == null) {
-                Process newProcess = createProcess(script, variables);
-
-                this.processManager = processManagerFactory.newProcessManager(newProcess, warningSink);
+                if (scripts.size() > 1) {
+                    throw new ScriptExecutionException(
+                            "Process exited: the batch cannot be dispatched as one unit", script);
+                }
+                this.processManager = newProcessManager(script, variables);
+                this.processUseCount = 0;
             } else {
-                this.processManager.writeToStandardInput(script);
+                for (String scriptToWrite : scripts) {
+                    this.processManager.writeToStandardInput(scriptToWrite);
+                }
             }
+            this.processUseCount++;
 
+            ProcessManager.EndOfDataMarker endOfDataMarker = processManager.writeEndOfDataMarkerCommand();
+
+            // the output of the process is passed on to the output streams without being decoded
             Future<Void> standardOutFuture = processManager.submitReadTaskForStdOut(
-                    line -> outputPrintWriter.println(line));
+                    outputStream, endOfDataMarker);
 
             Future<Void> standardErrorFuture = processManager.submitReadTaskForStdErr(
-                    line -> errorPrintWriter.println(line));
+                    errorStream, endOfDataMarker);
 
             standardOutFuture.get();
             standardErrorFuture.get();
 
+            successful = true;
+
         } catch (IOException e) {
             throw new ScriptExecutionException(e, script);
         } catch (InterruptedException e) {
@@ -94,13 +188,47 @@ public class DefaultExternalProcessScriptExecutor implements ExternalProcessScri
             throw new ScriptExecutionException("Interrupted", e, script);
         } catch (ExecutionException e) {
             Throwable actualThrowable = e.getCause();
+            if (ExceptionUtils.getRootCause(actualThrowable) instanceof AbortedError) {
+                // the rest of the output is not going to be retrieved: the process cannot be used any longer
+                abortProcessIfRunning();
+            }
             throw new ScriptExecutionException(actualThrowable, script);
 
-        } catch (ProcessExecutionException e) {
+        } catch (ProcessExecutionException | RejectedExecutionException e) {
             throw new ScriptExecutionException(e, script);
+        } finally {
+            if (processPool != null) {
+                terminatePooledProcessIfRequired(successful);
+            }
+        }
+    }
+
+    private ProcessManager newProcessManager(String script, Map<String, Object> variables)
+            throws IOException, ProcessExecutionException {
+
+        if (processPool != null) {
+            return processPool.take(script, variables);
+        }
+
+        Process newProcess = createProcess(script, variables);
+
+        return processManagerFactory.newProcessManager(newProcess, warningSink);
+    }
+
+    private void terminatePooledProcessIfRequired(boolean successful) {
+        ProcessManager currentProcessManager = processManager;
+        if (currentProcessManager != null
+                && (!successful || processPoolMaxUses > 0 && processUseCount >= processPoolMaxUses)) {
+
+            LOGGER.log(Level.FINEST, "Terminating pooled process after {0} use(s) in {1}",
+                    new Object[]{processUseCount, this});
+
+            currentProcessManager.terminateProcess();
+            processManager = null;
         }
     }
 
+    //CHECKSTYLE.OFF: DesignForExtension : incorrect detection of "is not designed for extension"
     protected void onProcessNotRunningBeforeDispatch(String script) throws ScriptExecutionException {
         // allows the process to be re-initialize
         this.processManager = null;
@@ -146,10 +274,33 @@ public class DefaultExternalProcessScriptExecutor implements ExternalProcessScri
         try {
             abortProcessIfRunning();
         } finally {
-            executorService.shutdownNow();
+            try {
+                if (processPool != null) {
+                    processPool.close();
+                }
+            } finally {
+                executorService.shutdownNow();
+            }
         }
     }
 
+    //CHECKSTYLE.OFF: DesignForExtension : incorrect detection of "is not designed for extension"
+    @Override
+    public boolean isValid() {
+        return !executorService.isShutdown();
+    }
+    //CHECKSTYLE.ON
+
+    /**
+     * Returns whether a process has been started and exited since.
+     *
+     * @return {@code true} if the process started has exited already, {@code false} otherwise
+     */
+    protected final boolean hasProcessExited() {
+        ProcessManager currentProcessManager = processManager;
+        return currentProcessManager != null && !currentProcessManager.isProcessRunning();
+    }
+
     @Override
     public final void cancel() throws CancelException {
 
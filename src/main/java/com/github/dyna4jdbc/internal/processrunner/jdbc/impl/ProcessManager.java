@@ -17,23 +17,23 @@
 
 package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.sql.SQLWarning;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
 
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.outputhandler.IOHandlerFactory;
@@ -43,16 +43,14 @@ import com.github.dyna4jdbc.internal.config.Configuration;
 
 final class ProcessManager {
 
-    interface ReadListener {
-        void onLineRead(String line);
-    }
-
     private static final Logger LOGGER = Logger.getLogger(ProcessManager.class.getName());
 
     private static final long DEFAULT_POLL_INTERVAL_MS = 500;
+    private static final long END_OF_DATA_MARKER_POLL_INTERVAL_MS = 50;
     private static final long DEFAULT_TIMEOUT_MILLI_SECONDS = 10_000;
 
-    private static final String END_OF_STREAM_INDICATOR_TOKEN = UUID.randomUUID().toString();
+    private static final String END_OF_DATA_MARKER_PLACEHOLDER = "{marker}";
+    private static final String END_OF_DATA_MARKER_PREFIX = "dyna4jdbc-end-of-data-";
 
 
     private final Process processReference;
@@ -63,10 +61,11 @@ final class ProcessManager {
 
     private final PrintWriter processInputWriter;
 
-    private final BlockingQueue<String> standardOutputStreamContentQueue;
-    private final BlockingQueue<String> errorStreamContentQueue;
+    private final ProcessOutputBuffer standardOutputBuffer;
+    private final ProcessOutputBuffer errorOutputBuffer;
 
     private final Configuration configuration;
+    private final Charset charset;
 
 
     static ProcessManager newInstance(
@@ -76,33 +75,25 @@ final class ProcessManager {
             SQLWarningSink warningSink)
             throws ProcessExecutionException {
 
+        final int partiesToWait = 3;
+        /*
+        CyclicBarrier should wait for three parties:
+            1.) Current thread
+            2.) stdOutReader thread
+            3.) stdErrReader thread
+         */
+        CyclicBarrier cyclicBarrier = new CyclicBarrier(partiesToWait);
+
         try {
             ProcessManager processManager = new ProcessManager(process, configuration, executorService);
 
-            final int partiesToWait = 3;
-            /*
-            CyclicBarrier should wait for three parties:
-                1.) Current thread
-                2.) stdOutReader thread
-                3.) stdErrReader thread
-             */
-            CyclicBarrier cyclicBarrier = new CyclicBarrier(partiesToWait);
-
-            IOHandlerFactory ioHandlerFactory = DefaultIOHandlerFactory.getInstance(configuration);
-
-            BufferedReader stdOut = ioHandlerFactory.newBufferedReader(
-                    processManager.processReference.getInputStream());
-
-            BufferedReader stdErr = ioHandlerFactory.newBufferedReader(
-                    processManager.processReference.getErrorStream());
-
-            Runnable stdOutReader = new BufferedReaderToBlockingQueueRunnable(
-                    "StdOut reader", stdOut,
-                    processManager.standardOutputStreamContentQueue, cyclicBarrier, warningSink);
+            Runnable stdOutReader = new InputStreamToOutputBufferRunnable(
+                    "StdOut reader", processManager.processReference.getInputStream(),
+                    processManager.standardOutputBuffer, cyclicBarrier, warningSink);
 
-            Runnable stdErrReader = new BufferedReaderToBlockingQueueRunnable(
-                    "StdErr reader", stdErr,
-                    processManager.errorStreamContentQueue, cyclicBarrier, warningSink);
+            Runnable stdErrReader = new InputStreamToOutputBufferRunnable(
+                    "StdErr reader", processManager.processReference.getErrorStream(),
+                    processManager.errorOutputBuffer, cyclicBarrier, warningSink);
 
             processManager.executorService.execute(stdOutReader);
             processManager.executorService.execute(stdErrReader);
@@ -120,6 +111,14 @@ final class ProcessManager {
 
             throw new ProcessExecutionException(
                     "At least one process reader thread failed to initialize: process destroyed forcibly", e);
+
+        } catch (RejectedExecutionException e) {
+            // releases the reader thread already started, if any
+            cyclicBarrier.reset();
+            process.destroyForcibly();
+
+            throw new ProcessExecutionException(
+                    "Process reader thread could not be started: process destroyed forcibly", e);
         }
     }
 
@@ -132,28 +131,36 @@ final class ProcessManager {
         IOHandlerFactory ioHandlerFactory = DefaultIOHandlerFactory.getInstance(configuration);
         processInputWriter = ioHandlerFactory.newPrintWriter(process.getOutputStream(), true);
 
-        standardOutputStreamContentQueue = new LinkedBlockingQueue<>();
-        errorStreamContentQueue = new LinkedBlockingQueue<>();
+        charset = Charset.forName(configuration.getConversionCharset());
+
+        standardOutputBuffer = new ProcessOutputBuffer();
+        errorOutputBuffer = new ProcessOutputBuffer();
 
         this.executorService = executorService;
     }
 
-    Future<Void> submitReadTaskForStdOut(ReadListener onStdOut) {
+    Future<Void> submitReadTaskForStdOut(OutputStream stdOutputStream, EndOfDataMarker endOfDataMarker) {
         return executorService.submit(
-                new OutputListenerDispatcher(standardOutputStreamContentQueue,
-                        configuration.getSkipFirstLine(), configuration, onStdOut));
+                new OutputTransferTask(standardOutputBuffer,
+                        configuration.getSkipFirstLine(), configuration, charset, stdOutputStream,
+                        endOfDataMarker, true));
     }
 
-    Future<Void> submitReadTaskForStdErr(ReadListener onStdErr) {
+    Future<Void> submitReadTaskForStdErr(OutputStream errorOutputStream, EndOfDataMarker endOfDataMarker) {
         return executorService.submit(
-                new OutputListenerDispatcher(errorStreamContentQueue,
-                        false, configuration, onStdErr));
+                new OutputTransferTask(errorOutputBuffer,
+                        false, configuration, charset, errorOutputStream,
+                        endOfDataMarker, false));
     }
 
     boolean isProcessRunning() {
         return processReference.isAlive();
     }
 
+    boolean hasProcessFailed() {
+        return !processReference.isAlive() && processReference.exitValue() != 0;
+    }
+
     void terminateProcess() {
         processReference.destroyForcibly();
     }
@@ -163,21 +170,62 @@ final class ProcessManager {
         processInputWriter.flush();
     }
 
-    private static final class BufferedReaderToBlockingQueueRunnable implements Runnable {
+    /**
+     * Writes the configured end of data marker command to the standard input
+     * of the process, with a newly generated, unique marker.
+     *
+     * @return the {@code EndOfDataMarker} the output should be terminated with,
+     *          or {@code null} if no end of data marker command is configured
+     */
+    EndOfDataMarker writeEndOfDataMarkerCommand() {
+        String markerCommandTemplate = configuration.getEndOfDataMarkerCommand();
+        if (markerCommandTemplate == null) {
+            return null;
+        }
+
+        EndOfDataMarker endOfDataMarker = new EndOfDataMarker(
+                END_OF_DATA_MARKER_PREFIX + UUID.randomUUID().toString());
+
+        writeToStandardInput(markerCommandTemplate.replace(
+                END_OF_DATA_MARKER_PLACEHOLDER, endOfDataMarker.marker));
+
+        return endOfDataMarker;
+    }
+
+    /**
+     * Marker printed by the process once the output of a command is complete.
+     */
+    static final class EndOfDataMarker {
+
+        private final String marker;
+
+        /*
+         * Once the standard output is complete, all output of the command has
+         * already been written: the standard error stream is drained until
+         * it becomes quiet and then considered complete.
+         */
+        private volatile boolean standardOutputComplete;
+
+        private EndOfDataMarker(String marker) {
+            this.marker = marker;
+        }
+    }
+
+    private static final class InputStreamToOutputBufferRunnable implements Runnable {
         private final String identifier;
-        private final BufferedReader bufferedReader;
-        private final BlockingQueue<String> blockingQueue;
+        private final InputStream inputStream;
+        private final ProcessOutputBuffer outputBuffer;
         private CyclicBarrier cyclicBarrier;
         private final SQLWarningSink warningSink;
 
-        private BufferedReaderToBlockingQueueRunnable(String identifier,
-                                                      BufferedReader bufferedReader,
-                                                      BlockingQueue<String> blockingQueue,
-                                                      CyclicBarrier cyclicBarrier, SQLWarningSink warningSink) {
+        private InputStreamToOutputBufferRunnable(String identifier,
+                                                  InputStream inputStream,
+                                                  ProcessOutputBuffer outputBuffer,
+                                                  CyclicBarrier cyclicBarrier, SQLWarningSink warningSink) {
 
             this.identifier = identifier;
-            this.bufferedReader = bufferedReader;
-            this.blockingQueue = blockingQueue;
+            this.inputStream = inputStream;
+            this.outputBuffer = outputBuffer;
             this.cyclicBarrier = cyclicBarrier;
             this.warningSink = warningSink;
         }
@@ -187,14 +235,8 @@ final class ProcessManager {
             try {
                 cyclicBarrier.await(DEFAULT_TIMEOUT_MILLI_SECONDS, TimeUnit.MILLISECONDS);
 
-                while (!Thread.currentThread().isInterrupted()) {
-                    String line = bufferedReader.readLine();
-                    if (line == null) {
-                        blockingQueue.put(END_OF_STREAM_INDICATOR_TOKEN);
-                        break;
-                    }
-                    blockingQueue.put(line);
-                }
+                outputBuffer.readFrom(inputStream);
+
             } catch (IOException ioEx) {
                 LOGGER.log(Level.WARNING, ioEx, () -> "IOException in " + this.identifier);
 
@@ -218,12 +260,10 @@ final class ProcessManager {
                 Thread.currentThread().interrupt();
             } finally {
                 try {
-                    if (bufferedReader != null) {
-                        bufferedReader.close();
-                    }
+                    inputStream.close();
                 } catch (IOException e) {
                     // should NEVER happen
-                    LOGGER.log(Level.WARNING, "Ignored exception thrown while closing BufferedReader", e);
+                    LOGGER.log(Level.WARNING, "Ignored exception thrown while closing InputStream", e);
                 }
             }
 
@@ -232,10 +272,8 @@ final class ProcessManager {
         @Override
         public String toString() {
             StringBuilder builder = new StringBuilder();
-            builder.append("BufferedReaderToBlockingQueueRunnable [identifier=");
+            builder.append("InputStreamToOutputBufferRunnable [identifier=");
             builder.append(identifier);
-            builder.append(",\nblockingQueue=");
-            builder.append(blockingQueue);
             builder.append("]");
             return builder.toString();
         }
@@ -243,55 +281,90 @@ final class ProcessManager {
 
     }
 
-    private static final class OutputListenerDispatcher implements Callable<Void> {
+    private static final class OutputTransferTask implements Callable<Void> {
 
-        private final BlockingQueue<String> queueToPoll;
-        private final boolean skipFirstLine;
-        private final Pattern endOfDataPattern;
-        private final ReadListener listener;
+        private final ProcessOutputBuffer outputBuffer;
+        private final ProcessOutputBuffer.EndOfDataCondition endOfDataCondition;
+        private final OutputStream outputStream;
         private final long expirationIntervalMs;
+        private final EndOfDataMarker endOfDataMarker;
+        private final boolean standardOutput;
 
 
-        OutputListenerDispatcher(
-                BlockingQueue<String> queueToPoll,
+        OutputTransferTask(
+                ProcessOutputBuffer outputBuffer,
                 boolean skipFirstLine,
                 Configuration configuration,
-                ReadListener listener) {
-            this.queueToPoll = queueToPoll;
+                Charset charset,
+                OutputStream outputStream,
+                EndOfDataMarker endOfDataMarker,
+                boolean standardOutput) {
+            this.outputBuffer = outputBuffer;
             this.expirationIntervalMs = configuration.getExternalCallQuietPeriodThresholdMs();
-            this.skipFirstLine = skipFirstLine;
-            this.endOfDataPattern = configuration.getEndOfDataPattern();
-            this.listener = listener;
+
+            String marker = null;
+            if (endOfDataMarker != null) {
+                marker = endOfDataMarker.marker;
+            }
+            this.endOfDataCondition = new ProcessOutputBuffer.EndOfDataCondition(
+                    skipFirstLine, configuration.getEndOfDataPattern(), marker, charset);
+
+            this.outputStream = outputStream;
+            this.endOfDataMarker = endOfDataMarker;
+            this.standardOutput = standardOutput;
 
         }
 
         @Override
         public Void call() throws Exception {
+            if (endOfDataMarker != null) {
+                try {
+                    transferUntilEndOfDataMarker();
+                } finally {
+                    if (standardOutput) {
+                        endOfDataMarker.standardOutputComplete = true;
+                    }
+                }
+            } else {
+                transferUntilQuietPeriodExpires();
+            }
 
-            boolean firstLine = true;
-            long expirationTime;
-            do {
+            return null;
+        }
 
-                String outputRead = queueToPoll.poll(DEFAULT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        private void transferUntilEndOfDataMarker() throws IOException, InterruptedException {
 
-                if (outputRead == null || outputRead.equals(END_OF_STREAM_INDICATOR_TOKEN)
-                        || endOfDataPattern != null && endOfDataPattern.matcher(outputRead).matches()) {
-                    break; // reached end of stream: break out of the loop
+            while (true) {
 
-                } else {
+                ProcessOutputBuffer.TransferResult transferResult = outputBuffer.transferAvailableLines(
+                        outputStream, endOfDataCondition, END_OF_DATA_MARKER_POLL_INTERVAL_MS);
 
-                    expirationTime = System.currentTimeMillis() + expirationIntervalMs;
+                if (transferResult == ProcessOutputBuffer.TransferResult.END_OF_DATA) {
+                    break; // reached the marker or end of stream: break out of the loop
 
-                    if (skipFirstLine && firstLine) {
-                        firstLine = false;
-                        continue;
-                    }
+                } else if (transferResult == ProcessOutputBuffer.TransferResult.NO_DATA
+                        && !standardOutput && endOfDataMarker.standardOutputComplete) {
+                    break; // standard output is complete and error stream is quiet
+                }
+                // otherwise keep waiting for the marker, regardless of the quiet period
+            }
+        }
 
-                    listener.onLineRead(outputRead);
+        private void transferUntilQuietPeriodExpires() throws IOException, InterruptedException {
+
+            long expirationTime;
+            do {
+
+                ProcessOutputBuffer.TransferResult transferResult = outputBuffer.transferAvailableLines(
+                        outputStream, endOfDataCondition, DEFAULT_POLL_INTERVAL_MS);
+
+                if (transferResult != ProcessOutputBuffer.TransferResult.DATA_TRANSFERRED) {
+                    break; // reached end of stream or no output: break out of the loop
                 }
-            } while (System.currentTimeMillis() < expirationTime);
 
-            return null;
+                expirationTime = System.currentTimeMillis() + expirationIntervalMs;
+
+            } while (System.currentTimeMillis() < expirationTime);
         }
 
     }
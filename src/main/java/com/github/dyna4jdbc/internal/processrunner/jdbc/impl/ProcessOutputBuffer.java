@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded buffer between an output stream of an external process and the
+ * {@code OutputStream} the output of the current command is written to.
+ *
+ * <p>
+ * The output of the process is passed on as raw bytes: lines are only
+ * looked at to detect the end of the output of a command. A single thread
+ * produces the content (see {@link #readFrom(InputStream)}), while the
+ * content is transferred by one thread at a time (see
+ * {@link #transferAvailableLines(OutputStream, EndOfDataCondition, long)}).
+ * If the buffer is full, the producer is blocked, which in turn blocks
+ * the external process once the operating system pipe buffer is full.
+ * </p>
+ *
+ * @author Peter G. Horvath
+ */
+final class ProcessOutputBuffer {
+
+    enum TransferResult {
+        NO_DATA,
+        DATA_TRANSFERRED,
+        END_OF_DATA
+    }
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int DEFAULT_CAPACITY_IN_CHUNKS = 64;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final BlockingQueue<byte[]> chunkQueue;
+
+    // The fields below are only accessed by the thread transferring the content
+    private final ByteArrayOutputStream incompleteLine = new ByteArrayOutputStream();
+    private byte[] remainingChunk;
+    private int remainingChunkOffset;
+    private boolean endOfStreamReached;
+
+    ProcessOutputBuffer() {
+        this(DEFAULT_CAPACITY_IN_CHUNKS);
+    }
+
+    ProcessOutputBuffer(int capacityInChunks) {
+        this.chunkQueue = new ArrayBlockingQueue<>(capacityInChunks);
+    }
+
+    /**
+     * Reads the {@code InputStream} until the end of the stream is reached, and
+     * buffers the content read, blocking if the buffer is full.
+     *
+     * @param inputStream the {@code InputStream} to read from
+     * @throws IOException if reading the stream fails
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    void readFrom(InputStream inputStream) throws IOException, InterruptedException {
+        byte[] readBuffer = new byte[CHUNK_SIZE];
+
+        int bytesRead;
+        while ((bytesRead = inputStream.read(readBuffer)) != -1) {
+            if (bytesRead > 0) {
+                chunkQueue.put(Arrays.copyOf(readBuffer, bytesRead));
+            }
+        }
+
+        chunkQueue.put(END_OF_STREAM);
+    }
+
+    /**
+     * Transfers the complete lines of the next chunk of content to the {@code OutputStream}.
+     * A trailing incomplete line is retained until its end is received. Content following a
+     * line signalling the end of data is retained for the next transfer.
+     *
+     * @param outputStream the {@code OutputStream} to write to
+     * @param condition the condition of the current transfer
+     * @param timeoutMs the time to wait for content, in milliseconds
+     *
+     * @return {@code NO_DATA} if no content was received within the timeout,
+     *          {@code END_OF_DATA} if the end of stream was reached or the condition signals
+     *          the end of data, {@code DATA_TRANSFERRED} otherwise
+     *
+     * @throws IOException if writing the {@code OutputStream} fails
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    TransferResult transferAvailableLines(
+            OutputStream outputStream, EndOfDataCondition condition, long timeoutMs)
+            throws IOException, InterruptedException {
+
+        if (endOfStreamReached) {
+            return TransferResult.END_OF_DATA;
+        }
+
+        byte[] chunk;
+        int offset;
+        if (remainingChunk != null) {
+            chunk = remainingChunk;
+            offset = remainingChunkOffset;
+            remainingChunk = null;
+        } else {
+            chunk = chunkQueue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            offset = 0;
+        }
+
+        if (chunk == null) {
+            return TransferResult.NO_DATA;
+        }
+
+        if (chunk == END_OF_STREAM) {
+            endOfStreamReached = true;
+
+            if (incompleteLine.size() > 0) {
+                // the last line of the output is not terminated with a line separator
+                byte[] line = incompleteLine.toByteArray();
+                incompleteLine.reset();
+
+                transferLine(outputStream, condition, line);
+            }
+
+            return TransferResult.END_OF_DATA;
+        }
+
+        int writeStart = offset;
+        int lineStart = offset;
+        for (int i = offset; i < chunk.length; i++) {
+            if (chunk[i] != LINE_FEED) {
+                continue;
+            }
+
+            final int lineEnd = i + 1;
+
+            boolean endOfData = false;
+            if (incompleteLine.size() > 0) {
+                incompleteLine.write(chunk, lineStart, lineEnd - lineStart);
+                byte[] line = incompleteLine.toByteArray();
+                incompleteLine.reset();
+
+                endOfData = transferLine(outputStream, condition, line);
+                writeStart = lineEnd;
+
+            } else {
+                int endOfDataContentLength = condition.getEndOfDataContentLength(chunk, lineStart, lineEnd);
+                if (endOfDataContentLength >= 0 || condition.skipLine()) {
+                    // lines written as-is are written in one go: write the ones preceding this line
+                    outputStream.write(chunk, writeStart, lineStart - writeStart);
+                    writeStart = lineEnd;
+
+                    if (endOfDataContentLength >= 0) {
+                        writeEndOfDataContent(outputStream, chunk, lineStart, endOfDataContentLength);
+                        endOfData = true;
+                    }
+                }
+            }
+
+            if (endOfData) {
+                if (lineEnd < chunk.length) {
+                    remainingChunk = chunk;
+                    remainingChunkOffset = lineEnd;
+                }
+                return TransferResult.END_OF_DATA;
+            }
+
+            lineStart = lineEnd;
+        }
+
+        outputStream.write(chunk, writeStart, lineStart - writeStart);
+        incompleteLine.write(chunk, lineStart, chunk.length - lineStart);
+
+        return TransferResult.DATA_TRANSFERRED;
+    }
+
+    /*
+     * Transfers a single line; returns true if the line signals the end of data.
+     */
+    private static boolean transferLine(OutputStream outputStream, EndOfDataCondition condition,
+                                        byte[] line) throws IOException {
+
+        int endOfDataContentLength = condition.getEndOfDataContentLength(line, 0, line.length);
+        if (endOfDataContentLength >= 0) {
+            writeEndOfDataContent(outputStream, line, 0, endOfDataContentLength);
+            return true;
+        }
+
+        if (!condition.skipLine()) {
+            outputStream.write(line);
+        }
+        return false;
+    }
+
+    private static void writeEndOfDataContent(OutputStream outputStream,
+                                              byte[] bytes, int lineStart, int contentLength) throws IOException {
+        if (contentLength > 0) {
+            // the content preceding the marker is terminated as a line of its own
+            outputStream.write(bytes, lineStart, contentLength);
+            outputStream.write(LINE_FEED);
+        }
+    }
+
+    private static int getLineContentEnd(byte[] bytes, int lineStart, int lineEnd) {
+        int contentEnd = lineEnd;
+        if (contentEnd > lineStart && bytes[contentEnd - 1] == LINE_FEED) {
+            contentEnd--;
+        }
+        if (contentEnd > lineStart && bytes[contentEnd - 1] == CARRIAGE_RETURN) {
+            contentEnd--;
+        }
+        return contentEnd;
+    }
+
+    /**
+     * Decides which lines are skipped and which line signals the end of
+     * the output of a command. A new instance is used for each command.
+     */
+    static final class EndOfDataCondition {
+
+        private final Pattern endOfDataPattern;
+        private final byte[] endOfDataMarker;
+        private final Charset charset;
+
+        private boolean skipNextLine;
+
+        /**
+         * Creates a new {@code EndOfDataCondition}.
+         *
+         * @param skipFirstLine whether the first line should be skipped
+         * @param endOfDataPattern pattern matching the whole line, which signals the end of data
+         *                         (<b>MIGHT</b> be {@code null})
+         * @param endOfDataMarker marker a line signalling the end of data ends with;
+         *                         content preceding the marker is retained
+         *                         (<b>MIGHT</b> be {@code null})
+         * @param charset the character set to decode lines with, when matched with the {@code endOfDataPattern}
+         */
+        EndOfDataCondition(boolean skipFirstLine, Pattern endOfDataPattern,
+                           String endOfDataMarker, Charset charset) {
+            this.skipNextLine = skipFirstLine;
+            this.endOfDataPattern = endOfDataPattern;
+            if (endOfDataMarker != null) {
+                this.endOfDataMarker = endOfDataMarker.getBytes(charset);
+            } else {
+                this.endOfDataMarker = null;
+            }
+            this.charset = charset;
+        }
+
+        /*
+         * Returns the number of bytes to retain from a line signalling the end of data,
+         * or -1 if the line does not signal the end of data.
+         */
+        private int getEndOfDataContentLength(byte[] bytes, int lineStart, int lineEnd) {
+            final int contentEnd = getLineContentEnd(bytes, lineStart, lineEnd);
+
+            if (endOfDataMarker != null && endsWithMarker(bytes, lineStart, contentEnd)) {
+                return contentEnd - endOfDataMarker.length - lineStart;
+            }
+
+            if (endOfDataPattern != null) {
+                String line = new String(bytes, lineStart, contentEnd - lineStart, charset);
+                if (endOfDataPattern.matcher(line).matches()) {
+                    return 0;
+                }
+            }
+
+            return -1;
+        }
+
+        private boolean endsWithMarker(byte[] bytes, int lineStart, int contentEnd) {
+            int markerStart = contentEnd - endOfDataMarker.length;
+            if (markerStart < lineStart) {
+                return false;
+            }
+
+            for (int i = 0; i < endOfDataMarker.length; i++) {
+                if (bytes[markerStart + i] != endOfDataMarker[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private boolean skipLine() {
+            boolean skip = skipNextLine;
+            skipNextLine = false;
+            return skip;
+        }
+    }
+}
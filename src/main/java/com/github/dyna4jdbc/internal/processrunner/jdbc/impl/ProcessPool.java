@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.dyna4jdbc.internal.common.outputhandler.SQLWarningSink;
+
+/**
+ * Keeps processes started in advance for the command lines executed by a connection.
+ *
+ * <p>
+ * Taking a process for a command line returns a process started with the same command
+ * line, if one is available and has not failed, and schedules starting a new one in
+ * the background. Processes are started together with their {@link ProcessManager},
+ * so that their output is already being read. Processes are kept for a limited number
+ * of distinct command lines: the least recently used command line is discarded first.
+ * </p>
+ *
+ * <p>
+ * Command lines with variables (i.e. the parameters of a {@code PreparedStatement}) are
+ * never started in advance: the next execution might use different values, while a
+ * command started speculatively could have side effects for values never executed.
+ * </p>
+ *
+ * @author Peter G. Horvath
+ */
+final class ProcessPool implements AutoCloseable {
+
+    interface ProcessLauncher {
+        Process createProcess(String script, Map<String, Object> variables) throws IOException;
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ProcessPool.class.getName());
+
+    private static final int MAX_COMMAND_LINES = 8;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final ProcessLauncher processLauncher;
+    private final ProcessManagerFactory processManagerFactory;
+    private final SQLWarningSink warningSink;
+    private final ExecutorService executorService;
+    private final int poolSize;
+
+    // guarded by this
+    private final LinkedHashMap<Key, Deque<ProcessManager>> idleProcesses;
+    private final Set<Key> keysBeingRefilled = new HashSet<>();
+    private boolean closed;
+
+    private ProcessPool(ProcessLauncher processLauncher,
+                        ProcessManagerFactory processManagerFactory,
+                        SQLWarningSink warningSink,
+                        ExecutorService executorService,
+                        int poolSize) {
+
+        this.processLauncher = processLauncher;
+        this.processManagerFactory = processManagerFactory;
+        this.warningSink = warningSink;
+        this.executorService = executorService;
+        this.poolSize = poolSize;
+
+        this.idleProcesses = new LinkedHashMap<Key, Deque<ProcessManager>>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Deque<ProcessManager>> eldest) {
+                if (size() > MAX_COMMAND_LINES) {
+                    terminateAll(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static ProcessPool newInstance(ProcessLauncher processLauncher,
+                                   ProcessManagerFactory processManagerFactory,
+                                   SQLWarningSink warningSink,
+                                   ExecutorService executorService,
+                                   int poolSize) {
+
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be positive: " + poolSize);
+        }
+
+        return new ProcessPool(processLauncher, processManagerFactory, warningSink, executorService, poolSize);
+    }
+
+    /**
+     * Takes a process started with the command line and variables specified. If no
+     * such process is available, or variables are specified, a new one is started
+     * in the current thread.
+     *
+     * @param script the command line to execute
+     * @param variables the variables of the process (<b>MIGHT</b> be {@code null})
+     *
+     * @return the {@code ProcessManager} of the process (never {@code null})
+     *
+     * @throws IOException if starting the process fails
+     * @throws ProcessExecutionException if setting up the {@code ProcessManager} fails
+     */
+    ProcessManager take(String script, Map<String, Object> variables)
+            throws IOException, ProcessExecutionException {
+
+        Key key = new Key(script, variables);
+
+        if (variables != null && !variables.isEmpty()) {
+            LOGGER.log(Level.FINE, "Variables specified for {0}: starting a new process", key);
+
+            return start(key);
+        }
+
+        ProcessManager processManager = pollIdleProcess(key);
+        if (processManager == null) {
+            LOGGER.log(Level.FINE, "No process available for {0}: starting a new one", key);
+
+            processManager = start(key);
+        }
+
+        scheduleRefill(key);
+
+        return processManager;
+    }
+
+    /**
+     * Returns the number of idle processes kept for the command line and variables specified.
+     *
+     * @param script the command line
+     * @param variables the variables of the process (<b>MIGHT</b> be {@code null})
+     *
+     * @return the number of idle processes
+     */
+    synchronized int getIdleProcessCount(String script, Map<String, Object> variables) {
+        Deque<ProcessManager> processes = idleProcesses.get(new Key(script, variables));
+        if (processes == null) {
+            return 0;
+        }
+        return processes.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        for (Deque<ProcessManager> processes : idleProcesses.values()) {
+            terminateAll(processes);
+        }
+        idleProcesses.clear();
+    }
+
+    private synchronized ProcessManager pollIdleProcess(Key key) {
+        Deque<ProcessManager> processes = idleProcesses.computeIfAbsent(key, k -> new ArrayDeque<>());
+
+        ProcessManager processManager;
+        while ((processManager = processes.pollFirst()) != null) {
+            if (!processManager.hasProcessFailed()) {
+                return processManager;
+            }
+
+            LOGGER.log(Level.FINE, "Discarding failed process started for {0}", key);
+        }
+
+        return null;
+    }
+
+    private void scheduleRefill(Key key) {
+        synchronized (this) {
+            if (closed || !keysBeingRefilled.add(key)) {
+                return;
+            }
+        }
+
+        try {
+            executorService.execute(() -> refill(key));
+        } catch (RejectedExecutionException ree) {
+            // the connection is being closed, or no I/O thread is available
+            synchronized (this) {
+                keysBeingRefilled.remove(key);
+            }
+        }
+    }
+
+    private void refill(Key key) {
+        try {
+            while (isRefillRequired(key)) {
+
+                ProcessManager processManager = start(key);
+
+                synchronized (this) {
+                    Deque<ProcessManager> processes = idleProcesses.get(key);
+                    if (closed || processes == null) {
+                        // closed or command line discarded in the meantime
+                        processManager.terminateProcess();
+                        return;
+                    }
+
+                    processes.addLast(processManager);
+                }
+            }
+        } catch (IOException | ProcessExecutionException | RuntimeException e) {
+            if (isClosed()) {
+                LOGGER.log(Level.FINE, e, () -> "Process pool closed while starting process for " + key);
+            } else {
+                LOGGER.log(Level.WARNING, e, () -> "Failed to start process in advance for " + key);
+            }
+        } finally {
+            synchronized (this) {
+                keysBeingRefilled.remove(key);
+            }
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized boolean isRefillRequired(Key key) {
+        if (closed) {
+            return false;
+        }
+
+        Deque<ProcessManager> processes = idleProcesses.get(key);
+        return processes != null && processes.size() < poolSize;
+    }
+
+    private ProcessManager start(Key key) throws IOException, ProcessExecutionException {
+        Process process = processLauncher.createProcess(key.script, key.getVariables());
+
+        try {
+            return processManagerFactory.newProcessManager(process, warningSink);
+        } catch (ProcessExecutionException | RuntimeException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    private static void terminateAll(Deque<ProcessManager> processes) {
+        for (ProcessManager processManager : processes) {
+            processManager.terminateProcess();
+        }
+        processes.clear();
+    }
+
+    private static final class Key {
+
+        private final String script;
+
+        // variables are passed to the process as String values
+        private final Map<String, String> variables;
+
+        private Key(String script, Map<String, Object> variables) {
+            this.script = script;
+
+            if (variables != null) {
+                this.variables = new TreeMap<>();
+                for (Map.Entry<String, Object> variable : variables.entrySet()) {
+                    this.variables.put(variable.getKey(), String.valueOf(variable.getValue()));
+                }
+            } else {
+                this.variables = null;
+            }
+        }
+
+        private Map<String, Object> getVariables() {
+            if (variables == null) {
+                return null;
+            }
+            return new TreeMap<>(variables);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(script, key.script) && Objects.equals(variables, key.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(script, variables);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{script='" + script + "', variables=" + variables + '}';
+        }
+    }
+}
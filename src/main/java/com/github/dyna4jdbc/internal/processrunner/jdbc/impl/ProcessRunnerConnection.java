@@ -21,6 +21,7 @@ import com.github.dyna4jdbc.internal.ScriptExecutor;
 import com.github.dyna4jdbc.internal.common.jdbc.base.ScriptConnection;
 import com.github.dyna4jdbc.internal.common.jdbc.generic.GenericDatabaseMetaData;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultColumnHandlerFactory;
 import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.ConfigurationFactory;
@@ -37,6 +38,7 @@ public class ProcessRunnerConnection extends ScriptConnection {
 
     private final Configuration configuration;
     private final ColumnHandlerFactory columnHandlerFactory;
+    private final SchemaCache schemaCache;
     private final ExternalProcessScriptExecutor scriptExecutor;
 
     public ProcessRunnerConnection(
@@ -58,6 +60,7 @@ public class ProcessRunnerConnection extends ScriptConnection {
         this.configuration = configurationFactory.newConfigurationFromParameters(parameters, properties);
 
         this.columnHandlerFactory = DefaultColumnHandlerFactory.getInstance(this.configuration);
+        this.schemaCache = SchemaCache.newInstance(configuration.getSchemaCacheSize());
 
         this.scriptExecutor = processRunnerFactory.newExternalProcessScriptExecutor(this.configuration,
                 warning -> addSQLWarning(warning)
@@ -114,6 +117,11 @@ public class ProcessRunnerConnection extends ScriptConnection {
         return columnHandlerFactory;
     }
 
+    @Override
+    protected final SchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
     @Override
     protected final Configuration getConfiguration() {
         return configuration;
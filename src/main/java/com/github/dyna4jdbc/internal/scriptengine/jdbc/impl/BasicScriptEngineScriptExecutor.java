@@ -26,20 +26,38 @@ import com.github.dyna4jdbc.internal.common.util.io.AbortableOutputStream;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecutor {
 
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /*
+     * Values of the "THREADING" ScriptEngineFactory parameter, which declare the
+     * engine safe for concurrent evaluation (see ScriptEngineFactory.getParameter(String)).
+     */
+    private static final Set<String> THREAD_SAFE_THREADING_VALUES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("MULTITHREADED", "THREAD-ISOLATED", "STATELESS")));
+
     private final Object lockObject = new Object();
 
     private final String systemName;
@@ -48,7 +66,26 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
 
     private final IOHandlerFactory ioHandlerFactory;
 
-    private final AtomicReference<AbortableOutputStream.AbortHandler> streamAbortHandlerRef = new AtomicReference<>();
+    private final Set<AbortableOutputStream.AbortHandler> activeAbortHandlers = ConcurrentHashMap.newKeySet();
+
+    /*
+     * true, if concurrent evaluation is enabled in the configuration and the ScriptEngineFactory declares
+     * the engine thread-safe: statements are then evaluated concurrently, each in a ScriptContext of its
+     * own, without lockObject.
+     */
+    private final boolean concurrentEvaluation;
+
+    /*
+     * The names assigned by the scripts of concurrently evaluated statements (including the init script),
+     * visible to later statements: null, unless concurrentEvaluation is true (see StatementBindings).
+     */
+    private final Map<String, Object> sharedGlobals;
+
+    /*
+     * Scripts compiled by the ScriptEngine, keyed by the script text, in access order:
+     * null, if the engine is not Compilable or caching is disabled. Guarded by itself.
+     */
+    private final LinkedHashMap<String, CompiledScript> compiledScriptCache;
 
     BasicScriptEngineScriptExecutor(String systemName, ScriptEngine scriptEngine, Configuration configuration) {
         Objects.requireNonNull(scriptEngine, "argument systemName cannot be null");
@@ -61,6 +98,41 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
         this.systemName = systemName;
         this.scriptEngine = scriptEngine;
         this.ioHandlerFactory = DefaultIOHandlerFactory.getInstance(configuration);
+        this.concurrentEvaluation = configuration.getConcurrentScriptEvaluation()
+                && isThreadSafe(scriptEngine.getFactory());
+        if (concurrentEvaluation) {
+            this.sharedGlobals = StatementBindings.newSharedGlobals();
+        } else {
+            this.sharedGlobals = null;
+        }
+        this.compiledScriptCache = newCompiledScriptCache(scriptEngine, configuration.getCompiledScriptCacheSize());
+    }
+
+    private static boolean isThreadSafe(ScriptEngineFactory factory) {
+        if (factory == null) {
+            return false;
+        }
+
+        Object threading = factory.getParameter("THREADING");
+
+        return threading != null && THREAD_SAFE_THREADING_VALUES.contains(threading);
+    }
+
+    private static LinkedHashMap<String, CompiledScript> newCompiledScriptCache(
+            ScriptEngine scriptEngine, int maxEntries) {
+
+        if (maxEntries == 0 || !(scriptEngine instanceof Compilable)) {
+            return null;
+        }
+
+        return new LinkedHashMap<String, CompiledScript>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                return size() > maxEntries;
+            }
+        };
     }
 
     @Override
@@ -84,18 +156,30 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
                                                     AbortableOutputStream.AbortHandler abortHandler)
             throws ScriptExecutionException {
 
+        activeAbortHandlers.add(abortHandler);
+        try {
+            if (concurrentEvaluation) {
+                executeScriptConcurrently(script, variables, stdOutputStream, errorOutputStream);
+            } else {
+                executeScriptExclusively(script, variables, stdOutputStream, errorOutputStream);
+            }
+        } finally {
+            activeAbortHandlers.remove(abortHandler);
+        }
+    }
+
+    private void executeScriptExclusively(String script, Map<String, Object> variables,
+                                          AbortableOutputStream stdOutputStream,
+                                          AbortableOutputStream errorOutputStream)
+            throws ScriptExecutionException {
+
         synchronized (lockObject) {
-            streamAbortHandlerRef.set(abortHandler);
 
             /* We synchronize so that the execution of two concurrently commenced Statements cannot interfere
              * with each other: remember that ScriptEngines store state and hence are NOT thread-safe.
              * By synchronizing here, we basically implement a mutual exclusion policy for the ScriptEngine.
              */
-            ScriptContext engineContext = scriptEngine.getContext();
-            if (engineContext == null) {
-                throw JDBCError.NON_STANDARD_COMPLIANT_SCRIPTENGINE.raiseUncheckedException(
-                        "javax.script.ScriptEngine.getContext() returned null");
-            }
+            ScriptContext engineContext = getEngineContext();
 
             Bindings bindings = getBindings(scriptEngine);
 
@@ -110,8 +194,7 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
 
                 applyVariablesToEngineScope(variables, bindings);
 
-                scriptEngine.eval(script);
-
+                evaluate(script, null);
 
             } catch (ScriptException e) {
                 throw new ScriptExecutionException(e, script);
@@ -122,15 +205,96 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
 
                 engineContext.setWriter(originalWriter);
                 engineContext.setErrorWriter(originalErrorWriter);
-
-                streamAbortHandlerRef.set(null);
             }
         } // end of synchronized (lockObject) block
     }
 
+    private void executeScriptConcurrently(String script, Map<String, Object> variables,
+                                           AbortableOutputStream stdOutputStream,
+                                           AbortableOutputStream errorOutputStream)
+            throws ScriptExecutionException {
+
+        /* The engine declares itself thread-safe: instead of swapping the writers and
+         * variables of the shared engine context under lockObject, each statement is
+         * evaluated in a ScriptContext of its own, which has its own writers and keeps
+         * the variables of the statement in an ENGINE_SCOPE overlay of the engine scope.
+         * The overlay never modifies the engine scope, which is not thread-safe: names
+         * assigned by the script are kept in the shared globals of the connection.
+         */
+        ScriptContext engineContext = getEngineContext();
+
+        try (PrintWriter outputPrintWriter = ioHandlerFactory.newPrintWriter(stdOutputStream, true);
+             PrintWriter errorPrintWriter = ioHandlerFactory.newPrintWriter(errorOutputStream, true)) {
+
+            SimpleScriptContext statementContext = new SimpleScriptContext();
+            statementContext.setReader(engineContext.getReader());
+            statementContext.setWriter(outputPrintWriter);
+            statementContext.setErrorWriter(errorPrintWriter);
+            statementContext.setBindings(
+                    new StatementBindings(variables, sharedGlobals, getBindings(scriptEngine)),
+                    ScriptContext.ENGINE_SCOPE);
+            statementContext.setBindings(
+                    engineContext.getBindings(ScriptContext.GLOBAL_SCOPE), ScriptContext.GLOBAL_SCOPE);
+
+            evaluate(script, statementContext);
+
+        } catch (ScriptException e) {
+            throw new ScriptExecutionException(e, script);
+        }
+    }
+
+    private ScriptContext getEngineContext() {
+        ScriptContext engineContext = scriptEngine.getContext();
+        if (engineContext == null) {
+            throw JDBCError.NON_STANDARD_COMPLIANT_SCRIPTENGINE.raiseUncheckedException(
+                    "javax.script.ScriptEngine.getContext() returned null");
+        }
+        return engineContext;
+    }
+
+    /*
+     * Evaluates the script in the given ScriptContext, or in the
+     * default context of the engine, if scriptContext is null.
+     */
+    private void evaluate(String script, ScriptContext scriptContext) throws ScriptException {
+        if (compiledScriptCache == null) {
+            if (scriptContext == null) {
+                scriptEngine.eval(script);
+            } else {
+                scriptEngine.eval(script, scriptContext);
+            }
+            return;
+        }
+
+        /* Compiling the script once and evaluating the CompiledScript in the context is
+         * equivalent to ScriptEngine.eval(String, ScriptContext), but spares parsing and
+         * compiling the same script (e.g. that of a PreparedStatement) on every execution.
+         */
+        CompiledScript compiledScript;
+        synchronized (compiledScriptCache) {
+            compiledScript = compiledScriptCache.get(script);
+        }
+        if (compiledScript == null) {
+            compiledScript = ((Compilable) scriptEngine).compile(script);
+            synchronized (compiledScriptCache) {
+                compiledScriptCache.put(script, compiledScript);
+            }
+        }
+
+        if (scriptContext == null) {
+            compiledScript.eval();
+        } else {
+            compiledScript.eval(scriptContext);
+        }
+    }
+
     @Override
     public void setVariables(Map<String, Object> variables) {
         Bindings bindings = getBindings(scriptEngine);
+        if (concurrentEvaluation) {
+            // the engine scope is never modified, since it might be read concurrently
+            bindings = new StatementBindings(null, sharedGlobals, bindings);
+        }
 
         applyVariablesToEngineScope(variables, bindings);
     }
@@ -145,6 +309,10 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
             returnedVariableMap.put(entry.getKey(), entry.getValue());
         }
 
+        if (sharedGlobals != null) {
+            returnedVariableMap.putAll(StatementBindings.copyOf(sharedGlobals));
+        }
+
         return returnedVariableMap;
     }
 
@@ -186,23 +354,36 @@ final class BasicScriptEngineScriptExecutor implements ScriptEngineScriptExecuto
 
     @Override
     public void cancel() throws CancelException {
-        try {
-            /* We read this.streamAbortHandler without synchronizing on (lockObject)
-             * otherwise a ScriptEngine stuck on spinning a user script would prevent
-             * the cancel request acquiring the monitor, and hence ever reaching the
-             * AbortHandler.
-             */
-            AbortableOutputStream.AbortHandler abortHandler = streamAbortHandlerRef.get();
-            if (abortHandler == null) {
-                throw new CancelException("No running statement found to cancel.");
+        /* We read this.activeAbortHandlers without synchronizing on (lockObject)
+         * otherwise a ScriptEngine stuck on spinning a user script would prevent
+         * the cancel request acquiring the monitor, and hence ever reaching the
+         * AbortHandler.
+         */
+        if (activeAbortHandlers.isEmpty()) {
+            throw new CancelException("No running statement found to cancel.");
+        }
+
+        boolean abortedAny = false;
+        for (AbortableOutputStream.AbortHandler abortHandler : activeAbortHandlers) {
+            try {
+                abortHandler.abort();
+                abortedAny = true;
+            } catch (IllegalStateException ise) {
+                // cancellation has been requested already for this statement
             }
+        }
 
-            abortHandler.abort();
-        } catch (IllegalStateException ise) {
+        if (!abortedAny) {
             throw new CancelException("Cancellation requested already.");
         }
     }
 
+    @Override
+    public boolean isValid() {
+        // a ScriptEngine lives in this JVM: it cannot go away as long as it is referenced
+        return true;
+    }
+
     @Override
     public String getSystemName() {
         return systemName;
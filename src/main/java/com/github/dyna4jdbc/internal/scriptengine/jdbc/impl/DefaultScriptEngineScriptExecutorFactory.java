@@ -19,14 +19,12 @@ package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
 
 
 import com.github.dyna4jdbc.internal.JDBCError;
-import com.github.dyna4jdbc.internal.common.util.classpath.ClassLoaderFactory;
-import com.github.dyna4jdbc.internal.common.util.classpath.DefaultClassLoaderFactory;
 import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.MisconfigurationException;
 
 import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,12 +35,24 @@ final class DefaultScriptEngineScriptExecutorFactory implements ScriptEngineScri
 
     private final Configuration configuration;
 
-    private DefaultScriptEngineScriptExecutorFactory(Configuration configuration) {
+    /*
+     * The ClassLoader to load ScriptEngines from:
+     * null, if the context ClassLoader of the current thread is to be used.
+     */
+    private final ClassLoader classLoader;
+
+    private DefaultScriptEngineScriptExecutorFactory(Configuration configuration, ClassLoader classLoader) {
         this.configuration = configuration;
+        this.classLoader = classLoader;
     }
 
     static DefaultScriptEngineScriptExecutorFactory getInstance(Configuration configuration) {
-        return new DefaultScriptEngineScriptExecutorFactory(configuration);
+        return new DefaultScriptEngineScriptExecutorFactory(configuration, null);
+    }
+
+    static DefaultScriptEngineScriptExecutorFactory getInstance(
+            Configuration configuration, ClassLoader classLoader) {
+        return new DefaultScriptEngineScriptExecutorFactory(configuration, classLoader);
     }
 
 
@@ -52,6 +62,13 @@ final class DefaultScriptEngineScriptExecutorFactory implements ScriptEngineScri
 
         ScriptEngineScriptExecutor delegate = newBasicScriptEngineScriptExecutor(scriptEngineName);
 
+        return newScriptEngineScriptExecutorWithInterpreterSupport(delegate);
+    }
+
+    @Override
+    public ScriptEngineScriptExecutor newScriptEngineScriptExecutorWithInterpreterSupport(
+            ScriptEngineScriptExecutor delegate) {
+
         return new InterpreterCommandHandlerScriptEngineScriptExecutor(delegate, configuration);
     }
 
@@ -59,30 +76,33 @@ final class DefaultScriptEngineScriptExecutorFactory implements ScriptEngineScri
     public ScriptEngineScriptExecutor newBasicScriptEngineScriptExecutor(String scriptEngineName)
             throws SQLException, MisconfigurationException {
 
-        ClassLoaderFactory classloaderFactory = DefaultClassLoaderFactory.getInstance();
-
-        ScriptEngine engine = loadEngineByName(scriptEngineName, this.configuration, classloaderFactory);
+        ScriptEngine engine = loadEngineByName(scriptEngineName, this.classLoader);
 
         return new BasicScriptEngineScriptExecutor(scriptEngineName, engine, configuration);
     }
 
+    @Override
+    public PooledScriptEngineScriptExecutor newPooledScriptEngineScriptExecutor(
+            String scriptEngineName, int poolSize) throws SQLException, MisconfigurationException {
+
+        List<ScriptEngineScriptExecutor> scriptExecutors = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            scriptExecutors.add(newBasicScriptEngineScriptExecutor(scriptEngineName));
+        }
+
+        return new PooledScriptEngineScriptExecutor(scriptExecutors);
+    }
+
     private static ScriptEngine loadEngineByName(
             String engineName,
-            Configuration configuration,
-            ClassLoaderFactory classloaderFactory) throws SQLException, MisconfigurationException {
-
-        List<String> classpath = configuration.getClasspath();
+            ClassLoader engineClassLoader) throws SQLException {
 
-        ClassLoader classLoader;
-        if (!classpath.isEmpty()) {
-            LOGGER.fine("classpath specified, creating a ClassLoader for handling ...");
-            classLoader = classloaderFactory.newClassLoaderFromClasspath(classpath);
-        } else {
+        ClassLoader classLoader = engineClassLoader;
+        if (classLoader == null) {
             classLoader = Thread.currentThread().getContextClassLoader();
         }
 
-        ScriptEngineManager scriptEngineManager = new ScriptEngineManager(classLoader);
-        ScriptEngine scriptEngine = scriptEngineManager.getEngineByName(engineName);
+        ScriptEngine scriptEngine = ScriptEngineFactoryCache.getInstance().getEngineByName(engineName, classLoader);
         if (scriptEngine == null) {
             throw JDBCError.LOADING_SCRIPTENGINE_FAILED.raiseSQLException(engineName);
         }
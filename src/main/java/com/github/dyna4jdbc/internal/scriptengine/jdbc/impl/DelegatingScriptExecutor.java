@@ -46,6 +46,11 @@ abstract class DelegatingScriptExecutor implements ScriptEngineScriptExecutor {
         getDelegate().cancel();
     }
 
+    @Override
+    public final boolean isValid() {
+        return getDelegate().isValid();
+    }
+
     @Override
     public final void setVariables(Map<String, Object> variables) {
         getDelegate().setVariables(variables);
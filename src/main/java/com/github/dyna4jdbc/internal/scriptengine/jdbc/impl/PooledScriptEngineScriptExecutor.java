@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.CancelException;
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Executes scripts on a fixed pool of {@code ScriptEngineScriptExecutor}s, each wrapping
+ * its own {@code ScriptEngine} instance: a script checks out an idle engine for the
+ * duration of its execution, hence concurrent statements of a connection are executed
+ * in parallel, up to the size of the pool.</p>
+ *
+ * <p>
+ * Variable semantics: engines do <b>not</b> share any state. Global state created by a
+ * script (e.g. a variable assigned) is only visible to later scripts, which happen to be
+ * executed by the same engine. Hence scripts should be self-contained (apart from what the
+ * init script defines, which is executed on every engine). Variables set using
+ * {@link #setVariables(Map)} are applied to every engine, while {@link #getVariables()}
+ * returns the variables of an arbitrary engine.</p>
+ *
+ * <p>
+ * {@link #cancel()} cancels all scripts being executed at the time of the call, just as
+ * the single engine of a non-pooled connection executes one script at a time.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class PooledScriptEngineScriptExecutor implements ScriptEngineScriptExecutor {
+
+    private final List<ScriptEngineScriptExecutor> scriptExecutors;
+    private final BlockingQueue<ScriptEngineScriptExecutor> idleScriptExecutors;
+    private final Set<ScriptEngineScriptExecutor> busyScriptExecutors = ConcurrentHashMap.newKeySet();
+
+    // held while checking out all engines, so that two such attempts cannot block each other
+    private final Object checkOutAllLock = new Object();
+
+    PooledScriptEngineScriptExecutor(List<ScriptEngineScriptExecutor> scriptExecutors) {
+        if (scriptExecutors.isEmpty()) {
+            throw new IllegalArgumentException("scriptExecutors cannot be empty");
+        }
+
+        this.scriptExecutors = Collections.unmodifiableList(new ArrayList<>(scriptExecutors));
+        this.idleScriptExecutors = new ArrayBlockingQueue<>(scriptExecutors.size(), false, scriptExecutors);
+    }
+
+    @Override
+    public void executeScript(String script, Map<String, Object> variables,
+                              OutputStream stdOutOutputStream,
+                              OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        ScriptEngineScriptExecutor scriptExecutor = checkOut(script);
+        try {
+            busyScriptExecutors.add(scriptExecutor);
+
+            scriptExecutor.executeScript(script, variables, stdOutOutputStream, errorOutputStream);
+
+        } finally {
+            busyScriptExecutors.remove(scriptExecutor);
+            checkIn(scriptExecutor);
+        }
+    }
+
+    /**
+     * Executes a script on every engine of the pool, one after the other: used
+     * to execute the init script. Must not be called concurrently with other scripts.
+     *
+     * @param script the script to execute
+     * @param stdOutOutputStreamSupplier supplies the output stream for each engine
+     * @param errorOutputStreamSupplier supplies the error stream for each engine
+     * @throws ScriptExecutionException if the script fails on any engine
+     */
+    void executeScriptOnEachEngine(String script,
+                                   Supplier<OutputStream> stdOutOutputStreamSupplier,
+                                   Supplier<OutputStream> errorOutputStreamSupplier)
+            throws ScriptExecutionException {
+
+        for (ScriptEngineScriptExecutor scriptExecutor : scriptExecutors) {
+            scriptExecutor.executeScript(script, null,
+                    stdOutOutputStreamSupplier.get(), errorOutputStreamSupplier.get());
+        }
+    }
+
+    @Override
+    public void cancel() throws CancelException {
+        boolean cancelled = false;
+
+        for (ScriptEngineScriptExecutor scriptExecutor : busyScriptExecutors) {
+            try {
+                scriptExecutor.cancel();
+                cancelled = true;
+            } catch (CancelException e) {
+                // the script has just finished or is being cancelled already: NO-OP
+            }
+        }
+
+        if (!cancelled) {
+            throw new CancelException("No running statement found to cancel.");
+        }
+    }
+
+    @Override
+    public boolean isValid() {
+        for (ScriptEngineScriptExecutor scriptExecutor : scriptExecutors) {
+            if (!scriptExecutor.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void setVariables(Map<String, Object> variables) {
+        synchronized (checkOutAllLock) {
+            List<ScriptEngineScriptExecutor> checkedOut = new ArrayList<>(scriptExecutors.size());
+            try {
+                while (checkedOut.size() < scriptExecutors.size()) {
+                    checkedOut.add(idleScriptExecutors.take());
+                }
+
+                for (ScriptEngineScriptExecutor scriptExecutor : checkedOut) {
+                    scriptExecutor.setVariables(variables);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the ScriptEngines to finish", e);
+
+            } finally {
+                for (ScriptEngineScriptExecutor scriptExecutor : checkedOut) {
+                    checkIn(scriptExecutor);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getVariables() {
+        ScriptEngineScriptExecutor scriptExecutor;
+        try {
+            scriptExecutor = idleScriptExecutors.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idle ScriptEngine", e);
+        }
+
+        try {
+            return scriptExecutor.getVariables();
+        } finally {
+            checkIn(scriptExecutor);
+        }
+    }
+
+    @Override
+    public String getSystemName() {
+        return scriptExecutors.get(0).getSystemName();
+    }
+
+    @Override
+    public String getHumanFriendlyName() {
+        return scriptExecutors.get(0).getHumanFriendlyName();
+    }
+
+    @Override
+    public String getVersion() {
+        return scriptExecutors.get(0).getVersion();
+    }
+
+    private ScriptEngineScriptExecutor checkOut(String script) throws ScriptExecutionException {
+        try {
+            return idleScriptExecutors.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptExecutionException("Interrupted while waiting for an idle ScriptEngine", e, script);
+        }
+    }
+
+    private void checkIn(ScriptEngineScriptExecutor scriptExecutor) {
+        if (!idleScriptExecutors.offer(scriptExecutor)) {
+            throw new IllegalStateException("ScriptEngine checked in twice: " + scriptExecutor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (pool of %d: %s)", super.toString(), scriptExecutors.size(), scriptExecutors);
+    }
+}
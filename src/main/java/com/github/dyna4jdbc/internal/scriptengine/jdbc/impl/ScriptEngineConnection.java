@@ -18,11 +18,14 @@
 package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
 import com.github.dyna4jdbc.internal.ScriptExecutor;
 import com.github.dyna4jdbc.internal.common.jdbc.base.ScriptConnection;
 import com.github.dyna4jdbc.internal.common.jdbc.generic.GenericDatabaseMetaData;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
 import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.util.classpath.SharedClassLoaderRegistry;
 import com.github.dyna4jdbc.internal.common.util.collection.ArrayUtils;
 import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.ConfigurationFactory;
@@ -37,7 +40,18 @@ public class ScriptEngineConnection extends ScriptConnection {
 
     private final Configuration configuration;
     private final ColumnHandlerFactory columnHandlerFactory;
+    private final SchemaCache schemaCache;
     private final ScriptEngineScriptExecutor scriptExecutor;
+    private final PooledScriptEngineScriptExecutor scriptEnginePool;
+
+    /*
+     * Reference to the shared ClassLoader of the classpath configured:
+     * null, if no classpath is configured. Released when the connection is closed.
+     */
+    private final SharedClassLoaderRegistry.Reference classLoaderReference;
+
+    // null, if no warm-up script is configured
+    private final ScriptEngineWarmUp warmUp;
 
     public ScriptEngineConnection(String parameters, Properties properties)
             throws SQLException, MisconfigurationException {
@@ -63,16 +77,95 @@ public class ScriptEngineConnection extends ScriptConnection {
 
 
         this.columnHandlerFactory = DefaultColumnHandlerFactory.getInstance(configuration);
+        this.schemaCache = SchemaCache.newInstance(configuration.getSchemaCacheSize());
+
+        /* Acquired before the warm-up is requested: the shared ClassLoader (and hence
+         * the warm-up cached for it) cannot be closed while the connection is open. */
+        this.classLoaderReference = acquireClassLoaderReference(configuration);
+        try {
+            // performed on a separate engine in the background: it can overlap with the init script
+            this.warmUp = ScriptEngineWarmUpService.getInstance().warmUp(engineName, configuration);
+
+            ClassLoader classLoader = null;
+            if (classLoaderReference != null) {
+                classLoader = classLoaderReference.getClassLoader();
+            }
+
+            ScriptEngineScriptExecutorFactory scriptExecutorFactory =
+                    DefaultScriptEngineScriptExecutorFactory.getInstance(configuration, classLoader);
+
+            final int scriptEnginePoolSize = configuration.getScriptEnginePoolSize();
+            if (scriptEnginePoolSize > 1) {
+                this.scriptEnginePool =
+                        scriptExecutorFactory.newPooledScriptEngineScriptExecutor(engineName, scriptEnginePoolSize);
+
+                this.scriptExecutor =
+                        scriptExecutorFactory.newScriptEngineScriptExecutorWithInterpreterSupport(scriptEnginePool);
+            } else {
+                this.scriptEnginePool = null;
+
+                this.scriptExecutor =
+                        scriptExecutorFactory.newScriptEngineScriptExecutorWithInterpreterSupport(engineName);
+            }
+
+            String initScriptPath = configuration.getInitScriptPath();
+            if (initScriptPath != null) {
+                executeInitScript(initScriptPath);
+            }
+        } catch (SQLException | MisconfigurationException | RuntimeException e) {
+            // the connection is not returned to the caller, hence it will never be closed
+            releaseClassLoaderReference();
+            throw e;
+        }
+    }
+
+    private static SharedClassLoaderRegistry.Reference acquireClassLoaderReference(Configuration configuration)
+            throws MisconfigurationException {
+
+        if (configuration.getClasspath().isEmpty()) {
+            return null;
+        }
+
+        return SharedClassLoaderRegistry.getInstance().acquire(configuration.getClasspath());
+    }
+
+    private void releaseClassLoaderReference() {
+        if (classLoaderReference != null) {
+            classLoaderReference.release();
+        }
+    }
 
-        ScriptEngineScriptExecutorFactory scriptExecutorFactory =
-                DefaultScriptEngineScriptExecutorFactory.getInstance(configuration);
+    @Override
+    protected final void onClose() {
+        releaseClassLoaderReference();
+    }
 
-        this.scriptExecutor = scriptExecutorFactory.newScriptEngineScriptExecutorWithInterpreterSupport(engineName);
+    @Override
+    protected final void executeInitScriptText(String initScriptText) throws ScriptExecutionException {
+        if (scriptEnginePool != null) {
+            // every engine of the pool has to be initialized
+            scriptEnginePool.executeScriptOnEachEngine(initScriptText,
+                    ScriptConnection::newInitScriptOutputStream, ScriptConnection::newInitScriptOutputStream);
+        } else {
+            super.executeInitScriptText(initScriptText);
+        }
+    }
 
-        String initScriptPath = configuration.getInitScriptPath();
-        if (initScriptPath != null) {
-            executeInitScript(initScriptPath);
+    /**
+     * Supports unwrapping the {@link ScriptEngineWarmUp} of this connection,
+     * if a warm-up script is configured.
+     */
+    @Override
+    public final <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface == ScriptEngineWarmUp.class && warmUp != null) {
+            return iface.cast(warmUp);
         }
+        return super.unwrap(iface);
+    }
+
+    @Override
+    public final boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return (iface == ScriptEngineWarmUp.class && warmUp != null) || super.isWrapperFor(iface);
     }
 
     @Override
@@ -91,6 +184,11 @@ public class ScriptEngineConnection extends ScriptConnection {
         return columnHandlerFactory;
     }
 
+    @Override
+    protected final SchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
     @Override
     protected final Configuration getConfiguration() {
         return configuration;
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.SimpleBindings;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Process-wide cache of the {@code ScriptEngineFactory} instances discovered via
+ * {@code ServiceLoader} from a given {@code ClassLoader}. Creating a {@code ScriptEngineManager}
+ * scans the whole classpath for factories, which is repeated for every connection otherwise.</p>
+ *
+ * <p>
+ * The {@code ClassLoader} keys are weakly referenced, while the factory lists are softly
+ * referenced: as the factories (and their classes) reference their {@code ClassLoader},
+ * a strongly held list would prevent the {@code ClassLoader} ever becoming unreachable.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class ScriptEngineFactoryCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ScriptEngineFactoryCache.class.getName());
+
+    private static final ScriptEngineFactoryCache INSTANCE = new ScriptEngineFactoryCache();
+
+    // guarded by itself
+    private final Map<ClassLoader, SoftReference<List<ScriptEngineFactory>>> factoriesByClassLoader =
+            new WeakHashMap<>();
+
+    private ScriptEngineFactoryCache() {
+        // private constructor to prevent external instantiation
+    }
+
+    static ScriptEngineFactoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a {@code ScriptEngine} for the given name, the same way
+     * {@code new ScriptEngineManager(classLoader).getEngineByName(engineName)} would,
+     * but using the cached factories of the {@code ClassLoader}.
+     *
+     * @param engineName the short name of the engine
+     * @param classLoader the {@code ClassLoader} to discover factories from
+     * @return the new {@code ScriptEngine}, or {@code null} if no factory could create one
+     */
+    ScriptEngine getEngineByName(String engineName, ClassLoader classLoader) {
+
+        for (ScriptEngineFactory factory : getFactories(classLoader)) {
+            try {
+                List<String> names = factory.getNames();
+                if (names != null && names.contains(engineName)) {
+
+                    ScriptEngine scriptEngine = factory.getScriptEngine();
+
+                    // ScriptEngineManager sets its (initially empty) global scope on the engines it creates
+                    scriptEngine.setBindings(new SimpleBindings(), ScriptContext.GLOBAL_SCOPE);
+
+                    return scriptEngine;
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Ignoring ScriptEngineFactory failure: " + factory, e);
+            }
+        }
+
+        return null;
+    }
+
+    List<ScriptEngineFactory> getFactories(ClassLoader classLoader) {
+        synchronized (factoriesByClassLoader) {
+            SoftReference<List<ScriptEngineFactory>> reference = factoriesByClassLoader.get(classLoader);
+            if (reference != null) {
+                List<ScriptEngineFactory> factories = reference.get();
+                if (factories != null) {
+                    return factories;
+                }
+            }
+        }
+
+        // discovery is performed outside the lock not to block lookups from other ClassLoaders
+        List<ScriptEngineFactory> factories = discoverFactories(classLoader);
+
+        synchronized (factoriesByClassLoader) {
+            factoriesByClassLoader.put(classLoader, new SoftReference<>(factories));
+        }
+
+        return factories;
+    }
+
+    private static List<ScriptEngineFactory> discoverFactories(ClassLoader classLoader) {
+
+        LOGGER.log(Level.FINE, "Discovering ScriptEngineFactory implementations using class loader {0}",
+                classLoader);
+
+        ServiceLoader<ScriptEngineFactory> serviceLoader;
+        if (classLoader != null) {
+            serviceLoader = ServiceLoader.load(ScriptEngineFactory.class, classLoader);
+        } else {
+            serviceLoader = ServiceLoader.loadInstalled(ScriptEngineFactory.class);
+        }
+
+        List<ScriptEngineFactory> factories = new ArrayList<>();
+
+        Iterator<ScriptEngineFactory> iterator = serviceLoader.iterator();
+        while (hasNext(iterator)) {
+            try {
+                factories.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                // ScriptEngineManager skips factories that cannot be instantiated as well
+                LOGGER.log(Level.FINE, "Ignoring ScriptEngineFactory, which could not be loaded", e);
+            }
+        }
+
+        return Collections.unmodifiableList(factories);
+    }
+
+    private static boolean hasNext(Iterator<ScriptEngineFactory> iterator) {
+        try {
+            return iterator.hasNext();
+        } catch (ServiceConfigurationError e) {
+            LOGGER.log(Level.FINE, "Discovery of ScriptEngineFactory implementations failed", e);
+            return false;
+        }
+    }
+}
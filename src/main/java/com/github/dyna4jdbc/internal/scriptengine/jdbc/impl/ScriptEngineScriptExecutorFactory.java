@@ -27,6 +27,12 @@ interface ScriptEngineScriptExecutorFactory {
     ScriptEngineScriptExecutor newScriptEngineScriptExecutorWithInterpreterSupport(String scriptEngineName)
             throws SQLException, MisconfigurationException;
 
+    ScriptEngineScriptExecutor newScriptEngineScriptExecutorWithInterpreterSupport(
+            ScriptEngineScriptExecutor delegate);
+
     ScriptEngineScriptExecutor newBasicScriptEngineScriptExecutor(String scriptEngineName)
             throws SQLException, MisconfigurationException;
+
+    PooledScriptEngineScriptExecutor newPooledScriptEngineScriptExecutor(String scriptEngineName, int poolSize)
+            throws SQLException, MisconfigurationException;
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * The progress of the background warm-up of a {@code ScriptEngine} (see configuration
+ * {@code warmUpScript}): a ScriptEngine connection configured with a warm-up script can be
+ * unwrapped to this class to query whether the warm-up has completed.</p>
+ *
+ * <p>
+ * A warm-up is performed once per engine name, classpath and warm-up script: connections
+ * configured identically share the same {@code ScriptEngineWarmUp}.</p>
+ *
+ * @author Peter G. Horvath
+ */
+public final class ScriptEngineWarmUp {
+
+    /**
+     * The states of a warm-up.
+     */
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String engineName;
+    private final int totalIterations;
+
+    private final AtomicInteger completedIterations = new AtomicInteger();
+
+    private volatile State state = State.PENDING;
+    private volatile long startNanos;
+    private volatile long elapsedNanos;
+    private volatile Throwable failure;
+
+    ScriptEngineWarmUp(String engineName, int totalIterations) {
+        this.engineName = engineName;
+        this.totalIterations = totalIterations;
+    }
+
+    /**
+     * Pre-loads the {@code ScriptEngine}s of the given names in the background, using the
+     * context class loader of the calling thread: the classes of the engines are loaded and
+     * initialized before the first connection is created.
+     *
+     * @param engineNames the names of the engines to load
+     */
+    public static void preloadInBackground(Iterable<String> engineNames) {
+        ScriptEngineWarmUpService.getInstance().preloadEngines(engineNames);
+    }
+
+    public String getEngineName() {
+        return engineName;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations.get();
+    }
+
+    public int getTotalIterations() {
+        return totalIterations;
+    }
+
+    /**
+     * Returns the time taken by the warm-up so far (or in total, if it has finished).
+     *
+     * @return the elapsed time in milliseconds, {@code 0} if the warm-up has not started yet
+     */
+    public long getElapsedMillis() {
+        if (state == State.RUNNING) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Returns the cause of the failure of the warm-up.
+     *
+     * @return the {@code Throwable} the warm-up failed with, or {@code null} if it has not failed
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    void onStarted() {
+        startNanos = System.nanoTime();
+        state = State.RUNNING;
+    }
+
+    int onIterationCompleted() {
+        return completedIterations.incrementAndGet();
+    }
+
+    void onCompleted() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        state = State.COMPLETED;
+    }
+
+    void onFailed(Throwable throwable) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        failure = throwable;
+        state = State.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (engine: %s, state: %s, iterations: %s/%s, elapsed: %s ms)",
+                super.toString(), engineName, state, getCompletedIterations(), totalIterations,
+                getElapsedMillis());
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import com.github.dyna4jdbc.internal.common.util.classpath.SharedClassLoaderRegistry;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+
+import javax.script.ScriptEngine;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Performs {@code ScriptEngine} warm-ups on a background thread: a warm-up executes the
+ * init script (if any) and the warm-up script on a separate {@code ScriptEngine} instance,
+ * hence it never interferes with the statements of the connections.
+ *
+ * @author Peter G. Horvath
+ */
+final class ScriptEngineWarmUpService {
+
+    private static final Logger LOGGER = Logger.getLogger(ScriptEngineWarmUpService.class.getName());
+
+    private static final ScriptEngineWarmUpService INSTANCE = new ScriptEngineWarmUpService();
+
+    private static final int CLASSPATH_KEY_INDEX = 1;
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dyna4jdbc-script-engine-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /*
+     * Warm-ups keyed by the context ClassLoader of the thread requesting them (weakly referenced,
+     * so that it can be unloaded), then by the engine name, normalized classpath and warm-up script
+     * path. Warm-ups of a classpath are dropped once its shared ClassLoader is closed: a new ClassLoader
+     * for the same classpath has to be warmed up again. Guarded by itself.
+     */
+    private final Map<ClassLoader, Map<List<Object>, ScriptEngineWarmUp>> warmUps = new WeakHashMap<>();
+
+    private ScriptEngineWarmUpService() {
+        // private constructor to prevent external instantiation
+        SharedClassLoaderRegistry.getInstance().addCloseListener(this::onClassLoaderClosed);
+    }
+
+    static ScriptEngineWarmUpService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules the warm-up configured, unless it has been scheduled already.
+     *
+     * @param engineName the name of the engine to warm up
+     * @param configuration the configuration of the connection
+     * @return the warm-up, or {@code null} if no warm-up script is configured
+     * @throws MisconfigurationException if the classpath configured is not valid
+     */
+    ScriptEngineWarmUp warmUp(String engineName, Configuration configuration) throws MisconfigurationException {
+        String warmUpScriptPath = configuration.getWarmUpScriptPath();
+        if (warmUpScriptPath == null) {
+            return null;
+        }
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        List<String> classpath = SharedClassLoaderRegistry.normalize(configuration.getClasspath());
+        List<Object> key = Arrays.asList(engineName, classpath, warmUpScriptPath);
+
+        ScriptEngineWarmUp warmUp;
+        synchronized (warmUps) {
+            Map<List<Object>, ScriptEngineWarmUp> classLoaderWarmUps =
+                    warmUps.computeIfAbsent(contextClassLoader, classLoader -> new HashMap<>());
+
+            warmUp = classLoaderWarmUps.get(key);
+            if (warmUp != null) {
+                return warmUp;
+            }
+
+            warmUp = new ScriptEngineWarmUp(engineName, configuration.getWarmUpIterations());
+            classLoaderWarmUps.put(key, warmUp);
+        }
+
+        final ScriptEngineWarmUp scheduledWarmUp = warmUp;
+        executorService.execute(() -> runWarmUp(scheduledWarmUp, configuration, contextClassLoader));
+
+        LOGGER.log(Level.FINE, "Scheduled warm-up: {0}", warmUp);
+
+        return warmUp;
+    }
+
+    private void onClassLoaderClosed(List<String> normalizedClasspath) {
+        synchronized (warmUps) {
+            for (Map<List<Object>, ScriptEngineWarmUp> classLoaderWarmUps : warmUps.values()) {
+                classLoaderWarmUps.keySet().removeIf(
+                        key -> normalizedClasspath.equals(key.get(CLASSPATH_KEY_INDEX)));
+            }
+        }
+
+        LOGGER.log(Level.FINE, "Dropped warm-ups of closed ClassLoader for classpath {0}", normalizedClasspath);
+    }
+
+    void preloadEngines(Iterable<String> engineNames) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        for (String engineName : engineNames) {
+            executorService.execute(() -> {
+                long startNanos = System.nanoTime();
+                try {
+                    ScriptEngine scriptEngine =
+                            ScriptEngineFactoryCache.getInstance().getEngineByName(engineName, contextClassLoader);
+                    if (scriptEngine == null) {
+                        LOGGER.log(Level.WARNING, "Pre-loading ScriptEngine failed: {0} not found", engineName);
+                        return;
+                    }
+
+                    LOGGER.log(Level.INFO, "Pre-loaded ScriptEngine {0} in {1} ms", new Object[] {
+                        engineName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)});
+
+                } catch (RuntimeException | LinkageError e) {
+                    LOGGER.log(Level.WARNING, "Pre-loading ScriptEngine failed: " + engineName, e);
+                }
+            });
+        }
+    }
+
+    private static void runWarmUp(ScriptEngineWarmUp warmUp, Configuration configuration,
+                                  ClassLoader contextClassLoader) {
+
+        LOGGER.log(Level.FINE, "Starting warm-up: {0}", warmUp);
+        warmUp.onStarted();
+
+        SharedClassLoaderRegistry.Reference classLoaderReference = null;
+        try {
+            ClassLoader classLoader = contextClassLoader;
+            if (!configuration.getClasspath().isEmpty()) {
+                // the reference keeps the ClassLoader open (and hence shared) until the warm-up finishes
+                classLoaderReference = SharedClassLoaderRegistry.getInstance().acquire(configuration.getClasspath());
+                classLoader = classLoaderReference.getClassLoader();
+            }
+
+            ScriptEngineScriptExecutor scriptExecutor = DefaultScriptEngineScriptExecutorFactory
+                    .getInstance(configuration, classLoader)
+                    .newBasicScriptEngineScriptExecutor(warmUp.getEngineName());
+
+            String initScriptPath = configuration.getInitScriptPath();
+            if (initScriptPath != null) {
+                // the warm-up script might depend on definitions of the init script
+                executeScript(scriptExecutor, readScript(initScriptPath, configuration));
+            }
+
+            String warmUpScript = readScript(configuration.getWarmUpScriptPath(), configuration);
+            for (int i = 0; i < warmUp.getTotalIterations(); i++) {
+                executeScript(scriptExecutor, warmUpScript);
+
+                int completedIterations = warmUp.onIterationCompleted();
+                LOGGER.log(Level.FINE, "Warm-up iteration {0}/{1} completed: {2}", new Object[] {
+                    completedIterations, warmUp.getTotalIterations(), warmUp});
+            }
+
+            warmUp.onCompleted();
+            LOGGER.log(Level.INFO, "Warm-up completed: {0}", warmUp);
+
+        } catch (Exception | LinkageError e) {
+            warmUp.onFailed(e);
+            LOGGER.log(Level.WARNING, "Warm-up failed: " + warmUp, e);
+
+        } finally {
+            if (classLoaderReference != null) {
+                classLoaderReference.release();
+            }
+        }
+    }
+
+    private static String readScript(String path, Configuration configuration) throws IOException {
+        byte[] bytesRead = Files.readAllBytes(Paths.get(path));
+        return new String(bytesRead, configuration.getConversionCharset());
+    }
+
+    private static void executeScript(ScriptEngineScriptExecutor scriptExecutor, String script)
+            throws ScriptExecutionException {
+
+        scriptExecutor.executeScript(script, null, DiscardingOutputStream.INSTANCE, DiscardingOutputStream.INSTANCE);
+    }
+
+    /**
+     * The output of warm-up scripts is not used.
+     */
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        private static final DiscardingOutputStream INSTANCE = new DiscardingOutputStream();
+
+        @Override
+        public void write(int b) {
+            // discarded
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            // discarded
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import javax.script.Bindings;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * The {@code ENGINE_SCOPE} {@code Bindings} of one statement executed on a thread-safe
+ * {@code ScriptEngine}. Statements running concurrently must not modify the (unsynchronized)
+ * {@code ENGINE_SCOPE} {@code Bindings} of the engine: they are only read, as a fallback
+ * for names not known by the statement.</p>
+ *
+ * <p>
+ * Names are resolved in the following order:
+ * <ol>
+ * <li>the variables of the statement: these are private to the statement and discarded
+ * once it completes,</li>
+ * <li>the <i>shared globals</i> of the connection: a concurrent map, which receives the names
+ * assigned by the script (including the init script), so that they are visible to later
+ * statements,</li>
+ * <li>the {@code ENGINE_SCOPE} {@code Bindings} of the engine (read-only).</li>
+ * </ol>
+ * </p>
+ *
+ * <p>
+ * {@link #remove(Object)} and {@link #clear()} never affect the {@code ENGINE_SCOPE}
+ * {@code Bindings} of the engine. {@link #entrySet()} returns a read-only snapshot of
+ * the union of the three.</p>
+ *
+ * @author Peter G. Horvath
+ */
+final class StatementBindings extends AbstractMap<String, Object> implements Bindings {
+
+    /*
+     * Stands for null in the shared globals: ConcurrentHashMap does not accept null values.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private final Map<String, Object> statementVariables;
+    private final Map<String, Object> sharedGlobals;
+    private final Bindings engineBindings;
+
+    /**
+     * Creates a new {@code StatementBindings}.
+     *
+     * @param statementVariables the variables of the statement, or {@code null} if there are none
+     * @param sharedGlobals the map created by {@link #newSharedGlobals()} receiving the names assigned
+     *                      by the script
+     * @param engineBindings the {@code ENGINE_SCOPE} {@code Bindings} of the engine; never modified
+     */
+    StatementBindings(Map<String, Object> statementVariables, Map<String, Object> sharedGlobals,
+                      Bindings engineBindings) {
+        this.statementVariables = new HashMap<>();
+        if (statementVariables != null) {
+            this.statementVariables.putAll(statementVariables);
+        }
+        this.sharedGlobals = Objects.requireNonNull(sharedGlobals, "argument sharedGlobals cannot be null");
+        this.engineBindings = engineBindings;
+    }
+
+    static Map<String, Object> newSharedGlobals() {
+        return new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns a snapshot of the content of shared globals.
+     *
+     * @param sharedGlobals the map created by {@link #newSharedGlobals()}
+     * @return a new {@code Map} with the names and values (never {@code null})
+     */
+    static Map<String, Object> copyOf(Map<String, Object> sharedGlobals) {
+        Map<String, Object> copy = new HashMap<>();
+        for (Map.Entry<String, Object> entry : sharedGlobals.entrySet()) {
+            copy.put(entry.getKey(), fromSharedValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @Override
+    public Object put(String name, Object value) {
+        checkKey(name);
+
+        if (statementVariables.containsKey(name)) {
+            return statementVariables.put(name, value);
+        }
+        return fromSharedValue(sharedGlobals.put(name, toSharedValue(value)));
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> toMerge) {
+        for (Map.Entry<? extends String, ? extends Object> entry : toMerge.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        checkKey(key);
+
+        if (statementVariables.containsKey(key)) {
+            return statementVariables.get(key);
+        }
+        Object sharedValue = sharedGlobals.get(key);
+        if (sharedValue != null) {
+            return fromSharedValue(sharedValue);
+        }
+        return engineBindings.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        checkKey(key);
+
+        return statementVariables.containsKey(key)
+                || sharedGlobals.containsKey(key)
+                || engineBindings.containsKey(key);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        checkKey(key);
+
+        if (statementVariables.containsKey(key)) {
+            return statementVariables.remove(key);
+        }
+        return fromSharedValue(sharedGlobals.remove(key));
+    }
+
+    @Override
+    public void clear() {
+        statementVariables.clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> union = new HashMap<>(engineBindings);
+        union.putAll(copyOf(sharedGlobals));
+        union.putAll(statementVariables);
+
+        return Collections.unmodifiableMap(union).entrySet();
+    }
+
+    private static Object toSharedValue(Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        return value;
+    }
+
+    private static Object fromSharedValue(Object sharedValue) {
+        if (sharedValue == NULL_VALUE) {
+            return null;
+        }
+        return sharedValue;
+    }
+
+    private static void checkKey(Object key) {
+        Objects.requireNonNull(key, "key can not be null");
+        if (!(key instanceof String)) {
+            throw new ClassCastException("key should be a String");
+        }
+        if (((String) key).isEmpty()) {
+            throw new IllegalArgumentException("key can not be empty");
+        }
+    }
+}
@@ -17,18 +17,21 @@
  
 package com.github.dyna4jdbc.integrationtests;
 
+import com.github.dyna4jdbc.internal.JDBCError;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -37,8 +40,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.github.dyna4jdbc.integrationtests.IntegrationTestUtils.executeScriptForResultSetString;
+import static com.github.dyna4jdbc.integrationtests.IntegrationTestUtils.newLineSeparated;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class NodeJSTest extends IntegrationTestBase {
 
@@ -553,6 +560,140 @@ public class NodeJSTest extends IntegrationTestBase {
 
 
 
+    @Test
+    public void testPreparedStatementBindsByteArray() throws Exception {
+
+        String script = "console.log(parameter1.length + ':' + parameter1[0] + ':' + parameter1[3])";
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+
+            try (PreparedStatement statement = connection.prepareStatement(script)) {
+                // value will be bound to the name "parameter1"
+                // see ScriptPreparedStatement.setParameter()
+                statement.setBytes(1, new byte[] {1, 2, 3, (byte) 255});
+
+                ResultSet resultSet = statement.executeQuery();
+
+                while (resultSet.next()) {
+                    Object result = resultSet.getObject(1);
+                    assertEquals(result, "4:1:255");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedStatementBindsMultipleParametersWithLineBreaks() throws Exception {
+
+        String script = "console.log(parameter1.split('\\n').length + ':' + parameter2 + ':' + parameter3)";
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+
+            try (PreparedStatement statement = connection.prepareStatement(script)) {
+                // values will be bound to the names "parameter1", "parameter2" and "parameter3"
+                // see ScriptPreparedStatement.setParameter()
+                statement.setString(1, "first line\nsecond line\nthird line");
+                statement.setInt(2, 42);
+                statement.setBoolean(3, true);
+
+                ResultSet resultSet = statement.executeQuery();
+
+                while (resultSet.next()) {
+                    Object result = resultSet.getObject(1);
+                    assertEquals(result, "3:42:true");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStatementBatchIsExecuted() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+
+            try (Statement statement = connection.createStatement()) {
+
+                statement.addBatch("batchValue = 1;");
+                statement.addBatch("batchValue = batchValue + 1;");
+                statement.addBatch("batchMessage = \"Hello World \" + batchValue;");
+
+                int[] updateCounts = statement.executeBatch();
+
+                assertTrue(Arrays.equals(updateCounts, new int[] {0, 0, 0}), Arrays.toString(updateCounts));
+            }
+
+            String resultSetString = executeScriptForResultSetString(
+                    "console.log(\"Message::\");\n console.log(batchMessage);", connection);
+
+            assertEquals(resultSetString, newLineSeparated(
+                    "RESULT SET #1 ",
+                    "      Message | ",
+                    "--------------|-",
+                    "Hello World 2 | "));
+        }
+    }
+
+    @Test
+    public void testStatementBatchWritingToOutputThrowsBatchUpdateException() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+
+            try (Statement statement = connection.createStatement()) {
+
+                statement.addBatch("batchValue = 1;");
+                statement.addBatch("console.log(\"Hello World\");");
+
+                try {
+                    statement.executeBatch();
+                    Assert.fail("Should have thrown an exception");
+
+                } catch (BatchUpdateException ex) {
+
+                    String message = ex.getMessage();
+                    assertNotNull(message);
+                    assertTrue(message.contains(JDBCError.USING_STDOUT_FROM_UPDATE.name()), message);
+
+                    int[] updateCounts = ex.getUpdateCounts();
+                    assertTrue(Arrays.equals(updateCounts, new int[] {Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED}),
+                            Arrays.toString(updateCounts));
+                }
+
+                // the batch is cleared even if it has failed
+                assertEquals(statement.executeBatch().length, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedStatementBatchBindsParametersOfEachItem() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+
+            String script = "batchTotal = (typeof batchTotal === 'undefined' ? 0 : batchTotal) + parameter1;";
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(script)) {
+
+                for (int i = 1; i <= 3; i++) {
+                    preparedStatement.setInt(1, i);
+                    preparedStatement.addBatch();
+                }
+
+                int[] updateCounts = preparedStatement.executeBatch();
+
+                assertTrue(Arrays.equals(updateCounts, new int[] {0, 0, 0}), Arrays.toString(updateCounts));
+            }
+
+            String resultSetString = executeScriptForResultSetString(
+                    "console.log(\"Total::\");\n console.log(batchTotal);", connection);
+
+            assertEquals(resultSetString, newLineSeparated(
+                    "RESULT SET #1 ",
+                    "Total | ",
+                    "--|-",
+                    "6 | "));
+        }
+    }
+
     @Test
     public void testDatabaseMetaDataProductInformation() throws Exception {
 
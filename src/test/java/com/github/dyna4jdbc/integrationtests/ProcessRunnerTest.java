@@ -24,8 +24,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
 
+import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.config.impl.ConfigurationEntry;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -91,4 +98,199 @@ public class ProcessRunnerTest {
         assertEquals(resultSetString, EXPECTED_RESULT_SET_REPRESENTATION);
     }
 
+    @Test
+    public void testContentWithProcessPool() throws SQLException {
+
+        String url = String.format("jdbc:dyna4jdbc:process-runner:%s=3000;%s=1;%s=1",
+                ConfigurationEntry.EXTERNAL_COMMAND_NO_OUTPUT_EXPIRATION_INTERVAL_MS.getKey(),
+                ConfigurationEntry.PROCESS_POOL_SIZE.getKey(),
+                ConfigurationEntry.PROCESS_POOL_MAX_USES.getKey());
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+
+            // the second execution takes the process started in advance
+            for (int i = 0; i < 2; i++) {
+                String resultSetString = executeScriptForResultSetString(commandToExecute, connection);
+
+                assertEquals(resultSetString, EXPECTED_RESULT_SET_REPRESENTATION);
+            }
+        }
+    }
+
+    @Test
+    public void testEndOfDataMarkerCommandWaitsForSlowOutput() throws SQLException {
+
+        if (!"/".equals(System.getProperty("file.separator"))) {
+            return; // requires a POSIX shell
+        }
+
+        String url = String.format("jdbc:dyna4jdbc:process-runner:%s=echo {marker}",
+                ConfigurationEntry.END_OF_DATA_MARKER_COMMAND.getKey());
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+
+                statement.execute("sh");
+
+                // the pause is longer than the interval the output is otherwise considered complete after
+                String resultSetString = executeScriptForResultSetString(
+                        "echo 'Poem::'; sleep 2; echo 'Mary had a little lamb,'", statement);
+
+                assertEquals(resultSetString, newLineSeparated("RESULT SET #1 ",
+                        "                   Poem | ",
+                        "------------------------|-",
+                        "Mary had a little lamb, | "));
+            }
+        }
+    }
+
+    @Test
+    public void testStatementBatchIsWrittenToProcessAtOnce() throws SQLException {
+
+        if (!"/".equals(System.getProperty("file.separator"))) {
+            return; // requires a POSIX shell
+        }
+
+        String url = String.format("jdbc:dyna4jdbc:process-runner:%s=echo {marker}",
+                ConfigurationEntry.END_OF_DATA_MARKER_COMMAND.getKey());
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+
+                statement.executeUpdate("sh");
+
+                // the interactive process is running: the batch is written to it at once
+                statement.addBatch("A=1");
+                statement.addBatch("B=2");
+
+                int[] updateCounts = statement.executeBatch();
+
+                assertTrue(Arrays.equals(updateCounts, new int[] {0, 0}), Arrays.toString(updateCounts));
+
+                String resultSetString = executeScriptForResultSetString(
+                        "echo 'Sum::'; echo $((A + B))", statement);
+
+                assertEquals(resultSetString, newLineSeparated("RESULT SET #1 ",
+                        "Sum | ",
+                        "--|-",
+                        "3 | "));
+            }
+        }
+    }
+
+    @Test
+    public void testStatementBatchOfIndependentCommandsExecutesEachCommand() throws Exception {
+
+        if (!"/".equals(System.getProperty("file.separator"))) {
+            return; // requires a POSIX shell
+        }
+
+        File directory = Files.createTempDirectory("dyna4jdbc-batch").toFile();
+        File firstFile = new File(directory, "first");
+        File secondFile = new File(directory, "second");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:dyna4jdbc:process-runner")) {
+            try (Statement statement = connection.createStatement()) {
+
+                // no interactive process is running: each command starts a process of its own
+                statement.addBatch("touch " + firstFile.getAbsolutePath());
+                statement.addBatch("touch " + secondFile.getAbsolutePath());
+
+                int[] updateCounts = statement.executeBatch();
+
+                assertTrue(Arrays.equals(updateCounts, new int[] {0, 0}), Arrays.toString(updateCounts));
+            }
+        } finally {
+            assertTrue(firstFile.delete(), "first command not executed");
+            assertTrue(secondFile.delete(), "second command not executed");
+            assertTrue(directory.delete());
+        }
+    }
+
+    @Test
+    public void testPreparedStatementRejectsAddBatchWithScript() throws SQLException {
+
+        try (Connection connection = DriverManager.getConnection("jdbc:dyna4jdbc:process-runner")) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement("echo 'A::'; echo 1")) {
+
+                try {
+                    preparedStatement.addBatch("echo 'B::'; echo 2");
+                    fail("SQLException expected");
+                } catch (SQLException expected) {
+                    assertTrue(expected.getMessage().contains(JDBCError.JDBC_API_USAGE_CALLER_ERROR.name()),
+                            expected.getMessage());
+                }
+
+                assertEquals(preparedStatement.executeBatch().length, 0);
+            }
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testAbandonedStreamingResultSetIsClosedOnceStallTimeoutElapses() throws Exception {
+
+        if (!"/".equals(System.getProperty("file.separator"))) {
+            return; // requires a POSIX shell
+        }
+
+        String url = String.format("jdbc:dyna4jdbc:process-runner:%s=true;%s=1;%s=1;%s=500",
+                ConfigurationEntry.STREAMING_RESULT_SET.getKey(),
+                ConfigurationEntry.STREAMING_TYPE_DETECTION_ROWS.getKey(),
+                ConfigurationEntry.STREAMING_BUFFER_ROWS.getKey(),
+                ConfigurationEntry.STREAMING_STALL_TIMEOUT_MS.getKey());
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+
+                ResultSet resultSet = statement.executeQuery("seq 1 100000");
+
+                // nobody retrieves the rows: the script is blocked until the timeout elapses
+                Thread.sleep(2000);
+
+                try {
+                    while (resultSet.next()) {
+                        // the rows already buffered are returned
+                    }
+                    fail("Should have thrown an exception");
+
+                } catch (SQLException expected) {
+                    assertTrue(expected.getMessage().contains(JDBCError.OBJECT_CLOSED.name()),
+                            expected.getMessage());
+                }
+            }
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testClosingStreamingResultSetAbortsScript() throws Exception {
+
+        if (!"/".equals(System.getProperty("file.separator"))) {
+            return; // requires a POSIX shell
+        }
+
+        String url = String.format("jdbc:dyna4jdbc:process-runner:%s=true;%s=1;%s=1;%s=3000",
+                ConfigurationEntry.STREAMING_RESULT_SET.getKey(),
+                ConfigurationEntry.STREAMING_TYPE_DETECTION_ROWS.getKey(),
+                ConfigurationEntry.STREAMING_BUFFER_ROWS.getKey(),
+                ConfigurationEntry.EXTERNAL_COMMAND_NO_OUTPUT_EXPIRATION_INTERVAL_MS.getKey());
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+
+                // the command never completes on its own
+                ResultSet resultSet = statement.executeQuery("yes");
+
+                assertTrue(resultSet.next());
+                assertTrue(resultSet.next());
+
+                resultSet.close();
+
+                // the script is aborted: the next statement does not wait for it to complete
+                String resultSetString = executeScriptForResultSetString(commandToExecute, statement);
+
+                assertEquals(resultSetString, EXPECTED_RESULT_SET_REPRESENTATION);
+            }
+        }
+    }
+
 }
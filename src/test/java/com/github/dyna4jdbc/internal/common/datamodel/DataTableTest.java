@@ -19,6 +19,7 @@ package com.github.dyna4jdbc.internal.common.datamodel;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -206,4 +207,86 @@ public class DataTableTest {
             assertEquals(dataTable.getLastRow(), row);
         }
     }
+
+    @Test
+    public void testSpillToDisk() throws Exception {
+
+        try (DataTable spillingTable = new DataTable(1, StandardCharsets.UTF_8)) {
+
+            List<List<String>> expectedElements = new LinkedList<>();
+            for (List<String> row : TEST_DATA) {
+                expectedElements.add(row);
+                spillingTable.appendRow(row);
+            }
+            expectedElements.add(asList("g", null));
+            spillingTable.appendRow(EncodedRow.encode(asList("g", null), StandardCharsets.UTF_8));
+
+            assertTrue(spillingTable.isSpilledToDisk());
+            assertFalse(spillingTable.isEmpty());
+            assertEquals(spillingTable.getColumnCount(), 3);
+            assertEquals(spillingTable.getLastRow(), asList("g", null));
+
+            assertIteratorReturnsValues(spillingTable.iterator(), expectedElements.toArray());
+
+            spillingTable.clear();
+
+            assertTrue(spillingTable.isEmpty());
+            assertFalse(spillingTable.isSpilledToDisk());
+        }
+    }
+
+    @Test
+    public void testColumnIterationAcrossChunks() {
+
+        final int rowCount = DataTable.CHUNK_SIZE_ROWS * 2 + 1;
+
+        List<String> expectedFirstColumn = new LinkedList<>();
+        List<String> expectedSecondColumn = new LinkedList<>();
+
+        for (int i = 0; i < rowCount; i++) {
+            String value = Integer.toString(i);
+            if (i % 2 == 0) {
+                dataTable.appendRow(asList(value));
+                expectedSecondColumn.add(null);
+            } else {
+                dataTable.appendRow(asList(value, value));
+                expectedSecondColumn.add(value);
+            }
+            expectedFirstColumn.add(value);
+        }
+
+        assertEquals(dataTable.getColumnCount(), 2);
+        assertEquals(dataTable.getRows().size(), rowCount);
+
+        Iterator<DataColumn> columnIterator = dataTable.columnIterable().iterator();
+
+        assertIteratorReturnsValues(columnIterator.next().iterator(), expectedFirstColumn.toArray());
+        assertIteratorReturnsValues(columnIterator.next().iterator(), expectedSecondColumn.toArray());
+        assertFalse(columnIterator.hasNext());
+    }
+
+    @Test
+    public void testColumnAppearingInLaterRow() {
+
+        final int rowCount = 100;
+
+        for (int i = 0; i < rowCount; i++) {
+            dataTable.appendRow(asList(Integer.toString(i)));
+        }
+        dataTable.appendRow(asList("last", "wide", "row"));
+
+        List<String> firstRow = dataTable.getRows().get(0);
+        assertEquals(firstRow.size(), 1);
+        assertEquals(firstRow.get(0), "0");
+
+        List<String> lastRow = dataTable.getRows().get(rowCount);
+        assertEquals(lastRow, asList("last", "wide", "row"));
+
+        Iterator<DataColumn> columnIterator = dataTable.columnIterable().iterator();
+        columnIterator.next();
+
+        Object[] expectedSecondColumn = new Object[rowCount + 1];
+        expectedSecondColumn[rowCount] = "wide";
+        assertIteratorReturnsValues(columnIterator.next().iterator(), expectedSecondColumn);
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class EncodedRowTest {
+
+    @Test
+    public void testCellsAreDecodedOnAccess() {
+
+        byte[] bytes = "fooárvíz".getBytes(StandardCharsets.UTF_8);
+        int fooLength = "foo".getBytes(StandardCharsets.UTF_8).length;
+
+        EncodedRow row = new EncodedRow(bytes,
+                new int[] {fooLength, fooLength, bytes.length}, 3, StandardCharsets.UTF_8);
+
+        assertEquals(row.size(), 3);
+        assertEquals(row.get(0), "foo");
+        assertEquals(row.get(1), "");
+        assertEquals(row.get(2), "árvíz");
+        assertEquals(row, Arrays.asList("foo", "", "árvíz"));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testInvalidIndex() {
+
+        EncodedRow row = new EncodedRow(new byte[0], new int[] {0}, 1, StandardCharsets.UTF_8);
+
+        row.get(1);
+    }
+
+    @Test
+    public void testClear() {
+
+        byte[] bytes = "foo".getBytes(StandardCharsets.UTF_8);
+
+        EncodedRow row = new EncodedRow(bytes, new int[] {bytes.length}, 1, StandardCharsets.UTF_8);
+        row.clear();
+
+        assertTrue(row.isEmpty());
+    }
+}
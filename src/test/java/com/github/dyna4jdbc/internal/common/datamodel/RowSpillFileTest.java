@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class RowSpillFileTest {
+
+    private static final int MAX_GC_ATTEMPTS = 50;
+
+    @Test
+    public void testFileIsDeletedOnClose() {
+
+        RowSpillFile rowSpillFile = new RowSpillFile(StandardCharsets.UTF_8);
+        rowSpillFile.append(asList("a", null));
+        rowSpillFile.append(asList("b", "c"));
+
+        Path path = rowSpillFile.getPath();
+        assertTrue(Files.exists(path));
+
+        Iterator<List<String>> iterator = rowSpillFile.iterator();
+        assertEquals(iterator.next(), asList("a", null));
+        assertEquals(iterator.next(), asList("b", "c"));
+        assertFalse(iterator.hasNext());
+
+        rowSpillFile.close();
+        assertFalse(Files.exists(path));
+
+        // closing again is a no-op
+        rowSpillFile.close();
+    }
+
+    @Test
+    public void testFileOfUnreachableInstanceIsDeleted() throws InterruptedException {
+
+        Path path = newUnreachableRowSpillFile();
+
+        for (int i = 0; i < MAX_GC_ATTEMPTS && Files.exists(path); i++) {
+            System.gc();
+            Thread.sleep(10);
+
+            // the files of the unreachable instances are deleted once a new one is created
+            new RowSpillFile(StandardCharsets.UTF_8).close();
+        }
+
+        assertFalse(Files.exists(path));
+    }
+
+    private static Path newUnreachableRowSpillFile() {
+        RowSpillFile rowSpillFile = new RowSpillFile(StandardCharsets.UTF_8);
+        rowSpillFile.append(asList("a", "b"));
+
+        return rowSpillFile.getPath();
+    }
+}
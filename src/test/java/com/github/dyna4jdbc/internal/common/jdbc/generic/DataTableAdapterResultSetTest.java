@@ -32,9 +32,12 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Properties;
 
 import static org.easymock.EasyMock.*;
+import static org.testng.Assert.*;
 
 public class DataTableAdapterResultSetTest {
 
@@ -83,4 +86,66 @@ public class DataTableAdapterResultSetTest {
 
     }
 
+    @Test
+    public void testNumericValuesAcrossRowBlocks() throws SQLException {
+
+        final int rowCount = RowBlockIterator.BLOCK_SIZE_ROWS * 2 + 1;
+
+        DataTable dataTable = new DataTable();
+        for (int i = 0; i < rowCount; i++) {
+            if (i % 7 == 0) {
+                dataTable.appendRow(Arrays.asList(null, null, null));
+            } else {
+                dataTable.appendRow(Arrays.asList(
+                        Integer.toString(i), i + ".5", "2017-01-01 10:00:0" + (i % 10)));
+            }
+        }
+
+        DataTableAdapterResultSet resultSet =
+                new DataTableAdapterResultSet(mockStatement, dataTable, columnHandlerFactory);
+
+        int row = 0;
+        while (resultSet.next()) {
+            // values are read repeatedly, as e.g. by reporting tools
+            for (int i = 0; i < 2; i++) {
+                if (row % 7 == 0) {
+                    assertEquals(resultSet.getLong(1), 0L);
+                    assertTrue(resultSet.wasNull());
+                    assertEquals(resultSet.getDouble(2), 0.0d);
+                    assertTrue(resultSet.wasNull());
+                    assertNull(resultSet.getTimestamp(3));
+                    assertTrue(resultSet.wasNull());
+                } else {
+                    assertEquals(resultSet.getInt(1), row);
+                    assertFalse(resultSet.wasNull());
+                    assertEquals(resultSet.getLong(1), (long) row);
+                    assertEquals(resultSet.getDouble(2), row + 0.5d);
+                    assertFalse(resultSet.wasNull());
+                    assertEquals(resultSet.getTimestamp(3),
+                            Timestamp.valueOf("2017-01-01 10:00:0" + (row % 10)));
+                    assertFalse(resultSet.wasNull());
+                    assertEquals(resultSet.getString(1), Integer.toString(row));
+                }
+            }
+
+            row++;
+        }
+
+        assertEquals(row, rowCount);
+    }
+
+    @Test(expectedExceptions = SQLException.class)
+    public void testNumericValueOutOfRange() throws SQLException {
+
+        DataTable dataTable = new DataTable();
+        dataTable.appendRow(Arrays.asList("1000"));
+
+        DataTableAdapterResultSet resultSet =
+                new DataTableAdapterResultSet(mockStatement, dataTable, columnHandlerFactory);
+
+        assertTrue(resultSet.next());
+        assertEquals(resultSet.getInt(1), 1000);
+
+        resultSet.getByte(1);
+    }
 }
@@ -1001,7 +1001,7 @@ public class GenericDatabaseMetaDataTest {
     @Test
     public void testSupportsBatchUpdates() throws SQLException {
 
-        assertFalse(genericDatabaseMetaData.supportsBatchUpdates());
+        assertTrue(genericDatabaseMetaData.supportsBatchUpdates());
     }
     
     @Test
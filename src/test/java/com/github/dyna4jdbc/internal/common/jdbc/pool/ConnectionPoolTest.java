@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import org.testng.annotations.Test;
+
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.PooledConnection;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class ConnectionPoolTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    @Test
+    public void testPoolIsFilledInBackground() throws Exception {
+        StubConnectionPoolDataSource dataSource = new StubConnectionPoolDataSource();
+
+        try (ConnectionPool connectionPool = ConnectionPool.newInstance(dataSource, 2, false)) {
+            awaitIdleConnectionCount(connectionPool, 2);
+
+            Connection connection = connectionPool.getConnection();
+            assertTrue(connection.isValid(0));
+
+            // the connection handed out is replaced in the background
+            awaitIdleConnectionCount(connectionPool, 2);
+            assertEquals(dataSource.physicalConnections.size(), 3);
+
+            // the pool is full: the returned connection is closed
+            connection.close();
+            assertEquals(connectionPool.getIdleConnectionCount(), 2);
+            assertTrue(dataSource.physicalConnections.get(0).isClosed());
+        }
+    }
+
+    @Test
+    public void testInvalidConnectionIsDiscarded() throws Exception {
+        StubConnectionPoolDataSource dataSource = new StubConnectionPoolDataSource();
+
+        try (ConnectionPool connectionPool = ConnectionPool.newInstance(dataSource, 1, false)) {
+            awaitIdleConnectionCount(connectionPool, 1);
+
+            StubConnection invalidConnection = dataSource.physicalConnections.get(0);
+            invalidConnection.setValid(false);
+
+            Connection connection = connectionPool.getConnection();
+
+            assertTrue(connection.isValid(0));
+            assertTrue(invalidConnection.isClosed());
+        }
+    }
+
+    @Test
+    public void testReturnedConnectionIsReusedIfPoolIsNotFull() throws Exception {
+        StubConnectionPoolDataSource dataSource = new StubConnectionPoolDataSource();
+
+        try (ConnectionPool connectionPool = ConnectionPool.newInstance(dataSource, 2, true)) {
+            awaitIdleConnectionCount(connectionPool, 2);
+
+            dataSource.failing = true;
+
+            Connection first = connectionPool.getConnection();
+            Connection second = connectionPool.getConnection();
+            assertEquals(connectionPool.getIdleConnectionCount(), 0);
+
+            first.close();
+            second.close();
+
+            assertEquals(connectionPool.getIdleConnectionCount(), 2);
+            for (StubConnection physicalConnection : dataSource.physicalConnections) {
+                assertFalse(physicalConnection.isClosed());
+            }
+        }
+    }
+
+    @Test
+    public void testReturnedConnectionIsReplacedUnlessScriptStateIsRetained() throws Exception {
+        StubConnectionPoolDataSource dataSource = new StubConnectionPoolDataSource();
+
+        try (ConnectionPool connectionPool = ConnectionPool.newInstance(dataSource, 2, false)) {
+            awaitIdleConnectionCount(connectionPool, 2);
+
+            Connection first = connectionPool.getConnection();
+            Connection second = connectionPool.getConnection();
+            awaitIdleConnectionCount(connectionPool, 2);
+
+            first.close();
+            second.close();
+
+            // the script state of the returned connections would leak to the next clients
+            assertTrue(dataSource.physicalConnections.get(0).isClosed());
+            assertTrue(dataSource.physicalConnections.get(1).isClosed());
+            assertEquals(connectionPool.getIdleConnectionCount(), 2);
+        }
+    }
+
+    @Test
+    public void testClosedPoolClosesIdleConnections() throws Exception {
+        StubConnectionPoolDataSource dataSource = new StubConnectionPoolDataSource();
+
+        ConnectionPool connectionPool = ConnectionPool.newInstance(dataSource, 1, false);
+        awaitIdleConnectionCount(connectionPool, 1);
+
+        connectionPool.close();
+
+        assertTrue(dataSource.physicalConnections.get(0).isClosed());
+        try {
+            connectionPool.getConnection();
+            fail("SQLException expected");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+
+    private static void awaitIdleConnectionCount(ConnectionPool connectionPool, int expected)
+            throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (connectionPool.getIdleConnectionCount() != expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for idle connection count: " + expected);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class StubConnectionPoolDataSource implements ConnectionPoolDataSource {
+
+        private final List<StubConnection> physicalConnections = new CopyOnWriteArrayList<>();
+
+        private volatile boolean failing;
+
+        @Override
+        public PooledConnection getPooledConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Connection failure");
+            }
+
+            StubConnection physicalConnection = new StubConnection();
+            physicalConnections.add(physicalConnection);
+
+            return new DefaultPooledConnection(physicalConnection);
+        }
+
+        @Override
+        public PooledConnection getPooledConnection(String user, String password) throws SQLException {
+            return getPooledConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+            // not used
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+            // not used
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return null;
+        }
+    }
+}
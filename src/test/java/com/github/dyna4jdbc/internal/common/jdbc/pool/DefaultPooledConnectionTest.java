@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
+import org.testng.annotations.Test;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class DefaultPooledConnectionTest {
+
+    @Test
+    public void testClosingLogicalConnectionResetsSessionState() throws SQLException {
+        StubConnection physicalConnection = new StubConnection();
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(physicalConnection);
+
+        List<String> events = new ArrayList<>();
+        pooledConnection.addConnectionEventListener(new RecordingConnectionEventListener(events));
+
+        Connection connection = pooledConnection.getConnection();
+        connection.createStatement();
+        Properties clientInfo = new Properties();
+        clientInfo.setProperty("foo", "bar");
+        connection.setClientInfo(clientInfo);
+        physicalConnection.addWarning("warning");
+
+        connection.close();
+        connection.close();
+
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0), "closed");
+
+        assertTrue(connection.isClosed());
+        assertFalse(physicalConnection.isClosed());
+        assertEquals(physicalConnection.getClosedStatementCount(), 1);
+        assertNull(physicalConnection.getWarnings());
+        assertTrue(physicalConnection.getClientInfo().isEmpty());
+    }
+
+    @Test
+    public void testClosedLogicalConnectionRejectsCalls() throws SQLException {
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(new StubConnection());
+
+        Connection connection = pooledConnection.getConnection();
+        assertTrue(connection.isValid(0));
+
+        connection.close();
+        assertFalse(connection.isValid(0));
+
+        try {
+            connection.createStatement();
+            fail("SQLException expected");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNewLogicalConnectionClosesPrevious() throws SQLException {
+        StubConnection physicalConnection = new StubConnection();
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(physicalConnection);
+
+        List<String> events = new ArrayList<>();
+        pooledConnection.addConnectionEventListener(new RecordingConnectionEventListener(events));
+
+        Connection first = pooledConnection.getConnection();
+        first.createStatement();
+
+        Connection second = pooledConnection.getConnection();
+
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        assertEquals(physicalConnection.getClosedStatementCount(), 1);
+        assertTrue(events.isEmpty(), "listeners are not notified");
+    }
+
+    @Test
+    public void testClosingPooledConnectionClosesPhysicalConnection() throws SQLException {
+        StubConnection physicalConnection = new StubConnection();
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(physicalConnection);
+
+        Connection connection = pooledConnection.getConnection();
+        pooledConnection.close();
+
+        assertTrue(connection.isClosed());
+        assertTrue(physicalConnection.isClosed());
+    }
+
+    @Test
+    public void testLogicalConnectionDoesNotUnwrapPhysicalConnection() throws SQLException {
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(new StubConnection());
+
+        Connection connection = pooledConnection.getConnection();
+
+        assertSame(connection.unwrap(Connection.class), connection);
+        assertTrue(connection.isWrapperFor(Connection.class));
+        assertFalse(connection.isWrapperFor(StubConnection.class));
+
+        try {
+            connection.unwrap(StubConnection.class);
+            fail("SQLException expected");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLogicalConnectionUnwrapsOtherInterfacesOfPhysicalConnection() throws SQLException {
+        StubConnection physicalConnection = new StubConnection();
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(physicalConnection);
+
+        Connection connection = pooledConnection.getConnection();
+
+        assertTrue(connection.isWrapperFor(SchemaCache.class));
+        assertSame(connection.unwrap(SchemaCache.class), physicalConnection.getSchemaCache());
+
+        assertFalse(connection.isWrapperFor(AbstractConnection.class));
+        try {
+            connection.unwrap(AbstractConnection.class);
+            fail("SQLException expected");
+        } catch (SQLException expected) {
+            assertTrue(expected.getMessage().contains(JDBCError.CANNOT_UNWARP_OBJECT.name()),
+                    expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testObjectsOfLogicalConnectionReturnLogicalConnection() throws SQLException {
+        DefaultPooledConnection pooledConnection = new DefaultPooledConnection(new StubConnection());
+
+        Connection connection = pooledConnection.getConnection();
+
+        Statement statement = connection.createStatement();
+        assertSame(statement.getConnection(), connection);
+        assertSame(statement.unwrap(Statement.class), statement);
+        assertFalse(statement.isWrapperFor(StubConnection.class));
+
+        ResultSet resultSet = statement.executeQuery("script");
+        assertSame(resultSet.getStatement(), statement);
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        assertSame(metaData.getConnection(), connection);
+    }
+
+    private static final class RecordingConnectionEventListener implements ConnectionEventListener {
+
+        private final List<String> events;
+
+        private RecordingConnectionEventListener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            events.add("closed");
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            events.add("error");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
+
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal {@code AbstractConnection}, the validity of which can be controlled. The statements,
+ * result sets and metadata created refer back to this (physical) connection. Just like
+ * the connections of the driver, it can be unwrapped to its {@code SchemaCache}.
+ *
+ * @author Peter G. Horvath
+ */
+final class StubConnection extends AbstractConnection {
+
+    private volatile boolean valid = true;
+
+    private final AtomicInteger closedStatementCount = new AtomicInteger();
+
+    private final SchemaCache schemaCache = SchemaCache.newInstance(1);
+
+    void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    int getClosedStatementCount() {
+        return closedStatementCount.get();
+    }
+
+    void addWarning(String reason) {
+        addSQLWarning(new SQLWarning(reason));
+    }
+
+    SchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface == SchemaCache.class) {
+            return iface.cast(schemaCache);
+        }
+        return super.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface == SchemaCache.class || super.isWrapperFor(iface);
+    }
+
+    @Override
+    protected boolean isValidInternal(int timeout) {
+        return valid;
+    }
+
+    @Override
+    protected Statement createStatementInternal() throws SQLException {
+        return (Statement) Proxy.newProxyInstance(StubConnection.class.getClassLoader(),
+                new Class<?>[] {Statement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "close":
+                            closedStatementCount.incrementAndGet();
+                            return null;
+                        case "getConnection":
+                            return this;
+                        case "executeQuery":
+                            return newResultSet((Statement) proxy);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static ResultSet newResultSet(Statement statement) {
+        return (ResultSet) Proxy.newProxyInstance(StubConnection.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    if ("getStatement".equals(method.getName())) {
+                        return statement;
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    protected PreparedStatement prepareStatementInternal(String script) throws SQLException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected DatabaseMetaData getMetaDataInternal() throws SQLException {
+        return (DatabaseMetaData) Proxy.newProxyInstance(StubConnection.class.getClassLoader(),
+                new Class<?>[] {DatabaseMetaData.class},
+                (proxy, method, args) -> {
+                    if ("getConnection".equals(method.getName())) {
+                        return this;
+                    }
+                    return null;
+                });
+    }
+}
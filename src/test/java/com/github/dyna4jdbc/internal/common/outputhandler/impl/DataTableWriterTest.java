@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.common.datamodel.DataColumn;
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class DataTableWriterTest {
+
+    private static final String TEST_OUTPUT = ""
+            + "A:INTEGER\tB:VARCHAR\tC\n"
+            + "1\tfoo\t\n"
+            + "\r\n\r\n"
+            + "2\tárvíztűrő\ttail\r"
+            + "\t\t\n"
+            + "3\tlast line without line ending";
+
+    @DataProvider(name = "chunkSizes")
+    public Object[][] chunkSizes() {
+        return new Object[][] {{1}, {2}, {3}, {7}, {64}, {Integer.MAX_VALUE}};
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testBulkWriteIsEquivalentToSingleByteWrite(int chunkSize)
+            throws IOException, MisconfigurationException {
+
+        byte[] bytes = TEST_OUTPUT.getBytes(StandardCharsets.UTF_8);
+
+        DataTableWriter singleByteWriter = newDataTableWriter(newConfiguration(""));
+        for (byte b : bytes) {
+            singleByteWriter.write(b);
+        }
+        singleByteWriter.close();
+
+        DataTableWriter bulkWriter = newDataTableWriter(newConfiguration(""));
+        writeInChunks(bulkWriter, bytes, chunkSize);
+        bulkWriter.close();
+
+        assertEquals(toRowLists(bulkWriter), toRowLists(singleByteWriter));
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testBulkWriteHonoursMaxRows(int chunkSize)
+            throws IOException, MisconfigurationException {
+
+        byte[] bytes = TEST_OUTPUT.getBytes(StandardCharsets.UTF_8);
+
+        Configuration configuration = newConfiguration("");
+        BoundedDataTableWriter bulkWriter = new BoundedDataTableWriter(
+                configuration, DefaultColumnHandlerFactory.getInstance(configuration), 2);
+        writeInChunks(bulkWriter, bytes, chunkSize);
+        bulkWriter.close();
+
+        List<List<List<String>>> rowLists = toRowLists(bulkWriter);
+
+        assertEquals(rowLists.size(), 1);
+        assertEquals(rowLists.get(0).size(), 2);
+        assertEquals(rowLists.get(0).get(1).get(1), "foo");
+    }
+
+    @Test
+    public void testColumnHandlersMatchDetectionFromColumnValues()
+            throws IOException, MisconfigurationException {
+
+        Configuration configuration = newConfiguration("");
+        ColumnHandlerFactory columnHandlerFactory = DefaultColumnHandlerFactory.getInstance(configuration);
+
+        DataTableWriter writer = new DataTableWriter(configuration, columnHandlerFactory);
+        writer.write(TEST_OUTPUT.getBytes(StandardCharsets.UTF_8));
+        writer.close();
+
+        DataTable dataTable = writer.getDataTableList().get(0);
+        List<ColumnHandler> columnHandlers = writer.newColumnHandlers(dataTable);
+
+        assertEquals(columnHandlers.size(), dataTable.getColumnCount());
+
+        int columnIndex = 0;
+        for (DataColumn dataColumn : dataTable.columnIterable()) {
+            ColumnMetadata expected = columnHandlerFactory
+                    .newColumnHandler(columnIndex, dataColumn).getColumnMetadata();
+
+            assertEquals(columnHandlers.get(columnIndex).getColumnMetadata(), expected);
+            columnIndex++;
+        }
+    }
+
+    @Test
+    public void testSchemaCacheReusesConformingResult()
+            throws IOException, MisconfigurationException {
+
+        Configuration configuration = newConfiguration("");
+        ColumnHandlerFactory columnHandlerFactory = DefaultColumnHandlerFactory.getInstance(configuration);
+        SchemaCache schemaCache = SchemaCache.newInstance(1);
+
+        List<ColumnHandler> first = writeAndGetColumnHandlers(configuration, columnHandlerFactory,
+                schemaCache, "A\tB\n12\t1.5\n345\t-2.25\n");
+
+        assertEquals(schemaCache.getMissCount(), 1);
+        assertEquals(schemaCache.getHitCount(), 0);
+
+        List<ColumnHandler> second = writeAndGetColumnHandlers(configuration, columnHandlerFactory,
+                schemaCache, "A\tB\n7\t0.5\n");
+
+        assertEquals(schemaCache.getMissCount(), 1);
+        assertEquals(schemaCache.getHitCount(), 1);
+
+        // the metadata of the cached result is reported
+        assertEquals(second.size(), first.size());
+        for (int columnIndex = 0; columnIndex < first.size(); columnIndex++) {
+            assertEquals(second.get(columnIndex).getColumnMetadata(),
+                    first.get(columnIndex).getColumnMetadata());
+        }
+    }
+
+    @Test
+    public void testSchemaCacheDetectsNonConformingResult()
+            throws IOException, MisconfigurationException {
+
+        Configuration configuration = newConfiguration("");
+        ColumnHandlerFactory columnHandlerFactory = DefaultColumnHandlerFactory.getInstance(configuration);
+        SchemaCache schemaCache = SchemaCache.newInstance(1);
+
+        final String nonConformingOutput = "A:INTEGER\tB\n12\tfoo\n345\t2017-01-01\n\tbar\tbaz\n";
+
+        writeAndGetColumnHandlers(configuration, columnHandlerFactory,
+                schemaCache, "A:INTEGER\tB\n12\tfoo\n345\tbar\n");
+        List<ColumnHandler> columnHandlers = writeAndGetColumnHandlers(configuration, columnHandlerFactory,
+                schemaCache, nonConformingOutput);
+
+        assertEquals(schemaCache.getMissCount(), 2);
+        assertEquals(schemaCache.getHitCount(), 0);
+
+        List<ColumnHandler> expected = writeAndGetColumnHandlers(configuration, columnHandlerFactory,
+                null, nonConformingOutput);
+
+        assertEquals(columnHandlers.size(), expected.size());
+        for (int columnIndex = 0; columnIndex < expected.size(); columnIndex++) {
+            assertEquals(columnHandlers.get(columnIndex).getColumnMetadata(),
+                    expected.get(columnIndex).getColumnMetadata());
+        }
+    }
+
+    private static List<ColumnHandler> writeAndGetColumnHandlers(
+            Configuration configuration, ColumnHandlerFactory columnHandlerFactory,
+            SchemaCache schemaCache, String output) throws IOException {
+
+        SchemaCache.ScriptSchemas scriptSchemas = null;
+        if (schemaCache != null) {
+            scriptSchemas = schemaCache.forScript("script");
+        }
+
+        DataTableWriter writer = new DataTableWriter(configuration, columnHandlerFactory, scriptSchemas);
+        writer.write(output.getBytes(StandardCharsets.UTF_8));
+        writer.close();
+
+        return writer.newColumnHandlers(writer.getDataTableList().get(0));
+    }
+
+    private static DataTableWriter newDataTableWriter(Configuration configuration) {
+        return new DataTableWriter(configuration, DefaultColumnHandlerFactory.getInstance(configuration));
+    }
+
+    private static void writeInChunks(DataTableWriter writer, byte[] bytes, int chunkSize) throws IOException {
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            writer.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+    }
+
+    private static Configuration newConfiguration(String config) throws MisconfigurationException {
+        return DefaultConfigurationFactory.getInstance().newConfigurationFromParameters(config, null);
+    }
+
+    private static List<List<List<String>>> toRowLists(DataTableWriter writer) {
+        List<List<List<String>>> result = new ArrayList<>();
+        for (DataTable dataTable : writer.getDataTableList()) {
+            List<List<String>> rows = new ArrayList<>();
+            for (List<String> row : dataTable) {
+                rows.add(row);
+            }
+            result.add(rows);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.AbortedError;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class StreamingRowPipeTest {
+
+    @Test
+    public void testRowsAreReturnedInOrder() throws InterruptedException {
+
+        StreamingRowPipe rowPipe = new StreamingRowPipe(10);
+
+        rowPipe.putRow(asList("a", "b"));
+        rowPipe.putRow(asList("c"));
+        rowPipe.finish(null);
+
+        assertTrue(rowPipe.hasNext());
+        assertEquals(rowPipe.next(), asList("a", "b"));
+        assertTrue(rowPipe.hasNext());
+        assertEquals(rowPipe.next(), asList("c"));
+        assertFalse(rowPipe.hasNext());
+        assertFalse(rowPipe.hasNext());
+    }
+
+    @Test
+    public void testFailureIsReportedAfterRows() throws InterruptedException {
+
+        StreamingRowPipe rowPipe = new StreamingRowPipe(10);
+
+        rowPipe.putRow(asList("a"));
+        rowPipe.finish(new ScriptExecutionException("failure", "script"));
+
+        assertEquals(rowPipe.next(), asList("a"));
+
+        try {
+            rowPipe.hasNext();
+            fail("Should have thrown an exception");
+        } catch (RuntimeDyna4JdbcException ex) {
+            assertEquals(ex.getSqlState(), JDBCError.SCRIPT_EXECUTION_EXCEPTION.getSqlStateAsString());
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testProducerIsBlockedUntilConsumerRetrievesRow() throws InterruptedException {
+
+        StreamingRowPipe rowPipe = new StreamingRowPipe(1);
+
+        CountDownLatch secondRowPut = new CountDownLatch(1);
+
+        Thread producer = new Thread(() -> {
+            try {
+                rowPipe.putRow(asList("a"));
+                rowPipe.putRow(asList("b"));
+                secondRowPut.countDown();
+                rowPipe.finish(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(secondRowPut.await(500, TimeUnit.MILLISECONDS));
+
+        List<String> firstRow = rowPipe.next();
+        assertEquals(firstRow, asList("a"));
+
+        assertTrue(secondRowPut.await(5, TimeUnit.SECONDS));
+        assertEquals(rowPipe.next(), asList("b"));
+        assertFalse(rowPipe.hasNext());
+
+        producer.join();
+    }
+
+    @Test(timeOut = 10000)
+    public void testCloseReleasesBlockedProducer() throws InterruptedException {
+
+        StreamingRowPipe rowPipe = new StreamingRowPipe(1);
+
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    rowPipe.putRow(asList(Integer.toString(i)));
+                }
+                rowPipe.finish(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (AbortedError e) {
+                producerFailure.set(e);
+            }
+        });
+        producer.start();
+
+        assertEquals(rowPipe.next(), asList("0"));
+
+        rowPipe.close();
+
+        producer.join();
+
+        assertTrue(rowPipe.isClosed());
+
+        // the producer is aborted instead of running to completion
+        assertTrue(producerFailure.get() instanceof AbortedError, String.valueOf(producerFailure.get()));
+
+        // signalling the end of data after the consumer is closed is a no-op
+        rowPipe.finish(null);
+    }
+
+    @Test(timeOut = 10000)
+    public void testStalledProducerIsAbortedOnceConsumerIsAbandoned() throws InterruptedException {
+
+        StreamingRowPipe rowPipe = new StreamingRowPipe(1, 200);
+
+        rowPipe.putRow(asList("a"));
+
+        try {
+            // nobody retrieves the first row: the consumer is considered abandoned
+            rowPipe.putRow(asList("b"));
+            fail("Should have thrown an exception");
+
+        } catch (AbortedError expected) {
+            assertTrue(rowPipe.isClosed());
+        }
+
+        try {
+            rowPipe.hasNext();
+            fail("Should have thrown an exception");
+
+        } catch (RuntimeDyna4JdbcException ex) {
+            assertTrue(ex.getMessage().contains(JDBCError.OBJECT_CLOSED.name()), ex.getMessage());
+        }
+
+        // signalling the end of data does not block either
+        rowPipe.finish(null);
+    }
+}
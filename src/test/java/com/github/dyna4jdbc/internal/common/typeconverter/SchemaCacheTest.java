@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultColumnHandlerFactory;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class SchemaCacheTest {
+
+    private static final String SCRIPT = "script";
+
+    private ColumnHandlerFactory columnHandlerFactory;
+    private SchemaCache schemaCache;
+
+    @BeforeMethod
+    public void beforeMethod() throws MisconfigurationException {
+        columnHandlerFactory = DefaultColumnHandlerFactory.getInstance(
+                DefaultConfigurationFactory.getInstance().newConfigurationFromParameters("", null));
+        schemaCache = SchemaCache.newInstance(2);
+    }
+
+    @Test
+    public void testResultWithSameColumnCountIsFound() {
+
+        SchemaCache.ScriptSchemas scriptSchemas = schemaCache.forScript(SCRIPT);
+
+        recordDetection(scriptSchemas, asList(asList("1", "1.5"), asList("2", "-2.25")));
+
+        // the key does not depend on the values of the first row
+        List<ColumnScanner.Snapshot> snapshots = scriptSchemas.get(asList("7", "0.5"));
+        assertNotNull(snapshots);
+        assertEquals(snapshots.size(), 2);
+
+        assertTrue(isConforming(snapshots, asList(asList("7", "0.5"), asList("8", "3"))));
+
+        assertEquals(schemaCache.getMissCount(), 1);
+        assertEquals(schemaCache.getHitCount(), 0);
+        assertEquals(schemaCache.size(), 1);
+    }
+
+    @Test
+    public void testValueNotConformingToCachedTypeIsDetected() {
+
+        SchemaCache.ScriptSchemas scriptSchemas = schemaCache.forScript(SCRIPT);
+
+        recordDetection(scriptSchemas, asList(asList("1", "2"), asList("3", "4")));
+
+        List<ColumnScanner.Snapshot> snapshots = scriptSchemas.get(asList("5", "foo"));
+        assertNotNull(snapshots);
+
+        assertFalse(isConforming(snapshots, asList(asList("5", "foo"))));
+    }
+
+    @Test
+    public void testResultWithDifferentColumnCountIsNotFound() {
+
+        SchemaCache.ScriptSchemas scriptSchemas = schemaCache.forScript(SCRIPT);
+
+        recordDetection(scriptSchemas, asList(asList("1", "2"), asList("3", "4")));
+
+        assertNull(scriptSchemas.get(asList("1", "2", "3")));
+        assertNull(scriptSchemas.get(asList("1")));
+
+        // nor is the result of another script
+        assertNull(schemaCache.forScript("other script").get(asList("1", "2")));
+    }
+
+    @Test
+    public void testHeaderRowIsPartOfTheKey() {
+
+        SchemaCache.ScriptSchemas scriptSchemas = schemaCache.forScript(SCRIPT);
+
+        recordDetection(scriptSchemas, asList(asList("A:INTEGER:", "B::"), asList("1", "foo")));
+        recordDetection(scriptSchemas, asList(asList("C::", "D::"), asList("bar", "2")));
+
+        assertEquals(schemaCache.size(), 2);
+
+        List<ColumnScanner.Snapshot> snapshots = scriptSchemas.get(asList("A:INTEGER:", "B::"));
+        assertNotNull(snapshots);
+        assertTrue(isConforming(snapshots, asList(asList("A:INTEGER:", "B::"), asList("2", "baz"))));
+
+        snapshots = scriptSchemas.get(asList("C::", "D::"));
+        assertNotNull(snapshots);
+        assertTrue(isConforming(snapshots, asList(asList("C::", "D::"), asList("qux", "3"))));
+
+        // neither of the header rows matches: nothing cached without headers
+        assertNull(scriptSchemas.get(asList("E::", "F::")));
+    }
+
+    @Test
+    public void testDisabledCache() {
+        assertNull(SchemaCache.newInstance(0).forScript(SCRIPT));
+    }
+
+    private void recordDetection(SchemaCache.ScriptSchemas scriptSchemas, List<List<String>> rows) {
+
+        List<ColumnScanner> columnScanners = scan(rows, null);
+
+        List<ColumnScanner.Snapshot> snapshots = new ArrayList<>();
+        for (ColumnScanner columnScanner : columnScanners) {
+            snapshots.add(columnScanner.getSnapshot());
+        }
+
+        scriptSchemas.recordMiss(rows.get(0), snapshots);
+    }
+
+    private boolean isConforming(List<ColumnScanner.Snapshot> snapshots, List<List<String>> rows) {
+
+        for (ColumnScanner columnScanner : scan(rows, snapshots)) {
+            if (!columnScanner.isConforming()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<ColumnScanner> scan(List<List<String>> rows, List<ColumnScanner.Snapshot> snapshots) {
+
+        final int columnCount = rows.get(0).size();
+
+        List<ColumnScanner> columnScanners = new ArrayList<>();
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            if (snapshots == null) {
+                columnScanners.add(columnHandlerFactory.newColumnScanner(columnIndex));
+            } else {
+                columnScanners.add(columnHandlerFactory.newColumnScanner(columnIndex, snapshots.get(columnIndex)));
+            }
+        }
+
+        for (List<String> row : rows) {
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                columnScanners.get(columnIndex).scanValue(row.get(columnIndex));
+            }
+        }
+
+        return columnScanners;
+    }
+}
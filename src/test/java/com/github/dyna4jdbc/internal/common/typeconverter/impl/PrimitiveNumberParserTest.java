@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verifies that the primitive conversions of {@link DefaultColumnHandler}, which are
+ * based on {@link PrimitiveNumberParser}, yield the same results as the object conversions.
+ *
+ * @author Peter G. Horvath
+ */
+public class PrimitiveNumberParserTest {
+
+    private static final String RANDOM_INPUT_ALPHABET = "0123456789+-.# xXeE\t";
+    private static final int RANDOM_INPUT_COUNT = 100000;
+    private static final int RANDOM_INPUT_MAX_LENGTH = 24;
+
+    private final ColumnHandler columnHandler = new DefaultColumnHandler(new DefaultColumnMetadata());
+
+    @DataProvider(name = "inputs")
+    public Object[][] inputs() {
+        return new Object[][] {
+                {""}, {" "}, {"+"}, {"-"}, {"."}, {"0"}, {"-0"}, {"-0.0"}, {"+12"}, {" 42 "}, {"\t7"},
+                {"007"}, {"0x1F"}, {"#1F"}, {"-0x10"}, {"+-1"}, {"1e5"}, {"1.5f"}, {"NaN"}, {"Infinity"},
+                {"127"}, {"128"}, {"-128"}, {"-129"}, {"32768"}, {"2147483647"}, {"2147483648"},
+                {"-2147483648"}, {"9223372036854775807"}, {"-9223372036854775808"}, {"99999999999999999999"},
+                {"1."}, {".5"}, {"0.1"}, {"3.14159"}, {"-1.25"}, {"9007199254740993"}, {"16777217"},
+                {"0.0000000000000000000001"}, {"123456789012345678.9"}, {"true"}, {"TRUE"}, {" 1 "},
+                {"\u0663"},
+        };
+    }
+
+    @Test(dataProvider = "inputs")
+    public void testSameResultAsObjectConversion(String input) {
+        assertSameResultAsObjectConversion(input);
+    }
+
+    @Test
+    public void testSameResultAsObjectConversionForRandomInputs() {
+        Random random = new Random(0);
+
+        for (int i = 0; i < RANDOM_INPUT_COUNT; i++) {
+            int length = random.nextInt(RANDOM_INPUT_MAX_LENGTH);
+
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append(RANDOM_INPUT_ALPHABET.charAt(random.nextInt(RANDOM_INPUT_ALPHABET.length())));
+            }
+
+            assertSameResultAsObjectConversion(sb.toString());
+        }
+    }
+
+    @Test
+    public void testNullValue() throws TypeConversionException {
+        assertEquals(columnHandler.isNullValue(null), true);
+        assertEquals(columnHandler.isNullValue(""), false);
+
+        assertEquals(columnHandler.covertToBooleanValue(null), false);
+        assertEquals(columnHandler.covertToByteValue(null), (byte) 0);
+        assertEquals(columnHandler.covertToShortValue(null), (short) 0);
+        assertEquals(columnHandler.covertToIntValue(null), 0);
+        assertEquals(columnHandler.covertToLongValue(null), 0L);
+        assertEquals(columnHandler.covertToFloatValue(null), 0.0f);
+        assertEquals(columnHandler.covertToDoubleValue(null), 0.0d);
+    }
+
+    private void assertSameResultAsObjectConversion(String input) {
+        assertEquals(convert(() -> columnHandler.covertToBooleanValue(input)),
+                convert(() -> columnHandler.covertToBoolean(input)), input);
+        assertEquals(convert(() -> columnHandler.covertToByteValue(input)),
+                convert(() -> columnHandler.covertToByte(input)), input);
+        assertEquals(convert(() -> columnHandler.covertToShortValue(input)),
+                convert(() -> columnHandler.covertToShort(input)), input);
+        assertEquals(convert(() -> columnHandler.covertToIntValue(input)),
+                convert(() -> columnHandler.covertToInteger(input)), input);
+        assertEquals(convert(() -> columnHandler.covertToLongValue(input)),
+                convert(() -> columnHandler.covertToLong(input)), input);
+
+        // compare the bits, so that e.g. 0.0 and -0.0 are distinguished
+        assertEquals(convert(() -> Float.floatToRawIntBits(columnHandler.covertToFloatValue(input))),
+                convert(() -> Float.floatToRawIntBits(columnHandler.covertToFloat(input))), input);
+        assertEquals(convert(() -> Double.doubleToRawLongBits(columnHandler.covertToDoubleValue(input))),
+                convert(() -> Double.doubleToRawLongBits(columnHandler.covertToDouble(input))), input);
+    }
+
+    private interface Conversion {
+        Object convert() throws TypeConversionException;
+    }
+
+    private static Object convert(Conversion conversion) {
+        try {
+            return conversion.convert();
+        } catch (TypeConversionException e) {
+            return e.getClass();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Verifies that {@link TimestampFormat} yields the same results as {@code SimpleDateFormat}.
+ *
+ * @author Peter G. Horvath
+ */
+public class TimestampFormatTest {
+
+    @DataProvider(name = "inputs")
+    public Object[][] inputs() {
+        return new Object[][] {
+                {"yyyy-MM-dd", "2017-03-26"},
+                {"yyyy-MM-dd", "2017-3-26"},
+                {"yyyy-MM-dd", "2017-02-29"},
+                {"yyyy-MM-dd HH:mm:ss", "2017-03-26 02:30:00"},
+                {"yyyy-MM-dd HH:mm:ss", "2017-10-29 02:30:00"},
+                {"yyyy-MM-dd HH:mm:ss", "2017-01-01 24:00:00"},
+                {"yyyy-MM-dd HH:mm:ss", "1582-10-10 10:00:00"},
+                {"yyyy-MM-dd HH:mm:ss", "2050-07-01 10:00:00"},
+                {"yyyy-MM-dd HH:mm:ss.SSS", "2017-05-06 07:08:09.123"},
+                {"yyyy-MM-dd'T'HH:mm:ss", "2017-05-06T07:08:09"},
+                {"dd/MM/yyyy HH:mm", "06/05/2017 07:08"},
+                {"dd/MM/yyyy HH:mm", "06/05/2017 07:08 "},
+                {"yyyyMMddHHmmss", "20170506070809"},
+                {"yy-MM-dd", "17-05-06"},
+                {"MMM d, yyyy", "May 6, 2017"},
+        };
+    }
+
+    @Test(dataProvider = "inputs")
+    public void testSameResultAsSimpleDateFormat(String formatString, String value) {
+        for (String zoneId : new String[] {"UTC", "Europe/Budapest", "America/New_York", "Australia/Lord_Howe"}) {
+            TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+            ZoneRules zoneRules = timeZone.toZoneId().getRules();
+
+            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(formatString, Locale.US);
+            simpleDateFormat.setLenient(false);
+            simpleDateFormat.setTimeZone(timeZone);
+
+            TimestampFormat timestampFormat = TimestampFormat.forFormatString(formatString, Locale.US);
+            Date twoDigitYearStart = simpleDateFormat.get2DigitYearStart();
+
+            Long expected;
+            try {
+                expected = simpleDateFormat.parse(value).getTime();
+            } catch (ParseException e) {
+                expected = null;
+            }
+
+            try {
+                long actual = timestampFormat.parseToEpochMillis(value, timeZone, zoneRules, twoDigitYearStart);
+                assertEquals(Long.valueOf(actual), expected, zoneId + ": " + value);
+            } catch (ParseException e) {
+                if (expected != null) {
+                    fail(zoneId + ": " + value + " was not parsed", e);
+                }
+            }
+        }
+    }
+}
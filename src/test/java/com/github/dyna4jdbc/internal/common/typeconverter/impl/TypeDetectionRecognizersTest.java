@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+ 
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verifies that {@link TypeDetectionRecognizers} accept exactly the same
+ * inputs as the patterns in {@link TypeDetectionRegularExpressionPatterns}.
+ *
+ * @author Peter G. Horvath
+ */
+public class TypeDetectionRecognizersTest {
+
+    private static final String RANDOM_INPUT_ALPHABET = "0123456789+-.: \nx\u0663";
+    private static final int RANDOM_INPUT_COUNT = 100000;
+    private static final int RANDOM_INPUT_MAX_LENGTH = 12;
+
+    @DataProvider(name = "inputs")
+    public Object[][] inputs() {
+        return new Object[][] {
+                {""}, {"+"}, {"-"}, {"."}, {"0"}, {"-0"}, {"+12"}, {"007"},
+                {"1."}, {".1"}, {"1.5"}, {"-1.25"}, {"+0.125"}, {"1.2.3"}, {"1e5"}, {" 1"}, {"1 "},
+                {"1\n"}, {"\u0663"}, {"12345678901234567890.0123456789"},
+                {"2016-01-01 10:00:00"}, {"2016-1-1 10:00:00"}, {"2016-01-01 10:00:00.123"},
+                {"2016-01-01 10:00:00.12"}, {"2016-01-01 10:00:00.1234"}, {"2016-01-01 10:00"},
+                {"2016-01-01T10:00:00"}, {"16-01-01 10:00:00"}, {"2016-001-01 10:00:00"},
+        };
+    }
+
+    @Test(dataProvider = "inputs")
+    public void testSameResultAsRegularExpressions(String input) {
+        assertSameResultAsRegularExpressions(input);
+    }
+
+    @Test
+    public void testSameResultAsRegularExpressionsForRandomInputs() {
+        Random random = new Random(0);
+
+        for (int i = 0; i < RANDOM_INPUT_COUNT; i++) {
+            int length = random.nextInt(RANDOM_INPUT_MAX_LENGTH);
+
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append(RANDOM_INPUT_ALPHABET.charAt(random.nextInt(RANDOM_INPUT_ALPHABET.length())));
+            }
+
+            assertSameResultAsRegularExpressions(sb.toString());
+        }
+    }
+
+    private static void assertSameResultAsRegularExpressions(String input) {
+        Matcher integerMatcher = TypeDetectionRegularExpressionPatterns.NUMBER_INTEGER.matcher(input);
+        Matcher decimalMatcher = TypeDetectionRegularExpressionPatterns.NUMBER_DECIMAL.matcher(input);
+        Matcher timestampMatcher = TypeDetectionRegularExpressionPatterns.TIMESTAMP.matcher(input);
+
+        long scannedNumber = TypeDetectionRecognizers.scanNumber(input);
+
+        assertEquals(TypeDetectionRecognizers.isInteger(scannedNumber), integerMatcher.matches(), input);
+        assertEquals(TypeDetectionRecognizers.isNumber(scannedNumber), decimalMatcher.matches(), input);
+        assertEquals(TypeDetectionRecognizers.isTimestamp(input), timestampMatcher.matches(), input);
+
+        if (decimalMatcher.matches()) {
+            String sign = decimalMatcher.group(1);
+            String integerPart = decimalMatcher.group(2);
+            String precision = decimalMatcher.group("precision");
+
+            assertEquals(TypeDetectionRecognizers.hasSign(scannedNumber), sign != null, input);
+            assertEquals(TypeDetectionRecognizers.getIntegerDigits(scannedNumber), integerPart.length(), input);
+            assertEquals(TypeDetectionRecognizers.getFractionDigits(scannedNumber),
+                    precision != null ? precision.length() : 0, input);
+        }
+    }
+}
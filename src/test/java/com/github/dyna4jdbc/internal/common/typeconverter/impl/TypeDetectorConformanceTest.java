@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verifies that {@link TypeDetector#conformsTo(TypeDetector.DetectionContext, String)}
+ * reports exactly the values, which leave the detection state unchanged.
+ *
+ * @author Peter G. Horvath
+ */
+public class TypeDetectorConformanceTest {
+
+    private static final String[] VALUES = {
+            null, "", "0", "7", "-7", "12", "345", "+1234", "1.5", "-2.25", "0.125", "1e3", "1.5E-2",
+            "12345.678", "2017-01-01", "2017-01-01 12:34:56", "2017-01-01T12:34:56", "foo", "a longer value",
+            "0x1F", "NaN", " 1 ",
+    };
+
+    private static final int SEQUENCE_COUNT = 20000;
+    private static final int MAX_SEQUENCE_LENGTH = 8;
+
+    @Test
+    public void testConformsToMatchesUnchangedState() {
+        Random random = new Random(42);
+
+        for (int sequence = 0; sequence < SEQUENCE_COUNT; sequence++) {
+            TypeDetector.DetectionContext detectionContext = new TypeDetector.DetectionContext();
+
+            final int length = 1 + random.nextInt(MAX_SEQUENCE_LENGTH);
+            for (int i = 0; i < length; i++) {
+                String cellValue = VALUES[random.nextInt(VALUES.length)];
+
+                List<Object> stateBefore = toState(detectionContext);
+                boolean conforms = TypeDetector.conformsTo(detectionContext, cellValue);
+                TypeDetector.inspectCellValue(detectionContext, cellValue);
+
+                assertEquals(conforms, stateBefore.equals(toState(detectionContext)),
+                        "value '" + cellValue + "' after " + stateBefore);
+            }
+        }
+    }
+
+    private static List<Object> toState(TypeDetector.DetectionResult detectionResult) {
+        return Arrays.asList(
+                detectionResult.getColumnType(),
+                detectionResult.getMaxSize(),
+                detectionResult.getMaxPrecision(),
+                detectionResult.getMaxScale(),
+                detectionResult.getMaxBeforeDecimalPoint(),
+                detectionResult.getNullability(),
+                detectionResult.isSigned(),
+                detectionResult.isCurrency(),
+                detectionResult.getMaxColumnDisplaySize());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.common.util.classpath;
+
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class SharedClassLoaderRegistryTest {
+
+    @Test
+    public void testIdenticalClasspathsShareClassLoader() throws MisconfigurationException {
+        SharedClassLoaderRegistry registry = new SharedClassLoaderRegistry(DefaultClassLoaderFactory.getInstance());
+
+        String directory = new File("target").getAbsolutePath();
+
+        SharedClassLoaderRegistry.Reference first = registry.acquire(Collections.singletonList(directory));
+        SharedClassLoaderRegistry.Reference second = registry.acquire(
+                Collections.singletonList(directory + File.separator + "." + File.separator));
+
+        assertSame(second.getClassLoader(), first.getClassLoader());
+        assertEquals(registry.getReferenceCount(Collections.singletonList(directory)), 2);
+
+        first.release();
+        assertEquals(registry.getReferenceCount(Collections.singletonList(directory)), 1);
+
+        second.release();
+        assertEquals(registry.getReferenceCount(Collections.singletonList(directory)), 0);
+    }
+
+    @Test
+    public void testClassLoaderIsRecreatedAfterLastRelease() throws MisconfigurationException {
+        SharedClassLoaderRegistry registry = new SharedClassLoaderRegistry(DefaultClassLoaderFactory.getInstance());
+
+        List<String> classpath = Collections.singletonList("target");
+
+        SharedClassLoaderRegistry.Reference first = registry.acquire(classpath);
+        first.release();
+
+        SharedClassLoaderRegistry.Reference second = registry.acquire(classpath);
+        assertTrue(second.getClassLoader() != first.getClassLoader(), "a new ClassLoader is expected");
+        second.release();
+    }
+
+    @Test
+    public void testDifferentClasspathsDoNotShareClassLoader() throws MisconfigurationException {
+        SharedClassLoaderRegistry registry = new SharedClassLoaderRegistry(DefaultClassLoaderFactory.getInstance());
+
+        SharedClassLoaderRegistry.Reference first = registry.acquire(Arrays.asList("a", "b"));
+        SharedClassLoaderRegistry.Reference second = registry.acquire(Arrays.asList("b", "a"));
+
+        assertTrue(second.getClassLoader() != first.getClassLoader(), "class path order is significant");
+
+        first.release();
+        second.release();
+    }
+
+    @Test
+    public void testCloseListenerIsNotifiedOnLastRelease() throws MisconfigurationException {
+        SharedClassLoaderRegistry registry = new SharedClassLoaderRegistry(DefaultClassLoaderFactory.getInstance());
+
+        List<List<String>> closedClasspaths = new ArrayList<>();
+        registry.addCloseListener(closedClasspaths::add);
+
+        List<String> classpath = Collections.singletonList("target");
+
+        SharedClassLoaderRegistry.Reference first = registry.acquire(classpath);
+        SharedClassLoaderRegistry.Reference second = registry.acquire(classpath);
+
+        first.release();
+        assertTrue(closedClasspaths.isEmpty(), "the ClassLoader is still referenced");
+
+        second.release();
+        assertEquals(closedClasspaths, Collections.singletonList(SharedClassLoaderRegistry.normalize(classpath)));
+        assertEquals(closedClasspaths.get(0), Collections.singletonList(new File("target").getAbsolutePath()));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testReleasingTwiceIsRejected() throws MisconfigurationException {
+        SharedClassLoaderRegistry registry = new SharedClassLoaderRegistry(DefaultClassLoaderFactory.getInstance());
+
+        SharedClassLoaderRegistry.Reference reference = registry.acquire(Collections.singletonList("target"));
+        reference.release();
+        reference.release();
+    }
+}
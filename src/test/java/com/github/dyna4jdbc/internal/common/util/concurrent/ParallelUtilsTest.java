@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.dyna4jdbc.internal.common.util.concurrent;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class ParallelUtilsTest {
+
+    private static final int INDEX_COUNT = 1000;
+
+    @Test
+    public void testEachIndexIsProcessedOnce() {
+
+        AtomicIntegerArray invocationCounts = new AtomicIntegerArray(INDEX_COUNT);
+
+        ParallelUtils.forEachIndex(INDEX_COUNT, 3, invocationCounts::incrementAndGet);
+
+        for (int i = 0; i < INDEX_COUNT; i++) {
+            assertEquals(invocationCounts.get(i), 1, "Invocation count of index " + i);
+        }
+    }
+
+    @Test
+    public void testFailureOfLowestIndexIsThrown() {
+
+        AtomicIntegerArray invocationCounts = new AtomicIntegerArray(INDEX_COUNT);
+
+        try {
+            ParallelUtils.forEachIndex(INDEX_COUNT, 1, index -> {
+                invocationCounts.incrementAndGet(index);
+                if (index % 100 == 42) {
+                    throw new IllegalStateException(Integer.toString(index));
+                }
+            });
+
+            fail("Should have thrown an exception");
+        } catch (IllegalStateException expected) {
+            assertEquals(expected.getMessage(), "42");
+        }
+
+        for (int i = 0; i < INDEX_COUNT; i++) {
+            assertEquals(invocationCounts.get(i), 1, "Invocation count of index " + i);
+        }
+    }
+}
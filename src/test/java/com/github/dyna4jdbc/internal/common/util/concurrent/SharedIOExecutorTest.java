@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.dyna4jdbc.internal.common.util.concurrent;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class SharedIOExecutorTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private ExecutorService sharedThreads;
+    private SharedIOExecutor sharedIOExecutor;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        final int poolSize = 2;
+
+        sharedThreads = new ThreadPoolExecutor(0, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>());
+        sharedIOExecutor = new SharedIOExecutor(sharedThreads);
+    }
+
+    @AfterMethod
+    public void afterMethod() {
+        sharedThreads.shutdownNow();
+    }
+
+    @Test
+    public void testActiveTasksAreAccountedPerConnection() throws Exception {
+
+        SharedIOExecutor.ConnectionExecutor first = sharedIOExecutor.newConnectionExecutor("first");
+        SharedIOExecutor.ConnectionExecutor second = sharedIOExecutor.newConnectionExecutor("second");
+
+        CountDownLatch taskStarted = new CountDownLatch(1);
+        CountDownLatch releaseTask = new CountDownLatch(1);
+
+        Future<?> future = first.submit(() -> {
+            taskStarted.countDown();
+            awaitUninterruptibly(releaseTask);
+        });
+
+        assertTrue(taskStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertEquals(first.getActiveTaskCount(), 1);
+        assertEquals(second.getActiveTaskCount(), 0);
+        assertEquals(sharedIOExecutor.getActiveTaskCount(), 1);
+
+        releaseTask.countDown();
+        future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        first.shutdown();
+        assertTrue(first.awaitTermination(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertEquals(first.getActiveTaskCount(), 0);
+        assertEquals(sharedIOExecutor.getActiveTaskCount(), 0);
+    }
+
+    @Test
+    public void testShutdownNowInterruptsTasksOfConnectionOnly() throws Exception {
+
+        SharedIOExecutor.ConnectionExecutor first = sharedIOExecutor.newConnectionExecutor("first");
+        SharedIOExecutor.ConnectionExecutor second = sharedIOExecutor.newConnectionExecutor("second");
+
+        CountDownLatch tasksStarted = new CountDownLatch(2);
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+
+        Future<Boolean> firstFuture = first.submit(() -> {
+            tasksStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return false;
+            } catch (InterruptedException e) {
+                return true;
+            }
+        });
+
+        Future<Boolean> secondFuture = second.submit(() -> {
+            tasksStarted.countDown();
+            awaitUninterruptibly(releaseSecond);
+            return Thread.currentThread().isInterrupted();
+        });
+
+        assertTrue(tasksStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        first.shutdownNow();
+
+        assertTrue(firstFuture.get(TIMEOUT_MS, TimeUnit.MILLISECONDS), "Task should have been interrupted");
+        assertTrue(first.awaitTermination(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(first.isTerminated());
+
+        releaseSecond.countDown();
+        assertFalse(secondFuture.get(TIMEOUT_MS, TimeUnit.MILLISECONDS), "Task should not have been interrupted");
+        assertFalse(second.isShutdown());
+
+        try {
+            first.execute(() -> { });
+            fail("Should have thrown an exception");
+        } catch (RejectedExecutionException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testInterruptDoesNotLeakToNextTaskOfSharedThread() throws Exception {
+
+        SharedIOExecutor.ConnectionExecutor first = sharedIOExecutor.newConnectionExecutor("first");
+
+        Future<?> interruptingTask = first.submit(() -> Thread.currentThread().interrupt());
+        interruptingTask.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        SharedIOExecutor.ConnectionExecutor second = sharedIOExecutor.newConnectionExecutor("second");
+
+        // the idle shared thread is reused
+        Future<Boolean> future = second.submit(() -> Thread.currentThread().isInterrupted());
+
+        assertFalse(future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testTaskIsRejectedIfAllSharedThreadsAreBusy() throws Exception {
+
+        SharedIOExecutor.ConnectionExecutor connectionExecutor = sharedIOExecutor.newConnectionExecutor("first");
+
+        CountDownLatch tasksStarted = new CountDownLatch(2);
+        CountDownLatch releaseTasks = new CountDownLatch(1);
+
+        for (int i = 0; i < 2; i++) {
+            connectionExecutor.execute(() -> {
+                tasksStarted.countDown();
+                awaitUninterruptibly(releaseTasks);
+            });
+        }
+
+        assertTrue(tasksStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        try {
+            connectionExecutor.execute(() -> { });
+            fail("Should have thrown an exception");
+        } catch (RejectedExecutionException expected) {
+            assertTrue(expected.getMessage().contains(SharedIOExecutor.POOL_SIZE_PROPERTY));
+        }
+
+        releaseTasks.countDown();
+
+        connectionExecutor.shutdown();
+        assertTrue(connectionExecutor.awaitTermination(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
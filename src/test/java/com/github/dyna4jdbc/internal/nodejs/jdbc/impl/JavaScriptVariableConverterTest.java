@@ -49,6 +49,13 @@ public class JavaScriptVariableConverterTest {
         assertEquals(stringRepresentation, "'McDonald\\'s'");
     }
 
+    @Test
+    public void testMultiLineString() {
+
+        String stringRepresentation = convertToString("Hello\r\nWorld");
+        assertEquals(stringRepresentation, "'Hello\\r\\nWorld'");
+    }
+
     @Test
     public void testCharacter() {
 
@@ -135,6 +142,20 @@ public class JavaScriptVariableConverterTest {
         assertEquals(stringRepresentation, "[ 12.34, 56, 789 ]");
     }
 
+    @Test
+    public void testPrimitiveArray() {
+
+        String stringRepresentation = convertToString(new int[]{12, 56, 789});
+        assertEquals(stringRepresentation, "[ 12, 56, 789 ]");
+    }
+
+    @Test
+    public void testByteArray() {
+
+        String stringRepresentation = convertToString(new byte[]{1, 2, 3, (byte) 255});
+        assertEquals(stringRepresentation, "Buffer.from('AQID/w==', 'base64')");
+    }
+
     @Test
     public void testStringCollection() {
 
@@ -171,6 +192,17 @@ public class JavaScriptVariableConverterTest {
         assertEquals(stringRepresentation, "{ 'foo' : 12.34, 'and' : 56, 'bar' : 789 }");
     }
 
+    @Test
+    public void testVariableAssignments() {
+
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("parameter1", "foo");
+        variables.put("parameter2", 42);
+
+        String variableAssignments = JavaScriptVariableConverter.convertToVariableAssignments(variables);
+        assertEquals(variableAssignments, "parameter1 = 'foo'; parameter2 = 42; ");
+    }
+
     @Test
     public void testGenericObject() {
 
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class ProcessOutputBufferTest {
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final long JOIN_TIMEOUT_MS = 5_000;
+    private static final long PRODUCER_WAIT_MS = 200;
+
+    @Test
+    public void testContentIsTransferredAsIs() throws IOException, InterruptedException {
+
+        final String output = "A\tB\r\n1\tárvíztűrő\n\nlast line without line ending";
+
+        ProcessOutputBuffer outputBuffer = new ProcessOutputBuffer();
+        outputBuffer.readFrom(new TricklingInputStream(output.getBytes(CHARSET), 3));
+
+        assertEquals(transferAll(outputBuffer, newCondition(false, null, null)), output);
+    }
+
+    @Test
+    public void testFirstLineIsSkipped() throws IOException, InterruptedException {
+
+        ProcessOutputBuffer outputBuffer = new ProcessOutputBuffer();
+        outputBuffer.readFrom(new TricklingInputStream("command echo\nA\n1\n".getBytes(CHARSET), 5));
+
+        assertEquals(transferAll(outputBuffer, newCondition(true, null, null)), "A\n1\n");
+    }
+
+    @Test
+    public void testEndOfDataPatternRetainsFollowingContent() throws IOException, InterruptedException {
+
+        ProcessOutputBuffer outputBuffer = new ProcessOutputBuffer();
+        outputBuffer.readFrom(new ByteArrayInputStream("A\n1\nEND\r\nB\n2\n".getBytes(CHARSET)));
+
+        Pattern endOfDataPattern = Pattern.compile("END");
+
+        assertEquals(transferAll(outputBuffer, newCondition(false, endOfDataPattern, null)), "A\n1\n");
+        assertEquals(transferAll(outputBuffer, newCondition(false, endOfDataPattern, null)), "B\n2\n");
+    }
+
+    @Test
+    public void testEndOfDataMarkerRetainsPrecedingContent() throws IOException, InterruptedException {
+
+        ProcessOutputBuffer outputBuffer = new ProcessOutputBuffer();
+        outputBuffer.readFrom(new TricklingInputStream(
+                "A\n1\n2MARKER-1\nB\nMARKER-2\n".getBytes(CHARSET), 4));
+
+        assertEquals(transferAll(outputBuffer, newCondition(false, null, "MARKER-1")), "A\n1\n2\n");
+        assertEquals(transferAll(outputBuffer, newCondition(false, null, "MARKER-2")), "B\n");
+    }
+
+    @Test
+    public void testProducerIsBlockedWhileBufferIsFull() throws InterruptedException, IOException {
+
+        final int capacityInChunks = 2;
+        final int chunkCount = 10;
+
+        ProcessOutputBuffer outputBuffer = new ProcessOutputBuffer(capacityInChunks);
+
+        Thread producer = new Thread(() -> {
+            try {
+                outputBuffer.readFrom(new TricklingInputStream("0123456789".getBytes(CHARSET), 1));
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+
+        producer.join(PRODUCER_WAIT_MS);
+        assertTrue(producer.isAlive());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ProcessOutputBuffer.EndOfDataCondition condition = newCondition(false, null, null);
+        for (int i = 0; i <= chunkCount; i++) {
+            outputBuffer.transferAvailableLines(outputStream, condition, TimeUnit.SECONDS.toMillis(1));
+        }
+
+        producer.join(JOIN_TIMEOUT_MS);
+        assertFalse(producer.isAlive());
+
+        assertEquals(new String(outputStream.toByteArray(), CHARSET), "0123456789");
+    }
+
+    private static ProcessOutputBuffer.EndOfDataCondition newCondition(
+            boolean skipFirstLine, Pattern endOfDataPattern, String endOfDataMarker) {
+        return new ProcessOutputBuffer.EndOfDataCondition(skipFirstLine, endOfDataPattern, endOfDataMarker, CHARSET);
+    }
+
+    private static String transferAll(ProcessOutputBuffer outputBuffer,
+                                      ProcessOutputBuffer.EndOfDataCondition condition)
+            throws IOException, InterruptedException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        while (outputBuffer.transferAvailableLines(outputStream, condition, 0)
+                == ProcessOutputBuffer.TransferResult.DATA_TRANSFERRED) {
+            // transfer until the end of data
+        }
+        return new String(outputStream.toByteArray(), CHARSET);
+    }
+
+    /**
+     * {@code InputStream} returning at most the specified number of bytes on each read.
+     */
+    private static final class TricklingInputStream extends InputStream {
+
+        private final ByteArrayInputStream delegate;
+        private final int maxBytesPerRead;
+
+        private TricklingInputStream(byte[] bytes, int maxBytesPerRead) {
+            this.delegate = new ByteArrayInputStream(bytes);
+            this.maxBytesPerRead = maxBytesPerRead;
+        }
+
+        @Override
+        public int read() {
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            return delegate.read(bytes, offset, Math.min(length, maxBytesPerRead));
+        }
+    }
+}
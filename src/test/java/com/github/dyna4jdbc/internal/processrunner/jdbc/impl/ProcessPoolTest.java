@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class ProcessPoolTest {
+
+    private static final long WAIT_TIMEOUT_MS = 10_000;
+    private static final long POLL_INTERVAL_MS = 10;
+
+    private static final String LONG_RUNNING_COMMAND = "exec sleep 60";
+
+    private final List<Process> startedProcesses = new CopyOnWriteArrayList<>();
+
+    private ExecutorService executorService;
+    private ProcessManagerFactory processManagerFactory;
+
+    @BeforeMethod
+    public void beforeMethod() throws MisconfigurationException {
+        startedProcesses.clear();
+
+        executorService = Executors.newCachedThreadPool();
+
+        Configuration configuration = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters("", null);
+        processManagerFactory = ProcessManagerFactory.getInstance(configuration, executorService);
+    }
+
+    @AfterMethod
+    public void afterMethod() throws InterruptedException {
+        destroyStartedProcesses();
+
+        executorService.shutdownNow();
+        assertTrue(executorService.awaitTermination(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // processes started in the background while the test was finishing
+        destroyStartedProcesses();
+    }
+
+    @Test
+    public void testProcessesAreStartedInAdvance() throws Exception {
+        if (!isPosixShellAvailable()) {
+            return;
+        }
+
+        final int poolSize = 2;
+
+        try (ProcessPool processPool = newProcessPool(poolSize)) {
+
+            ProcessManager processManager = processPool.take(LONG_RUNNING_COMMAND, null);
+            assertNotNull(processManager);
+
+            awaitIdleProcessCount(processPool, LONG_RUNNING_COMMAND, null, poolSize);
+            assertEquals(startedProcesses.size(), 1 + poolSize);
+
+            processPool.take(LONG_RUNNING_COMMAND, null);
+
+            // one of the processes started in advance is taken, then replaced
+            awaitIdleProcessCount(processPool, LONG_RUNNING_COMMAND, null, poolSize);
+            assertEquals(startedProcesses.size(), 2 + poolSize);
+        }
+    }
+
+    @Test
+    public void testCommandLineWithVariablesIsNotStartedInAdvance() throws Exception {
+        if (!isPosixShellAvailable()) {
+            return;
+        }
+
+        final String command = "echo $FOO; exec sleep 60";
+        Map<String, Object> variables = Collections.singletonMap("FOO", 1);
+
+        try (ProcessPool processPool = newProcessPool(1)) {
+
+            ProcessManager processManager = processPool.take(command, variables);
+            assertNotNull(processManager);
+
+            // give a (wrongly) scheduled refill the chance to start a process
+            Thread.sleep(500);
+
+            assertEquals(startedProcesses.size(), 1);
+            assertEquals(processPool.getIdleProcessCount(command, variables), 0);
+            assertEquals(processPool.getIdleProcessCount(command, null), 0);
+
+            // command lines without variables are still started in advance
+            processPool.take(command, null);
+            awaitIdleProcessCount(processPool, command, null, 1);
+        }
+    }
+
+    @Test
+    public void testFailedProcessIsNotTaken() throws Exception {
+        if (!isPosixShellAvailable()) {
+            return;
+        }
+
+        final String failingCommand = "exit 1";
+
+        try (ProcessPool processPool = newProcessPool(1)) {
+
+            processPool.take(failingCommand, null);
+            awaitIdleProcessCount(processPool, failingCommand, null, 1);
+
+            Process processStartedInAdvance = startedProcesses.get(1);
+            assertTrue(processStartedInAdvance.waitFor(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+            ProcessManager processManager = processPool.take(failingCommand, null);
+            assertNotNull(processManager);
+
+            // the failed process is discarded: a new one is started in the current thread
+            assertTrue(startedProcesses.size() >= 3);
+        }
+    }
+
+    @Test
+    public void testCloseTerminatesIdleProcesses() throws Exception {
+        if (!isPosixShellAvailable()) {
+            return;
+        }
+
+        ProcessPool processPool = newProcessPool(1);
+
+        processPool.take(LONG_RUNNING_COMMAND, null);
+        awaitIdleProcessCount(processPool, LONG_RUNNING_COMMAND, null, 1);
+
+        processPool.close();
+
+        Process idleProcess = startedProcesses.get(1);
+        assertTrue(idleProcess.waitFor(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertTrue(startedProcesses.get(0).isAlive(), "The process taken should not be terminated");
+        assertEquals(processPool.getIdleProcessCount(LONG_RUNNING_COMMAND, null), 0);
+    }
+
+    private void destroyStartedProcesses() {
+        for (Process process : startedProcesses) {
+            process.destroyForcibly();
+        }
+    }
+
+    private ProcessPool newProcessPool(int poolSize) {
+        return ProcessPool.newInstance(this::startProcess, processManagerFactory,
+                warning -> fail("Unexpected warning: " + warning), executorService, poolSize);
+    }
+
+    private Process startProcess(String script, Map<String, Object> variables) throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder("sh", "-c", script);
+        if (variables != null) {
+            for (Map.Entry<String, Object> variable : variables.entrySet()) {
+                processBuilder.environment().put(variable.getKey(), String.valueOf(variable.getValue()));
+            }
+        }
+
+        Process process = processBuilder.start();
+        startedProcesses.add(process);
+        return process;
+    }
+
+    private static void awaitIdleProcessCount(ProcessPool processPool, String script,
+                                              Map<String, Object> variables, int expectedCount)
+            throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (processPool.getIdleProcessCount(script, variables) != expectedCount) {
+            assertFalse(System.currentTimeMillis() > deadline,
+                    "Idle process count did not reach " + expectedCount);
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+    private static boolean isPosixShellAvailable() {
+        return "/".equals(System.getProperty("file.separator"));
+    }
+}
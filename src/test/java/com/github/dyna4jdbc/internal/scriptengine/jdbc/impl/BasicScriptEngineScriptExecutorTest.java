@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.Test;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class BasicScriptEngineScriptExecutorTest {
+
+    @Test
+    public void testScriptIsCompiledOnce() throws Exception {
+        CompilingScriptEngine scriptEngine = new CompilingScriptEngine();
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "");
+
+        assertEquals(execute(executor, "foo"), "foo");
+        assertEquals(execute(executor, "foo"), "foo");
+        assertEquals(execute(executor, "bar"), "bar");
+        assertEquals(execute(executor, "foo"), "foo");
+
+        assertEquals(scriptEngine.compiledScripts, listOf("foo", "bar"));
+        assertEquals(scriptEngine.evaluatedScripts, listOf());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedScriptIsEvicted() throws Exception {
+        CompilingScriptEngine scriptEngine = new CompilingScriptEngine();
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "compiledScriptCacheSize=2");
+
+        execute(executor, "foo");
+        execute(executor, "bar");
+        execute(executor, "foo");
+        execute(executor, "baz");
+        execute(executor, "foo");
+        execute(executor, "bar");
+
+        assertEquals(scriptEngine.compiledScripts, listOf("foo", "bar", "baz", "bar"));
+    }
+
+    @Test
+    public void testCachingCanBeDisabled() throws Exception {
+        CompilingScriptEngine scriptEngine = new CompilingScriptEngine();
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "compiledScriptCacheSize=0");
+
+        assertEquals(execute(executor, "foo"), "foo");
+        assertEquals(execute(executor, "foo"), "foo");
+
+        assertEquals(scriptEngine.compiledScripts, listOf());
+        assertEquals(scriptEngine.evaluatedScripts, listOf("foo", "foo"));
+    }
+
+    @Test
+    public void testThreadSafeEngineEvaluatesConcurrently() throws Exception {
+        final int threadCount = 2;
+
+        MultithreadedScriptEngine scriptEngine = new MultithreadedScriptEngine(new CyclicBarrier(threadCount));
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "concurrentScriptEvaluation=true");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            // both statements have to be within eval at the same time to pass the barrier
+            Future<String> first = executorService.submit(() -> execute(executor, "x", "one"));
+            Future<String> second = executorService.submit(() -> execute(executor, "x", "two"));
+
+            assertEquals(first.get(), "one");
+            assertEquals(second.get(), "two");
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertFalse(scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).containsKey("x"));
+    }
+
+    @Test
+    public void testThreadSafeEngineEvaluatesInEngineScopeByDefault() throws Exception {
+        AssigningScriptEngine scriptEngine = new AssigningScriptEngine("THREAD-ISOLATED");
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "");
+
+        assertEquals(execute(executor, "g=1"), "");
+        assertEquals(execute(executor, "g"), "1");
+
+        assertEquals(scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).get("g"), "1");
+    }
+
+    @Test
+    public void testConcurrentEvaluationKeepsAssignmentsOfThreadIsolatedEngine() throws Exception {
+        AssigningScriptEngine scriptEngine = new AssigningScriptEngine("THREAD-ISOLATED");
+        scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).put("engineVariable", "e");
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "concurrentScriptEvaluation=true");
+
+        // e.g. the init script: its definitions have to be visible to later statements
+        assertEquals(execute(executor, "g=1"), "");
+        executor.setVariables(Collections.singletonMap("h", "2"));
+
+        assertEquals(execute(executor, "g"), "1");
+        assertEquals(execute(executor, "h"), "2");
+        assertEquals(execute(executor, "engineVariable"), "e");
+
+        assertFalse(scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).containsKey("g"));
+        assertFalse(scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).containsKey("h"));
+    }
+
+    @Test
+    public void testMultithreadedEngineSharesAssignmentsWithLaterStatements() throws Exception {
+        AssigningScriptEngine scriptEngine = new AssigningScriptEngine("MULTITHREADED");
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "concurrentScriptEvaluation=true");
+
+        assertEquals(execute(executor, "g=1"), "");
+        assertEquals(execute(executor, "g"), "1");
+
+        // the shared bindings of the engine are not modified by concurrently executed statements
+        assertFalse(scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).containsKey("g"));
+        assertEquals(executor.getVariables().get("g"), "1");
+    }
+
+    @Test
+    public void testClearDoesNotAffectEngineBindings() throws Exception {
+        AssigningScriptEngine scriptEngine = new AssigningScriptEngine("MULTITHREADED");
+        scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).put("engineVariable", "e");
+        BasicScriptEngineScriptExecutor executor = newExecutor(scriptEngine, "concurrentScriptEvaluation=true");
+
+        execute(executor, "clear");
+
+        assertEquals(scriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).get("engineVariable"), "e");
+        assertEquals(execute(executor, "engineVariable"), "e");
+    }
+
+    private static BasicScriptEngineScriptExecutor newExecutor(ScriptEngine scriptEngine, String config)
+            throws MisconfigurationException {
+
+        Configuration configuration =
+                DefaultConfigurationFactory.getInstance().newConfigurationFromParameters(config, null);
+
+        return new BasicScriptEngineScriptExecutor("test", scriptEngine, configuration);
+    }
+
+    private static String execute(BasicScriptEngineScriptExecutor executor, String script)
+            throws ScriptExecutionException {
+
+        ByteArrayOutputStream stdOut = new ByteArrayOutputStream();
+        executor.executeScript(script, null, stdOut, new ByteArrayOutputStream());
+
+        return new String(stdOut.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String execute(BasicScriptEngineScriptExecutor executor, String script, Object value)
+            throws ScriptExecutionException {
+
+        ByteArrayOutputStream stdOut = new ByteArrayOutputStream();
+        executor.executeScript(script, Collections.singletonMap(script, value),
+                stdOut, new ByteArrayOutputStream());
+
+        return new String(stdOut.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * Minimal {@code Compilable} engine: evaluating a script prints its text.
+     */
+    private static final class CompilingScriptEngine extends AbstractScriptEngine implements Compilable {
+
+        private final List<String> compiledScripts = new ArrayList<>();
+        private final List<String> evaluatedScripts = new ArrayList<>();
+
+        @Override
+        public Object eval(String script, ScriptContext context) throws ScriptException {
+            evaluatedScripts.add(script);
+            return print(script, context);
+        }
+
+        @Override
+        public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompiledScript compile(String script) throws ScriptException {
+            compiledScripts.add(script);
+
+            return new CompiledScript() {
+                @Override
+                public Object eval(ScriptContext context) throws ScriptException {
+                    return print(script, context);
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+                    return CompilingScriptEngine.this;
+                }
+            };
+        }
+
+        @Override
+        public CompiledScript compile(Reader script) throws ScriptException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Bindings createBindings() {
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+            return null;
+        }
+
+        private static Object print(String script, ScriptContext context) throws ScriptException {
+            try {
+                context.getWriter().write(script);
+                context.getWriter().flush();
+                return null;
+            } catch (IOException e) {
+                throw new ScriptException(e);
+            }
+        }
+    }
+
+    /**
+     * Minimal engine declaring {@code THREADING=MULTITHREADED}: evaluating a script
+     * waits for the barrier, then prints the value of the variable named by the script.
+     */
+    private static final class MultithreadedScriptEngine extends AbstractScriptEngine {
+
+        private static final long BARRIER_TIMEOUT_SECONDS = 10;
+
+        private final CyclicBarrier barrier;
+
+        MultithreadedScriptEngine(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public Object eval(String script, ScriptContext context) throws ScriptException {
+            try {
+                barrier.await(BARRIER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new ScriptException(e);
+            }
+            return CompilingScriptEngine.print(String.valueOf(context.getAttribute(script)), context);
+        }
+
+        @Override
+        public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Bindings createBindings() {
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+            return (ScriptEngineFactory) Proxy.newProxyInstance(
+                    ScriptEngineFactory.class.getClassLoader(),
+                    new Class<?>[] {ScriptEngineFactory.class},
+                    (proxy, method, args) -> {
+                        if ("getParameter".equals(method.getName()) && "THREADING".equals(args[0])) {
+                            return "MULTITHREADED";
+                        }
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Minimal engine declaring the {@code THREADING} specified: a script of the form
+     * {@code name=value} assigns the value to the name in the {@code ENGINE_SCOPE},
+     * {@code clear} clears the {@code ENGINE_SCOPE}, while any other script prints
+     * the value of the name.
+     */
+    private static final class AssigningScriptEngine extends AbstractScriptEngine {
+
+        private final String threading;
+
+        AssigningScriptEngine(String threading) {
+            this.threading = threading;
+        }
+
+        @Override
+        public Object eval(String script, ScriptContext context) throws ScriptException {
+            if ("clear".equals(script)) {
+                context.getBindings(ScriptContext.ENGINE_SCOPE).clear();
+                return null;
+            }
+
+            String[] nameAndValue = script.split("=", 2);
+            if (nameAndValue.length == 2) {
+                context.setAttribute(nameAndValue[0], nameAndValue[1], ScriptContext.ENGINE_SCOPE);
+                return null;
+            }
+
+            return CompilingScriptEngine.print(String.valueOf(context.getAttribute(script)), context);
+        }
+
+        @Override
+        public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Bindings createBindings() {
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+            return (ScriptEngineFactory) Proxy.newProxyInstance(
+                    ScriptEngineFactory.class.getClassLoader(),
+                    new Class<?>[] {ScriptEngineFactory.class},
+                    (proxy, method, args) -> {
+                        if ("getParameter".equals(method.getName()) && "THREADING".equals(args[0])) {
+                            return threading;
+                        }
+                        return null;
+                    });
+        }
+    }
+}
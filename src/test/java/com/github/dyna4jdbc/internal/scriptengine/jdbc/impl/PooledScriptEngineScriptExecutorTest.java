@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.CancelException;
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class PooledScriptEngineScriptExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void testScriptsAreExecutedConcurrently() throws Exception {
+        final int poolSize = 3;
+        final CountDownLatch allStarted = new CountDownLatch(poolSize);
+
+        List<ScriptEngineScriptExecutor> engines = new ArrayList<>();
+        for (int i = 0; i < poolSize; i++) {
+            engines.add(new StubScriptEngineScriptExecutor(allStarted));
+        }
+        PooledScriptEngineScriptExecutor pool = new PooledScriptEngineScriptExecutor(engines);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(poolSize);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < poolSize; i++) {
+                futures.add(executorService.submit(() -> {
+                    pool.executeScript("script", null, null, null);
+                    return null;
+                }));
+            }
+
+            // each script waits until all of them have started: a serializing pool would time out
+            for (Future<?> future : futures) {
+                future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        for (ScriptEngineScriptExecutor engine : engines) {
+            assertEquals(((StubScriptEngineScriptExecutor) engine).executionCount, 1);
+        }
+    }
+
+    @Test
+    public void testVariablesAreSetOnEachEngine() {
+        List<ScriptEngineScriptExecutor> engines = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            engines.add(new StubScriptEngineScriptExecutor(new CountDownLatch(0)));
+        }
+        PooledScriptEngineScriptExecutor pool = new PooledScriptEngineScriptExecutor(engines);
+
+        pool.setVariables(Collections.singletonMap("foo", "bar"));
+
+        for (ScriptEngineScriptExecutor engine : engines) {
+            assertEquals(engine.getVariables().get("foo"), "bar");
+        }
+        assertEquals(pool.getVariables().get("foo"), "bar");
+    }
+
+    @Test(expectedExceptions = CancelException.class)
+    public void testCancelWithoutRunningScript() throws CancelException {
+        List<ScriptEngineScriptExecutor> engines = new ArrayList<>();
+        engines.add(new StubScriptEngineScriptExecutor(new CountDownLatch(0)));
+
+        new PooledScriptEngineScriptExecutor(engines).cancel();
+    }
+
+    private static final class StubScriptEngineScriptExecutor implements ScriptEngineScriptExecutor {
+
+        private final CountDownLatch allStarted;
+        private final Map<String, Object> variables = new HashMap<>();
+        private volatile int executionCount;
+        private boolean running;
+
+        private StubScriptEngineScriptExecutor(CountDownLatch allStarted) {
+            this.allStarted = allStarted;
+        }
+
+        @Override
+        public void executeScript(String script, Map<String, Object> scriptVariables,
+                                  OutputStream stdOutOutputStream, OutputStream errorOutputStream)
+                throws ScriptExecutionException {
+
+            synchronized (this) {
+                assertTrue(!running, "engine used concurrently");
+                running = true;
+            }
+            try {
+                allStarted.countDown();
+                if (!allStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new ScriptExecutionException("not all scripts started", script);
+                }
+                executionCount++;
+            } catch (InterruptedException e) {
+                throw new ScriptExecutionException(e, script);
+            } finally {
+                synchronized (this) {
+                    running = false;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() throws CancelException {
+            throw new CancelException("nothing to cancel");
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void setVariables(Map<String, Object> newVariables) {
+            variables.putAll(newVariables);
+        }
+
+        @Override
+        public Map<String, Object> getVariables() {
+            return new HashMap<>(variables);
+        }
+
+        @Override
+        public String getSystemName() {
+            return "stub";
+        }
+
+        @Override
+        public String getHumanFriendlyName() {
+            return "stub";
+        }
+
+        @Override
+        public String getVersion() {
+            return "1.0";
+        }
+    }
+}
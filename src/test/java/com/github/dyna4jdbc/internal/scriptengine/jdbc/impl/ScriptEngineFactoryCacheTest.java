@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import org.testng.annotations.Test;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.SimpleBindings;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class ScriptEngineFactoryCacheTest {
+
+    @Test
+    public void testFactoriesAreDiscoveredOnce() throws IOException {
+        ClassLoader classLoader = newClassLoader(TestScriptEngineFactory.class);
+
+        List<ScriptEngineFactory> factories = ScriptEngineFactoryCache.getInstance().getFactories(classLoader);
+
+        assertEquals(factories.size(), 1);
+        assertTrue(factories.get(0) instanceof TestScriptEngineFactory);
+        assertSame(ScriptEngineFactoryCache.getInstance().getFactories(classLoader), factories);
+    }
+
+    @Test
+    public void testGetEngineByName() throws IOException {
+        ClassLoader classLoader = newClassLoader(TestScriptEngineFactory.class);
+
+        ScriptEngine first = ScriptEngineFactoryCache.getInstance().getEngineByName("testEngine", classLoader);
+        ScriptEngine second = ScriptEngineFactoryCache.getInstance().getEngineByName("testAlias", classLoader);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertTrue(first != second, "a new ScriptEngine is expected for each call");
+        assertNotNull(first.getBindings(ScriptContext.GLOBAL_SCOPE));
+
+        assertNull(ScriptEngineFactoryCache.getInstance().getEngineByName("noSuchEngine", classLoader));
+    }
+
+    private static ClassLoader newClassLoader(Class<? extends ScriptEngineFactory> factoryClass)
+            throws IOException {
+
+        Path root = Files.createTempDirectory("ScriptEngineFactoryCacheTest");
+        Path servicesDirectory = Files.createDirectories(root.resolve("META-INF").resolve("services"));
+        Files.write(servicesDirectory.resolve(ScriptEngineFactory.class.getName()),
+                Collections.singletonList(factoryClass.getName()), StandardCharsets.UTF_8);
+
+        File rootDirectory = root.toFile();
+        rootDirectory.deleteOnExit();
+
+        return new URLClassLoader(new URL[] {rootDirectory.toURI().toURL()},
+                ScriptEngineFactoryCacheTest.class.getClassLoader());
+    }
+
+    /**
+     * Minimal {@code ScriptEngineFactory} registered via {@code META-INF/services}.
+     */
+    public static final class TestScriptEngineFactory implements ScriptEngineFactory {
+
+        @Override
+        public String getEngineName() {
+            return "testEngine";
+        }
+
+        @Override
+        public String getEngineVersion() {
+            return "1.0";
+        }
+
+        @Override
+        public List<String> getExtensions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getMimeTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getNames() {
+            return Arrays.asList("testEngine", "testAlias");
+        }
+
+        @Override
+        public String getLanguageName() {
+            return "test";
+        }
+
+        @Override
+        public String getLanguageVersion() {
+            return "1.0";
+        }
+
+        @Override
+        public Object getParameter(String key) {
+            return null;
+        }
+
+        @Override
+        public String getMethodCallSyntax(String obj, String m, String... args) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getOutputStatement(String toDisplay) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getProgram(String... statements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScriptEngine getScriptEngine() {
+            return new AbstractScriptEngine() {
+                @Override
+                public Object eval(String script, ScriptContext context) {
+                    return null;
+                }
+
+                @Override
+                public Object eval(Reader reader, ScriptContext context) {
+                    return null;
+                }
+
+                @Override
+                public Bindings createBindings() {
+                    return new SimpleBindings();
+                }
+
+                @Override
+                public ScriptEngineFactory getFactory() {
+                    return TestScriptEngineFactory.this;
+                }
+            };
+        }
+    }
+}
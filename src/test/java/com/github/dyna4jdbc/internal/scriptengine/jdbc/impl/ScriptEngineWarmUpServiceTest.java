@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2016, 2017 Peter G. Horvath, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.common.jdbc.pool.DefaultPooledConnection;
+import com.github.dyna4jdbc.internal.common.typeconverter.SchemaCache;
+import com.github.dyna4jdbc.internal.common.util.classpath.SharedClassLoaderRegistry;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.Test;
+
+import javax.script.ScriptEngineFactory;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Peter G. Horvath
+ */
+public class ScriptEngineWarmUpServiceTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    @Test
+    public void testWarmUpIsPerformedOnceInBackground() throws Exception {
+        Path warmUpScript = Files.createTempFile("warmUp", ".script");
+        warmUpScript.toFile().deleteOnExit();
+
+        Configuration configuration = newConfiguration(
+                "warmUpScript=" + warmUpScript + ";warmUpIterations=5");
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalContextClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(newClassLoader());
+        try {
+            ScriptEngineWarmUp warmUp =
+                    ScriptEngineWarmUpService.getInstance().warmUp("testEngine", configuration);
+
+            awaitFinished(warmUp);
+
+            assertEquals(warmUp.getState(), ScriptEngineWarmUp.State.COMPLETED);
+            assertEquals(warmUp.getCompletedIterations(), 5);
+            assertEquals(warmUp.getTotalIterations(), 5);
+            assertNull(warmUp.getFailure());
+
+            assertSame(ScriptEngineWarmUpService.getInstance().warmUp("testEngine", configuration), warmUp);
+        } finally {
+            currentThread.setContextClassLoader(originalContextClassLoader);
+        }
+    }
+
+    @Test
+    public void testWarmUpFailureIsReported() throws Exception {
+        Configuration configuration = newConfiguration("warmUpScript=noSuchWarmUpScript.script");
+
+        ScriptEngineWarmUp warmUp =
+                ScriptEngineWarmUpService.getInstance().warmUp("noSuchEngine", configuration);
+
+        awaitFinished(warmUp);
+
+        assertEquals(warmUp.getState(), ScriptEngineWarmUp.State.FAILED);
+        assertEquals(warmUp.getCompletedIterations(), 0);
+    }
+
+    @Test
+    public void testWarmUpIsDroppedOnceSharedClassLoaderIsClosed() throws Exception {
+        Path warmUpScript = Files.createTempFile("warmUp", ".script");
+        warmUpScript.toFile().deleteOnExit();
+
+        Path classpathDirectory = Files.createTempDirectory("ScriptEngineWarmUpServiceTest");
+        classpathDirectory.toFile().deleteOnExit();
+
+        Configuration configuration = newConfiguration(
+                "classpath=" + classpathDirectory + ";warmUpScript=" + warmUpScript);
+        Configuration equivalentConfiguration = newConfiguration(
+                "classpath=" + classpathDirectory.resolve(".") + ";warmUpScript=" + warmUpScript);
+
+        // keeps the shared ClassLoader open, just like a connection would
+        SharedClassLoaderRegistry.Reference classLoaderReference =
+                SharedClassLoaderRegistry.getInstance().acquire(configuration.getClasspath());
+
+        ScriptEngineWarmUp warmUp;
+        try {
+            warmUp = ScriptEngineWarmUpService.getInstance().warmUp("testEngine", configuration);
+            awaitFinished(warmUp);
+
+            // the classpath is normalized: the same ClassLoader is used, which is warmed up already
+            assertSame(ScriptEngineWarmUpService.getInstance().warmUp("testEngine", equivalentConfiguration), warmUp);
+        } finally {
+            classLoaderReference.release();
+        }
+
+        ScriptEngineWarmUp newWarmUp = ScriptEngineWarmUpService.getInstance().warmUp("testEngine", configuration);
+        assertNotSame(newWarmUp, warmUp, "a new ClassLoader is created, which has to be warmed up again");
+
+        awaitFinished(newWarmUp);
+    }
+
+    @Test
+    public void testWarmUpIsUnwrappedThroughPooledConnection() throws Exception {
+        Path warmUpScript = Files.createTempFile("warmUp", ".script");
+        warmUpScript.toFile().deleteOnExit();
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalContextClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(newClassLoader());
+        try {
+            ScriptEngineConnection physicalConnection =
+                    new ScriptEngineConnection("testEngine:warmUpScript=" + warmUpScript, null);
+
+            DefaultPooledConnection pooledConnection = new DefaultPooledConnection(physicalConnection);
+            try (Connection connection = pooledConnection.getConnection()) {
+
+                assertTrue(connection.isWrapperFor(ScriptEngineWarmUp.class));
+                assertSame(connection.unwrap(ScriptEngineWarmUp.class),
+                        physicalConnection.unwrap(ScriptEngineWarmUp.class));
+
+                assertTrue(connection.isWrapperFor(SchemaCache.class));
+                assertSame(connection.unwrap(SchemaCache.class), physicalConnection.unwrap(SchemaCache.class));
+
+                awaitFinished(connection.unwrap(ScriptEngineWarmUp.class));
+            } finally {
+                pooledConnection.close();
+            }
+        } finally {
+            currentThread.setContextClassLoader(originalContextClassLoader);
+        }
+    }
+
+    @Test
+    public void testNoWarmUpIfNotConfigured() throws Exception {
+        assertNull(ScriptEngineWarmUpService.getInstance().warmUp("testEngine", newConfiguration("")));
+    }
+
+    private static void awaitFinished(ScriptEngineWarmUp warmUp) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (warmUp.getState() == ScriptEngineWarmUp.State.PENDING
+                || warmUp.getState() == ScriptEngineWarmUp.State.RUNNING) {
+
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for warm-up: " + warmUp);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Configuration newConfiguration(String config) throws MisconfigurationException {
+        return DefaultConfigurationFactory.getInstance().newConfigurationFromParameters(config, null);
+    }
+
+    private static ClassLoader newClassLoader() throws IOException {
+        Path root = Files.createTempDirectory("ScriptEngineWarmUpServiceTest");
+        Path servicesDirectory = Files.createDirectories(root.resolve("META-INF").resolve("services"));
+        Files.write(servicesDirectory.resolve(ScriptEngineFactory.class.getName()),
+                Collections.singletonList(ScriptEngineFactoryCacheTest.TestScriptEngineFactory.class.getName()),
+                StandardCharsets.UTF_8);
+
+        return new URLClassLoader(new URL[] {root.toUri().toURL()},
+                ScriptEngineWarmUpServiceTest.class.getClassLoader());
+    }
+}